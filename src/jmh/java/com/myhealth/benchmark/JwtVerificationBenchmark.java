@@ -0,0 +1,109 @@
+package com.myhealth.benchmark;
+
+import com.myhealth.security.JwtKeyRing;
+import com.myhealth.security.VerifiedToken;
+import com.myhealth.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original per-call key/parser construction in JwtTokenServiceImpl with the
+ * prebuilt {@link JwtKeyRing}. Run with {@code -prof gc} (the default in the benchmarks
+ * profile) to see the allocation rate per operation next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-32-characters";
+
+    private JwtKeyRing keyRing;
+    private VerifiedTokenCache cache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyRing = new JwtKeyRing(SECRET, "k1", "", "");
+        cache = new VerifiedTokenCache(10000);
+        token = Jwts.builder()
+                .header().keyId("k1").and()
+                .subject(UUID.randomUUID().toString())
+                .claim("username", "benchmark@myhealth.com")
+                .claim("authorities", List.of("ROLE_USER", "ROLE_COACH"))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(keyRing.getSigningKey(), Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims legacyVerify() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    /**
+     * The old refresh path: validateTokenSignature followed by parseClaimsIgnoreExpiration.
+     */
+    @Benchmark
+    public Claims legacyRefreshDoubleParse() {
+        legacyVerify();
+        return legacyVerify();
+    }
+
+    @Benchmark
+    public VerifiedToken keyRingVerify() {
+        return verifyUncached(token);
+    }
+
+    private VerifiedToken verifyUncached(String jwt) {
+        return new VerifiedToken(keyRing.getParser().parseSignedClaims(jwt).getPayload());
+    }
+
+    /**
+     * A hot token served from {@link VerifiedTokenCache}: one SHA-256 digest and a map lookup.
+     */
+    @Benchmark
+    public VerifiedToken cachedVerify() {
+        return cache.get(token, this::verifyUncached);
+    }
+
+    @Benchmark
+    public String legacySign() {
+        return Jwts.builder()
+                .subject("benchmark")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String keyRingSign() {
+        return Jwts.builder()
+                .subject("benchmark")
+                .signWith(keyRing.getSigningKey(), Jwts.SIG.HS256)
+                .compact();
+    }
+}
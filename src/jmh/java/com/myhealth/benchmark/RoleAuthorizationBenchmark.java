@@ -0,0 +1,95 @@
+package com.myhealth.benchmark;
+
+import com.myhealth.security.ApiUserDetail;
+import com.myhealth.security.ContainsRoleAuthorizationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the original string-scanning role check from SecurityConfig with the mask-based
+ * {@link ContainsRoleAuthorizationManager}. The admin-only check against a user principal is the
+ * worst case for the old implementation, since it scans every authority before denying.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoleAuthorizationBenchmark {
+
+    @Param({"ROLE_USER", "ROLE_USER,ROLE_COACH,ROLE_SUPER_ADMIN"})
+    public String roles;
+
+    private Supplier<Authentication> authentication;
+    private RequestAuthorizationContext context;
+    private ContainsRoleAuthorizationManager adminManager;
+    private String[] adminKeywords;
+
+    @Setup
+    public void setUp() {
+        List<SimpleGrantedAuthority> authorities = Arrays.stream(roles.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        ApiUserDetail principal = new ApiUserDetail(UUID.randomUUID(), "benchmark", null, authorities,
+                true, true, true, true);
+        Authentication auth = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authentication = () -> auth;
+        context = new RequestAuthorizationContext(new MockHttpServletRequest("GET", "/api/admin/users"));
+        adminKeywords = new String[] {"ADMIN"};
+        adminManager = new ContainsRoleAuthorizationManager(adminKeywords);
+    }
+
+    @Benchmark
+    public boolean legacyContainsCheck() {
+        return legacyCheck(authentication, adminKeywords);
+    }
+
+    @Benchmark
+    public boolean maskCheck() {
+        return adminManager.check(authentication, context).isGranted();
+    }
+
+    /**
+     * The loop from the original SecurityConfig.ContainsRoleAuthorizationManager, without logging.
+     */
+    private static boolean legacyCheck(Supplier<Authentication> authentication, String[] targetKeywords) {
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated()) {
+            return false;
+        }
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            String authorityName = authority.getAuthority();
+            if (authorityName != null) {
+                String normalizedAuthority = authorityName.trim().toUpperCase();
+                for (String keyword : targetKeywords) {
+                    if (keyword != null && normalizedAuthority.contains(keyword.toUpperCase())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package com.myhealth.benchmark;
+
+import com.myhealth.cache.TaskSchedule;
+import com.myhealth.entity.task.DependencyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Critical path schedule of a large project: building it from scratch (what a cache miss costs,
+ * query time excluded) vs. applying one estimate change to a built schedule, for a change near the
+ * end of the dependency order and one at the very start, which moves the whole schedule.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskScheduleBenchmark {
+
+    private static final Instant START = Instant.parse("2026-03-02T09:00:00Z");
+
+    @Param({"10000"})
+    private int tasks;
+
+    private UUID[] ids;
+    private int[] estimates;
+    private int[][] edges;
+    private TaskSchedule schedule;
+    private int round;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ids = new UUID[tasks];
+        estimates = new int[tasks];
+        // About three dependencies per task on tasks shortly before it, of all four types
+        edges = new int[tasks * 3][];
+        int edgeCount = 0;
+        for (int i = 0; i < tasks; i++) {
+            ids[i] = UUID.randomUUID();
+            estimates[i] = 30 + random.nextInt(480);
+            for (int k = 0; k < 3 && i > 0; k++) {
+                edges[edgeCount++] = new int[] {i, Math.max(0, i - 1 - random.nextInt(50)), random.nextInt(4)};
+            }
+        }
+        edges = Arrays.copyOf(edges, edgeCount);
+        schedule = build();
+    }
+
+    @Benchmark
+    public TaskSchedule fullBuild() {
+        return build();
+    }
+
+    @Benchmark
+    public boolean incrementalLateTask() {
+        int task = tasks - 1 - (round++ & 63);
+        return schedule.updateTask(ids[task], 30 + (round & 255), null, null);
+    }
+
+    @Benchmark
+    public boolean incrementalFirstTask() {
+        return schedule.updateTask(ids[0], 30 + (round++ & 255), START, null);
+    }
+
+    @Benchmark
+    public List<TaskSchedule.Timing> readTimings() {
+        return schedule.timings();
+    }
+
+    private TaskSchedule build() {
+        TaskSchedule.Builder builder = TaskSchedule.builder();
+        for (int i = 0; i < tasks; i++) {
+            builder.task(ids[i], estimates[i], false, i == 0 ? START : null, null);
+        }
+        for (int[] edge : edges) {
+            builder.dependency(ids[edge[0]], ids[edge[1]], DependencyType.values()[edge[2]]);
+        }
+        return builder.build(START);
+    }
+}
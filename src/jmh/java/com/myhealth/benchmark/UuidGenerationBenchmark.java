@@ -0,0 +1,53 @@
+package com.myhealth.benchmark;
+
+import com.myhealth.entity.id.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating an id in the JVM: {@link UUID#randomUUID()} (what GenerationType.AUTO used)
+ * vs. {@link UuidV7Generator}. Run with several threads as well, since the generator shares one
+ * counter. The effect on the database side (index size, WAL, insert rate) is measured by
+ * {@code src/jmh/sql/uuid_v7_inserts.sql}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidGenerationBenchmark {
+
+    @Benchmark
+    public UUID randomV4() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID timeOrderedV7() {
+        return UuidV7Generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID randomV4Contended() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID timeOrderedV7Contended() {
+        return UuidV7Generator.next();
+    }
+}
@@ -0,0 +1,89 @@
+-- Title substring search: '%q%' LIKE plan vs. the pg_trgm GIN index from V7.
+--
+-- Builds a synthetic copy of the tasks table in its own schema, 3 million rows spread over
+-- 1000 accounts plus one power user with 200k tasks, then prints the plans and timings of the
+-- search shapes the listing endpoint issues. Run against a scratch database, never production:
+--
+--   psql -d scratch -f src/jmh/sql/task_title_search.sql
+--
+-- Data generation takes a few minutes; the EXPLAIN sections can be re-run on their own afterwards.
+
+\timing on
+SET client_min_messages = warning;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP SCHEMA IF EXISTS bench_search CASCADE;
+CREATE SCHEMA bench_search;
+SET search_path = bench_search, public;
+
+CREATE TABLE tasks (
+  id             UUID PRIMARY KEY,
+  account_id     UUID NOT NULL,
+  title          TEXT NOT NULL,
+  description_md TEXT,
+  deleted_at     TIMESTAMPTZ,
+  created_at     TIMESTAMPTZ NOT NULL
+);
+
+-- Titles are three words from a fixed vocabulary, so partial words such as 'port' or 'ndum'
+-- hit a realistic fraction of rows
+CREATE TEMP TABLE words AS
+SELECT w, row_number() OVER () AS n
+FROM unnest(ARRAY['report','quarterly','import','export','review','budget','meeting','invoice',
+                  'deploy','backup','memorandum','roadmap','hiring','payroll','release','support',
+                  'transport','sprint','audit','migration','onboarding','forecast','contract','design']) AS w;
+
+INSERT INTO tasks (id, account_id, title, description_md, deleted_at, created_at)
+SELECT gen_random_uuid(),
+       CASE WHEN g <= 200000 THEN '00000000-0000-0000-0000-000000000001'::uuid
+            ELSE ('00000000-0000-0000-0000-' || lpad((g % 1000)::text, 12, '0'))::uuid END,
+       initcap((SELECT w FROM words WHERE n = 1 + (g * 7) % 24)) || ' ' ||
+       (SELECT w FROM words WHERE n = 1 + (g * 13) % 24) || ' ' ||
+       (SELECT w FROM words WHERE n = 1 + (g * 31 + g / 24) % 24) || ' #' || g,
+       repeat('Lorem ipsum dolor sit amet. ', 1 + g % 8),
+       CASE WHEN g % 50 = 0 THEN now() END,
+       now() - (g || ' seconds')::interval
+FROM generate_series(1, 3000000) AS g;
+
+CREATE INDEX idx_bench_tasks_account_created_id ON tasks (account_id, created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_bench_tasks_title_trgm ON tasks USING GIN (lower(title) gin_trgm_ops) WHERE deleted_at IS NULL;
+VACUUM ANALYZE tasks;
+
+-- 1. Before: the original filter over title and description for the power user
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title FROM tasks
+WHERE account_id = '00000000-0000-0000-0000-000000000001' AND deleted_at IS NULL
+  AND (LOWER(title) LIKE '%ndum%' OR LOWER(COALESCE(description_md, '')) LIKE '%ndum%')
+ORDER BY created_at DESC, id DESC LIMIT 20;
+
+-- 2. Before, across accounts: nothing narrows the scan but the LIKE itself
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM tasks
+WHERE deleted_at IS NULL AND LOWER(title) LIKE '%ndum%';
+
+-- 3. After: match=contains for the power user, trigram bitmap scan combined with the account
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title FROM tasks
+WHERE account_id = '00000000-0000-0000-0000-000000000001' AND deleted_at IS NULL
+  AND LOWER(title) LIKE '%ndum%'
+ORDER BY created_at DESC, id DESC LIMIT 20;
+
+-- 4. After, across accounts
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM tasks
+WHERE deleted_at IS NULL AND LOWER(title) LIKE '%ndum%';
+
+-- 5. After, ranked: match=contains with sort=relevance,desc
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title FROM tasks
+WHERE account_id = '00000000-0000-0000-0000-000000000001' AND deleted_at IS NULL
+  AND LOWER(title) LIKE '%ndum%'
+ORDER BY similarity(LOWER(title), 'ndum') DESC, id LIMIT 20;
+
+-- 6. Short queries (under three characters) yield no trigrams and fall back to a full scan
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM tasks
+WHERE deleted_at IS NULL AND LOWER(title) LIKE '%nd%';
+
+RESET search_path;
+-- DROP SCHEMA bench_search CASCADE;
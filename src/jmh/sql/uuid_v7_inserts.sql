@@ -0,0 +1,97 @@
+-- Primary key inserts: random version 4 UUIDs vs. time-ordered version 7 UUIDs (UuidV7Generator).
+--
+-- Inserts 10 million rows into two otherwise identical tables in committed chunks of one million,
+-- printing the time of every chunk, then compares WAL volume, primary key index size and leaf
+-- density. Run against a scratch database, never production, with a superuser (CHECKPOINT):
+--
+--   psql -d scratch -f src/jmh/sql/uuid_v7_inserts.sql
+--
+-- The gap widens once the v4 index outgrows shared_buffers: from then on most inserts read a cold
+-- leaf page, and every first change to a page after a checkpoint logs a full page image.
+-- Expect the v4 chunk times to climb while the v7 ones stay flat, a larger v4 index (leaves split
+-- at random points stay around 70% full, v7 leaves fill up) and several times the WAL.
+-- Takes a while, mostly for the v4 table.
+
+\timing on
+SET client_min_messages = notice;
+
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+DROP SCHEMA IF EXISTS bench_uuid CASCADE;
+CREATE SCHEMA bench_uuid;
+SET search_path = bench_uuid, public;
+
+-- Same layout as UuidV7Generator: 48-bit millisecond timestamp, version 7, variant bits, random
+-- rest. The timestamp is taken as an argument so the synthetic rows advance one millisecond each.
+-- PostgreSQL 18 ships uuidv7() which can be used instead.
+CREATE FUNCTION uuid_v7_at(ts TIMESTAMPTZ) RETURNS UUID AS $$
+  SELECT encode(
+           set_bit(set_bit(
+             overlay(uuid_send(gen_random_uuid())
+                     PLACING substring(int8send(floor(extract(epoch FROM ts) * 1000)::BIGINT) FROM 3)
+                     FROM 1 FOR 6),
+             52, 1), 53, 1),
+           'hex')::UUID;
+$$ LANGUAGE sql VOLATILE;
+
+-- Shaped like the tasks table's hot columns
+CREATE TABLE tasks_v4 (
+  id          UUID PRIMARY KEY,
+  account_id  UUID NOT NULL,
+  title       TEXT NOT NULL,
+  created_at  TIMESTAMPTZ NOT NULL
+);
+CREATE TABLE tasks_v7 (LIKE tasks_v4 INCLUDING ALL);
+
+CREATE PROCEDURE load(target TEXT, v7 BOOLEAN) AS $$
+DECLARE
+  chunk   INT;
+  started TIMESTAMPTZ;
+  origin  TIMESTAMPTZ := now() - interval '4 hours';
+BEGIN
+  FOR chunk IN 0..9 LOOP
+    started := clock_timestamp();
+    EXECUTE format(
+      'INSERT INTO %I (id, account_id, title, created_at)
+       SELECT CASE WHEN $1 THEN uuid_v7_at($2 + g * interval ''1 millisecond'') ELSE gen_random_uuid() END,
+              (''00000000-0000-0000-0000-'' || lpad((g %% 1000)::text, 12, ''0''))::uuid,
+              ''Task #'' || g,
+              $2 + g * interval ''1 millisecond''
+       FROM generate_series($3, $4) AS g', target)
+    USING v7, origin, chunk * 1000000 + 1, (chunk + 1) * 1000000;
+    COMMIT;
+    RAISE NOTICE '% rows % M: % ms', target, chunk + 1,
+      round(extract(epoch FROM clock_timestamp() - started) * 1000);
+  END LOOP;
+END
+$$ LANGUAGE plpgsql;
+
+-- 1. Random v4 keys
+CHECKPOINT;
+SELECT pg_current_wal_lsn() AS wal_start \gset
+CALL load('tasks_v4', false);
+SELECT pg_size_pretty(pg_wal_lsn_diff(pg_current_wal_lsn(), :'wal_start')) AS wal_v4;
+
+-- 2. Time-ordered v7 keys
+CHECKPOINT;
+SELECT pg_current_wal_lsn() AS wal_start \gset
+CALL load('tasks_v7', true);
+SELECT pg_size_pretty(pg_wal_lsn_diff(pg_current_wal_lsn(), :'wal_start')) AS wal_v7;
+
+-- 3. Primary key index size and leaf density
+SELECT 'v4' AS keys, pg_size_pretty(pg_relation_size('tasks_v4_pkey')) AS pkey_size,
+       avg_leaf_density, leaf_fragmentation
+FROM pgstatindex('tasks_v4_pkey')
+UNION ALL
+SELECT 'v7', pg_size_pretty(pg_relation_size('tasks_v7_pkey')),
+       avg_leaf_density, leaf_fragmentation
+FROM pgstatindex('tasks_v7_pkey');
+
+-- 4. Recent rows: v7 keys of the last minute sit on a handful of adjacent leaf pages
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM tasks_v4 WHERE created_at > now() - interval '4 hours' + interval '9990 seconds';
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM tasks_v7
+WHERE id >= uuid_v7_at(now() - interval '4 hours' + interval '9990 seconds');
+
+RESET search_path;
+-- DROP SCHEMA bench_uuid CASCADE;
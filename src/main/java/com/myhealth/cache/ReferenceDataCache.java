@@ -0,0 +1,116 @@
+package com.myhealth.cache;
+
+import com.myhealth.entity.task.Priority;
+import com.myhealth.entity.task.Status;
+import com.myhealth.repository.PriorityRepository;
+import com.myhealth.repository.StatusRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory copy of the task statuses and priorities, so task writes can validate ids
+ * and read the done flag without querying their five-row lookup tables.
+ *
+ * The snapshot is loaded at startup and replaced wholesale on a fixed interval. An id that is not
+ * in the snapshot triggers an early reload, at most once per {@code reload-on-miss-interval-ms},
+ * so rows added to the lookup tables become usable without waiting for the next refresh while
+ * invalid ids cannot turn every request into a reload.
+ */
+@Component
+@Slf4j
+public class ReferenceDataCache implements MeterBinder {
+
+    private final StatusRepository statusRepository;
+    private final PriorityRepository priorityRepository;
+    private final long reloadOnMissIntervalMs;
+    private final LongAdder reloads = new LongAdder();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ReferenceDataCache(StatusRepository statusRepository,
+                              PriorityRepository priorityRepository,
+                              @Value("${task.reference-data.reload-on-miss-interval-ms}") long reloadOnMissIntervalMs) {
+        this.statusRepository = statusRepository;
+        this.priorityRepository = priorityRepository;
+        this.reloadOnMissIntervalMs = reloadOnMissIntervalMs;
+    }
+
+    public Optional<StatusRef> status(short id) {
+        StatusRef status = snapshot.statuses().get(id);
+        if (status == null) {
+            reloadAfterMiss();
+            status = snapshot.statuses().get(id);
+        }
+        return Optional.ofNullable(status);
+    }
+
+    public Optional<PriorityRef> priority(short id) {
+        PriorityRef priority = snapshot.priorities().get(id);
+        if (priority == null) {
+            reloadAfterMiss();
+            priority = snapshot.priorities().get(id);
+        }
+        return Optional.ofNullable(priority);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${task.reference-data.refresh-interval-ms}",
+               fixedDelayString = "${task.reference-data.refresh-interval-ms}")
+    public void refresh() {
+        Map<Short, StatusRef> statuses = statusRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Status::getId, StatusRef::of));
+        Map<Short, PriorityRef> priorities = priorityRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Priority::getId, PriorityRef::of));
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(statuses, priorities, System.currentTimeMillis());
+        reloads.increment();
+        if (!statuses.equals(previous.statuses()) || !priorities.equals(previous.priorities())) {
+            log.info("Loaded reference data: {} statuses, {} priorities", statuses.size(), priorities.size());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("task.reference.data.reloads", reloads, LongAdder::sum)
+                .description("Reloads of the status and priority lookup tables")
+                .register(registry);
+    }
+
+    private synchronized void reloadAfterMiss() {
+        // Callers that waited here re-read the snapshot the first one loaded
+        if (System.currentTimeMillis() - snapshot.loadedAtMillis() >= reloadOnMissIntervalMs) {
+            refresh();
+        }
+    }
+
+    public record StatusRef(short id, String name, boolean done) {
+
+        static StatusRef of(Status status) {
+            return new StatusRef(status.getId(), status.getName(), Boolean.TRUE.equals(status.getIsDone()));
+        }
+    }
+
+    public record PriorityRef(short id, String name) {
+
+        static PriorityRef of(Priority priority) {
+            return new PriorityRef(priority.getId(), priority.getName());
+        }
+    }
+
+    private record Snapshot(Map<Short, StatusRef> statuses, Map<Short, PriorityRef> priorities, long loadedAtMillis) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), 0);
+    }
+}
@@ -0,0 +1,137 @@
+package com.myhealth.cache;
+
+import com.myhealth.dto.task.TaskListFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of task list totals per account and filter combination, used by the
+ * {@code count=cached} listing mode so paging through a large account does not run a full
+ * COUNT on every page.
+ *
+ * Totals are dropped for an account whenever one of its tasks is written through the task
+ * service, again once that write commits, and otherwise live for a fixed TTL, so they may briefly
+ * lag changes made elsewhere. Each account keeps at most
+ * {@code task.count-cache.max-filters-per-account} filters, since the search text makes the number
+ * of distinct filters unbounded. The cache is node-local.
+ */
+@Component
+@Slf4j
+public class TaskCountCache implements MeterBinder {
+
+    private final long ttlMs;
+    private final int maxAccounts;
+    private final int maxFiltersPerAccount;
+    private final Map<UUID, Map<TaskListFilter, Entry>> totalsByAccount = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TaskCountCache(@Value("${task.count-cache.ttl-ms}") long ttlMs,
+                          @Value("${task.count-cache.max-accounts}") int maxAccounts,
+                          @Value("${task.count-cache.max-filters-per-account}") int maxFiltersPerAccount) {
+        this.ttlMs = ttlMs;
+        this.maxAccounts = maxAccounts;
+        this.maxFiltersPerAccount = maxFiltersPerAccount;
+    }
+
+    public long get(UUID accountId, TaskListFilter filter, LongSupplier loader) {
+        Map<TaskListFilter, Entry> totals = totalsByAccount.get(accountId);
+        Entry entry = totals != null ? totals.get(filter) : null;
+        if (entry != null && entry.expiresAtMillis() > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.total();
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        long total = loader.getAsLong();
+        cacheIfCurrent(accountId, filter, total, loadGeneration);
+        return total;
+    }
+
+    /**
+     * Drops the account's totals now and again after the current transaction commits, so a count
+     * that ran against the rows from before the commit is not cached for a whole TTL.
+     */
+    public void invalidate(UUID accountId) {
+        generation.incrementAndGet();
+        totalsByAccount.remove(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    totalsByAccount.remove(accountId);
+                }
+            });
+        }
+        log.debug("Invalidated cached task totals for account: {}", accountId);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        totalsByAccount.clear();
+    }
+
+    public int size() {
+        return totalsByAccount.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("task.count.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Task list totals served from the cache")
+                .register(registry);
+        FunctionCounter.builder("task.count.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Task list totals that ran a COUNT query")
+                .register(registry);
+        Gauge.builder("task.count.cache.accounts", totalsByAccount, Map::size)
+                .description("Accounts with cached task list totals")
+                .register(registry);
+    }
+
+    private void cacheIfCurrent(UUID accountId, TaskListFilter filter, long total, long loadGeneration) {
+        if (ttlMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!totalsByAccount.containsKey(accountId) && totalsByAccount.size() >= maxAccounts) {
+            totalsByAccount.values().forEach(totals -> totals.values().removeIf(e -> e.expiresAtMillis() <= now));
+            totalsByAccount.values().removeIf(Map::isEmpty);
+            if (totalsByAccount.size() >= maxAccounts) {
+                return;
+            }
+        }
+        Map<TaskListFilter, Entry> totals = totalsByAccount.computeIfAbsent(accountId, id -> new ConcurrentHashMap<>());
+        if (!totals.containsKey(filter) && totals.size() >= maxFiltersPerAccount) {
+            totals.values().removeIf(e -> e.expiresAtMillis() <= now);
+            if (totals.size() >= maxFiltersPerAccount) {
+                return;
+            }
+        }
+        totals.put(filter, new Entry(total, now + ttlMs));
+        if (generation.get() != loadGeneration) {
+            // A write happened while counting, the total may already be stale
+            totalsByAccount.remove(accountId);
+        }
+    }
+
+    private record Entry(long total, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,402 @@
+package com.myhealth.cache;
+
+import com.myhealth.entity.task.DependencyType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dependency graph of one account's live tasks, held as int-indexed adjacency arrays so that
+ * traversals run over primitive arrays instead of maps of boxed ids.
+ *
+ * Only tasks that take part in a dependency are nodes. An edge runs from the prerequisite
+ * ({@code depends_on_id}) to the dependent task ({@code task_id}). Every node carries the progress
+ * of its task, so blocked checks need no query. A removed task keeps its slot until the graph is
+ * reloaded.
+ *
+ * All methods are thread-safe: reads share a lock, and writes, including the cycle check that
+ * guards a new edge, are exclusive.
+ */
+public class TaskDependencyGraph {
+
+    public enum Progress { NOT_STARTED, STARTED, DONE }
+
+    /**
+     * A neighbour of a task and the type of the dependency between them.
+     */
+    public record Edge(UUID taskId, DependencyType type) {
+    }
+
+    private static final DependencyType[] TYPES = DependencyType.values();
+    private static final Progress[] PROGRESS = Progress.values();
+    private static final byte REMOVED = -1;
+    private static final int INITIAL_DEGREE = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> indexById;
+
+    private UUID[] ids;
+    private byte[] progress;
+    private int[][] successors;
+    private byte[][] successorTypes;
+    private int[] successorCount;
+    private int[][] predecessors;
+    private byte[][] predecessorTypes;
+    private int[] predecessorCount;
+    private int size;
+    private int edgeCount;
+
+    public TaskDependencyGraph(int expectedTasks) {
+        int capacity = Math.max(expectedTasks, 8);
+        this.indexById = new HashMap<>(capacity * 4 / 3 + 1);
+        this.ids = new UUID[capacity];
+        this.progress = new byte[capacity];
+        this.successors = new int[capacity][];
+        this.successorTypes = new byte[capacity][];
+        this.successorCount = new int[capacity];
+        this.predecessors = new int[capacity][];
+        this.predecessorTypes = new byte[capacity][];
+        this.predecessorCount = new int[capacity];
+    }
+
+    /**
+     * Adds or retypes a stored dependency without a cycle check, used while loading.
+     */
+    public void putDependency(UUID taskId, Progress taskProgress, UUID dependsOnId, Progress dependsOnProgress,
+                              DependencyType type) {
+        lock.writeLock().lock();
+        try {
+            putEdge(node(dependsOnId, dependsOnProgress), node(taskId, taskProgress), type);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or retypes the dependency of {@code taskId} on {@code dependsOnId} unless it would close
+     * a cycle, that is unless {@code dependsOnId} already depends on {@code taskId} directly or
+     * transitively. The check walks the successors of {@code taskId} once, O(V+E).
+     *
+     * @return false, leaving the graph unchanged, if the dependency would create a cycle
+     */
+    public boolean addDependency(UUID taskId, Progress taskProgress, UUID dependsOnId, Progress dependsOnProgress,
+                                 DependencyType type) {
+        lock.writeLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            Integer dependsOn = indexById.get(dependsOnId);
+            if (task != null && dependsOn != null && reaches(task, dependsOn)) {
+                return false;
+            }
+            putEdge(node(dependsOnId, dependsOnProgress), node(taskId, taskProgress), type);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether the dependency existed
+     */
+    public boolean removeDependency(UUID taskId, UUID dependsOnId) {
+        lock.writeLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            Integer dependsOn = indexById.get(dependsOnId);
+            if (task == null || dependsOn == null || !removeEntry(successors, successorTypes, successorCount, dependsOn, task)) {
+                return false;
+            }
+            removeEntry(predecessors, predecessorTypes, predecessorCount, task, dependsOn);
+            edgeCount--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a status change. Tasks without dependencies are not in the graph and are ignored.
+     */
+    public void updateProgress(UUID taskId, Progress taskProgress) {
+        lock.writeLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            if (task != null) {
+                progress[task] = (byte) taskProgress.ordinal();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops a deleted task together with its dependencies in both directions.
+     */
+    public void removeTask(UUID taskId) {
+        lock.writeLock().lock();
+        try {
+            Integer task = indexById.remove(taskId);
+            if (task == null) {
+                return;
+            }
+            for (int i = 0; i < successorCount[task]; i++) {
+                removeEntry(predecessors, predecessorTypes, predecessorCount, successors[task][i], task);
+            }
+            for (int i = 0; i < predecessorCount[task]; i++) {
+                removeEntry(successors, successorTypes, successorCount, predecessors[task][i], task);
+            }
+            edgeCount -= successorCount[task] + predecessorCount[task];
+            successorCount[task] = 0;
+            predecessorCount[task] = 0;
+            progress[task] = REMOVED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(UUID taskId) {
+        lock.readLock().lock();
+        try {
+            return indexById.containsKey(taskId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tasks that {@code taskId} depends on.
+     */
+    public List<Edge> dependenciesOf(UUID taskId) {
+        lock.readLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            return task != null ? edges(predecessors[task], predecessorTypes[task], predecessorCount[task]) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tasks that depend on {@code taskId}.
+     */
+    public List<Edge> dependentsOf(UUID taskId) {
+        lock.readLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            return task != null ? edges(successors[task], successorTypes[task], successorCount[task]) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prerequisites that keep the task from starting: an FS prerequisite that is not done, or an
+     * SS prerequisite that has not started.
+     */
+    public List<UUID> startBlockers(UUID taskId) {
+        return blockers(taskId, DependencyType.FS, DependencyType.SS);
+    }
+
+    /**
+     * Prerequisites that keep the task from finishing: an FF prerequisite that is not done, or an
+     * SF prerequisite that has not started.
+     */
+    public List<UUID> finishBlockers(UUID taskId) {
+        return blockers(taskId, DependencyType.FF, DependencyType.SF);
+    }
+
+    public boolean isBlocked(UUID taskId) {
+        return !startBlockers(taskId).isEmpty();
+    }
+
+    /**
+     * Tasks of the graph ordered so that every task comes after the tasks it depends on (Kahn's
+     * algorithm, O(V+E)). Ties keep the order in which tasks entered the graph. Tasks on a cycle,
+     * which can only come from rows written around this graph, are left out.
+     */
+    public List<UUID> topologicalOrder() {
+        lock.readLock().lock();
+        try {
+            int[] remaining = Arrays.copyOf(predecessorCount, size);
+            int[] queue = new int[size];
+            int head = 0;
+            int tail = 0;
+            for (int node = 0; node < size; node++) {
+                if (progress[node] != REMOVED && remaining[node] == 0) {
+                    queue[tail++] = node;
+                }
+            }
+            List<UUID> order = new ArrayList<>(indexById.size());
+            while (head < tail) {
+                int node = queue[head++];
+                order.add(ids[node]);
+                for (int i = 0; i < successorCount[node]; i++) {
+                    int next = successors[node][i];
+                    if (--remaining[next] == 0) {
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return order;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int taskCount() {
+        lock.readLock().lock();
+        try {
+            return indexById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dependencyCount() {
+        lock.readLock().lock();
+        try {
+            return edgeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<UUID> blockers(UUID taskId, DependencyType untilDone, DependencyType untilStarted) {
+        lock.readLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            if (task == null) {
+                return List.of();
+            }
+            List<UUID> blockers = new ArrayList<>(0);
+            for (int i = 0; i < predecessorCount[task]; i++) {
+                int prerequisite = predecessors[task][i];
+                DependencyType type = TYPES[predecessorTypes[task][i]];
+                Progress prerequisiteProgress = PROGRESS[progress[prerequisite]];
+                if ((type == untilDone && prerequisiteProgress != Progress.DONE)
+                        || (type == untilStarted && prerequisiteProgress == Progress.NOT_STARTED)) {
+                    blockers.add(ids[prerequisite]);
+                }
+            }
+            return blockers;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Iterative depth-first search along successors, so deep chains cannot overflow the stack.
+     */
+    private boolean reaches(int from, int target) {
+        if (from == target) {
+            return true;
+        }
+        boolean[] visited = new boolean[size];
+        int[] stack = new int[size];
+        int top = 0;
+        stack[top++] = from;
+        visited[from] = true;
+        while (top > 0) {
+            int node = stack[--top];
+            for (int i = 0; i < successorCount[node]; i++) {
+                int next = successors[node][i];
+                if (next == target) {
+                    return true;
+                }
+                if (!visited[next]) {
+                    visited[next] = true;
+                    stack[top++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int node(UUID id, Progress nodeProgress) {
+        Integer existing = indexById.get(id);
+        if (existing != null) {
+            progress[existing] = (byte) nodeProgress.ordinal();
+            return existing;
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        int node = size++;
+        ids[node] = id;
+        progress[node] = (byte) nodeProgress.ordinal();
+        indexById.put(id, node);
+        return node;
+    }
+
+    private void putEdge(int from, int to, DependencyType type) {
+        byte typeOrdinal = (byte) type.ordinal();
+        for (int i = 0; i < successorCount[from]; i++) {
+            if (successors[from][i] == to) {
+                successorTypes[from][i] = typeOrdinal;
+                for (int j = 0; j < predecessorCount[to]; j++) {
+                    if (predecessors[to][j] == from) {
+                        predecessorTypes[to][j] = typeOrdinal;
+                    }
+                }
+                return;
+            }
+        }
+        appendEntry(successors, successorTypes, successorCount, from, to, typeOrdinal);
+        appendEntry(predecessors, predecessorTypes, predecessorCount, to, from, typeOrdinal);
+        edgeCount++;
+    }
+
+    private static void appendEntry(int[][] targets, byte[][] types, int[] counts, int node, int target, byte type) {
+        int count = counts[node];
+        if (targets[node] == null) {
+            targets[node] = new int[INITIAL_DEGREE];
+            types[node] = new byte[INITIAL_DEGREE];
+        } else if (count == targets[node].length) {
+            targets[node] = Arrays.copyOf(targets[node], count * 2);
+            types[node] = Arrays.copyOf(types[node], count * 2);
+        }
+        targets[node][count] = target;
+        types[node][count] = type;
+        counts[node] = count + 1;
+    }
+
+    /**
+     * Removes by moving the last entry into the gap; neighbour order carries no meaning.
+     */
+    private static boolean removeEntry(int[][] targets, byte[][] types, int[] counts, int node, int target) {
+        for (int i = 0; i < counts[node]; i++) {
+            if (targets[node][i] == target) {
+                int last = --counts[node];
+                targets[node][i] = targets[node][last];
+                types[node][i] = types[node][last];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Edge> edges(int[] targets, byte[] types, int count) {
+        List<Edge> edges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            edges.add(new Edge(ids[targets[i]], TYPES[types[i]]));
+        }
+        return edges;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        progress = Arrays.copyOf(progress, capacity);
+        successors = Arrays.copyOf(successors, capacity);
+        successorTypes = Arrays.copyOf(successorTypes, capacity);
+        successorCount = Arrays.copyOf(successorCount, capacity);
+        predecessors = Arrays.copyOf(predecessors, capacity);
+        predecessorTypes = Arrays.copyOf(predecessorTypes, capacity);
+        predecessorCount = Arrays.copyOf(predecessorCount, capacity);
+    }
+}
@@ -0,0 +1,219 @@
+package com.myhealth.cache;
+
+import com.myhealth.cache.TaskDependencyGraph.Progress;
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.entity.task.DependencyType;
+import com.myhealth.projection.task.TaskDependencyEdgeProjection;
+import com.myhealth.repository.TaskDependencyRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-account {@link TaskDependencyGraph}s, loaded with one query on first use and then kept up to
+ * date in place by the task and dependency writes of this node.
+ *
+ * A write changes the cached graph before its transaction commits, so concurrent requests see the
+ * new edge at once and a second request cannot add the opposite edge. If the transaction rolls back,
+ * or the graph was replaced by a load that ran concurrently, the account is dropped and reloaded on
+ * next use. Writes made on other nodes are picked up when the graph expires after
+ * {@code task.dependency-graph.ttl-ms}.
+ */
+@Component
+@Slf4j
+public class TaskDependencyGraphCache implements MeterBinder {
+
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final long ttlMs;
+    private final int maxAccounts;
+    private final Map<UUID, Entry> graphsByAccount = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public TaskDependencyGraphCache(TaskDependencyRepository taskDependencyRepository,
+                                    ReferenceDataCache referenceDataCache,
+                                    @Value("${task.dependency-graph.ttl-ms}") long ttlMs,
+                                    @Value("${task.dependency-graph.max-accounts}") int maxAccounts) {
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.ttlMs = ttlMs;
+        this.maxAccounts = maxAccounts;
+    }
+
+    public TaskDependencyGraph get(UUID accountId) {
+        Entry entry = graphsByAccount.get(accountId);
+        if (entry != null && entry.expiresAtMillis() > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.graph();
+        }
+        loads.increment();
+        long loadGeneration = generation.get();
+        TaskDependencyGraph graph = load(accountId);
+        cacheIfCurrent(accountId, graph, loadGeneration);
+        return graph;
+    }
+
+    /**
+     * @return false if the dependency would create a cycle
+     * @see TaskDependencyGraph#addDependency
+     */
+    public boolean addDependency(UUID accountId, UUID taskId, short taskStatusId, UUID dependsOnId,
+                                 short dependsOnStatusId, DependencyType type) {
+        TaskDependencyGraph graph = get(accountId);
+        boolean added = graph.addDependency(taskId, progressOf(taskStatusId), dependsOnId,
+                progressOf(dependsOnStatusId), type);
+        if (added) {
+            written(accountId, graph);
+        }
+        return added;
+    }
+
+    public boolean removeDependency(UUID accountId, UUID taskId, UUID dependsOnId) {
+        TaskDependencyGraph graph = get(accountId);
+        boolean removed = graph.removeDependency(taskId, dependsOnId);
+        written(accountId, graph);
+        return removed;
+    }
+
+    /**
+     * Status changes only touch a graph that is already cached; an account without one loads the
+     * current statuses anyway.
+     */
+    public void statusChanged(UUID accountId, UUID taskId, short statusId) {
+        TaskDependencyGraph graph = cached(accountId);
+        if (graph != null) {
+            graph.updateProgress(taskId, progressOf(statusId));
+        }
+        written(accountId, graph);
+    }
+
+    public void taskRemoved(UUID accountId, UUID taskId) {
+        TaskDependencyGraph graph = cached(accountId);
+        if (graph != null) {
+            graph.removeTask(taskId);
+        }
+        written(accountId, graph);
+    }
+
+    /**
+     * Drops the account's graph after writes that touch many tasks at once.
+     */
+    public void invalidate(UUID accountId) {
+        generation.incrementAndGet();
+        graphsByAccount.remove(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // A load that ran before the commit must not stay cached
+                    generation.incrementAndGet();
+                    graphsByAccount.remove(accountId);
+                }
+            });
+        }
+        log.debug("Invalidated dependency graph for account: {}", accountId);
+    }
+
+    public Progress progressOf(short statusId) {
+        if (referenceDataCache.status(statusId).map(ReferenceDataCache.StatusRef::done).orElse(false)) {
+            return Progress.DONE;
+        }
+        if (statusId == TaskConstants.BACKLOG_STATUS_ID || statusId == TaskConstants.TODO_STATUS_ID) {
+            return Progress.NOT_STARTED;
+        }
+        return Progress.STARTED;
+    }
+
+    public int size() {
+        return graphsByAccount.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("task.dependency.graph.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Dependency graph lookups served from memory")
+                .register(registry);
+        FunctionCounter.builder("task.dependency.graph.requests", loads, LongAdder::sum)
+                .tag("result", "load")
+                .description("Dependency graph lookups that loaded the account's dependencies")
+                .register(registry);
+        Gauge.builder("task.dependency.graph.accounts", graphsByAccount, Map::size)
+                .description("Accounts with a cached dependency graph")
+                .register(registry);
+    }
+
+    private TaskDependencyGraph cached(UUID accountId) {
+        Entry entry = graphsByAccount.get(accountId);
+        return entry != null ? entry.graph() : null;
+    }
+
+    private TaskDependencyGraph load(UUID accountId) {
+        List<TaskDependencyEdgeProjection> edges = taskDependencyRepository.findAccountDependencies(accountId);
+        TaskDependencyGraph graph = new TaskDependencyGraph(edges.size());
+        for (TaskDependencyEdgeProjection edge : edges) {
+            graph.putDependency(edge.getTaskId(), progressOf(edge.getTaskStatusId()), edge.getDependsOnId(),
+                    progressOf(edge.getDependsOnStatusId()), DependencyType.valueOf(edge.getDepType()));
+        }
+        log.debug("Loaded dependency graph for account: {} with {} tasks and {} dependencies",
+                accountId, graph.taskCount(), graph.dependencyCount());
+        return graph;
+    }
+
+    /**
+     * Once the write's transaction is over, drops the account if the write rolled back or went to
+     * a graph that is no longer the cached one, and makes loads that overlapped it discard their
+     * result.
+     */
+    private void written(UUID accountId, TaskDependencyGraph graph) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generation.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                generation.incrementAndGet();
+                if (status != STATUS_COMMITTED || cached(accountId) != graph) {
+                    graphsByAccount.remove(accountId);
+                }
+            }
+        });
+    }
+
+    private void cacheIfCurrent(UUID accountId, TaskDependencyGraph graph, long loadGeneration) {
+        if (ttlMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!graphsByAccount.containsKey(accountId) && graphsByAccount.size() >= maxAccounts) {
+            graphsByAccount.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (graphsByAccount.size() >= maxAccounts) {
+                return;
+            }
+        }
+        graphsByAccount.put(accountId, new Entry(graph, now + ttlMs));
+        if (generation.get() != loadGeneration) {
+            // A write happened while loading, the graph may already be stale
+            graphsByAccount.remove(accountId);
+        }
+    }
+
+    private record Entry(TaskDependencyGraph graph, long expiresAtMillis) {
+    }
+}
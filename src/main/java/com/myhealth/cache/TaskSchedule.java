@@ -0,0 +1,516 @@
+package com.myhealth.cache;
+
+import com.myhealth.entity.task.DependencyType;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Critical path schedule of a set of tasks, usually a task and its subtasks, with the dependencies
+ * between them.
+ *
+ * Times are whole minutes from {@link #start()}. A task takes its estimate, or no time when it has
+ * none or is done. Its earliest start comes from a forward pass in topological order, its latest
+ * finish from a backward pass from the finish of the whole schedule, and its slack is the
+ * difference between latest and earliest start. A task with no slack is critical. Each dependency
+ * type constrains the dependent task against its prerequisite: FS start after finish, SS start
+ * after start, FF finish after finish, SF finish after start. {@code start_at} keeps a task from
+ * starting earlier, {@code due_at} bounds its latest finish and can make slack negative.
+ *
+ * Tasks are stored in topological order, so when one task changes only the tasks after it are
+ * revisited on the forward pass and the tasks before it on the backward pass, and propagation
+ * stops where times no longer change. The backward pass is rerun in full only when the finish of
+ * the schedule moves. A change that would move the start of the schedule marks it
+ * {@linkplain #isStale() stale} instead, because every offset would change; it must then be
+ * rebuilt.
+ *
+ * All methods are thread-safe: reads share a lock and updates are exclusive.
+ */
+public class TaskSchedule {
+
+    /**
+     * Times of one task, in minutes from the start of the schedule.
+     */
+    public record Timing(UUID taskId, long durationMinutes, long earliestStart, long earliestFinish,
+                         long latestStart, long latestFinish) {
+
+        public long slackMinutes() {
+            return latestStart - earliestStart;
+        }
+
+        public boolean critical() {
+            return slackMinutes() <= 0;
+        }
+    }
+
+    /**
+     * Consistent view of the whole schedule, read under one lock.
+     */
+    public record Snapshot(Instant start, long finishMinutes, List<Timing> timings) {
+    }
+
+    private static final DependencyType[] TYPES = DependencyType.values();
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Instant start;
+    private final UUID[] ids;
+    private final Map<UUID, Integer> indexById;
+    private final long[] estimate;
+    private final boolean[] done;
+    private final long[] notBefore;
+    private final boolean[] startsAtStart;
+    private final long[] deadline;
+    private final int[] predecessorStart;
+    private final int[] predecessors;
+    private final byte[] predecessorTypes;
+    private final int[] successorStart;
+    private final int[] successors;
+    private final byte[] successorTypes;
+    private final long[] earliestStart;
+    private final long[] earliestFinish;
+    private final long[] latestStart;
+    private final long[] latestFinish;
+    private long finish;
+    private int tasksAtStart;
+    private boolean stale;
+
+    private TaskSchedule(Instant start, int size, int edges) {
+        this.start = start;
+        this.ids = new UUID[size];
+        this.indexById = new HashMap<>(size * 4 / 3 + 1);
+        this.estimate = new long[size];
+        this.done = new boolean[size];
+        this.notBefore = new long[size];
+        this.startsAtStart = new boolean[size];
+        this.deadline = new long[size];
+        this.predecessorStart = new int[size + 1];
+        this.predecessors = new int[edges];
+        this.predecessorTypes = new byte[edges];
+        this.successorStart = new int[size + 1];
+        this.successors = new int[edges];
+        this.successorTypes = new byte[edges];
+        this.earliestStart = new long[size];
+        this.earliestFinish = new long[size];
+        this.latestStart = new long[size];
+        this.latestFinish = new long[size];
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Records a changed estimate, start or due date and reschedules the tasks it affects. A start
+     * date that would move the start of the schedule marks the schedule stale instead.
+     *
+     * @return false if the task is not part of the schedule
+     */
+    public boolean updateTask(UUID taskId, Integer estimateMinutes, Instant startAt, Instant dueAt) {
+        lock.writeLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            if (task == null) {
+                return false;
+            }
+            if (stale || movesStart(task, startAt)) {
+                stale = true;
+                return true;
+            }
+            estimate[task] = minutes(estimateMinutes);
+            notBefore[task] = startAt != null ? offset(startAt) : 0;
+            deadline[task] = dueAt != null ? offset(dueAt) : NO_DEADLINE;
+            reschedule(task);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a status change; a done task has no remaining duration.
+     *
+     * @return false if the task is not part of the schedule
+     */
+    public boolean updateDone(UUID taskId, boolean taskDone) {
+        lock.writeLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            if (task == null) {
+                return false;
+            }
+            if (done[task] != taskDone) {
+                done[task] = taskDone;
+                if (!stale) {
+                    reschedule(task);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Instant start() {
+        return start;
+    }
+
+    /**
+     * @return true once a change moved the start of the schedule; its times are then outdated
+     */
+    public boolean isStale() {
+        lock.readLock().lock();
+        try {
+            return stale;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long finishMinutes() {
+        lock.readLock().lock();
+        try {
+            return finish;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int taskCount() {
+        return ids.length;
+    }
+
+    public Timing timing(UUID taskId) {
+        lock.readLock().lock();
+        try {
+            Integer task = indexById.get(taskId);
+            return task != null ? timingOf(task) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Timings of all tasks, each after the tasks it depends on.
+     */
+    public List<Timing> timings() {
+        lock.readLock().lock();
+        try {
+            return timingList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            return new Snapshot(start, finish, Collections.unmodifiableList(timingList()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Timing> timingList() {
+        List<Timing> timings = new ArrayList<>(ids.length);
+        for (int task = 0; task < ids.length; task++) {
+            timings.add(timingOf(task));
+        }
+        return timings;
+    }
+
+    private Timing timingOf(int task) {
+        return new Timing(ids[task], duration(task), earliestStart[task], earliestFinish[task],
+                latestStart[task], latestFinish[task]);
+    }
+
+    private long duration(int task) {
+        return done[task] ? 0 : estimate[task];
+    }
+
+    /**
+     * Whether a rebuild would start the schedule elsewhere: the new start date is earlier, the
+     * schedule started at build time because no task had a start date, or the only task that
+     * starts at the start of the schedule moves away from it. Otherwise records where the task
+     * starts.
+     */
+    private boolean movesStart(int task, Instant startAt) {
+        if (startAt != null && (startAt.isBefore(start) || tasksAtStart == 0)) {
+            return true;
+        }
+        boolean atStart = startAt != null && offset(startAt) == 0;
+        if (startsAtStart[task] && !atStart && tasksAtStart == 1) {
+            return true;
+        }
+        if (startsAtStart[task] != atStart) {
+            startsAtStart[task] = atStart;
+            tasksAtStart += atStart ? 1 : -1;
+        }
+        return false;
+    }
+
+    private long offset(Instant instant) {
+        return ChronoUnit.MINUTES.between(start, instant);
+    }
+
+    private void scheduleAll() {
+        for (int task = 0; task < ids.length; task++) {
+            forward(task);
+        }
+        finish = 0;
+        for (long taskFinish : earliestFinish) {
+            finish = Math.max(finish, taskFinish);
+        }
+        for (int task = ids.length - 1; task >= 0; task--) {
+            backward(task);
+        }
+    }
+
+    /**
+     * Propagates a change of one task: forward to the tasks after it, then backward to the tasks
+     * before it, each pass only following tasks whose times changed.
+     */
+    private void reschedule(int changed) {
+        boolean[] dirty = new boolean[ids.length];
+        dirty[changed] = true;
+        int pending = 1;
+        for (int task = changed; task < ids.length && pending > 0; task++) {
+            if (!dirty[task]) {
+                continue;
+            }
+            pending--;
+            long previousStart = earliestStart[task];
+            long previousFinish = earliestFinish[task];
+            forward(task);
+            if (earliestStart[task] != previousStart || earliestFinish[task] != previousFinish) {
+                for (int i = successorStart[task]; i < successorStart[task + 1]; i++) {
+                    if (!dirty[successors[i]]) {
+                        dirty[successors[i]] = true;
+                        pending++;
+                    }
+                }
+            }
+        }
+
+        long newFinish = 0;
+        for (long taskFinish : earliestFinish) {
+            newFinish = Math.max(newFinish, taskFinish);
+        }
+        if (newFinish != finish) {
+            // Every latest time is bounded by the finish, so all of them move
+            finish = newFinish;
+            for (int task = ids.length - 1; task >= 0; task--) {
+                backward(task);
+            }
+            return;
+        }
+
+        // Latest times only depend on durations, deadlines and later tasks
+        Arrays.fill(dirty, false);
+        dirty[changed] = true;
+        pending = 1;
+        for (int task = changed; task >= 0 && pending > 0; task--) {
+            if (!dirty[task]) {
+                continue;
+            }
+            pending--;
+            long previousStart = latestStart[task];
+            long previousFinish = latestFinish[task];
+            backward(task);
+            if (latestStart[task] != previousStart || latestFinish[task] != previousFinish) {
+                for (int i = predecessorStart[task]; i < predecessorStart[task + 1]; i++) {
+                    if (!dirty[predecessors[i]]) {
+                        dirty[predecessors[i]] = true;
+                        pending++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void forward(int task) {
+        long duration = duration(task);
+        long taskStart = notBefore[task];
+        for (int i = predecessorStart[task]; i < predecessorStart[task + 1]; i++) {
+            int prerequisite = predecessors[i];
+            long bound = switch (TYPES[predecessorTypes[i]]) {
+                case FS -> earliestFinish[prerequisite];
+                case SS -> earliestStart[prerequisite];
+                case FF -> earliestFinish[prerequisite] - duration;
+                case SF -> earliestStart[prerequisite] - duration;
+            };
+            taskStart = Math.max(taskStart, bound);
+        }
+        earliestStart[task] = taskStart;
+        earliestFinish[task] = taskStart + duration;
+    }
+
+    private void backward(int task) {
+        long duration = duration(task);
+        long taskFinish = Math.min(finish, deadline[task]);
+        for (int i = successorStart[task]; i < successorStart[task + 1]; i++) {
+            int dependent = successors[i];
+            long bound = switch (TYPES[successorTypes[i]]) {
+                case FS -> latestStart[dependent];
+                case SS -> latestStart[dependent] + duration;
+                case FF -> latestFinish[dependent];
+                case SF -> latestFinish[dependent] + duration;
+            };
+            taskFinish = Math.min(taskFinish, bound);
+        }
+        latestFinish[task] = taskFinish;
+        latestStart[task] = taskFinish - duration;
+    }
+
+    private static long minutes(Integer estimateMinutes) {
+        return estimateMinutes != null ? Math.max(0, estimateMinutes) : 0;
+    }
+
+    /**
+     * Collects tasks and dependencies, then orders and schedules them once in {@link #build}.
+     */
+    public static class Builder {
+
+        private final List<UUID> ids = new ArrayList<>();
+        private final Map<UUID, Integer> indexById = new HashMap<>();
+        private final List<Integer> estimates = new ArrayList<>();
+        private final List<Boolean> done = new ArrayList<>();
+        private final List<Instant> startAts = new ArrayList<>();
+        private final List<Instant> dueAts = new ArrayList<>();
+        private final List<int[]> edges = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder task(UUID taskId, Integer estimateMinutes, boolean taskDone, Instant startAt, Instant dueAt) {
+            if (indexById.putIfAbsent(taskId, ids.size()) == null) {
+                ids.add(taskId);
+                estimates.add(estimateMinutes);
+                done.add(taskDone);
+                startAts.add(startAt);
+                dueAts.add(dueAt);
+            }
+            return this;
+        }
+
+        public boolean contains(UUID taskId) {
+            return indexById.containsKey(taskId);
+        }
+
+        /**
+         * Adds the dependency of {@code taskId} on {@code dependsOnId}; dependencies on tasks that
+         * were not added are ignored.
+         */
+        public Builder dependency(UUID taskId, UUID dependsOnId, DependencyType type) {
+            Integer task = indexById.get(taskId);
+            Integer dependsOn = indexById.get(dependsOnId);
+            if (task != null && dependsOn != null) {
+                edges.add(new int[] {dependsOn, task, type.ordinal()});
+            }
+            return this;
+        }
+
+        /**
+         * @param now start of the schedule when no task has a start date
+         * @return the schedule, or null if the dependencies between the tasks contain a cycle
+         */
+        public TaskSchedule build(Instant now) {
+            int size = ids.size();
+            int[] order = topologicalOrder(size);
+            if (order == null) {
+                return null;
+            }
+            Instant start = startAts.stream()
+                    .filter(Objects::nonNull)
+                    .min(Instant::compareTo)
+                    .orElse(now)
+                    .truncatedTo(ChronoUnit.MINUTES);
+
+            TaskSchedule schedule = new TaskSchedule(start, size, edges.size());
+            int[] position = new int[size];
+            for (int i = 0; i < size; i++) {
+                int task = order[i];
+                position[task] = i;
+                schedule.ids[i] = ids.get(task);
+                schedule.indexById.put(ids.get(task), i);
+                schedule.estimate[i] = minutes(estimates.get(task));
+                schedule.done[i] = done.get(task);
+                Instant startAt = startAts.get(task);
+                Instant dueAt = dueAts.get(task);
+                schedule.notBefore[i] = startAt != null ? Math.max(0, schedule.offset(startAt)) : 0;
+                if (startAt != null && schedule.offset(startAt) == 0) {
+                    schedule.startsAtStart[i] = true;
+                    schedule.tasksAtStart++;
+                }
+                schedule.deadline[i] = dueAt != null ? schedule.offset(dueAt) : NO_DEADLINE;
+            }
+            // Adjacency in compressed rows: neighbours of task i sit between start[i] and start[i + 1]
+            for (int[] edge : edges) {
+                schedule.successorStart[position[edge[0]] + 1]++;
+                schedule.predecessorStart[position[edge[1]] + 1]++;
+            }
+            for (int i = 0; i < size; i++) {
+                schedule.successorStart[i + 1] += schedule.successorStart[i];
+                schedule.predecessorStart[i + 1] += schedule.predecessorStart[i];
+            }
+            int[] successorFill = Arrays.copyOf(schedule.successorStart, size);
+            int[] predecessorFill = Arrays.copyOf(schedule.predecessorStart, size);
+            for (int[] edge : edges) {
+                int from = position[edge[0]];
+                int to = position[edge[1]];
+                schedule.successors[successorFill[from]] = to;
+                schedule.successorTypes[successorFill[from]++] = (byte) edge[2];
+                schedule.predecessors[predecessorFill[to]] = from;
+                schedule.predecessorTypes[predecessorFill[to]++] = (byte) edge[2];
+            }
+            schedule.scheduleAll();
+            return schedule;
+        }
+
+        /**
+         * Kahn's algorithm over the collected edges; ties keep the order in which tasks were added.
+         */
+        private int[] topologicalOrder(int size) {
+            int[] remaining = new int[size];
+            int[] outStart = new int[size + 1];
+            for (int[] edge : edges) {
+                remaining[edge[1]]++;
+                outStart[edge[0] + 1]++;
+            }
+            for (int i = 0; i < size; i++) {
+                outStart[i + 1] += outStart[i];
+            }
+            int[] out = new int[edges.size()];
+            int[] fill = Arrays.copyOf(outStart, size);
+            for (int[] edge : edges) {
+                out[fill[edge[0]]++] = edge[1];
+            }
+            int[] queue = new int[size];
+            int head = 0;
+            int tail = 0;
+            for (int task = 0; task < size; task++) {
+                if (remaining[task] == 0) {
+                    queue[tail++] = task;
+                }
+            }
+            while (head < tail) {
+                int task = queue[head++];
+                for (int i = outStart[task]; i < outStart[task + 1]; i++) {
+                    if (--remaining[out[i]] == 0) {
+                        queue[tail++] = out[i];
+                    }
+                }
+            }
+            return tail == size ? queue : null;
+        }
+    }
+}
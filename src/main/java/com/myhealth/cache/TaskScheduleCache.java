@@ -0,0 +1,179 @@
+package com.myhealth.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Computed {@link TaskSchedule}s per account and root task, so planning views do not rebuild the
+ * schedule of a large project on every request.
+ *
+ * Estimate, due date and status changes made through the task service are applied to the cached
+ * schedules of the account once their transaction commits, rescheduling only the tasks they
+ * affect. Changes to the shape of a schedule, such as dependency writes, moves, deletes and bulk
+ * actions, drop the account's schedules instead. Writes made on other nodes are picked up when a
+ * schedule expires after {@code task.schedule-cache.ttl-ms}. Each account keeps at most
+ * {@code task.schedule-cache.max-roots-per-account} schedules.
+ */
+@Component
+@Slf4j
+public class TaskScheduleCache implements MeterBinder {
+
+    private final long ttlMs;
+    private final int maxAccounts;
+    private final int maxRootsPerAccount;
+    private final Map<UUID, Map<UUID, Entry>> schedulesByAccount = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+
+    public TaskScheduleCache(@Value("${task.schedule-cache.ttl-ms}") long ttlMs,
+                             @Value("${task.schedule-cache.max-accounts}") int maxAccounts,
+                             @Value("${task.schedule-cache.max-roots-per-account}") int maxRootsPerAccount) {
+        this.ttlMs = ttlMs;
+        this.maxAccounts = maxAccounts;
+        this.maxRootsPerAccount = maxRootsPerAccount;
+    }
+
+    /**
+     * @param loader builds the schedule; a null result is returned without being cached
+     */
+    public TaskSchedule get(UUID accountId, UUID rootId, Supplier<TaskSchedule> loader) {
+        Map<UUID, Entry> schedules = schedulesByAccount.get(accountId);
+        Entry entry = schedules != null ? schedules.get(rootId) : null;
+        if (entry != null && entry.expiresAtMillis() > System.currentTimeMillis() && !entry.schedule().isStale()) {
+            hits.increment();
+            return entry.schedule();
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        TaskSchedule schedule = loader.get();
+        if (schedule != null) {
+            cacheIfCurrent(accountId, rootId, schedule, loadGeneration);
+        }
+        return schedule;
+    }
+
+    public void taskUpdated(UUID accountId, UUID taskId, Integer estimateMinutes, Instant startAt, Instant dueAt) {
+        afterCommit(accountId, schedule -> schedule.updateTask(taskId, estimateMinutes, startAt, dueAt));
+    }
+
+    public void statusChanged(UUID accountId, UUID taskId, boolean done) {
+        afterCommit(accountId, schedule -> schedule.updateDone(taskId, done));
+    }
+
+    /**
+     * Drops the account's schedules after a write that changes which tasks or dependencies they
+     * cover.
+     */
+    public void invalidate(UUID accountId) {
+        generation.incrementAndGet();
+        schedulesByAccount.remove(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // A schedule built before the commit must not stay cached
+                    generation.incrementAndGet();
+                    schedulesByAccount.remove(accountId);
+                }
+            });
+        }
+        log.debug("Invalidated task schedules for account: {}", accountId);
+    }
+
+    public int size() {
+        return schedulesByAccount.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("task.schedule.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Task schedules served from the cache")
+                .register(registry);
+        FunctionCounter.builder("task.schedule.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Task schedules that were built from the database")
+                .register(registry);
+        FunctionCounter.builder("task.schedule.cache.updates", updates, LongAdder::sum)
+                .description("Task changes applied incrementally to cached schedules")
+                .register(registry);
+        Gauge.builder("task.schedule.cache.accounts", schedulesByAccount, Map::size)
+                .description("Accounts with cached task schedules")
+                .register(registry);
+    }
+
+    /**
+     * Applies a change to the account's cached schedules once the write commits. A schedule built
+     * from the old rows while the write was in flight either gets the change applied too or, if it
+     * is cached afterwards, is discarded through the generation check.
+     */
+    private void afterCommit(UUID accountId, Consumer<TaskSchedule> change) {
+        Runnable apply = () -> {
+            generation.incrementAndGet();
+            Map<UUID, Entry> schedules = schedulesByAccount.get(accountId);
+            if (schedules != null) {
+                schedules.values().forEach(entry -> change.accept(entry.schedule()));
+                // A change that moved the start of a schedule cannot be applied in place
+                schedules.values().removeIf(entry -> entry.schedule().isStale());
+                updates.increment();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private void cacheIfCurrent(UUID accountId, UUID rootId, TaskSchedule schedule, long loadGeneration) {
+        if (ttlMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!schedulesByAccount.containsKey(accountId) && schedulesByAccount.size() >= maxAccounts) {
+            schedulesByAccount.values().forEach(schedules -> schedules.values().removeIf(e -> e.expiresAtMillis() <= now));
+            schedulesByAccount.values().removeIf(Map::isEmpty);
+            if (schedulesByAccount.size() >= maxAccounts) {
+                return;
+            }
+        }
+        Map<UUID, Entry> schedules = schedulesByAccount.computeIfAbsent(accountId, id -> new ConcurrentHashMap<>());
+        if (!schedules.containsKey(rootId) && schedules.size() >= maxRootsPerAccount) {
+            schedules.values().removeIf(e -> e.expiresAtMillis() <= now);
+            if (schedules.size() >= maxRootsPerAccount) {
+                return;
+            }
+        }
+        schedules.put(rootId, new Entry(schedule, now + ttlMs));
+        if (generation.get() != loadGeneration) {
+            // A write happened while building, the schedule may already be stale
+            schedulesByAccount.remove(accountId);
+        }
+    }
+
+    private record Entry(TaskSchedule schedule, long expiresAtMillis) {
+    }
+}
@@ -2,9 +2,10 @@ package com.myhealth.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myhealth.dto.ApiError;
-import com.myhealth.entity.User;
-import com.myhealth.repository.UserRepository;
 import com.myhealth.security.ApiUserDetail;
+import com.myhealth.security.UserRevocationRegistry;
+import com.myhealth.security.VerifiedToken;
+import com.myhealth.service.CustomUserDetailsService;
 import com.myhealth.service.JwtTokenService;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
@@ -15,11 +16,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -37,10 +38,17 @@ import java.util.UUID;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenService jwtTokenService;
-    private final UserDetailsService userDetailsService;
-    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserRevocationRegistry userRevocationRegistry;
     private final ObjectMapper objectMapper;
     
+    /**
+     * When enabled the principal is rebuilt from the signed token claims and the request
+     * never touches the database; revocation is checked against {@link UserRevocationRegistry}.
+     */
+    @Value("${jwt.stateless-authentication}")
+    private boolean statelessAuthentication;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
@@ -53,11 +61,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     filterChain.doFilter(request, response);
                     return;
                 }
-                UUID userId = jwtTokenService.getUserId(jwt);
-                User user = userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-                
-                ApiUserDetail userDetails = (ApiUserDetail) userDetailsService.loadUserByUsername(user.getUsername());
+                ApiUserDetail userDetails = statelessAuthentication
+                        ? loadUserFromToken(jwtTokenService.verifyAccessToken(jwt))
+                        : loadUserFromDatabase(jwt);
                 
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -82,6 +88,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private ApiUserDetail loadUserFromToken(VerifiedToken token) {
+        UUID userId = token.getUserId();
+        if (userRevocationRegistry.isRevoked(userId, token.getIssuedAt())) {
+            throw new JwtException("Token revoked for user: " + userId);
+        }
+        
+        return new ApiUserDetail(
+                userId,
+                token.getUsername(),
+                null,
+                token.getAuthorities(),
+                token.getRoleMask(),
+                true, true, true, true
+        );
+    }
+    
+    private ApiUserDetail loadUserFromDatabase(String jwt) {
+        return userDetailsService.loadUserById(jwtTokenService.getUserId(jwt));
+    }
+    
     private void sendErrorResponse(HttpServletResponse response, HttpStatus status, String message, String path) throws IOException {
         response.setStatus(status.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
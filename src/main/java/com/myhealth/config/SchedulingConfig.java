@@ -0,0 +1,12 @@
+package com.myhealth.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} maintenance jobs such as the expired refresh token purge.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,21 +1,19 @@
 package com.myhealth.config;
 
+import com.myhealth.security.ContainsRoleAuthorizationManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
@@ -24,7 +22,6 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.Arrays;
-import java.util.function.Supplier;
 
 @Configuration
 @EnableWebSecurity
@@ -33,19 +30,21 @@ import java.util.function.Supplier;
 public class SecurityConfig {
     
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final PasswordEncoder passwordEncoder;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-    
     @Bean
     @SuppressWarnings("deprecation")
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-encodes the stored hash on successful login when its bcrypt cost differs from the configured one
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
+        // Unknown usernames reach AuthServiceImpl as UsernameNotFoundException, which answers them like a
+        // wrong password but keeps them out of the username throttle and the failed_attempts write-behind
+        authProvider.setHideUserNotFoundExceptions(false);
         return authProvider;
     }
     
@@ -137,48 +136,4 @@ public class SecurityConfig {
     private AuthorizationManager<RequestAuthorizationContext> createContainsRoleAuthorizationManager(String... targetKeywords) {
         return new ContainsRoleAuthorizationManager(targetKeywords);
     }
-    
-    /**
-     * Custom AuthorizationManager that checks if any granted authority contains
-     * one of the specified keywords (case-insensitive).
-     */
-    private static class ContainsRoleAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
-        
-        private final String[] targetKeywords;
-        
-        public ContainsRoleAuthorizationManager(String... targetKeywords) {
-            this.targetKeywords = targetKeywords != null ? targetKeywords : new String[0];
-        }
-        
-        @Override
-        public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
-            Authentication auth = authentication.get();
-            
-            // Require authentication
-            if (auth == null || !auth.isAuthenticated()) {
-                log.debug("Access denied: User not authenticated for path: {}", context.getRequest().getRequestURI());
-                return new AuthorizationDecision(false);
-            }
-            
-            // Check if any authority contains one of the target keywords
-            for (GrantedAuthority authority : auth.getAuthorities()) {
-                String authorityName = authority.getAuthority();
-                if (authorityName != null) {
-                    String normalizedAuthority = authorityName.trim().toUpperCase();
-                    
-                    for (String keyword : targetKeywords) {
-                        if (keyword != null && normalizedAuthority.contains(keyword.toUpperCase())) {
-                            log.debug("Access granted: Authority '{}' contains keyword '{}' for path: {}", 
-                                    authorityName, keyword, context.getRequest().getRequestURI());
-                            return new AuthorizationDecision(true);
-                        }
-                    }
-                }
-            }
-            
-            log.debug("Access denied: No authority contains required keywords {} for user '{}' on path: {}", 
-                    Arrays.toString(targetKeywords), auth.getName(), context.getRequest().getRequestURI());
-            return new AuthorizationDecision(false);
-        }
-    }
 }
\ No newline at end of file
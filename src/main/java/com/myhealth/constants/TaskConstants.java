@@ -0,0 +1,31 @@
+package com.myhealth.constants;
+
+public final class TaskConstants {
+    
+    // Status a new task starts in ("Todo", seeded by V3)
+    public static final short DEFAULT_STATUS_ID = 2;
+    
+    public static final short BACKLOG_STATUS_ID = 1;
+    public static final short TODO_STATUS_ID = 2;
+    public static final short DONE_STATUS_ID = 5;
+    
+    // Largest number of tasks accepted by one batch request
+    public static final int MAX_BATCH_SIZE = 1000;
+    
+    // Deepest subtask nesting a tree request may ask for, and that moves may create
+    public static final int MAX_TREE_DEPTH = 50;
+    
+    // Largest number of tasks returned by one tree request
+    public static final int MAX_TREE_SIZE = 5000;
+    
+    // Largest number of tasks in one schedule request
+    public static final int MAX_SCHEDULE_SIZE = 20000;
+    
+    // Distance between the order_index ranks of siblings after a rebalance; about 20 moves can
+    // land in the same gap before its siblings are spread out again
+    public static final long RANK_GAP = 1L << 20;
+    
+    private TaskConstants() {
+        // Prevent instantiation
+    }
+}
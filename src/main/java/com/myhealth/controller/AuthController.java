@@ -7,6 +7,7 @@ import com.myhealth.dto.RegisterRequest;
 import com.myhealth.dto.RegisterResponse;
 import com.myhealth.service.AuthService;
 import com.myhealth.service.UserRegistrationService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,11 +33,15 @@ public class AuthController {
         @ApiResponse(responseCode = "200", description = "Login successful",
                 content = @Content(schema = @Schema(implementation = AuthResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid username or password",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "429", description = "Too many failed login attempts for this user or client",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "503", description = "Too many concurrent login attempts, retry shortly",
                 content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
     })
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest) {
-        AuthResponse response = authService.login(authRequest);
+    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest, HttpServletRequest request) {
+        AuthResponse response = authService.login(authRequest, request.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
     
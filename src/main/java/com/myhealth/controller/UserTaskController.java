@@ -1,8 +1,23 @@
 package com.myhealth.controller;
 
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.CursorPage;
+import com.myhealth.dto.task.TaskBulkAction;
+import com.myhealth.dto.task.TaskCountMode;
+import com.myhealth.dto.task.TaskListFilter;
+import com.myhealth.dto.task.TaskSearchMode;
+import com.myhealth.dto.task.UserTaskBatchCreateRequest;
+import com.myhealth.dto.task.UserTaskBatchResponse;
+import com.myhealth.dto.task.UserTaskBatchUpdateRequest;
+import com.myhealth.dto.task.UserTaskBulkFilter;
+import com.myhealth.dto.task.UserTaskBulkRequest;
+import com.myhealth.dto.task.UserTaskBulkResponse;
 import com.myhealth.dto.task.UserTaskCreateRequest;
+import com.myhealth.dto.task.UserTaskMoveRequest;
+import com.myhealth.dto.task.UserTaskPositionRequest;
 import com.myhealth.dto.task.UserTaskResponse;
 import com.myhealth.dto.task.UserTaskStatusChangeRequest;
+import com.myhealth.dto.task.UserTaskTreeNode;
 import com.myhealth.dto.task.UserTaskUpdateRequest;
 import com.myhealth.service.UserTaskService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,11 +33,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.ZonedDateTime;
 import java.util.UUID;
@@ -36,19 +54,25 @@ public class UserTaskController {
     
     private final UserTaskService userTaskService;
     
-    @Operation(summary = "List user tasks", description = "Get paginated list of user tasks with optional filters")
+    @Operation(summary = "List user tasks", description = "Get paginated list of user tasks with optional filters. "
+            + "The count parameter selects how the total is computed: exact (default, in the same query), "
+            + "cached (short-lived per-account cache) or none (slice without total).")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully",
                 content = @Content(schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid count mode or sort field",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
         @ApiResponse(responseCode = "401", description = "Unauthorized",
                 content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
     })
     @GetMapping
-    public ResponseEntity<Page<UserTaskResponse>> getUserTasks(
+    public ResponseEntity<Slice<UserTaskResponse>> getUserTasks(
             @Parameter(description = "Filter by status ID (1=Backlog, 2=Todo, 3=In Progress, 4=Blocked, 5=Done)")
             @RequestParam(required = false) Short status,
-            @Parameter(description = "Search query for title and description")
+            @Parameter(description = "Search query for title and description; every word matches as a prefix")
             @RequestParam(required = false) String q,
+            @Parameter(description = "How q matches: words (word prefixes in title and description) or contains (anywhere in the title)")
+            @RequestParam(defaultValue = "words") String match,
             @Parameter(description = "Filter tasks due from this date")
             @RequestParam(required = false) ZonedDateTime fromDue,
             @Parameter(description = "Filter tasks due until this date")
@@ -57,12 +81,67 @@ public class UserTaskController {
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size")
             @RequestParam(defaultValue = "20") int size,
-            @Parameter(description = "Sort field and direction (e.g., 'createdAt,desc')")
-            @RequestParam(defaultValue = "createdAt,desc") String sort) {
+            @Parameter(description = "Sort field and direction (e.g., 'createdAt,desc', 'rank,asc' for manual order, or 'relevance,desc' together with q)")
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @Parameter(description = "Total computation: exact, cached or none")
+            @RequestParam(defaultValue = "exact") String count,
+            @Parameter(description = "Add a snippet of the search match to each task")
+            @RequestParam(defaultValue = "false") boolean highlight) {
         
         Pageable pageable = createPageable(page, size, sort);
+        TaskCountMode countMode;
+        try {
+            countMode = TaskCountMode.fromParameter(count);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid count mode: " + count);
+        }
+        
+        TaskListFilter filter = new TaskListFilter(status, q, parseSearchMode(match), fromDue, toDue);
+        Slice<UserTaskResponse> tasks = userTaskService.getUserTasks(filter, highlight, pageable, countMode);
+        return ResponseEntity.ok(tasks);
+    }
+    
+    @Operation(summary = "List user tasks by cursor",
+            description = "Keyset-paginated list of user tasks ordered by creation time. Selected by the presence of the "
+                    + "cursor parameter: send an empty cursor for the first page and nextCursor for the following ones. "
+                    + "No total count is computed, and every page costs the same regardless of depth.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully",
+                content = @Content(schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or sort",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<UserTaskResponse>> getUserTasksByCursor(
+            @Parameter(description = "Filter by status ID (1=Backlog, 2=Todo, 3=In Progress, 4=Blocked, 5=Done)")
+            @RequestParam(required = false) Short status,
+            @Parameter(description = "Search query for title and description; every word matches as a prefix")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "How q matches: words (word prefixes in title and description) or contains (anywhere in the title)")
+            @RequestParam(defaultValue = "words") String match,
+            @Parameter(description = "Filter tasks due from this date")
+            @RequestParam(required = false) ZonedDateTime fromDue,
+            @Parameter(description = "Filter tasks due until this date")
+            @RequestParam(required = false) ZonedDateTime toDue,
+            @Parameter(description = "Opaque cursor from the previous page; empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Page size (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort direction on createdAt (e.g., 'createdAt,desc')")
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @Parameter(description = "Add a snippet of the search match to each task")
+            @RequestParam(defaultValue = "false") boolean highlight) {
+        
+        String[] sortParts = sort.split(",");
+        if (!"createdAt".equals(sortParts[0])) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor pagination only supports sorting by createdAt");
+        }
+        boolean descending = sortParts.length > 1 && "desc".equalsIgnoreCase(sortParts[1]);
         
-        Page<UserTaskResponse> tasks = userTaskService.getUserTasks(status, q, fromDue, toDue, pageable);
+        CursorPage<UserTaskResponse> tasks = userTaskService.getUserTasksByCursor(
+                new TaskListFilter(status, q, parseSearchMode(match), fromDue, toDue), highlight, cursor, size, descending);
         return ResponseEntity.ok(tasks);
     }
     
@@ -80,7 +159,7 @@ public class UserTaskController {
             @Parameter(description = "Task ID") @PathVariable UUID id) {
         
         UserTaskResponse task = userTaskService.getUserTask(id);
-        return ResponseEntity.ok(task);
+        return withETag(task);
     }
     
     @Operation(summary = "Create new task", description = "Create a new task for the authenticated user")
@@ -136,7 +215,8 @@ public class UserTaskController {
         return ResponseEntity.noContent().build();
     }
     
-    @Operation(summary = "Change task status", description = "Change the status of a task")
+    @Operation(summary = "Change task status", description = "Change the status of a task. " +
+            "Send the ETag of the task in If-Match to apply the change only if nobody modified the task since")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Task status changed successfully",
                 content = @Content(schema = @Schema(implementation = UserTaskResponse.class))),
@@ -146,19 +226,245 @@ public class UserTaskController {
                 content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
         @ApiResponse(responseCode = "409", description = "Invalid status transition",
                 content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "412", description = "Task version does not match If-Match",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
         @ApiResponse(responseCode = "401", description = "Unauthorized",
                 content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
     })
     @PatchMapping("/{id}/status")
     public ResponseEntity<UserTaskResponse> changeTaskStatus(
             @Parameter(description = "Task ID") @PathVariable UUID id,
-            @Valid @RequestBody UserTaskStatusChangeRequest request) {
+            @Valid @RequestBody UserTaskStatusChangeRequest request,
+            @Parameter(description = "ETag of the task as last read, e.g. \"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
         Short statusId = Short.parseShort(request.getStatusId());
-        UserTaskResponse task = userTaskService.changeTaskStatus(id, statusId);
-        return ResponseEntity.ok(task);
+        UserTaskResponse task = userTaskService.changeTaskStatus(id, statusId, parseIfMatch(ifMatch));
+        return withETag(task);
+    }
+    
+    @Operation(summary = "Get task tree", description = "Get a task with its subtasks nested down to the given depth, " +
+            "read in one query. Tasks at the depth limit that have further subtasks are marked as truncated")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Task tree retrieved successfully",
+                content = @Content(schema = @Schema(implementation = UserTaskTreeNode.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid depth, or too many tasks within it",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Task not found",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<UserTaskTreeNode> getTaskTree(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @Parameter(description = "Levels of subtasks to include (0-" + TaskConstants.MAX_TREE_DEPTH + ")")
+            @RequestParam(defaultValue = "10") int depth) {
+        
+        return ResponseEntity.ok(userTaskService.getTaskTree(id, depth));
+    }
+    
+    @Operation(summary = "Move task", description = "Move a task with all of its subtasks under another parent, or to " +
+            "the top level with a null parentId. Send the ETag of the task in If-Match to move it only if nobody " +
+            "modified the task since")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Task moved successfully",
+                content = @Content(schema = @Schema(implementation = UserTaskResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Task or parent task not found",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "409", description = "The parent is the task itself or one of its subtasks",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "412", description = "Task version does not match If-Match",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @PatchMapping("/{id}/parent")
+    public ResponseEntity<UserTaskResponse> moveTask(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @RequestBody UserTaskMoveRequest request,
+            @Parameter(description = "ETag of the task as last read, e.g. \"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        
+        UserTaskResponse task = userTaskService.moveTask(id, request.getParentId(), parseIfMatch(ifMatch));
+        return withETag(task);
     }
     
+    @Operation(summary = "Reorder task", description = "Place a task right after one of its sibling tasks, or first " +
+            "with a null afterId. Only the task's row is written. Send the ETag of the task in If-Match to reorder " +
+            "it only if nobody modified the task since")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Task reordered successfully",
+                content = @Content(schema = @Schema(implementation = UserTaskResponse.class))),
+        @ApiResponse(responseCode = "400", description = "The task is placed after itself",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Task not found, or afterId is not one of its siblings",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "412", description = "Task version does not match If-Match",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @PatchMapping("/{id}/position")
+    public ResponseEntity<UserTaskResponse> reorderTask(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @RequestBody UserTaskPositionRequest request,
+            @Parameter(description = "ETag of the task as last read, e.g. \"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        
+        UserTaskResponse task = userTaskService.reorderTask(id, request.getAfterId(), parseIfMatch(ifMatch));
+        return withETag(task);
+    }
+    
+    @Operation(summary = "Reorder checklist", description = "Place a checklist of a task right after another " +
+            "checklist of the task, or first with a null afterId. Only the checklist's row is written")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Checklist reordered successfully"),
+        @ApiResponse(responseCode = "400", description = "The checklist is placed after itself",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Task or checklist not found, or afterId is not a checklist " +
+                "of the task",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @PatchMapping("/{id}/checklists/{checklistId}/position")
+    public ResponseEntity<Void> reorderChecklist(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @Parameter(description = "Checklist ID") @PathVariable UUID checklistId,
+            @RequestBody UserTaskPositionRequest request) {
+        
+        userTaskService.reorderChecklist(id, checklistId, request.getAfterId());
+        return ResponseEntity.noContent().build();
+    }
+    
+    @Operation(summary = "Reorder checklist item", description = "Place a checklist item right after another item " +
+            "of the same checklist, or first with a null afterId. Only the item's row is written")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Checklist item reordered successfully"),
+        @ApiResponse(responseCode = "400", description = "The item is placed after itself",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Task, checklist or item not found, or afterId is not an " +
+                "item of the checklist",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @PatchMapping("/{id}/checklists/{checklistId}/items/{itemId}/position")
+    public ResponseEntity<Void> reorderChecklistItem(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @Parameter(description = "Checklist ID") @PathVariable UUID checklistId,
+            @Parameter(description = "Checklist item ID") @PathVariable UUID itemId,
+            @RequestBody UserTaskPositionRequest request) {
+        
+        userTaskService.reorderChecklistItem(id, checklistId, itemId, request.getAfterId());
+        return ResponseEntity.noContent().build();
+    }
+    
+    @Operation(summary = "Create tasks in bulk", description = "Create up to " + TaskConstants.MAX_BATCH_SIZE +
+            " tasks in one request. Items are validated individually; each result carries the status the item " +
+            "would have had as a single request (201 or the error)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item results",
+                content = @Content(schema = @Schema(implementation = UserTaskBatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<UserTaskBatchResponse> createTasks(
+            @Valid @RequestBody UserTaskBatchCreateRequest request) {
+        
+        return ResponseEntity.ok(userTaskService.createTasks(request.getTasks()));
+    }
+    
+    @Operation(summary = "Update tasks in bulk", description = "Update up to " + TaskConstants.MAX_BATCH_SIZE +
+            " tasks in one request. Items are validated individually; an item with a version fails with 412 " +
+            "if the task changed since it was read")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item results",
+                content = @Content(schema = @Schema(implementation = UserTaskBatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @PatchMapping("/batch")
+    public ResponseEntity<UserTaskBatchResponse> updateTasks(
+            @Valid @RequestBody UserTaskBatchUpdateRequest request) {
+        
+        return ResponseEntity.ok(userTaskService.updateTasks(request.getTasks()));
+    }
+    
+    @Operation(summary = "Apply an action to many tasks", description = "Change the status of, archive, unarchive or " +
+            "delete the tasks given by ids, or every task matching a filter, with a single statement. The response lists " +
+            "the changed ids and, for requests by ids, the ids that were skipped")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Action applied",
+                content = @Content(schema = @Schema(implementation = UserTaskBulkResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid action, status, neither or both of ids and filter, or a filter without criteria",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<UserTaskBulkResponse> applyBulkAction(
+            @Valid @RequestBody UserTaskBulkRequest request) {
+        
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Send either ids or filter");
+        }
+        TaskBulkAction action = TaskBulkAction.fromParameter(request.getAction());
+        Short statusId = request.getStatusId() != null ? Short.valueOf(request.getStatusId()) : null;
+        TaskListFilter filter = null;
+        if (request.getFilter() != null) {
+            UserTaskBulkFilter bulkFilter = request.getFilter();
+            TaskSearchMode searchMode = bulkFilter.getMatch() != null ? parseSearchMode(bulkFilter.getMatch()) : null;
+            filter = new TaskListFilter(bulkFilter.getStatus(), bulkFilter.getQ(), searchMode,
+                    bulkFilter.getFromDue(), bulkFilter.getToDue());
+            if (!filter.hasCriteria()) {
+                // An empty filter would apply the action to every task of the account
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The filter must set at least one criterion");
+            }
+        }
+        return ResponseEntity.ok(userTaskService.applyBulkAction(action, statusId, request.getIds(), filter));
+    }
+    
+    
+    private static ResponseEntity<UserTaskResponse> withETag(UserTaskResponse task) {
+        if (task.getVersion() == null) {
+            return ResponseEntity.ok(task);
+        }
+        return ResponseEntity.ok().eTag(String.valueOf(task.getVersion())).body(task);
+    }
+    
+    /**
+     * Reads the task version from an If-Match header holding a single strong ETag. A missing
+     * header or {@code *} means the change is unconditional.
+     */
+    private static Integer parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Integer.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid If-Match header: " + ifMatch);
+        }
+    }
+    
+    private TaskSearchMode parseSearchMode(String match) {
+        try {
+            return TaskSearchMode.fromParameter(match);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid match mode: " + match);
+        }
+    }
     
     private Pageable createPageable(int page, int size, String sort) {
         String[] sortParts = sort.split(",");
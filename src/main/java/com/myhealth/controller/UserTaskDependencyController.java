@@ -0,0 +1,126 @@
+package com.myhealth.controller;
+
+import com.myhealth.dto.task.UserTaskDependenciesResponse;
+import com.myhealth.dto.task.UserTaskDependencyOrderResponse;
+import com.myhealth.dto.task.UserTaskDependencyRequest;
+import com.myhealth.dto.task.UserTaskScheduleResponse;
+import com.myhealth.entity.task.DependencyType;
+import com.myhealth.service.TaskDependencyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/user/task")
+@RequiredArgsConstructor
+@Tag(name = "User Task Dependencies", description = "Dependencies between user tasks")
+@SecurityRequirement(name = "bearerAuth")
+public class UserTaskDependencyController {
+
+    private final TaskDependencyService taskDependencyService;
+
+    @Operation(summary = "Get task dependencies", description = "Get the tasks a task depends on, the tasks depending " +
+            "on it, and whether unfinished dependencies block it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dependencies retrieved successfully",
+                content = @Content(schema = @Schema(implementation = UserTaskDependenciesResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Task not found",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @GetMapping("/{id}/dependencies")
+    public ResponseEntity<UserTaskDependenciesResponse> getDependencies(
+            @Parameter(description = "Task ID") @PathVariable UUID id) {
+
+        return ResponseEntity.ok(taskDependencyService.getDependencies(id));
+    }
+
+    @Operation(summary = "Add task dependency", description = "Make a task depend on another task, or change the type " +
+            "of an existing dependency. Dependencies that would create a cycle are refused, checked against the database " +
+            "under a per-account lock so concurrent requests on different nodes cannot create one together")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dependency saved",
+                content = @Content(schema = @Schema(implementation = UserTaskDependenciesResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid type, or a task depending on itself",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Task or dependency task not found",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "409", description = "The dependency would create a cycle",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @PutMapping("/{id}/dependencies/{dependsOnId}")
+    public ResponseEntity<UserTaskDependenciesResponse> addDependency(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @Parameter(description = "ID of the task it depends on") @PathVariable UUID dependsOnId,
+            @Valid @RequestBody UserTaskDependencyRequest request) {
+
+        DependencyType type = DependencyType.valueOf(request.getType());
+        return ResponseEntity.ok(taskDependencyService.addDependency(id, dependsOnId, type));
+    }
+
+    @Operation(summary = "Remove task dependency", description = "Remove the dependency of a task on another task")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Dependency removed"),
+        @ApiResponse(responseCode = "404", description = "Task or dependency not found",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @DeleteMapping("/{id}/dependencies/{dependsOnId}")
+    public ResponseEntity<Void> removeDependency(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @Parameter(description = "ID of the task it depends on") @PathVariable UUID dependsOnId) {
+
+        taskDependencyService.removeDependency(id, dependsOnId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get dependency order", description = "Get the tasks that take part in a dependency, " +
+            "ordered so that every task comes after the tasks it depends on")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Order computed successfully",
+                content = @Content(schema = @Schema(implementation = UserTaskDependencyOrderResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @GetMapping("/dependencies/order")
+    public ResponseEntity<UserTaskDependencyOrderResponse> getDependencyOrder() {
+        return ResponseEntity.ok(taskDependencyService.getDependencyOrder());
+    }
+
+    @Operation(summary = "Get task schedule", description = "Compute the critical path of a task and its subtasks: " +
+            "earliest and latest start and finish and slack of every task, from estimates, start and due dates " +
+            "and the dependencies between the subtasks")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Schedule computed successfully",
+                content = @Content(schema = @Schema(implementation = UserTaskScheduleResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Task tree too large",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Task not found",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "409", description = "Dependencies between the subtasks contain a cycle",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = com.myhealth.dto.ApiError.class)))
+    })
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<UserTaskScheduleResponse> getSchedule(
+            @Parameter(description = "Task ID") @PathVariable UUID id) {
+
+        return ResponseEntity.ok(taskDependencyService.getSchedule(id));
+    }
+}
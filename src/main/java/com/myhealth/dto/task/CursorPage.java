@@ -0,0 +1,27 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cursor-paginated result")
+public class CursorPage<T> {
+    
+    @Schema(description = "Items on this page")
+    private List<T> content;
+    
+    @Schema(description = "Requested page size", example = "20")
+    private int size;
+    
+    @Schema(description = "Opaque cursor for the next page, absent on the last page")
+    private String nextCursor;
+    
+    @Schema(description = "Whether another page follows", example = "true")
+    private boolean hasNext;
+}
@@ -0,0 +1,32 @@
+package com.myhealth.dto.task;
+
+import com.myhealth.constants.TaskConstants;
+
+/**
+ * Ranks of the siblings a row is moved between, null at either end of the list.
+ */
+public record RankNeighbors(Long previous, Long next) {
+    
+    /**
+     * Rank that sorts strictly between the neighbors, or null when they are adjacent (or tied) and
+     * the siblings have to be rebalanced first.
+     */
+    public Long rankBetween() {
+        try {
+            if (previous == null && next == null) {
+                return TaskConstants.RANK_GAP;
+            }
+            if (previous == null) {
+                return Math.subtractExact(next, TaskConstants.RANK_GAP);
+            }
+            if (next == null) {
+                return Math.addExact(previous, TaskConstants.RANK_GAP);
+            }
+            long gap = Math.subtractExact(next, previous) / 2;
+            return gap > 0 ? previous + gap : null;
+        } catch (ArithmeticException e) {
+            // Ranks at the ends of the long range, which a rebalance brings back
+            return null;
+        }
+    }
+}
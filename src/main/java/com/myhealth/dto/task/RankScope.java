@@ -0,0 +1,29 @@
+package com.myhealth.dto.task;
+
+import java.util.UUID;
+
+/**
+ * Ordered list a reorder applies to: the sibling tasks of a task, the checklists of a task, or the
+ * items of a checklist. The ids of the enclosing task and checklist are the ones from the request
+ * path, and only rows under them in the account are matched.
+ */
+public record RankScope(Kind kind, UUID accountId, UUID taskId, UUID checklistId) {
+    
+    public enum Kind {
+        TASKS,
+        CHECKLISTS,
+        CHECKLIST_ITEMS
+    }
+    
+    public static RankScope tasks(UUID accountId) {
+        return new RankScope(Kind.TASKS, accountId, null, null);
+    }
+    
+    public static RankScope checklists(UUID accountId, UUID taskId) {
+        return new RankScope(Kind.CHECKLISTS, accountId, taskId, null);
+    }
+    
+    public static RankScope checklistItems(UUID accountId, UUID taskId, UUID checklistId) {
+        return new RankScope(Kind.CHECKLIST_ITEMS, accountId, taskId, checklistId);
+    }
+}
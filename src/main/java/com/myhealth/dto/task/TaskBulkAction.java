@@ -0,0 +1,28 @@
+package com.myhealth.dto.task;
+
+import java.util.Locale;
+
+/**
+ * Change applied by the bulk task endpoint to every selected task.
+ */
+public enum TaskBulkAction {
+    
+    /** Moves the tasks to another status, subject to the same transition rules as a single change. */
+    STATUS,
+    
+    /** Sets is_archived. */
+    ARCHIVE,
+    
+    /** Clears is_archived. */
+    UNARCHIVE,
+    
+    /** Soft deletes the tasks by setting deleted_at. */
+    DELETE;
+    
+    /**
+     * @throws IllegalArgumentException if the value names no action
+     */
+    public static TaskBulkAction fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,21 @@
+package com.myhealth.dto.task;
+
+import java.util.Set;
+
+/**
+ * Bulk change as the repository applies it. For {@link TaskBulkAction#STATUS} it carries the target
+ * status, whether that status counts as done, and the current statuses from which the move is refused.
+ */
+public record TaskBulkUpdate(TaskBulkAction action, Short statusId, boolean done, Set<Short> disallowedFrom) {
+    
+    public static TaskBulkUpdate status(short statusId, boolean done, Set<Short> disallowedFrom) {
+        return new TaskBulkUpdate(TaskBulkAction.STATUS, statusId, done, disallowedFrom);
+    }
+    
+    public static TaskBulkUpdate of(TaskBulkAction action) {
+        if (action == TaskBulkAction.STATUS) {
+            throw new IllegalArgumentException("A status change needs the target status");
+        }
+        return new TaskBulkUpdate(action, null, false, Set.of());
+    }
+}
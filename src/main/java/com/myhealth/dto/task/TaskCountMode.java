@@ -0,0 +1,25 @@
+package com.myhealth.dto.task;
+
+import java.util.Locale;
+
+/**
+ * How the offset-paginated task listing computes its total.
+ */
+public enum TaskCountMode {
+    
+    /** Exact total computed by the listing query itself with a window function. */
+    EXACT,
+    
+    /** No total; the response is a slice that only says whether a next page exists. */
+    NONE,
+    
+    /** Total served from a short-lived per-account cache, counted on a miss. */
+    CACHED;
+    
+    /**
+     * @throws IllegalArgumentException if the value names no mode
+     */
+    public static TaskCountMode fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,41 @@
+package com.myhealth.dto.task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last task on a page in keyset (cursor) pagination: the sort key of that row,
+ * its id as a tie-breaker and the direction the page was read in.
+ *
+ * Clients only see the opaque {@link #encode() encoded} form, so the layout can change without
+ * breaking them as long as old cursors keep decoding or are rejected cleanly.
+ */
+public record TaskCursor(Instant createdAt, UUID id, boolean descending) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = (descending ? 'd' : 'a') + String.valueOf(SEPARATOR)
+                + createdAt.getEpochSecond() + SEPARATOR + createdAt.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static TaskCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != 4 || parts[0].length() != 1 || "ad".indexOf(parts[0].charAt(0)) < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            return new TaskCursor(createdAt, UUID.fromString(parts[3]), parts[0].charAt(0) == 'd');
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
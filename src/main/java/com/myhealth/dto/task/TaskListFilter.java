@@ -0,0 +1,35 @@
+package com.myhealth.dto.task;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Filters of the task listing endpoints. Any component may be null to leave it out; a blank
+ * search query is treated as no query, and the search mode defaults to {@link TaskSearchMode#WORDS}.
+ */
+public record TaskListFilter(Short statusId, String query, TaskSearchMode searchMode,
+                             ZonedDateTime fromDue, ZonedDateTime toDue) {
+    
+    public TaskListFilter {
+        if (query != null && query.isBlank()) {
+            query = null;
+        }
+        if (searchMode == null) {
+            searchMode = TaskSearchMode.WORDS;
+        }
+    }
+    
+    public TaskListFilter(Short statusId, String query, ZonedDateTime fromDue, ZonedDateTime toDue) {
+        this(statusId, query, TaskSearchMode.WORDS, fromDue, toDue);
+    }
+    
+    public static TaskListFilter none() {
+        return new TaskListFilter(null, null, null, null);
+    }
+    
+    /**
+     * @return true if the filter narrows the tasks by at least one component
+     */
+    public boolean hasCriteria() {
+        return statusId != null || query != null || fromDue != null || toDue != null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.myhealth.dto.task;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Estimate, spent time and points of a task subtree, or a change to them. Points keep the scale of
+ * the rollup column, so equal amounts compare equal.
+ */
+public record TaskRollup(long estimateMinutes, long spentMinutes, BigDecimal points) {
+    
+    public static final TaskRollup ZERO = new TaskRollup(0, 0, BigDecimal.ZERO);
+    
+    public TaskRollup {
+        points = (points != null ? points : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Own values of a task, counting a missing estimate or points as zero.
+     */
+    public static TaskRollup of(Integer estimateMinutes, Integer spentMinutes, BigDecimal points) {
+        return new TaskRollup(estimateMinutes != null ? estimateMinutes : 0, spentMinutes != null ? spentMinutes : 0,
+                points);
+    }
+    
+    public TaskRollup plus(TaskRollup other) {
+        return new TaskRollup(estimateMinutes + other.estimateMinutes, spentMinutes + other.spentMinutes,
+                points.add(other.points));
+    }
+    
+    public TaskRollup minus(TaskRollup other) {
+        return new TaskRollup(estimateMinutes - other.estimateMinutes, spentMinutes - other.spentMinutes,
+                points.subtract(other.points));
+    }
+    
+    public TaskRollup negate() {
+        return ZERO.minus(this);
+    }
+    
+    public boolean isZero() {
+        return estimateMinutes == 0 && spentMinutes == 0 && points.signum() == 0;
+    }
+}
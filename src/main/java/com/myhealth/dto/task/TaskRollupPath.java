@@ -0,0 +1,10 @@
+package com.myhealth.dto.task;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Current rollup of a task and its live ancestors, nearest first, up to the first deleted one.
+ */
+public record TaskRollupPath(UUID taskId, TaskRollup rollup, List<UUID> ancestorIds) {
+}
@@ -0,0 +1,22 @@
+package com.myhealth.dto.task;
+
+import java.util.Locale;
+
+/**
+ * How the search query of the task listing is matched.
+ */
+public enum TaskSearchMode {
+    
+    /** Every word of the query matches a word prefix in the title or description (full-text search). */
+    WORDS,
+    
+    /** The query matches anywhere inside the title, including the middle of a word (trigram index). */
+    CONTAINS;
+    
+    /**
+     * @throws IllegalArgumentException if the value names no mode
+     */
+    public static TaskSearchMode fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,36 @@
+package com.myhealth.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one item of a batch request")
+public class UserTaskBatchItemResult {
+    
+    @Schema(description = "Position of the item in the request", example = "0")
+    private int index;
+    
+    @Schema(description = "HTTP status the item would have had as a single request", example = "201")
+    private int status;
+    
+    @Schema(description = "The written task, present when the item succeeded")
+    private UserTaskResponse task;
+    
+    @Schema(description = "Why the item was rejected, present when it failed", example = "Title is required")
+    private String error;
+    
+    public static UserTaskBatchItemResult succeeded(int index, HttpStatus status, UserTaskResponse task) {
+        return new UserTaskBatchItemResult(index, status.value(), task, null);
+    }
+    
+    public static UserTaskBatchItemResult failed(int index, HttpStatus status, String error) {
+        return new UserTaskBatchItemResult(index, status.value(), null, error);
+    }
+}
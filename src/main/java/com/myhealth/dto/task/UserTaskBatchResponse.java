@@ -0,0 +1,29 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item results of a batch request, in request order")
+public class UserTaskBatchResponse {
+    
+    @Schema(description = "Number of items written", example = "98")
+    private int succeeded;
+    
+    @Schema(description = "Number of items rejected", example = "2")
+    private int failed;
+    
+    @Schema(description = "One result per requested item")
+    private List<UserTaskBatchItemResult> results;
+    
+    public static UserTaskBatchResponse of(List<UserTaskBatchItemResult> results) {
+        int succeeded = (int) results.stream().filter(result -> result.getTask() != null).count();
+        return new UserTaskBatchResponse(succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,21 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.UUID;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "One task of a batch update")
+public class UserTaskBatchUpdateItem extends UserTaskUpdateRequest {
+    
+    @NotNull(message = "Task ID is required")
+    @Schema(description = "Task ID", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+    
+    @Schema(description = "Version the task was read at; the item fails with 412 if the task changed since", example = "3")
+    private Integer version;
+}
@@ -0,0 +1,19 @@
+package com.myhealth.dto.task;
+
+import com.myhealth.constants.TaskConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request to update several tasks at once, items are validated individually")
+public class UserTaskBatchUpdateRequest {
+    
+    @NotEmpty(message = "At least one task is required")
+    @Size(max = TaskConstants.MAX_BATCH_SIZE, message = "A batch must not exceed " + TaskConstants.MAX_BATCH_SIZE + " tasks")
+    @Schema(description = "Tasks to update")
+    private List<UserTaskBatchUpdateItem> tasks;
+}
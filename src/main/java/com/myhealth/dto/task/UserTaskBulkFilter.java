@@ -0,0 +1,26 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+
+@Data
+@Schema(description = "Selects the tasks of a bulk action with the same filters as the task listing")
+public class UserTaskBulkFilter {
+    
+    @Schema(description = "Status ID (1=Backlog, 2=Todo, 3=In Progress, 4=Blocked, 5=Done)", example = "5")
+    private Short status;
+    
+    @Schema(description = "Search query for title and description", example = "sprint 12")
+    private String q;
+    
+    @Schema(description = "How q matches: words or contains", example = "words", defaultValue = "words")
+    private String match = "words";
+    
+    @Schema(description = "Tasks due from this date", example = "2024-01-01T00:00:00Z")
+    private ZonedDateTime fromDue;
+    
+    @Schema(description = "Tasks due until this date", example = "2024-01-14T23:59:59Z")
+    private ZonedDateTime toDue;
+}
@@ -0,0 +1,32 @@
+package com.myhealth.dto.task;
+
+import com.myhealth.constants.TaskConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Schema(description = "Request to change many tasks with one statement, selected either by ids or by a filter")
+public class UserTaskBulkRequest {
+    
+    @NotBlank(message = "Action is required")
+    @Pattern(regexp = "^(?i)(status|archive|unarchive|delete)$", message = "Action must be status, archive, unarchive or delete")
+    @Schema(description = "Change to apply: status, archive, unarchive or delete", example = "archive")
+    private String action;
+    
+    @Pattern(regexp = "^(1|2|3|4|5)$", message = "Status must be between 1 and 5 (1=Backlog, 2=Todo, 3=In Progress, 4=Blocked, 5=Done)")
+    @Schema(description = "Target status, required for the status action", example = "5")
+    private String statusId;
+    
+    @Size(max = TaskConstants.MAX_BATCH_SIZE, message = "At most " + TaskConstants.MAX_BATCH_SIZE + " ids can be sent")
+    @Schema(description = "Tasks to change; send either ids or filter")
+    private List<UUID> ids;
+    
+    @Schema(description = "Filter selecting the tasks to change; send either ids or filter")
+    private UserTaskBulkFilter filter;
+}
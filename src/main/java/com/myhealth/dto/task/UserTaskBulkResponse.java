@@ -0,0 +1,28 @@
+package com.myhealth.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk action")
+public class UserTaskBulkResponse {
+    
+    @Schema(description = "Number of tasks changed", example = "42")
+    private int affected;
+    
+    @Schema(description = "Ids of the tasks changed")
+    private List<UUID> affectedIds;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Requested ids that were not changed because they do not exist, are not owned, are deleted "
+            + "or refuse the status transition; only present for requests by ids")
+    private List<UUID> skippedIds;
+}
@@ -0,0 +1,34 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dependencies of a task and whether they hold it up")
+public class UserTaskDependenciesResponse {
+    
+    @Schema(description = "Task ID", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID taskId;
+    
+    @Schema(description = "Tasks this task depends on")
+    private List<UserTaskDependency> dependsOn;
+    
+    @Schema(description = "Tasks that depend on this task")
+    private List<UserTaskDependency> dependents;
+    
+    @Schema(description = "True when an FS dependency is not done or an SS dependency has not started")
+    private boolean blocked;
+    
+    @Schema(description = "Dependencies that keep the task from starting")
+    private List<UUID> blockedBy;
+    
+    @Schema(description = "Dependencies that keep the task from finishing: FF not done, SF not started")
+    private List<UUID> finishBlockedBy;
+}
@@ -0,0 +1,22 @@
+package com.myhealth.dto.task;
+
+import com.myhealth.entity.task.DependencyType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Task on the other end of a dependency")
+public class UserTaskDependency {
+    
+    @Schema(description = "Task ID", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID taskId;
+    
+    @Schema(description = "Dependency type", example = "FS")
+    private DependencyType type;
+}
@@ -0,0 +1,25 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasks with dependencies in an order that respects them")
+public class UserTaskDependencyOrderResponse {
+    
+    @Schema(description = "Number of tasks that take part in a dependency", example = "120")
+    private int taskCount;
+    
+    @Schema(description = "Number of dependencies", example = "180")
+    private int dependencyCount;
+    
+    @Schema(description = "Task IDs, every task after the tasks it depends on")
+    private List<UUID> order;
+}
@@ -0,0 +1,17 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+@Schema(description = "Request to add a dependency, or change its type")
+public class UserTaskDependencyRequest {
+    
+    @NotNull(message = "Dependency type is required")
+    @Pattern(regexp = "^(FS|SS|FF|SF)$", message = "Dependency type must be FS, SS, FF or SF")
+    @Schema(description = "FS: start after the other task finishes, SS: start after it starts, " +
+            "FF: finish after it finishes, SF: finish after it starts", example = "FS")
+    private String type;
+}
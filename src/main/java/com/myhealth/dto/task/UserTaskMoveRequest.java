@@ -0,0 +1,14 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Schema(description = "Request to move a task, with all of its subtasks, under another parent")
+public class UserTaskMoveRequest {
+    
+    @Schema(description = "New parent task ID, or null to make the task top-level", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID parentId;
+}
@@ -0,0 +1,14 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Schema(description = "Request to move a task, checklist or checklist item to another position among its siblings")
+public class UserTaskPositionRequest {
+    
+    @Schema(description = "ID of the sibling to place it after, or null to place it first", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID afterId;
+}
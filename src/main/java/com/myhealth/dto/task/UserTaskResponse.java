@@ -1,8 +1,10 @@
 package com.myhealth.dto.task;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
@@ -40,6 +42,15 @@ public class UserTaskResponse {
     @Schema(description = "Time spent in minutes", example = "60")
     private Integer spentMinutes;
     
+    @Schema(description = "Estimated minutes of the task and its subtasks, not counting deleted subtrees", example = "480")
+    private Long rollupEstimateMinutes;
+    
+    @Schema(description = "Minutes spent on the task and its subtasks, not counting deleted subtrees", example = "210")
+    private Long rollupSpentMinutes;
+    
+    @Schema(description = "Points of the task and its subtasks, not counting deleted subtrees", example = "13.50")
+    private BigDecimal rollupPoints;
+    
     @Schema(description = "Task completion date", example = "2024-01-15T10:30:00Z")
     private ZonedDateTime completedAt;
     
@@ -48,4 +59,13 @@ public class UserTaskResponse {
     
     @Schema(description = "Task last update date", example = "2024-01-10T14:30:00Z")
     private ZonedDateTime updatedAt;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Task version, also sent as the ETag of single-task responses and accepted in If-Match", example = "3")
+    private Integer version;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Excerpt of the search match with matched words in markdown bold, only present when highlight is requested",
+            example = "Write the **quarterly** **report** for ...")
+    private String snippet;
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Computed schedule of one task")
+public class UserTaskScheduleEntry {
+    
+    @Schema(description = "Task ID", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID taskId;
+    
+    @Schema(description = "Remaining duration: the estimate, or 0 when the task is done or has no estimate", example = "120")
+    private long durationMinutes;
+    
+    @Schema(description = "Earliest time the task can start")
+    private Instant earliestStart;
+    
+    @Schema(description = "Earliest time the task can finish")
+    private Instant earliestFinish;
+    
+    @Schema(description = "Latest start that does not delay the schedule or miss a due date")
+    private Instant latestStart;
+    
+    @Schema(description = "Latest finish that does not delay the schedule or miss a due date")
+    private Instant latestFinish;
+    
+    @Schema(description = "Minutes the task can slip; negative when a due date cannot be met", example = "0")
+    private long slackMinutes;
+    
+    @Schema(description = "True when the task has no slack")
+    private boolean critical;
+}
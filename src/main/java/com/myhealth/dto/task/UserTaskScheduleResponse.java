@@ -0,0 +1,35 @@
+package com.myhealth.dto.task;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Critical path schedule of a task and its subtasks")
+public class UserTaskScheduleResponse {
+    
+    @Schema(description = "Task whose subtree was scheduled", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID rootId;
+    
+    @Schema(description = "Earliest start date in the subtree, or the time the schedule was computed")
+    private Instant start;
+    
+    @Schema(description = "Earliest time all tasks can be finished")
+    private Instant finish;
+    
+    @Schema(description = "Minutes from start to finish", example = "960")
+    private long durationMinutes;
+    
+    @Schema(description = "Critical tasks, each after the tasks it depends on")
+    private List<UUID> criticalPath;
+    
+    @Schema(description = "Schedule of every task, each after the tasks it depends on")
+    private List<UserTaskScheduleEntry> tasks;
+}
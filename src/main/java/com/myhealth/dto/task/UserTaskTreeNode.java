@@ -0,0 +1,29 @@
+package com.myhealth.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "Task with its subtasks, nested")
+public class UserTaskTreeNode extends UserTaskResponse {
+    
+    @Schema(description = "Parent task ID, null for a top-level task", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID parentId;
+    
+    @Schema(description = "Distance from the requested task, which has depth 0", example = "1")
+    private int depth;
+    
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    @Schema(description = "True when the task has subtasks below the requested depth that are not included")
+    private boolean truncated;
+    
+    @Schema(description = "Subtasks ordered by order index, then creation time")
+    private List<UserTaskTreeNode> children = new ArrayList<>();
+}
@@ -1,5 +1,6 @@
 package com.myhealth.entity;
 
+import com.myhealth.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -14,7 +15,7 @@ import java.util.UUID;
 public class UserProfile {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
     
     @Column(name = "email", nullable = false, unique = true)
@@ -1,10 +1,12 @@
 package com.myhealth.entity;
 
+import com.myhealth.security.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
 @Table(name = "user_roles")
+@EntityListeners(UserChangeListener.class)
 @Data
 @NoArgsConstructor
 public class UserRole {
@@ -1,5 +1,6 @@
 package com.myhealth.entity.task;
 
+import com.myhealth.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,7 +17,7 @@ import java.util.UUID;
 public class Attachment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.myhealth.entity.task;
 
+import com.myhealth.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,7 +17,7 @@ import java.util.UUID;
 public class Checklist {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,7 +27,8 @@ public class Checklist {
     @Column(name = "title")
     private String title;
     
-    @Column(name = "order_index", nullable = false)
+    // Rank among the checklists of the task, only written by the reorder statements
+    @Column(name = "order_index", nullable = false, updatable = false)
     private Long orderIndex = 0L;
     
     @OneToMany(mappedBy = "checklist", cascade = CascadeType.ALL, orphanRemoval = true)
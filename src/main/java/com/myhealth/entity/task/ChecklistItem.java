@@ -1,5 +1,6 @@
 package com.myhealth.entity.task;
 
+import com.myhealth.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,7 +17,7 @@ import java.util.UUID;
 public class ChecklistItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,7 +30,8 @@ public class ChecklistItem {
     @Column(name = "is_done", nullable = false)
     private Boolean isDone = false;
     
-    @Column(name = "order_index", nullable = false)
+    // Rank among the items of the checklist, only written by the reorder statements
+    @Column(name = "order_index", nullable = false, updatable = false)
     private Long orderIndex = 0L;
     
     @Column(name = "done_at")
@@ -1,5 +1,6 @@
 package com.myhealth.entity.task;
 
+import com.myhealth.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,7 +22,7 @@ import java.util.UUID;
 public class Task {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
     
     @Column(name = "account_id")
@@ -45,7 +46,9 @@ public class Task {
     @JoinColumn(name = "priority_id", nullable = false)
     private Priority priority;
     
-    @Column(name = "order_index", nullable = false)
+    // Rank among the sibling tasks. Only written by the reorder statements of TaskRepository, so a
+    // flush of a task loaded before a rebalance cannot put back its old rank
+    @Column(name = "order_index", nullable = false, updatable = false)
     private Long orderIndex = 0L;
     
     @Column(name = "estimate_minutes")
@@ -57,6 +60,17 @@ public class Task {
     @Column(name = "points", precision = 5, scale = 2)
     private BigDecimal points;
     
+    // Own values plus those of the live subtasks. Inserted with the task, then only changed by
+    // the increments of TaskRollupService, so a flush cannot overwrite a concurrent increment
+    @Column(name = "rollup_estimate_minutes", nullable = false, updatable = false)
+    private Long rollupEstimateMinutes = 0L;
+    
+    @Column(name = "rollup_spent_minutes", nullable = false, updatable = false)
+    private Long rollupSpentMinutes = 0L;
+    
+    @Column(name = "rollup_points", nullable = false, updatable = false, precision = 12, scale = 2)
+    private BigDecimal rollupPoints = BigDecimal.ZERO;
+    
     @Column(name = "start_at")
     private ZonedDateTime startAt;
     
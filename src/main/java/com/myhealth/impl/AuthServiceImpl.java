@@ -3,22 +3,23 @@ package com.myhealth.impl;
 import com.myhealth.dto.AuthRequest;
 import com.myhealth.dto.AuthResponse;
 import com.myhealth.dto.RefreshRequest;
-import com.myhealth.entity.User;
 import com.myhealth.exception.ApiException;
 import com.myhealth.model.UserToken;
-import com.myhealth.repository.UserRepository;
 import com.myhealth.repository.UserTokenRepository;
 import com.myhealth.security.ApiUserDetail;
+import com.myhealth.security.LoginAttemptTracker;
+import com.myhealth.security.VerifiedToken;
 import com.myhealth.service.AuthService;
+import com.myhealth.service.CustomUserDetailsService;
 import com.myhealth.service.JwtTokenService;
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.UUID;
@@ -29,16 +30,21 @@ public class AuthServiceImpl implements AuthService {
     
     private final AuthenticationManager authenticationManager;
     private final JwtTokenService jwtTokenService;
-    private final UserDetailsService userDetailsService;
-    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
     private final UserTokenRepository userTokenRepository;
+    private final LoginAttemptTracker loginAttemptTracker;
     
     @Value("${jwt.access-token-expiration-ms}")
     private long accessTokenExpirationMs;
     
     @Override
     @Transactional
-    public AuthResponse login(AuthRequest authRequest) {
+    public AuthResponse login(AuthRequest authRequest, String clientIp) {
+        // Rejected before the password is verified, so throttled attempts cost no bcrypt work
+        if (loginAttemptTracker.isThrottled(authRequest.getUsername(), clientIp)) {
+            throw new ApiException("Too many failed login attempts, please try again later", HttpStatus.TOO_MANY_REQUESTS);
+        }
+        
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -49,11 +55,17 @@ public class AuthServiceImpl implements AuthService {
             
             ApiUserDetail userDetails = (ApiUserDetail) authentication.getPrincipal();
             
-            String accessToken = jwtTokenService.generateAccessToken(userDetails.getId(), userDetails.getAuthorities());
+            String accessToken = jwtTokenService.generateAccessToken(userDetails.getId(), userDetails.getUsername(), userDetails.getAuthorities());
             String refreshToken = jwtTokenService.generateRefreshToken(userDetails.getId());
+            loginAttemptTracker.recordSuccess(userDetails.getUsername());
             
             return new AuthResponse(accessToken, refreshToken, accessTokenExpirationMs);
         } catch (org.springframework.security.core.AuthenticationException e) {
+            // Load shedding in the password encoder surfaces wrapped when the user lookup fails
+            if (e.getCause() instanceof ApiException apiException) {
+                throw apiException;
+            }
+            loginAttemptTracker.recordFailure(authRequest.getUsername(), clientIp, !(e instanceof UsernameNotFoundException));
             throw new ApiException("Invalid username or password", HttpStatus.BAD_REQUEST);
         }
     }
@@ -61,42 +73,47 @@ public class AuthServiceImpl implements AuthService {
     @Override
     @Transactional
     public AuthResponse refresh(RefreshRequest refreshRequest) {
-        // Validate access token signature without checking expiration
-        if (!jwtTokenService.validateTokenSignature(refreshRequest.getAccessToken())) {
+        // Verify access token signature once, without checking expiration
+        VerifiedToken accessToken;
+        try {
+            accessToken = jwtTokenService.verify(refreshRequest.getAccessToken());
+        } catch (JwtException e) {
             throw new ApiException("Invalid token signature", HttpStatus.UNAUTHORIZED);
         }
+        UUID userId = accessToken.getUserId();
         
-        // Extract userId from access token (ignoring expiration)
-        Claims claims = jwtTokenService.parseClaimsIgnoreExpiration(refreshRequest.getAccessToken());
-        UUID userId = UUID.fromString(claims.getSubject());
+        // Consume the refresh token and issue its replacement in a single round trip
+        String newRefreshToken = jwtTokenService.rotateRefreshToken(refreshRequest.getRefreshToken(), userId)
+                .orElseThrow(() -> rotationFailure(refreshRequest.getRefreshToken(), userId));
         
-        // Find and validate refresh token
-        UserToken userToken = userTokenRepository.findByRefreshToken(refreshRequest.getRefreshToken())
-                .orElseThrow(() -> new ApiException("Invalid refresh token", HttpStatus.UNAUTHORIZED));
+        // Load user details and generate new access token
+        ApiUserDetail userDetails;
+        try {
+            userDetails = userDetailsService.loadUserById(userId);
+        } catch (UsernameNotFoundException e) {
+            throw new ApiException("User not found", HttpStatus.NOT_FOUND);
+        }
+        String newAccessToken = jwtTokenService.generateAccessToken(userDetails.getId(), userDetails.getUsername(), userDetails.getAuthorities());
         
-        // Check if subject matches stored user id
+        return new AuthResponse(newAccessToken, newRefreshToken, accessTokenExpirationMs);
+    }
+    
+    /**
+     * Only reached when rotation consumed nothing, so the extra lookup is off the hot path and
+     * just picks the error message.
+     */
+    private ApiException rotationFailure(String refreshToken, UUID userId) {
+        UserToken userToken = userTokenRepository.findByRefreshToken(refreshToken).orElse(null);
+        if (userToken == null) {
+            return new ApiException("Invalid refresh token", HttpStatus.UNAUTHORIZED);
+        }
         if (!userId.equals(userToken.getUserId())) {
-            throw new ApiException("Token subject mismatch", HttpStatus.UNAUTHORIZED);
+            return new ApiException("Token subject mismatch", HttpStatus.UNAUTHORIZED);
         }
-        
-        // Check if refresh token is expired
         if (userToken.isExpired()) {
-            userTokenRepository.delete(userToken);
-            throw new ApiException("Refresh token expired, please login again", HttpStatus.UNAUTHORIZED);
+            return new ApiException("Refresh token expired, please login again", HttpStatus.UNAUTHORIZED);
         }
-        
-        // Load user details and generate new tokens
-        User user = userRepository.findById(userToken.getUserId())
-                .orElseThrow(() -> new ApiException("User not found", HttpStatus.NOT_FOUND));
-        
-        ApiUserDetail userDetails = (ApiUserDetail) userDetailsService.loadUserByUsername(user.getUsername());
-        String newAccessToken = jwtTokenService.generateAccessToken(userDetails.getId(), userDetails.getAuthorities());
-        
-        // Rotate refresh token
-        String newRefreshToken = jwtTokenService.generateRefreshToken(user.getId());
-        jwtTokenService.revokeRefreshToken(refreshRequest.getRefreshToken());
-        
-        return new AuthResponse(newAccessToken, newRefreshToken, accessTokenExpirationMs);
+        return new ApiException("Invalid refresh token", HttpStatus.UNAUTHORIZED);
     }
     
     @Override
@@ -3,10 +3,17 @@ package com.myhealth.impl;
 import com.myhealth.projection.UserLoginProjection;
 import com.myhealth.repository.UserRepository;
 import com.myhealth.security.ApiUserDetail;
+import com.myhealth.security.UserPrincipalCache;
+import com.myhealth.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,18 +21,74 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class CustomUserDetailsServiceImpl implements UserDetailsService {
+public class CustomUserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService, CustomUserDetailsService {
     
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
     
+    /**
+     * Number of recently active users loaded into the principal cache at startup, 0 disables warm-up.
+     */
+    @Value("${security.principal-cache.warm-up-size:0}")
+    private int warmUpSize;
+    
+    /**
+     * Served from {@link UserPrincipalCache}; deliberately not transactional so a cache hit
+     * does not borrow a connection from the pool.
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userPrincipalCache.getByUsername(username, this::loadFromDatabase);
+    }
+    
+    @Override
+    public ApiUserDetail loadUserById(UUID userId) throws UsernameNotFoundException {
+        return userPrincipalCache.getById(userId, id -> toUserDetail(userRepository.findByIdForLogin(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + id))));
+    }
+    
+    /**
+     * Called by the authentication provider after a successful login when the stored hash
+     * was produced with a different bcrypt cost than the one currently configured.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        ApiUserDetail current = (ApiUserDetail) user;
+        userRepository.updatePassword(current.getId(), newPassword);
+        // Bulk update bypasses the entity listener, so drop the cached principal here
+        userPrincipalCache.invalidate(current.getId(), current.getUsername());
+        log.debug("Re-encoded password hash for user: {}", current.getId());
+        
+        return new ApiUserDetail(
+                current.getId(),
+                current.getUsername(),
+                newPassword,
+                current.getAuthorities(),
+                current.isAccountNonExpired(),
+                current.isAccountNonLocked(),
+                current.isCredentialsNonExpired(),
+                current.isEnabled()
+        );
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpPrincipalCache() {
+        if (warmUpSize <= 0) {
+            return;
+        }
+        List<UserLoginProjection> recentUsers = userRepository.findRecentForLogin(PageRequest.of(0, warmUpSize));
+        recentUsers.forEach(user -> userPrincipalCache.put(toUserDetail(user)));
+        log.info("Warmed principal cache with {} users", recentUsers.size());
+    }
+    
+    private ApiUserDetail loadFromDatabase(String username) {
         log.debug("Loading user details for username: {}", username);
         
         UserLoginProjection userProjection = userRepository.findByUsernameForLogin(username)
@@ -33,6 +96,10 @@ public class CustomUserDetailsServiceImpl implements UserDetailsService {
         
         log.debug("User found with roles: {}", userProjection.getRoles());
         
+        return toUserDetail(userProjection);
+    }
+    
+    private ApiUserDetail toUserDetail(UserLoginProjection userProjection) {
         return new ApiUserDetail(
                 userProjection.getId(),
                 userProjection.getUsername(),
@@ -61,4 +128,4 @@ public class CustomUserDetailsServiceImpl implements UserDetailsService {
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
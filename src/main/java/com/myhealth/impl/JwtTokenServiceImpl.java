@@ -4,9 +4,13 @@ import com.myhealth.exception.UnauthorizedException;
 import com.myhealth.model.UserToken;
 import com.myhealth.repository.UserTokenRepository;
 import com.myhealth.security.ApiUserDetail;
+import com.myhealth.security.JwtKeyRing;
+import com.myhealth.security.TokenDigest;
+import com.myhealth.security.UserRevocationRegistry;
+import com.myhealth.security.VerifiedToken;
+import com.myhealth.security.VerifiedTokenCache;
 import com.myhealth.service.JwtTokenService;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -14,10 +18,12 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import javax.crypto.SecretKey;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -25,10 +31,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class JwtTokenServiceImpl implements JwtTokenService {
     
-    private final UserTokenRepository userTokenRepository;
+    private static final int REFRESH_TOKEN_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     
-    @Value("${jwt.secret}")
-    private String secret;
+    private final UserTokenRepository userTokenRepository;
+    private final UserRevocationRegistry userRevocationRegistry;
+    private final JwtKeyRing jwtKeyRing;
+    private final VerifiedTokenCache verifiedTokenCache;
     
     @Value("${jwt.access-token-expiration-ms}")
     private long accessTokenExpirationMs;
@@ -36,64 +45,105 @@ public class JwtTokenServiceImpl implements JwtTokenService {
     @Value("${jwt.refresh-token-expiration-ms}")
     private long refreshTokenExpirationMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
+    @Value("${jwt.max-active-refresh-tokens-per-user}")
+    private int maxActiveRefreshTokensPerUser;
     
     @Override
     public String generateAccessToken(UUID userId, Collection<? extends GrantedAuthority> authorities) {
+        return generateAccessToken(userId, null, authorities);
+    }
+    
+    @Override
+    public String generateAccessToken(UUID userId, String username, Collection<? extends GrantedAuthority> authorities) {
         return Jwts.builder()
+                .header().keyId(jwtKeyRing.getSigningKeyId()).and()
                 .subject(userId.toString())
-                .claim("authorities", authorities.stream()
+                .claim(USERNAME_CLAIM, username)
+                .claim(AUTHORITIES_CLAIM, authorities.stream()
                         .map(GrantedAuthority::getAuthority)
                         .collect(Collectors.toList()))
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + accessTokenExpirationMs))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(jwtKeyRing.getSigningKey(), Jwts.SIG.HS256)
                 .compact();
     }
     
     @Override
     @Transactional
     public String generateRefreshToken(UUID userId) {
-        String token = UUID.randomUUID().toString();
+        String token = newRefreshToken();
         UserToken userToken = new UserToken();
         userToken.setUserId(userId);
-        userToken.setRefreshToken(token);
+        userToken.setRefreshTokenHash(TokenDigest.sha256(token));
         userToken.setExpiresAt(LocalDateTime.now().plusSeconds(refreshTokenExpirationMs / 1000));
         userTokenRepository.save(userToken);
+        if (maxActiveRefreshTokensPerUser > 0) {
+            // Oldest sessions beyond the cap are signed out
+            userTokenRepository.trimActiveTokens(userId, maxActiveRefreshTokensPerUser);
+        }
         return token;
     }
     
     @Override
-    public Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    @Transactional
+    public Optional<String> rotateRefreshToken(String refreshToken, UUID userId) {
+        String token = newRefreshToken();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(refreshTokenExpirationMs / 1000);
+        return userTokenRepository.rotate(TokenDigest.sha256(refreshToken), userId, TokenDigest.sha256(token), expiresAt)
+                ? Optional.of(token)
+                : Optional.empty();
+    }
+    
+    /**
+     * 256 bits from a CSPRNG, base64url encoded (43 characters).
+     */
+    private static String newRefreshToken() {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
     
     @Override
-    public Claims parseClaimsIgnoreExpiration(String token) {
+    public VerifiedToken verify(String token) {
         if (token == null || token.trim().isEmpty()) {
             throw new JwtException("Token cannot be null or empty");
         }
+        return verifiedTokenCache.get(token, this::parseAndVerify);
+    }
+    
+    private VerifiedToken parseAndVerify(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return new VerifiedToken(jwtKeyRing.getParser().parseSignedClaims(token).getPayload());
         } catch (ExpiredJwtException e) {
-            return e.getClaims();
+            // Signature has already been verified when expiry is checked
+            return new VerifiedToken(e.getClaims());
         }
     }
     
+    @Override
+    public VerifiedToken verifyAccessToken(String token) {
+        VerifiedToken verifiedToken = verify(token);
+        if (verifiedToken.isExpired()) {
+            throw new ExpiredJwtException(null, verifiedToken.getClaims(),
+                    "JWT expired at " + verifiedToken.getClaims().getExpiration());
+        }
+        return verifiedToken;
+    }
+    
+    @Override
+    public Claims parseClaims(String token) {
+        return verifyAccessToken(token).getClaims();
+    }
+    
+    @Override
+    public Claims parseClaimsIgnoreExpiration(String token) {
+        return verify(token).getClaims();
+    }
+    
     @Override
     public boolean isTokenExpired(String token) {
         try {
-            return parseClaims(token).getExpiration().before(new Date());
+            return verify(token).isExpired();
         } catch (JwtException e) {
             return true;
         }
@@ -101,13 +151,13 @@ public class JwtTokenServiceImpl implements JwtTokenService {
     
     @Override
     public UUID getUserId(String token) {
-        return UUID.fromString(parseClaims(token).getSubject());
+        return verifyAccessToken(token).getUserId();
     }
     
     @Override
     public boolean validateToken(String token) {
         try {
-            parseClaims(token);
+            verifyAccessToken(token);
             return true;
         } catch (JwtException e) {
             return false;
@@ -116,11 +166,8 @@ public class JwtTokenServiceImpl implements JwtTokenService {
     
     @Override
     public boolean validateTokenSignature(String token) {
-        if (token == null || token.trim().isEmpty()) {
-            return false;
-        }
         try {
-            parseClaimsIgnoreExpiration(token);
+            verify(token);
             return true;
         } catch (JwtException e) {
             return false;
@@ -137,6 +184,7 @@ public class JwtTokenServiceImpl implements JwtTokenService {
     @Transactional
     public void revokeAllUserTokens(UUID userId) {
         userTokenRepository.deleteByUserId(userId);
+        userRevocationRegistry.revoke(userId);
     }
     
     @Override
@@ -0,0 +1,207 @@
+package com.myhealth.impl;
+
+import com.myhealth.cache.TaskDependencyGraph;
+import com.myhealth.cache.TaskDependencyGraphCache;
+import com.myhealth.cache.TaskSchedule;
+import com.myhealth.cache.TaskScheduleCache;
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.UserTaskDependenciesResponse;
+import com.myhealth.dto.task.UserTaskDependency;
+import com.myhealth.dto.task.UserTaskDependencyOrderResponse;
+import com.myhealth.dto.task.UserTaskScheduleEntry;
+import com.myhealth.dto.task.UserTaskScheduleResponse;
+import com.myhealth.entity.task.DependencyType;
+import com.myhealth.entity.task.Task;
+import com.myhealth.entity.task.TaskDependency;
+import com.myhealth.entity.task.TaskDependencyId;
+import com.myhealth.projection.task.TaskScheduleProjection;
+import com.myhealth.repository.TaskDependencyRepository;
+import com.myhealth.repository.TaskRepository;
+import com.myhealth.service.JwtTokenService;
+import com.myhealth.service.TaskDependencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TaskDependencyServiceImpl implements TaskDependencyService {
+    
+    private final TaskRepository taskRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final TaskDependencyGraphCache taskDependencyGraphCache;
+    private final TaskScheduleCache taskScheduleCache;
+    private final JwtTokenService jwtTokenService;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserTaskDependenciesResponse getDependencies(UUID taskId) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Fetching dependencies of task: {} for user: {}", taskId, userId);
+        
+        TaskDependencyGraph graph = taskDependencyGraphCache.get(userId);
+        // Tasks without dependencies are not in the graph, only then is the task looked up
+        if (!graph.contains(taskId) && !taskRepository.existsByIdAndAccountIdAndDeletedAtIsNull(taskId, userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
+        return toResponse(taskId, graph);
+    }
+    
+    @Override
+    public UserTaskDependenciesResponse addDependency(UUID taskId, UUID dependsOnId, DependencyType type) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Adding {} dependency of task: {} on: {} for user: {}", type, taskId, dependsOnId, userId);
+        
+        if (taskId.equals(dependsOnId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A task cannot depend on itself");
+        }
+        Map<UUID, Task> tasks = taskRepository.findAllByIdInAndAccountId(List.of(taskId, dependsOnId), userId).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Task task = tasks.get(taskId);
+        Task dependsOn = tasks.get(dependsOnId);
+        if (task == null || dependsOn == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, task == null ? "Task not found" : "Dependency task not found");
+        }
+        
+        // The cached graph may miss edges written on other nodes, so the cycle check reads the database
+        // under the account's lock; a concurrent request for the opposite dependency waits and sees this one
+        taskRepository.lockTaskHierarchy(userId);
+        if (taskDependencyRepository.countDependencyPath(dependsOnId, taskId) > 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Dependency would create a cycle");
+        }
+        boolean added = taskDependencyGraphCache.addDependency(userId, taskId, task.getStatus().getId(), dependsOnId,
+                dependsOn.getStatus().getId(), type);
+        if (!added) {
+            // The graph still holds an edge that was removed on another node
+            taskDependencyGraphCache.invalidate(userId);
+        }
+        taskDependencyRepository.save(new TaskDependency(taskId, dependsOnId, type, null, null));
+        taskScheduleCache.invalidate(userId);
+        log.info("Added {} dependency of task: {} on: {} for user: {}", type, taskId, dependsOnId, userId);
+        
+        return toResponse(taskId, taskDependencyGraphCache.get(userId));
+    }
+    
+    @Override
+    public void removeDependency(UUID taskId, UUID dependsOnId) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Removing dependency of task: {} on: {} for user: {}", taskId, dependsOnId, userId);
+        
+        if (!taskRepository.existsByIdAndAccountIdAndDeletedAtIsNull(taskId, userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
+        TaskDependencyId id = new TaskDependencyId(taskId, dependsOnId);
+        if (!taskDependencyRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Dependency not found");
+        }
+        taskDependencyRepository.deleteById(id);
+        taskDependencyGraphCache.removeDependency(userId, taskId, dependsOnId);
+        taskScheduleCache.invalidate(userId);
+        
+        log.info("Removed dependency of task: {} on: {} for user: {}", taskId, dependsOnId, userId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserTaskDependencyOrderResponse getDependencyOrder() {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Fetching dependency order for user: {}", userId);
+        
+        TaskDependencyGraph graph = taskDependencyGraphCache.get(userId);
+        return new UserTaskDependencyOrderResponse(graph.taskCount(), graph.dependencyCount(), graph.topologicalOrder());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserTaskScheduleResponse getSchedule(UUID rootId) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Fetching schedule of task: {} for user: {}", rootId, userId);
+        
+        TaskSchedule schedule = taskScheduleCache.get(userId, rootId, () -> buildSchedule(rootId, userId));
+        if (schedule == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Dependencies between the subtasks contain a cycle");
+        }
+        return toScheduleResponse(rootId, schedule);
+    }
+    
+    /**
+     * Reads the subtree with one query and takes the dependencies between its tasks from the
+     * account's dependency graph.
+     */
+    private TaskSchedule buildSchedule(UUID rootId, UUID userId) {
+        List<TaskScheduleProjection> rows = taskRepository.findSubtreeSchedule(rootId, userId,
+                TaskConstants.MAX_TREE_DEPTH, TaskConstants.MAX_SCHEDULE_SIZE + 1);
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
+        if (rows.size() > TaskConstants.MAX_SCHEDULE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Task tree has more than " + TaskConstants.MAX_SCHEDULE_SIZE + " tasks");
+        }
+        
+        TaskSchedule.Builder builder = TaskSchedule.builder();
+        for (TaskScheduleProjection row : rows) {
+            boolean done = taskDependencyGraphCache.progressOf(row.getStatusId()) == TaskDependencyGraph.Progress.DONE;
+            builder.task(row.getId(), row.getEstimateMinutes(), done, row.getStartAt(), row.getDueAt());
+        }
+        TaskDependencyGraph graph = taskDependencyGraphCache.get(userId);
+        for (TaskScheduleProjection row : rows) {
+            for (TaskDependencyGraph.Edge edge : graph.dependenciesOf(row.getId())) {
+                builder.dependency(row.getId(), edge.taskId(), edge.type());
+            }
+        }
+        TaskSchedule schedule = builder.build(Instant.now());
+        log.debug("Built schedule of task: {} with {} tasks for user: {}", rootId, rows.size(), userId);
+        return schedule;
+    }
+    
+    private static UserTaskScheduleResponse toScheduleResponse(UUID rootId, TaskSchedule schedule) {
+        TaskSchedule.Snapshot snapshot = schedule.snapshot();
+        Instant start = snapshot.start();
+        List<TaskSchedule.Timing> timings = snapshot.timings();
+        long finish = snapshot.finishMinutes();
+        List<UserTaskScheduleEntry> tasks = timings.stream()
+                .map(timing -> new UserTaskScheduleEntry(timing.taskId(),
+                        timing.durationMinutes(),
+                        start.plusSeconds(timing.earliestStart() * 60),
+                        start.plusSeconds(timing.earliestFinish() * 60),
+                        start.plusSeconds(timing.latestStart() * 60),
+                        start.plusSeconds(timing.latestFinish() * 60),
+                        timing.slackMinutes(),
+                        timing.critical()))
+                .toList();
+        List<UUID> criticalPath = timings.stream()
+                .filter(TaskSchedule.Timing::critical)
+                .map(TaskSchedule.Timing::taskId)
+                .toList();
+        return new UserTaskScheduleResponse(rootId, start, start.plusSeconds(finish * 60), finish, criticalPath, tasks);
+    }
+    
+    private static UserTaskDependenciesResponse toResponse(UUID taskId, TaskDependencyGraph graph) {
+        List<UUID> blockedBy = graph.startBlockers(taskId);
+        return new UserTaskDependenciesResponse(taskId,
+                toDependencies(graph.dependenciesOf(taskId)),
+                toDependencies(graph.dependentsOf(taskId)),
+                !blockedBy.isEmpty(),
+                blockedBy,
+                graph.finishBlockers(taskId));
+    }
+    
+    private static List<UserTaskDependency> toDependencies(List<TaskDependencyGraph.Edge> edges) {
+        return edges.stream()
+                .map(edge -> new UserTaskDependency(edge.taskId(), edge.type()))
+                .toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.myhealth.impl;
+
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.TaskRollup;
+import com.myhealth.dto.task.TaskRollupPath;
+import com.myhealth.repository.TaskRepository;
+import com.myhealth.service.TaskRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskRollupServiceImpl implements TaskRollupService {
+    
+    private final TaskRepository taskRepository;
+    
+    @Override
+    public void ownValuesChanged(UUID accountId, Map<UUID, TaskRollup> changes) {
+        Map<UUID, TaskRollup> deltas = new HashMap<>();
+        changes.forEach((taskId, change) -> {
+            if (!change.isZero()) {
+                deltas.merge(taskId, change, TaskRollup::plus);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        for (TaskRollupPath path : taskRepository.findRollupPaths(List.copyOf(deltas.keySet()), accountId,
+                TaskConstants.MAX_TREE_DEPTH)) {
+            TaskRollup change = changes.get(path.taskId());
+            path.ancestorIds().forEach(ancestorId -> deltas.merge(ancestorId, change, TaskRollup::plus));
+        }
+        apply(accountId, deltas);
+    }
+    
+    @Override
+    public void detach(UUID accountId, Collection<UUID> taskIds) {
+        move(accountId, taskIds, true);
+    }
+    
+    @Override
+    public void attach(UUID accountId, Collection<UUID> taskIds) {
+        move(accountId, taskIds, false);
+    }
+    
+    private void move(UUID accountId, Collection<UUID> taskIds, boolean subtract) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, TaskRollup> deltas = new HashMap<>();
+        for (TaskRollupPath path : taskRepository.findRollupPaths(taskIds, accountId, TaskConstants.MAX_TREE_DEPTH)) {
+            TaskRollup change = subtract ? path.rollup().negate() : path.rollup();
+            if (!change.isZero()) {
+                path.ancestorIds().forEach(ancestorId -> deltas.merge(ancestorId, change, TaskRollup::plus));
+            }
+        }
+        apply(accountId, deltas);
+    }
+    
+    /**
+     * Writes the merged deltas with one UPDATE per distinct delta. A single change, or siblings
+     * changed by the same amount, share their whole ancestor path and need one statement.
+     */
+    private void apply(UUID accountId, Map<UUID, TaskRollup> deltas) {
+        Map<TaskRollup, List<UUID>> idsByDelta = new LinkedHashMap<>();
+        deltas.forEach((taskId, delta) -> {
+            if (!delta.isZero()) {
+                idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(taskId);
+            }
+        });
+        idsByDelta.forEach((delta, ids) -> taskRepository.addToRollups(accountId, ids, delta));
+        log.debug("Updated rollups of {} tasks with {} statements for account: {}", deltas.size(), idsByDelta.size(),
+                accountId);
+    }
+}
@@ -0,0 +1,86 @@
+package com.myhealth.impl;
+
+import com.myhealth.repository.UserTokenRepository;
+import com.myhealth.service.TokenPurgeService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Periodically removes expired refresh tokens so {@code user_tokens} and its indexes stay small.
+ *
+ * Each batch is its own short transaction, deleting the oldest expired rows first via the
+ * {@code expires_at} index. On PostgreSQL batches skip rows locked by another node, so every
+ * node can run the job without coordination.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenPurgeServiceImpl implements TokenPurgeService, MeterBinder {
+    
+    private final UserTokenRepository userTokenRepository;
+    
+    private final LongAdder purgedTotal = new LongAdder();
+    private final AtomicLong lastRunDurationMs = new AtomicLong();
+    
+    @Value("${jwt.token-purge.enabled}")
+    private boolean enabled;
+    
+    @Value("${jwt.token-purge.batch-size}")
+    private int batchSize;
+    
+    @Value("${jwt.token-purge.max-batches-per-run}")
+    private int maxBatchesPerRun;
+    
+    @Scheduled(initialDelayString = "${jwt.token-purge.initial-delay-ms}", fixedDelayString = "${jwt.token-purge.interval-ms}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purgeExpiredTokens();
+        }
+    }
+    
+    @Override
+    public int purgeExpiredTokens() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            deleted = userTokenRepository.deleteExpiredBatch(now, batchSize);
+            purged += deleted;
+            batches++;
+        } while (deleted == batchSize && batches < maxBatchesPerRun);
+        
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        purgedTotal.add(purged);
+        lastRunDurationMs.set(durationMs);
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens in {} batches ({} ms)", purged, batches, durationMs);
+        } else {
+            log.debug("No expired refresh tokens to purge ({} ms)", durationMs);
+        }
+        return purged;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.token.purge.deleted", purgedTotal, LongAdder::sum)
+                .description("Expired refresh tokens deleted by the purge job")
+                .register(registry);
+        Gauge.builder("jwt.token.purge.last.duration", lastRunDurationMs, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .description("Duration of the last refresh token purge run")
+                .register(registry);
+    }
+}
@@ -56,7 +56,7 @@ public class UserRegistrationServiceImpl implements UserRegistrationService {
         
         // Create user (child entity)
         User user = new User();
-        user.setId(savedProfile.getId()); // Same ID as profile
+        user.setId(savedProfile.getId()); // Same time-ordered (UUIDv7) ID as profile
         user.setUsername(registerRequest.getEmail()); // Email as username
         user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
         user.setEnabled(UserConstants.DEFAULT_ENABLED);
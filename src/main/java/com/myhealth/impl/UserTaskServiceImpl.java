@@ -1,22 +1,48 @@
 package com.myhealth.impl;
 
+import com.myhealth.cache.ReferenceDataCache;
+import com.myhealth.cache.ReferenceDataCache.PriorityRef;
+import com.myhealth.cache.ReferenceDataCache.StatusRef;
+import com.myhealth.cache.TaskCountCache;
+import com.myhealth.cache.TaskDependencyGraphCache;
+import com.myhealth.cache.TaskScheduleCache;
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.CursorPage;
+import com.myhealth.dto.task.RankNeighbors;
+import com.myhealth.dto.task.RankScope;
+import com.myhealth.dto.task.TaskBulkAction;
+import com.myhealth.dto.task.TaskBulkUpdate;
+import com.myhealth.dto.task.TaskCountMode;
+import com.myhealth.dto.task.TaskCursor;
+import com.myhealth.dto.task.TaskListFilter;
+import com.myhealth.dto.task.TaskRollup;
+import com.myhealth.dto.task.UserTaskBatchItemResult;
+import com.myhealth.dto.task.UserTaskBatchResponse;
+import com.myhealth.dto.task.UserTaskBatchUpdateItem;
+import com.myhealth.dto.task.UserTaskBulkResponse;
 import com.myhealth.dto.task.UserTaskCreateRequest;
 import com.myhealth.dto.task.UserTaskResponse;
+import com.myhealth.dto.task.UserTaskTreeNode;
 import com.myhealth.dto.task.UserTaskUpdateRequest;
 import com.myhealth.entity.task.Priority;
 import com.myhealth.entity.task.Status;
 import com.myhealth.entity.task.Task;
 import com.myhealth.projection.task.UserTaskDetailProjection;
 import com.myhealth.projection.task.UserTaskListProjection;
+import com.myhealth.projection.task.UserTaskTreeProjection;
 import com.myhealth.repository.PriorityRepository;
 import com.myhealth.repository.StatusRepository;
 import com.myhealth.repository.TaskRepository;
 import com.myhealth.service.JwtTokenService;
+import com.myhealth.service.TaskRollupService;
 import com.myhealth.service.UserTaskService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,8 +51,17 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -34,22 +69,73 @@ import java.util.UUID;
 @Transactional
 public class UserTaskServiceImpl implements UserTaskService {
     
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+    
     private final TaskRepository taskRepository;
     private final StatusRepository statusRepository;
     private final PriorityRepository priorityRepository;
     private final JwtTokenService jwtTokenService;
+    private final TaskCountCache taskCountCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final TaskDependencyGraphCache taskDependencyGraphCache;
+    private final TaskScheduleCache taskScheduleCache;
+    private final TaskRollupService taskRollupService;
+    private final Validator validator;
     
     @Override
     @Transactional(readOnly = true)
-    public Page<UserTaskResponse> getUserTasks(Short statusId, String query, 
-                                              ZonedDateTime fromDue, ZonedDateTime toDue, Pageable pageable) {
+    public Slice<UserTaskResponse> getUserTasks(TaskListFilter filter, boolean highlight, Pageable pageable,
+                                               TaskCountMode countMode) {
         UUID userId = jwtTokenService.getLoggedInUserId();
-        log.info("Fetching tasks for user: {} with filters - status: {}, query: {}", userId, statusId, query);
+        log.info("Fetching tasks for user: {} with filters - status: {}, query: {}, count: {}",
+                userId, filter.statusId(), filter.query(), countMode);
+        
+        try {
+            return switch (countMode) {
+                case EXACT -> taskRepository.findUserTasksCounted(userId, filter, highlight, pageable)
+                        .map(this::mapToResponse);
+                case NONE -> taskRepository.findUserTasksSlice(userId, filter, highlight, pageable)
+                        .map(this::mapToResponse);
+                case CACHED -> {
+                    Slice<UserTaskListProjection> slice =
+                            taskRepository.findUserTasksSlice(userId, filter, highlight, pageable);
+                    long total = taskCountCache.get(userId, filter, () -> taskRepository.countUserTasks(userId, filter));
+                    yield new PageImpl<>(slice.getContent(), pageable, total).map(this::mapToResponse);
+                }
+            };
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserTaskResponse> getUserTasksByCursor(TaskListFilter filter, boolean highlight,
+                                                             String cursor, int size, boolean descending) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Fetching tasks by cursor for user: {} with filters - status: {}, query: {}",
+                userId, filter.statusId(), filter.query());
+        
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        TaskCursor after = decodeCursor(cursor, descending);
+        
+        // One extra row tells whether a next page exists without a COUNT query
+        List<UserTaskListProjection> rows = taskRepository.findUserTasksAfter(
+            userId, filter, highlight, after, descending, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<UserTaskListProjection> pageRows = hasNext ? rows.subList(0, size) : rows;
         
-        Page<UserTaskListProjection> projections = taskRepository.findUserTasksWithFilters(
-            userId, statusId, query, fromDue, toDue, pageable);
+        String nextCursor = null;
+        if (hasNext) {
+            UserTaskListProjection last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId(), descending).encode();
+        }
         
-        return projections.map(this::mapToResponse);
+        List<UserTaskResponse> content = pageRows.stream().map(this::mapToResponse).toList();
+        return new CursorPage<>(content, size, nextCursor, hasNext);
     }
     
     @Override
@@ -69,26 +155,15 @@ public class UserTaskServiceImpl implements UserTaskService {
         UUID userId = jwtTokenService.getLoggedInUserId();
         log.info("Creating task for user: {} with title: {}", userId, request.getTitle());
         
-        Status status = statusRepository.findById((short) 2) // Default to "Todo"
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Default status not found"));
-        
-        Priority priority = priorityRepository.findById(Short.parseShort(request.getPriorityId()))
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid priority"));
-        
-        Task task = new Task();
-        task.setAccountId(userId);
-        task.setTitle(request.getTitle());
-        task.setDescriptionMd(request.getDescriptionMd());
-        task.setStatus(status);
-        task.setPriority(priority);
-        task.setDueAt(request.getDueAt());
-        task.setEstimateMinutes(request.getEstimateMinutes());
-        task.setExtras(new HashMap<>());
+        Status status = defaultStatusReference();
+        Priority priority = priorityReference(request.getPriorityId());
+        Task task = newTask(userId, request, status, priority);
         
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = taskRepository.saveAndFlush(task);
+        taskCountCache.invalidate(userId);
         log.info("Created task: {} for user: {}", savedTask.getId(), userId);
         
-        return getUserTask(savedTask.getId());
+        return mapEntityToResponse(savedTask);
     }
     
     @Override
@@ -99,19 +174,187 @@ public class UserTaskServiceImpl implements UserTaskService {
         Task task = taskRepository.findByIdAndAccountId(taskId, userId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
         
-        Priority priority = priorityRepository.findById(Short.parseShort(request.getPriorityId()))
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid priority"));
-        
-        task.setTitle(request.getTitle());
-        task.setDescriptionMd(request.getDescriptionMd());
-        task.setPriority(priority);
-        task.setDueAt(request.getDueAt());
-        task.setEstimateMinutes(request.getEstimateMinutes());
+        Priority priority = priorityReference(request.getPriorityId());
+        TaskRollup change = rollupChange(task, request);
+        if (!change.isZero()) {
+            taskRepository.lockTaskHierarchy(userId);
+        }
+        applyUpdate(task, request, priority);
         
-        taskRepository.save(task);
+        Task savedTask = taskRepository.saveAndFlush(task);
+        taskCountCache.invalidate(userId);
+        scheduleFieldsChanged(userId, savedTask);
+        if (!change.isZero()) {
+            taskRollupService.ownValuesChanged(userId, Map.of(taskId, change));
+            addToRollup(savedTask, change);
+        }
         log.info("Updated task: {} for user: {}", taskId, userId);
         
-        return getUserTask(taskId);
+        return mapEntityToResponse(savedTask);
+    }
+    
+    @Override
+    public UserTaskBatchResponse createTasks(List<UserTaskCreateRequest> requests) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Creating {} tasks for user: {}", requests.size(), userId);
+        
+        Status status = defaultStatusReference();
+        UserTaskBatchItemResult[] results = new UserTaskBatchItemResult[requests.size()];
+        List<Task> tasks = new ArrayList<>();
+        List<Integer> taskIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserTaskCreateRequest request = requests.get(i);
+            try {
+                validateItem(request);
+                tasks.add(newTask(userId, request, status, priorityReference(request.getPriorityId())));
+                taskIndexes.add(i);
+            } catch (ResponseStatusException e) {
+                results[i] = UserTaskBatchItemResult.failed(i, HttpStatus.valueOf(e.getStatusCode().value()), e.getReason());
+            }
+        }
+        
+        List<Task> savedTasks = List.of();
+        if (!tasks.isEmpty()) {
+            // Ids are generated in memory, so nothing is sent until the flush, which groups the
+            // inserts into JDBC batches of hibernate.jdbc.batch_size
+            savedTasks = taskRepository.saveAll(tasks);
+            taskRepository.flush();
+            taskCountCache.invalidate(userId);
+        }
+        for (int k = 0; k < savedTasks.size(); k++) {
+            int index = taskIndexes.get(k);
+            results[index] = UserTaskBatchItemResult.succeeded(index, HttpStatus.CREATED, mapEntityToResponse(savedTasks.get(k)));
+        }
+        log.info("Created {} of {} tasks for user: {}", tasks.size(), requests.size(), userId);
+        
+        return UserTaskBatchResponse.of(Arrays.asList(results));
+    }
+    
+    @Override
+    public UserTaskBatchResponse updateTasks(List<UserTaskBatchUpdateItem> items) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Updating {} tasks for user: {}", items.size(), userId);
+        
+        List<UUID> ids = items.stream()
+            .filter(Objects::nonNull)
+            .map(UserTaskBatchUpdateItem::getId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        Map<UUID, Task> tasksById = ids.isEmpty() ? Map.of() : taskRepository.findAllByIdInAndAccountId(ids, userId).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+        
+        // The hierarchy lock has to be taken before the first UPDATE, so whether any estimate
+        // changes is decided up front from the loaded tasks
+        boolean rollupsChange = items.stream()
+            .filter(item -> item != null && tasksById.containsKey(item.getId()))
+            .anyMatch(item -> !rollupChange(tasksById.get(item.getId()), item).isZero());
+        if (rollupsChange) {
+            taskRepository.lockTaskHierarchy(userId);
+        }
+        
+        UserTaskBatchItemResult[] results = new UserTaskBatchItemResult[items.size()];
+        List<Task> updated = new ArrayList<>();
+        List<Integer> updatedIndexes = new ArrayList<>();
+        Map<UUID, TaskRollup> rollupChanges = new HashMap<>();
+        Set<UUID> seen = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            UserTaskBatchUpdateItem item = items.get(i);
+            try {
+                validateItem(item);
+                if (!seen.add(item.getId())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task appears more than once in the batch");
+                }
+                Task task = tasksById.get(item.getId());
+                if (task == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+                }
+                if (item.getVersion() != null && !item.getVersion().equals(task.getVersion())) {
+                    throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                        "Task has been modified, current version is " + task.getVersion());
+                }
+                Priority priority = priorityReference(item.getPriorityId());
+                TaskRollup change = rollupChange(task, item);
+                if (!change.isZero()) {
+                    rollupChanges.put(task.getId(), change);
+                }
+                applyUpdate(task, item, priority);
+                updated.add(task);
+                updatedIndexes.add(i);
+            } catch (ResponseStatusException e) {
+                results[i] = UserTaskBatchItemResult.failed(i, HttpStatus.valueOf(e.getStatusCode().value()), e.getReason());
+            }
+        }
+        
+        if (!updated.isEmpty()) {
+            // The loaded tasks are managed, so the flush sends their dirty state as batched UPDATEs
+            taskRepository.flush();
+            taskCountCache.invalidate(userId);
+            updated.forEach(task -> scheduleFieldsChanged(userId, task));
+        }
+        if (!rollupChanges.isEmpty()) {
+            taskRollupService.ownValuesChanged(userId, rollupChanges);
+            rollupChanges.forEach((taskId, change) -> addToRollup(tasksById.get(taskId), change));
+        }
+        for (int k = 0; k < updated.size(); k++) {
+            int index = updatedIndexes.get(k);
+            results[index] = UserTaskBatchItemResult.succeeded(index, HttpStatus.OK, mapEntityToResponse(updated.get(k)));
+        }
+        log.info("Updated {} of {} tasks for user: {}", updated.size(), items.size(), userId);
+        
+        return UserTaskBatchResponse.of(Arrays.asList(results));
+    }
+    
+    @Override
+    public UserTaskBulkResponse applyBulkAction(TaskBulkAction action, Short statusId, List<UUID> ids,
+                                                TaskListFilter filter) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Applying bulk {} to {} for user: {}", action, ids != null ? ids.size() + " tasks" : "filter " + filter, userId);
+        
+        TaskBulkUpdate update;
+        if (action == TaskBulkAction.STATUS) {
+            if (statusId == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Status is required for the status action");
+            }
+            StatusRef newStatus = referenceDataCache.status(statusId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status"));
+            update = TaskBulkUpdate.status(statusId, newStatus.done(), disallowedSourceStatuses(statusId));
+        } else {
+            update = TaskBulkUpdate.of(action);
+        }
+        
+        List<UUID> requestedIds = ids != null ? ids.stream().filter(Objects::nonNull).distinct().toList() : null;
+        if (action == TaskBulkAction.DELETE && (requestedIds == null || !requestedIds.isEmpty())) {
+            taskRepository.lockTaskHierarchy(userId);
+        }
+        List<UUID> affectedIds;
+        try {
+            affectedIds = requestedIds != null && requestedIds.isEmpty()
+                ? List.of()
+                : taskRepository.bulkUpdate(userId, requestedIds, filter, update, ZonedDateTime.now());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!affectedIds.isEmpty()) {
+            taskCountCache.invalidate(userId);
+            if (action == TaskBulkAction.DELETE) {
+                // After the delete, so a task under another deleted task is only subtracted once
+                taskRollupService.detach(userId, affectedIds);
+            }
+            if (action == TaskBulkAction.STATUS || action == TaskBulkAction.DELETE) {
+                taskDependencyGraphCache.invalidate(userId);
+                taskScheduleCache.invalidate(userId);
+            }
+        }
+        
+        List<UUID> skippedIds = null;
+        if (requestedIds != null) {
+            Set<UUID> affected = new HashSet<>(affectedIds);
+            skippedIds = requestedIds.stream().filter(id -> !affected.contains(id)).toList();
+        }
+        log.info("Bulk {} changed {} tasks for user: {}", action, affectedIds.size(), userId);
+        
+        return new UserTaskBulkResponse(affectedIds.size(), affectedIds, skippedIds);
     }
     
     @Override
@@ -119,53 +362,338 @@ public class UserTaskServiceImpl implements UserTaskService {
         UUID userId = jwtTokenService.getLoggedInUserId();
         log.info("Deleting task: {} for user: {}", taskId, userId);
         
+        taskRepository.lockTaskHierarchy(userId);
         int deleted = taskRepository.softDeleteTask(taskId, userId, ZonedDateTime.now());
         if (deleted == 0) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
         }
+        taskRollupService.detach(userId, List.of(taskId));
+        taskCountCache.invalidate(userId);
+        taskDependencyGraphCache.taskRemoved(userId, taskId);
+        taskScheduleCache.invalidate(userId);
         
         log.info("Deleted task: {} for user: {}", taskId, userId);
     }
     
     @Override
-    public UserTaskResponse changeTaskStatus(UUID taskId, Short statusId) {
+    public UserTaskResponse changeTaskStatus(UUID taskId, Short statusId, Integer expectedVersion) {
         UUID userId = jwtTokenService.getLoggedInUserId();
         log.info("Changing status of task: {} to: {} for user: {}", taskId, statusId, userId);
         
-        Task task = taskRepository.findByIdAndAccountId(taskId, userId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-        
-        Status newStatus = statusRepository.findById(statusId)
+        StatusRef newStatus = referenceDataCache.status(statusId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status"));
         
-        // Validate status transition
-        validateStatusTransition(task.getStatus().getId(), statusId);
+        // Transition and version checks run inside the UPDATE, so a successful change is one statement
+        Set<Short> disallowedFrom = disallowedSourceStatuses(statusId);
+        UserTaskDetailProjection changed = taskRepository.changeStatus(taskId, userId, statusId, newStatus.done(),
+                disallowedFrom, expectedVersion, ZonedDateTime.now())
+            .orElseThrow(() -> updateRejected(taskId, userId, disallowedFrom, expectedVersion));
         
-        task.setStatus(newStatus);
+        taskCountCache.invalidate(userId);
+        taskDependencyGraphCache.statusChanged(userId, taskId, statusId);
+        taskScheduleCache.statusChanged(userId, taskId, newStatus.done());
+        log.info("Changed status of task: {} to: {} for user: {}", taskId, statusId, userId);
         
-        // Update completedAt based on status
-        if (statusId == 5) { // Done
-            task.setCompletedAt(ZonedDateTime.now());
-        } else if (task.getCompletedAt() != null) {
-            task.setCompletedAt(null);
+        return mapDetailToResponse(changed);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserTaskTreeNode getTaskTree(UUID taskId, int maxDepth) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Fetching tree of task: {} to depth: {} for user: {}", taskId, maxDepth, userId);
+        
+        if (maxDepth < 0 || maxDepth > TaskConstants.MAX_TREE_DEPTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Depth must be between 0 and " + TaskConstants.MAX_TREE_DEPTH);
+        }
+        List<UserTaskTreeProjection> rows = taskRepository.findSubtree(taskId, userId, maxDepth,
+                TaskConstants.MAX_TREE_SIZE + 1);
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
+        if (rows.size() > TaskConstants.MAX_TREE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Task tree has more than " + TaskConstants.MAX_TREE_SIZE + " tasks, request a smaller depth");
         }
         
-        taskRepository.save(task);
-        log.info("Changed status of task: {} to: {} for user: {}", taskId, statusId, userId);
+        // Rows come ordered by depth, so every parent is built before its children
+        Map<UUID, UserTaskTreeNode> nodes = new HashMap<>();
+        UserTaskTreeNode root = null;
+        for (UserTaskTreeProjection row : rows) {
+            UserTaskTreeNode node = copyListFields(row, new UserTaskTreeNode());
+            node.setParentId(row.getParentId());
+            node.setDepth(row.getDepth());
+            node.setTruncated(Boolean.TRUE.equals(row.getTruncated()));
+            nodes.put(node.getId(), node);
+            if (row.getDepth() == 0) {
+                root = node;
+            } else {
+                nodes.get(row.getParentId()).getChildren().add(node);
+            }
+        }
+        return root;
+    }
+    
+    @Override
+    public UserTaskResponse moveTask(UUID taskId, UUID parentId, Integer expectedVersion) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Moving task: {} under: {} for user: {}", taskId, parentId, userId);
+        
+        if (taskId.equals(parentId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A task cannot be its own parent");
+        }
+        // Also held without a new parent, as the rollups of the old ancestors change
+        taskRepository.lockTaskHierarchy(userId);
+        if (parentId != null) {
+            List<UUID> ancestors = taskRepository.findAncestorIds(parentId, userId, TaskConstants.MAX_TREE_DEPTH);
+            if (ancestors.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Parent task not found");
+            }
+            if (ancestors.contains(taskId)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Cannot move a task under one of its own subtasks");
+            }
+            if (ancestors.size() > TaskConstants.MAX_TREE_DEPTH) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Parent task is nested more than " + TaskConstants.MAX_TREE_DEPTH + " levels deep");
+            }
+        }
+        
+        // The subtree's rollup leaves the old ancestors before the parent changes and joins the new
+        // ones after, both walks ending at the first deleted ancestor
+        taskRollupService.detach(userId, List.of(taskId));
+        UserTaskDetailProjection moved = taskRepository.moveTask(taskId, userId, parentId, expectedVersion,
+                ZonedDateTime.now())
+            .orElseThrow(() -> updateRejected(taskId, userId, Set.of(), expectedVersion));
+        taskRollupService.attach(userId, List.of(taskId));
+        taskScheduleCache.invalidate(userId);
+        log.info("Moved task: {} under: {} for user: {}", taskId, parentId, userId);
+        
+        return mapDetailToResponse(moved);
+    }
+    
+    @Override
+    public UserTaskResponse reorderTask(UUID taskId, UUID afterId, Integer expectedVersion) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Placing task: {} after: {} for user: {}", taskId, afterId, userId);
+        
+        long rank = placeAfter(RankScope.tasks(userId), taskId, afterId, "task");
+        UserTaskDetailProjection reordered = taskRepository.reorderTask(taskId, userId, rank, expectedVersion,
+                ZonedDateTime.now())
+            .orElseThrow(() -> updateRejected(taskId, userId, Set.of(), expectedVersion));
+        log.info("Placed task: {} after: {} for user: {}", taskId, afterId, userId);
+        
+        return mapDetailToResponse(reordered);
+    }
+    
+    @Override
+    public void reorderChecklist(UUID taskId, UUID checklistId, UUID afterId) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Placing checklist: {} of task: {} after: {} for user: {}", checklistId, taskId, afterId, userId);
+        
+        RankScope scope = RankScope.checklists(userId, taskId);
+        if (taskRepository.updateRank(scope, checklistId, placeAfter(scope, checklistId, afterId, "checklist")) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found");
+        }
+    }
+    
+    @Override
+    public void reorderChecklistItem(UUID taskId, UUID checklistId, UUID itemId, UUID afterId) {
+        UUID userId = jwtTokenService.getLoggedInUserId();
+        log.info("Placing item: {} of checklist: {} after: {} for user: {}", itemId, checklistId, afterId, userId);
         
-        return getUserTask(taskId);
+        RankScope scope = RankScope.checklistItems(userId, taskId, checklistId);
+        if (taskRepository.updateRank(scope, itemId, placeAfter(scope, itemId, afterId, "checklist item")) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist item not found");
+        }
+    }
+    
+    /**
+     * Validates the priority against the reference data and returns an uninitialized proxy, so
+     * assigning it to a task does not query the priorities table.
+     */
+    private Priority priorityReference(String priorityId) {
+        short id;
+        try {
+            id = Short.parseShort(priorityId);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid priority");
+        }
+        if (referenceDataCache.priority(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid priority");
+        }
+        return priorityRepository.getReferenceById(id);
+    }
+    
+    private Status defaultStatusReference() {
+        StatusRef status = referenceDataCache.status(TaskConstants.DEFAULT_STATUS_ID)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Default status not found"));
+        return statusRepository.getReferenceById(status.id());
+    }
+    
+    /**
+     * Rank for a row placed after {@code afterId}: halfway between its new neighbors, so a move
+     * writes one row. Only when the neighbors are adjacent are the siblings spread out first. All of
+     * it runs under the account's hierarchy lock, so concurrent moves in the same list take turns
+     * and never read ranks that another move is about to change.
+     */
+    private long placeAfter(RankScope scope, UUID id, UUID afterId, String noun) {
+        if (id.equals(afterId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A " + noun + " cannot be placed after itself");
+        }
+        taskRepository.lockTaskHierarchy(scope.accountId());
+        Long rank = rankNeighbors(scope, id, afterId, noun).rankBetween();
+        if (rank == null) {
+            int rebalanced = taskRepository.rebalanceRanks(scope, id);
+            log.info("Rebalanced ranks of {} siblings of: {} for user: {}", rebalanced, id, scope.accountId());
+            rank = rankNeighbors(scope, id, afterId, noun).rankBetween();
+        }
+        return rank;
+    }
+    
+    private RankNeighbors rankNeighbors(RankScope scope, UUID id, UUID afterId, String noun) {
+        return taskRepository.findRankNeighbors(scope, id, afterId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "The " + noun + " to place after was not found among the siblings"));
     }
     
-    private void validateStatusTransition(Short currentStatus, Short newStatus) {
+    /**
+     * Rank of a new task: its creation time in milliseconds times the rank gap, so new tasks sort
+     * after their existing siblings without reading them, and tasks created a millisecond apart
+     * are a full gap apart.
+     */
+    private static long newTaskRank() {
+        return System.currentTimeMillis() * TaskConstants.RANK_GAP;
+    }
+    
+    private static Task newTask(UUID userId, UserTaskCreateRequest request, Status status, Priority priority) {
+        Task task = new Task();
+        task.setAccountId(userId);
+        task.setTitle(request.getTitle());
+        task.setDescriptionMd(request.getDescriptionMd());
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDueAt(request.getDueAt());
+        task.setEstimateMinutes(request.getEstimateMinutes());
+        task.setExtras(new HashMap<>());
+        task.setOrderIndex(newTaskRank());
+        TaskRollup rollup = ownValues(task);
+        task.setRollupEstimateMinutes(rollup.estimateMinutes());
+        task.setRollupSpentMinutes(rollup.spentMinutes());
+        task.setRollupPoints(rollup.points());
+        return task;
+    }
+    
+    /**
+     * Passes the fields a schedule depends on to the cached schedules, which reschedule from the
+     * task on commit instead of being rebuilt.
+     */
+    private void scheduleFieldsChanged(UUID userId, Task task) {
+        taskScheduleCache.taskUpdated(userId, task.getId(), task.getEstimateMinutes(),
+                task.getStartAt() != null ? task.getStartAt().toInstant() : null,
+                task.getDueAt() != null ? task.getDueAt().toInstant() : null);
+    }
+    
+    private static TaskRollup ownValues(Task task) {
+        return TaskRollup.of(task.getEstimateMinutes(), task.getSpentMinutes(), task.getPoints());
+    }
+    
+    private static TaskRollup rollupChange(Task task, UserTaskUpdateRequest request) {
+        return TaskRollup.of(request.getEstimateMinutes(), task.getSpentMinutes(), task.getPoints())
+            .minus(ownValues(task));
+    }
+    
+    /**
+     * Mirrors an increment made by {@link TaskRollupService} on the entity, whose rollup columns
+     * are not written by the flush, so the response shows the new rollup.
+     */
+    private static void addToRollup(Task task, TaskRollup change) {
+        TaskRollup rollup = new TaskRollup(task.getRollupEstimateMinutes(), task.getRollupSpentMinutes(),
+                task.getRollupPoints()).plus(change);
+        task.setRollupEstimateMinutes(rollup.estimateMinutes());
+        task.setRollupSpentMinutes(rollup.spentMinutes());
+        task.setRollupPoints(rollup.points());
+    }
+    
+    private static void applyUpdate(Task task, UserTaskUpdateRequest request, Priority priority) {
+        task.setTitle(request.getTitle());
+        task.setDescriptionMd(request.getDescriptionMd());
+        task.setPriority(priority);
+        task.setDueAt(request.getDueAt());
+        task.setEstimateMinutes(request.getEstimateMinutes());
+    }
+    
+    /**
+     * Batch items are validated one by one instead of through {@code @Valid} on the request, so
+     * an invalid item fails alone rather than the whole batch.
+     */
+    private void validateItem(Object item) {
+        if (item == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task is required");
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+        }
+    }
+    
+    /**
+     * Statuses from which a task may not move to the target status.
+     */
+    private static Set<Short> disallowedSourceStatuses(short targetStatusId) {
         // Allow any transition for now, but could add business rules here
         // Example: Cannot go from Done (5) to Backlog (1) directly
-        if (currentStatus.equals((short) 5) && newStatus.equals((short) 1)) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cannot move from Done to Backlog directly");
+        if (targetStatusId == TaskConstants.BACKLOG_STATUS_ID) {
+            return Set.of(TaskConstants.DONE_STATUS_ID);
         }
+        return Set.of();
+    }
+    
+    /**
+     * Works out why a conditional single-task update matched no row. This read only happens on the
+     * failure path.
+     */
+    private ResponseStatusException updateRejected(UUID taskId, UUID userId, Set<Short> disallowedFrom,
+                                                         Integer expectedVersion) {
+        Task task = taskRepository.findByIdAndAccountId(taskId, userId).orElse(null);
+        if (task == null) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Task has been modified, current version is " + task.getVersion());
+        }
+        if (disallowedFrom.contains(task.getStatus().getId())) {
+            return new ResponseStatusException(HttpStatus.CONFLICT, "Cannot move from Done to Backlog directly");
+        }
+        // The task changed between the update and this read
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Task was modified concurrently, retry the request");
+    }
+    
+    private TaskCursor decodeCursor(String cursor, boolean descending) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        TaskCursor after;
+        try {
+            after = TaskCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        if (after.descending() != descending) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match the requested sort");
+        }
+        return after;
     }
     
     private UserTaskResponse mapToResponse(UserTaskListProjection projection) {
-        UserTaskResponse response = new UserTaskResponse();
+        return copyListFields(projection, new UserTaskResponse());
+    }
+    
+    private <R extends UserTaskResponse> R copyListFields(UserTaskListProjection projection, R response) {
         response.setId(projection.getId());
         response.setTitle(projection.getTitle());
         response.setDescriptionMd(projection.getDescriptionMd());
@@ -177,6 +705,10 @@ public class UserTaskServiceImpl implements UserTaskService {
         response.setEstimateMinutes(projection.getEstimateMinutes());
         response.setCreatedAt(convertToZonedDateTime(projection.getCreatedAt()));
         response.setUpdatedAt(convertToZonedDateTime(projection.getUpdatedAt()));
+        response.setRollupEstimateMinutes(projection.getRollupEstimateMinutes());
+        response.setRollupSpentMinutes(projection.getRollupSpentMinutes());
+        response.setRollupPoints(projection.getRollupPoints());
+        response.setSnippet(projection.getSnippet());
         return response;
     }
     
@@ -192,12 +724,50 @@ public class UserTaskServiceImpl implements UserTaskService {
         response.setDueAt(convertToZonedDateTime(projection.getDueAt()));
         response.setEstimateMinutes(projection.getEstimateMinutes());
         response.setSpentMinutes(projection.getSpentMinutes());
+        response.setRollupEstimateMinutes(projection.getRollupEstimateMinutes());
+        response.setRollupSpentMinutes(projection.getRollupSpentMinutes());
+        response.setRollupPoints(projection.getRollupPoints());
         response.setCompletedAt(convertToZonedDateTime(projection.getCompletedAt()));
         response.setCreatedAt(convertToZonedDateTime(projection.getCreatedAt()));
         response.setUpdatedAt(convertToZonedDateTime(projection.getUpdatedAt()));
+        response.setVersion(projection.getVersion());
+        return response;
+    }
+    
+    /**
+     * Builds the response of a write from the flushed entity instead of reading the task back.
+     * Timestamps and the version are assigned by the entity callbacks during the flush, and the
+     * status and priority names come from the reference data, so the lazy associations stay
+     * uninitialized.
+     */
+    private UserTaskResponse mapEntityToResponse(Task task) {
+        Short statusId = task.getStatus().getId();
+        Short priorityId = task.getPriority().getId();
+        UserTaskResponse response = new UserTaskResponse();
+        response.setId(task.getId());
+        response.setTitle(task.getTitle());
+        response.setDescriptionMd(task.getDescriptionMd());
+        response.setStatusId(statusId);
+        response.setStatusName(referenceDataCache.status(statusId).map(StatusRef::name).orElse(null));
+        response.setPriorityId(priorityId);
+        response.setPriorityName(referenceDataCache.priority(priorityId).map(PriorityRef::name).orElse(null));
+        response.setDueAt(convertToZonedDateTime(task.getDueAt()));
+        response.setEstimateMinutes(task.getEstimateMinutes());
+        response.setSpentMinutes(task.getSpentMinutes());
+        response.setRollupEstimateMinutes(task.getRollupEstimateMinutes());
+        response.setRollupSpentMinutes(task.getRollupSpentMinutes());
+        response.setRollupPoints(task.getRollupPoints());
+        response.setCompletedAt(convertToZonedDateTime(task.getCompletedAt()));
+        response.setCreatedAt(convertToZonedDateTime(task.getCreatedAt()));
+        response.setUpdatedAt(convertToZonedDateTime(task.getUpdatedAt()));
+        response.setVersion(task.getVersion());
         return response;
     }
     
+    private ZonedDateTime convertToZonedDateTime(ZonedDateTime dateTime) {
+        return dateTime != null ? convertToZonedDateTime(dateTime.toInstant()) : null;
+    }
+    
     private ZonedDateTime convertToZonedDateTime(Instant instant) {
         return instant != null ? instant.atZone(ZoneId.systemDefault()) : null;
     }
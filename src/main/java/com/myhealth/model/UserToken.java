@@ -21,8 +21,11 @@ public class UserToken {
     @Column(name = "user_id", nullable = false)
     private UUID userId;
     
-    @Column(name = "refresh_token", nullable = false, unique = true)
-    private String refreshToken;
+    /**
+     * SHA-256 of the refresh token handed to the client; the token itself is never stored.
+     */
+    @Column(name = "refresh_token_hash", nullable = false, unique = true, length = 32)
+    private byte[] refreshTokenHash;
     
     @Column(name = "expires_at", nullable = false)
     private LocalDateTime expiresAt;
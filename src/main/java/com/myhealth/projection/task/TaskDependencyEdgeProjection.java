@@ -0,0 +1,14 @@
+package com.myhealth.projection.task;
+
+import java.util.UUID;
+
+/**
+ * Stored dependency between two live tasks, with the status of both ends.
+ */
+public interface TaskDependencyEdgeProjection {
+    UUID getTaskId();
+    Short getTaskStatusId();
+    UUID getDependsOnId();
+    Short getDependsOnStatusId();
+    String getDepType();
+}
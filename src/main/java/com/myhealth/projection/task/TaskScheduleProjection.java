@@ -0,0 +1,15 @@
+package com.myhealth.projection.task;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Scheduling fields of a task in a subtree.
+ */
+public interface TaskScheduleProjection {
+    UUID getId();
+    Short getStatusId();
+    Integer getEstimateMinutes();
+    Instant getStartAt();
+    Instant getDueAt();
+}
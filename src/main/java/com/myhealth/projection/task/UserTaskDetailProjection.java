@@ -1,5 +1,6 @@
 package com.myhealth.projection.task;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -17,4 +18,12 @@ public interface UserTaskDetailProjection {
     Instant getCompletedAt();
     Instant getCreatedAt();
     Instant getUpdatedAt();
+    Integer getVersion();
+    
+    /**
+     * Estimate, spent time and points of the task and its live subtasks.
+     */
+    Long getRollupEstimateMinutes();
+    Long getRollupSpentMinutes();
+    BigDecimal getRollupPoints();
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.myhealth.projection.task;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -15,4 +16,18 @@ public interface UserTaskListProjection {
     Integer getEstimateMinutes();
     Instant getCreatedAt();
     Instant getUpdatedAt();
+    
+    /**
+     * Estimate, spent time and points of the task and its live subtasks.
+     */
+    Long getRollupEstimateMinutes();
+    Long getRollupSpentMinutes();
+    BigDecimal getRollupPoints();
+    
+    /**
+     * Highlighted excerpt of the search match, only set when a snippet was requested.
+     */
+    default String getSnippet() {
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.myhealth.projection.task;
+
+import java.util.UUID;
+
+/**
+ * Row of a subtree query, a listing row plus its place in the tree.
+ */
+public interface UserTaskTreeProjection extends UserTaskListProjection {
+    UUID getParentId();
+    
+    /**
+     * Distance from the requested root, which has depth 0.
+     */
+    Integer getDepth();
+    
+    /**
+     * Whether the task has live subtasks below the requested depth that were not returned.
+     */
+    Boolean getTruncated();
+}
@@ -0,0 +1,22 @@
+package com.myhealth.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Dialect checks for custom repository fragments that issue PostgreSQL-specific SQL and keep a
+ * portable fallback for the H2 database used in tests.
+ */
+final class SqlDialects {
+
+    private SqlDialects() {
+    }
+
+    static boolean isPostgres(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -2,7 +2,10 @@ package com.myhealth.repository;
 
 import com.myhealth.entity.task.TaskDependency;
 import com.myhealth.entity.task.TaskDependencyId;
+import com.myhealth.projection.task.TaskDependencyEdgeProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,22 @@ public interface TaskDependencyRepository extends JpaRepository<TaskDependency,
     List<TaskDependency> findByTaskId(UUID taskId);
     
     List<TaskDependency> findByDependsOnId(UUID dependsOnId);
-}
\ No newline at end of file
+    
+    // Every dependency between live tasks of the account, read in one query to build the in-memory graph
+    @Query(value = "SELECT d.task_id AS taskId, t.status_id AS taskStatusId, d.depends_on_id AS dependsOnId, " +
+           "p.status_id AS dependsOnStatusId, d.dep_type AS depType " +
+           "FROM tasks t JOIN task_dependencies d ON d.task_id = t.id JOIN tasks p ON p.id = d.depends_on_id " +
+           "WHERE t.account_id = CAST(:accountId AS UUID) AND t.deleted_at IS NULL " +
+           "AND p.account_id = t.account_id AND p.deleted_at IS NULL", nativeQuery = true)
+    List<TaskDependencyEdgeProjection> findAccountDependencies(@Param("accountId") UUID accountId);
+    
+    // Whether taskId is among the live prerequisites of fromId, directly or through other tasks; UNION keeps
+    // each task once, so the walk ends even on a cycle
+    @Query(value = "WITH RECURSIVE prerequisites (id) AS (" +
+           "SELECT CAST(:fromId AS UUID) " +
+           "UNION " +
+           "SELECT d.depends_on_id FROM prerequisites JOIN task_dependencies d ON d.task_id = prerequisites.id " +
+           "JOIN tasks p ON p.id = d.depends_on_id WHERE p.deleted_at IS NULL) " +
+           "SELECT COUNT(*) FROM prerequisites WHERE id = CAST(:taskId AS UUID)", nativeQuery = true)
+    long countDependencyPath(@Param("fromId") UUID fromId, @Param("taskId") UUID taskId);
+}
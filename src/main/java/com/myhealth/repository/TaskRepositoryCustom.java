@@ -0,0 +1,206 @@
+package com.myhealth.repository;
+
+import com.myhealth.dto.task.RankNeighbors;
+import com.myhealth.dto.task.RankScope;
+import com.myhealth.dto.task.TaskBulkUpdate;
+import com.myhealth.dto.task.TaskCursor;
+import com.myhealth.dto.task.TaskListFilter;
+import com.myhealth.dto.task.TaskRollup;
+import com.myhealth.dto.task.TaskRollupPath;
+import com.myhealth.projection.task.TaskScheduleProjection;
+import com.myhealth.projection.task.UserTaskDetailProjection;
+import com.myhealth.projection.task.UserTaskListProjection;
+import com.myhealth.projection.task.UserTaskTreeProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Listing queries for a user's tasks.
+ *
+ * In {@link com.myhealth.dto.task.TaskSearchMode#WORDS} mode the search query of a
+ * {@link TaskListFilter} is, on PostgreSQL, a full-text match served by idx_tasks_search with every
+ * word matching as a prefix; on other databases it falls back to a case-insensitive LIKE. In
+ * {@link com.myhealth.dto.task.TaskSearchMode#CONTAINS} mode it is a case-insensitive substring
+ * match on the title, served by idx_tasks_title_trgm. With {@code highlight} set, full-text matches
+ * carry a snippet with the matched words in bold. Offset listings accept the extra sort property
+ * {@code relevance} when a search query is given.
+ *
+ * Status changes are a single conditional UPDATE rather than a load, check and save of the entity,
+ * and bulk changes a single UPDATE over the selected tasks.
+ *
+ * Subtask hierarchies are walked with recursive CTEs over idx_tasks_parent, so a whole subtree or
+ * ancestor path is one statement whatever its depth.
+ */
+public interface TaskRepositoryCustom {
+    
+    /**
+     * Keyset page of the user's live tasks ordered by (created_at, id), read in the direction
+     * given by {@code descending}. Only the filters that are set end up in the SQL, so the seek
+     * runs on the (account_id, created_at, id) index however deep the page is.
+     *
+     * @param after position of the last row of the previous page, or null for the first page
+     * @param limit maximum number of rows; callers ask for one extra row to detect a next page
+     */
+    List<UserTaskListProjection> findUserTasksAfter(UUID accountId, TaskListFilter filter, boolean highlight,
+                                                    TaskCursor after, boolean descending, int limit);
+    
+    /**
+     * Offset page of the user's live tasks whose total comes from {@code COUNT(*) OVER ()} in
+     * the same statement, instead of a second query that repeats the joins and filters.
+     *
+     * @throws IllegalArgumentException if the sort names a property that cannot be sorted on
+     */
+    Page<UserTaskListProjection> findUserTasksCounted(UUID accountId, TaskListFilter filter, boolean highlight,
+                                                      Pageable pageable);
+    
+    /**
+     * Offset page of the user's live tasks without any total. One extra row is read to tell
+     * whether a next page exists.
+     *
+     * @throws IllegalArgumentException if the sort names a property that cannot be sorted on
+     */
+    Slice<UserTaskListProjection> findUserTasksSlice(UUID accountId, TaskListFilter filter, boolean highlight,
+                                                     Pageable pageable);
+    
+    long countUserTasks(UUID accountId, TaskListFilter filter);
+    
+    /**
+     * Moves a live task to another status in one statement. The transition and version checks are
+     * part of the WHERE clause, completed_at is set to {@code now} for done statuses and cleared
+     * otherwise, the version is incremented, and the returned row is joined to the lookup tables so
+     * the result needs no further query.
+     *
+     * @param disallowedFrom current statuses from which the move is refused
+     * @param expectedVersion version the caller last read, or null to skip the check
+     * @return the updated task, or empty if the task does not exist, its version differs or the
+     *         transition is refused
+     */
+    Optional<UserTaskDetailProjection> changeStatus(UUID taskId, UUID accountId, short statusId, boolean done,
+                                                    Set<Short> disallowedFrom, Integer expectedVersion,
+                                                    ZonedDateTime now);
+    
+    /**
+     * Applies one change to many live tasks of the account with a single UPDATE and returns the ids
+     * of the rows it changed. Tasks are selected by id, or by a listing filter when {@code ids} is
+     * null. On PostgreSQL the ids are bound as one {@code uuid[]} parameter ({@code id = ANY(...)}),
+     * so the statement text does not depend on how many ids are sent.
+     *
+     * @param ids tasks to change, must not be empty; null to select by {@code filter}
+     * @throws IllegalArgumentException if {@code filter} would select every task of the account, e.g.
+     *         a search query without any searchable word
+     */
+    List<UUID> bulkUpdate(UUID accountId, Collection<UUID> ids, TaskListFilter filter, TaskBulkUpdate update,
+                          ZonedDateTime now);
+    
+    /**
+     * The live task and its live subtasks down to {@code maxDepth} levels, ordered by depth and then
+     * by order_index, created_at and id, so parents always come before their children. Subtasks of
+     * a deleted task are left out together with it.
+     *
+     * @param limit maximum number of rows; callers ask for one extra row to detect an oversized tree
+     * @return the rows, empty if the root does not exist, is deleted or belongs to another account
+     */
+    List<UserTaskTreeProjection> findSubtree(UUID rootId, UUID accountId, int maxDepth, int limit);
+    
+    /**
+     * Scheduling fields of the live task and its live subtasks down to {@code maxDepth} levels, read
+     * with the same recursive walk as {@link #findSubtree} but without the lookup joins.
+     *
+     * @param limit maximum number of rows; callers ask for one extra row to detect an oversized tree
+     * @return the rows, root first, empty if the root does not exist, is deleted or belongs to another
+     *         account
+     */
+    List<TaskScheduleProjection> findSubtreeSchedule(UUID rootId, UUID accountId, int maxDepth, int limit);
+    
+    /**
+     * Ids on the path from a live task up to its top-level ancestor, starting with the task itself.
+     * The walk stops after {@code maxDepth} parents, so a result longer than {@code maxDepth} means
+     * the hierarchy is at least that deep.
+     *
+     * @return the path, empty if the task does not exist, is deleted or belongs to another account
+     */
+    List<UUID> findAncestorIds(UUID taskId, UUID accountId, int maxDepth);
+    
+    /**
+     * Current rollups of the given tasks with their live ancestors, nearest first, read with one
+     * recursive walk up parent_task_id. The walk stops at the first deleted ancestor, since the
+     * subtree below it no longer counts towards the tasks above it. The tasks themselves may be
+     * deleted. Tasks without a live parent are left out.
+     *
+     * @param taskIds tasks to walk from, must not be empty
+     */
+    List<TaskRollupPath> findRollupPaths(Collection<UUID> taskIds, UUID accountId, int maxDepth);
+    
+    /**
+     * Adds one delta to the rollup columns of the given tasks with a single UPDATE. Rollups are
+     * derived values, so neither updated_at nor the version changes. Callers hold
+     * {@link #lockTaskHierarchy} so that the paths they add along cannot change underneath them.
+     *
+     * @param taskIds tasks to change, must not be empty
+     * @return number of rows changed
+     */
+    int addToRollups(UUID accountId, Collection<UUID> taskIds, TaskRollup delta);
+    
+    /**
+     * Serializes hierarchy changes of the account until the current transaction ends, so two
+     * concurrent moves cannot each pass the cycle check and create a cycle together. New
+     * dependencies take the same lock for their cycle check.
+     */
+    void lockTaskHierarchy(UUID accountId);
+    
+    /**
+     * Sets the parent of a live task in one statement. Subtasks reference the task rather than a
+     * stored path, so the whole subtree moves with that single row. The caller checks for cycles.
+     *
+     * @param parentId new parent, or null to make the task top-level
+     * @param expectedVersion version the caller last read, or null to skip the check
+     * @return the updated task, or empty if the task does not exist or its version differs
+     */
+    Optional<UserTaskDetailProjection> moveTask(UUID taskId, UUID accountId, UUID parentId, Integer expectedVersion,
+                                                ZonedDateTime now);
+    
+    /**
+     * Ranks of the siblings a row would sit between when placed right after {@code afterId}, or
+     * first when {@code afterId} is null. Siblings are ordered by order_index, then created_at for
+     * tasks, then id; the moved row itself is left out. Callers hold {@link #lockTaskHierarchy} so
+     * that no other reorder changes the ranks before the new one is written.
+     *
+     * @return the neighbors, or empty if {@code afterId} is not a sibling of the row
+     */
+    Optional<RankNeighbors> findRankNeighbors(RankScope scope, UUID id, UUID afterId);
+    
+    /**
+     * Spreads the siblings of a row {@link com.myhealth.constants.TaskConstants#RANK_GAP} apart in
+     * their current order with one statement, leaving the row itself out. Only needed when a move
+     * finds no gap between its neighbors. Ranks only encode the order, so versions are unchanged.
+     *
+     * @return number of siblings renumbered
+     */
+    int rebalanceRanks(RankScope scope, UUID id);
+    
+    /**
+     * Sets the rank of a live task in one statement, bumping its version like any other change to
+     * the task.
+     *
+     * @param expectedVersion version the caller last read, or null to skip the check
+     * @return the updated task, or empty if the task does not exist or its version differs
+     */
+    Optional<UserTaskDetailProjection> reorderTask(UUID taskId, UUID accountId, long rank, Integer expectedVersion,
+                                                   ZonedDateTime now);
+    
+    /**
+     * Sets the rank of a checklist or checklist item in one statement.
+     *
+     * @return 1, or 0 if the row does not exist under the scope's task and checklist
+     * @throws IllegalArgumentException for a task scope, which goes through {@link #reorderTask}
+     */
+    int updateRank(RankScope scope, UUID id, long rank);
+}
@@ -0,0 +1,1146 @@
+package com.myhealth.repository;
+
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.RankNeighbors;
+import com.myhealth.dto.task.RankScope;
+import com.myhealth.dto.task.TaskBulkUpdate;
+import com.myhealth.dto.task.TaskCursor;
+import com.myhealth.dto.task.TaskListFilter;
+import com.myhealth.dto.task.TaskRollup;
+import com.myhealth.dto.task.TaskRollupPath;
+import com.myhealth.dto.task.TaskSearchMode;
+import com.myhealth.projection.task.TaskScheduleProjection;
+import com.myhealth.projection.task.UserTaskDetailProjection;
+import com.myhealth.projection.task.UserTaskListProjection;
+import com.myhealth.projection.task.UserTaskTreeProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    
+    private static final String LIST_COLUMNS =
+            "t.id, t.title, t.description_md AS descriptionMd, s.id AS statusId, s.name AS statusName, " +
+            "p.id AS priorityId, p.name AS priorityName, t.due_at AS dueAt, " +
+            "t.estimate_minutes AS estimateMinutes, t.created_at AS createdAt, t.updated_at AS updatedAt, " +
+            "t.rollup_estimate_minutes AS rollupEstimateMinutes, t.rollup_spent_minutes AS rollupSpentMinutes, " +
+            "t.rollup_points AS rollupPoints";
+    
+    private static final String FROM_USER_TASKS =
+            " FROM tasks t JOIN statuses s ON s.id = t.status_id JOIN priorities p ON p.id = t.priority_id " +
+            "WHERE t.account_id = :accountId AND t.deleted_at IS NULL";
+    
+    /**
+     * Same expression as idx_tasks_search, which PostgreSQL only uses when the query repeats it.
+     */
+    private static final String SEARCH_DOCUMENT =
+            "to_tsvector('simple', coalesce(t.title,'') || ' ' || coalesce(t.description_md,''))";
+    
+    private static final String SEARCH_QUERY = "to_tsquery('simple', :tsQuery)";
+    
+    /**
+     * Highlights matches with markdown bold so the snippet can be rendered like the description.
+     */
+    private static final String SNIPPET =
+            "ts_headline('simple', coalesce(t.title,'') || ' ' || coalesce(t.description_md,''), " + SEARCH_QUERY + ", " +
+            "'StartSel=**, StopSel=**, MaxWords=24, MinWords=8, MaxFragments=2, FragmentDelimiter=\" ... \"')";
+    
+    private static final String NO_SNIPPET = "CAST(NULL AS VARCHAR)";
+    
+    /**
+     * Sortable properties of the list response and the columns they order by. {@code rank} is the manual
+     * order set through the reorder endpoint.
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "t.id",
+            "title", "t.title",
+            "statusId", "t.status_id",
+            "priorityId", "t.priority_id",
+            "dueAt", "t.due_at",
+            "estimateMinutes", "t.estimate_minutes",
+            "createdAt", "t.created_at",
+            "updatedAt", "t.updated_at",
+            "rank", "t.order_index");
+    
+    static final String RELEVANCE = "relevance";
+    
+    /**
+     * Columns of a status change that the response needs, read from the updated row.
+     */
+    private static final String CHANGED_COLUMNS =
+            "t.id, t.title, t.description_md, t.status_id, t.priority_id, t.due_at, t.estimate_minutes, " +
+            "t.spent_minutes, t.completed_at, t.created_at, t.updated_at, t.version, t.rollup_estimate_minutes, " +
+            "t.rollup_spent_minutes, t.rollup_points";
+    
+    private static final String SELECT_CHANGED =
+            "SELECT c.id, c.title, c.description_md AS descriptionMd, s.id AS statusId, s.name AS statusName, " +
+            "p.id AS priorityId, p.name AS priorityName, c.due_at AS dueAt, c.estimate_minutes AS estimateMinutes, " +
+            "c.spent_minutes AS spentMinutes, c.completed_at AS completedAt, c.created_at AS createdAt, " +
+            "c.updated_at AS updatedAt, c.version AS version, c.rollup_estimate_minutes AS rollupEstimateMinutes, " +
+            "c.rollup_spent_minutes AS rollupSpentMinutes, c.rollup_points AS rollupPoints";
+    
+    private static final String JOIN_CHANGED =
+            " JOIN statuses s ON s.id = c.status_id JOIN priorities p ON p.id = c.priority_id";
+    
+    /**
+     * Live subtree of a task. The recursive part only carries ids and depths, walking
+     * idx_tasks_parent one level per iteration; the columns are joined once at the end. Rows at the
+     * depth limit report whether they have live subtasks that were cut off.
+     */
+    private static final String SUBTREE_IDS =
+            "WITH RECURSIVE subtree (id, depth) AS (" +
+            "SELECT r.id, 0 FROM tasks r WHERE r.id = :rootId AND r.account_id = :accountId AND r.deleted_at IS NULL " +
+            "UNION ALL " +
+            "SELECT c.id, subtree.depth + 1 FROM subtree JOIN tasks c ON c.parent_task_id = subtree.id " +
+            "WHERE c.account_id = :accountId AND c.deleted_at IS NULL AND subtree.depth < :maxDepth) ";
+    
+    private static final String SUBTREE =
+            SUBTREE_IDS +
+            "SELECT " + LIST_COLUMNS + ", t.parent_task_id AS parentId, subtree.depth AS depth, " +
+            "CASE WHEN subtree.depth = :maxDepth AND EXISTS (SELECT 1 FROM tasks g WHERE g.parent_task_id = t.id " +
+            "AND g.deleted_at IS NULL) THEN TRUE ELSE FALSE END AS truncated " +
+            "FROM subtree JOIN tasks t ON t.id = subtree.id JOIN statuses s ON s.id = t.status_id " +
+            "JOIN priorities p ON p.id = t.priority_id " +
+            "ORDER BY subtree.depth, t.order_index, t.created_at, t.id";
+    
+    private static final String SUBTREE_SCHEDULE =
+            SUBTREE_IDS +
+            "SELECT t.id AS id, t.status_id AS statusId, t.estimate_minutes AS estimateMinutes, " +
+            "t.start_at AS startAt, t.due_at AS dueAt " +
+            "FROM subtree JOIN tasks t ON t.id = subtree.id " +
+            "ORDER BY subtree.depth, t.order_index, t.created_at, t.id";
+    
+    /**
+     * Path from a live task to its top-level ancestor. Ancestors are followed whatever their state,
+     * since a deleted ancestor still closes a cycle, and the depth bound stops the walk on data
+     * that already contains one.
+     */
+    private static final String ANCESTORS =
+            "WITH RECURSIVE ancestry (id, parent_task_id, depth) AS (" +
+            "SELECT t.id, t.parent_task_id, 0 FROM tasks t " +
+            "WHERE t.id = :taskId AND t.account_id = :accountId AND t.deleted_at IS NULL " +
+            "UNION ALL " +
+            "SELECT a.id, a.parent_task_id, ancestry.depth + 1 FROM ancestry JOIN tasks a ON a.id = ancestry.parent_task_id " +
+            "WHERE ancestry.depth < :maxDepth) " +
+            "SELECT ancestry.id FROM ancestry ORDER BY ancestry.depth";
+    
+    /**
+     * Live ancestors of a set of tasks, up to the first deleted one, with the rollup of each task.
+     * The recursive part only carries ids; {@code %s} selects the starting tasks.
+     */
+    private static final String ROLLUP_PATHS =
+            "WITH RECURSIVE ancestry (task_id, id, depth) AS (" +
+            "SELECT s.id, s.parent_task_id, 1 FROM tasks s WHERE s.account_id = :accountId AND %s " +
+            "UNION ALL " +
+            "SELECT ancestry.task_id, a.parent_task_id, ancestry.depth + 1 FROM ancestry JOIN tasks a ON a.id = ancestry.id " +
+            "WHERE a.deleted_at IS NULL AND ancestry.depth < :maxDepth) " +
+            "SELECT t.id AS taskId, t.rollup_estimate_minutes AS rollupEstimateMinutes, " +
+            "t.rollup_spent_minutes AS rollupSpentMinutes, t.rollup_points AS rollupPoints, a.id AS ancestorId " +
+            "FROM ancestry JOIN tasks t ON t.id = ancestry.task_id JOIN tasks a ON a.id = ancestry.id " +
+            "WHERE a.account_id = :accountId AND a.deleted_at IS NULL " +
+            "ORDER BY t.id, ancestry.depth";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<UserTaskListProjection> findUserTasksAfter(UUID accountId, TaskListFilter filter, boolean highlight,
+                                                           TaskCursor after, boolean descending, int limit) {
+        TextSearch search = textSearch(filter);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = select(search, highlight, false);
+        appendFilters(sql, parameters, accountId, filter, search);
+        if (after != null) {
+            // Row-value comparison is a single index range condition on (created_at, id)
+            sql.append(descending
+                    ? " AND (t.created_at, t.id) < (:afterCreatedAt, :afterId)"
+                    : " AND (t.created_at, t.id) > (:afterCreatedAt, :afterId)");
+            parameters.put("afterCreatedAt", after.createdAt());
+            parameters.put("afterId", after.id());
+        }
+        String direction = descending ? "DESC" : "ASC";
+        sql.append(" ORDER BY t.created_at ").append(direction).append(", t.id ").append(direction);
+        
+        NativeQuery<?> nativeQuery = listQuery(sql.toString(), parameters);
+        nativeQuery.setMaxResults(limit);
+        return toRows(nativeQuery.getResultList());
+    }
+    
+    @Override
+    public Page<UserTaskListProjection> findUserTasksCounted(UUID accountId, TaskListFilter filter, boolean highlight,
+                                                             Pageable pageable) {
+        TextSearch search = textSearch(filter);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = select(search, highlight, true);
+        appendFilters(sql, parameters, accountId, filter, search);
+        appendOrderBy(sql, parameters, pageable.getSort(), filter, search);
+        
+        NativeQuery<?> nativeQuery = listQuery(sql.toString(), parameters)
+                .addScalar("total", StandardBasicTypes.LONG);
+        nativeQuery.setFirstResult((int) pageable.getOffset());
+        nativeQuery.setMaxResults(pageable.getPageSize());
+        List<?> results = nativeQuery.getResultList();
+        
+        if (results.isEmpty()) {
+            // Past the last page no row carries the total; only then is a separate count needed
+            long total = pageable.getOffset() > 0 ? countUserTasks(accountId, filter) : 0;
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        long total = (Long) ((Object[]) results.get(0))[TaskListRow.COLUMNS];
+        return new PageImpl<>(toRows(results), pageable, total);
+    }
+    
+    @Override
+    public Slice<UserTaskListProjection> findUserTasksSlice(UUID accountId, TaskListFilter filter, boolean highlight,
+                                                            Pageable pageable) {
+        TextSearch search = textSearch(filter);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = select(search, highlight, false);
+        appendFilters(sql, parameters, accountId, filter, search);
+        appendOrderBy(sql, parameters, pageable.getSort(), filter, search);
+        
+        NativeQuery<?> nativeQuery = listQuery(sql.toString(), parameters);
+        nativeQuery.setFirstResult((int) pageable.getOffset());
+        nativeQuery.setMaxResults(pageable.getPageSize() + 1);
+        List<UserTaskListProjection> rows = toRows(nativeQuery.getResultList());
+        
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+    
+    @Override
+    public long countUserTasks(UUID accountId, TaskListFilter filter) {
+        // Statuses and priorities are mandatory foreign keys, so the joins cannot change the count
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM tasks t WHERE t.account_id = :accountId AND t.deleted_at IS NULL");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        appendFilters(sql, parameters, accountId, filter, textSearch(filter));
+        
+        Query countQuery = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(countQuery::setParameter);
+        return ((Number) countQuery.getSingleResult()).longValue();
+    }
+    
+    @Override
+    public Optional<UserTaskDetailProjection> changeStatus(UUID taskId, UUID accountId, short statusId, boolean done,
+                                                           Set<Short> disallowedFrom, Integer expectedVersion,
+                                                           ZonedDateTime now) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder update = new StringBuilder("UPDATE tasks t SET status_id = :statusId, completed_at = ")
+                .append(done ? ":now" : "NULL")
+                .append(", updated_at = :now, version = t.version + 1")
+                .append(" WHERE t.id = :taskId AND t.account_id = :accountId AND t.deleted_at IS NULL");
+        parameters.put("statusId", statusId);
+        parameters.put("now", now);
+        parameters.put("taskId", taskId);
+        parameters.put("accountId", accountId);
+        if (!disallowedFrom.isEmpty()) {
+            update.append(" AND t.status_id NOT IN (:disallowedFrom)");
+            parameters.put("disallowedFrom", disallowedFrom);
+        }
+        if (expectedVersion != null) {
+            update.append(" AND t.version = :expectedVersion");
+            parameters.put("expectedVersion", expectedVersion);
+        }
+        
+        return updateReturningDetail(update, parameters);
+    }
+    
+    @Override
+    public List<UUID> bulkUpdate(UUID accountId, Collection<UUID> ids, TaskListFilter filter, TaskBulkUpdate update,
+                                 ZonedDateTime now) {
+        boolean postgres = SqlDialects.isPostgres(entityManager);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("UPDATE tasks t SET ");
+        switch (update.action()) {
+            case STATUS -> {
+                sql.append("status_id = :statusId, completed_at = ").append(update.done() ? ":now" : "NULL").append(", ");
+                parameters.put("statusId", update.statusId());
+            }
+            case ARCHIVE -> sql.append("is_archived = TRUE, ");
+            case UNARCHIVE -> sql.append("is_archived = FALSE, ");
+            case DELETE -> sql.append("deleted_at = :now, ");
+        }
+        sql.append("updated_at = :now, version = t.version + 1")
+                .append(" WHERE t.account_id = :accountId AND t.deleted_at IS NULL");
+        parameters.put("now", now);
+        
+        if (ids != null) {
+            parameters.put("accountId", accountId);
+            sql.append(" AND ").append(idsCondition("t", ids, parameters));
+        } else {
+            TextSearch search = textSearch(filter);
+            if (search == TextSearch.NONE && filter.statusId() == null && filter.fromDue() == null
+                    && filter.toDue() == null) {
+                throw new IllegalArgumentException("The filter must select tasks by at least one criterion");
+            }
+            appendFilters(sql, parameters, accountId, filter, search);
+        }
+        if (!update.disallowedFrom().isEmpty()) {
+            sql.append(" AND t.status_id NOT IN (:disallowedFrom)");
+            parameters.put("disallowedFrom", update.disallowedFrom());
+        }
+        
+        String statement = postgres
+                ? sql + " RETURNING t.id"
+                : "SELECT c.id FROM FINAL TABLE (" + sql + ") c";
+        NativeQuery<?> nativeQuery = entityManager.createNativeQuery(statement)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", StandardBasicTypes.UUID);
+        parameters.forEach(nativeQuery::setParameter);
+        return nativeQuery.getResultList().stream()
+                .map(UUID.class::cast)
+                .toList();
+    }
+    
+    @Override
+    public List<UserTaskTreeProjection> findSubtree(UUID rootId, UUID accountId, int maxDepth, int limit) {
+        NativeQuery<?> nativeQuery = entityManager.createNativeQuery(SUBTREE)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", StandardBasicTypes.UUID)
+                .addScalar("title", StandardBasicTypes.STRING)
+                .addScalar("descriptionMd", StandardBasicTypes.STRING)
+                .addScalar("statusId", StandardBasicTypes.SHORT)
+                .addScalar("statusName", StandardBasicTypes.STRING)
+                .addScalar("priorityId", StandardBasicTypes.SHORT)
+                .addScalar("priorityName", StandardBasicTypes.STRING)
+                .addScalar("dueAt", StandardBasicTypes.INSTANT)
+                .addScalar("estimateMinutes", StandardBasicTypes.INTEGER)
+                .addScalar("createdAt", StandardBasicTypes.INSTANT)
+                .addScalar("updatedAt", StandardBasicTypes.INSTANT)
+                .addScalar("rollupEstimateMinutes", StandardBasicTypes.LONG)
+                .addScalar("rollupSpentMinutes", StandardBasicTypes.LONG)
+                .addScalar("rollupPoints", StandardBasicTypes.BIG_DECIMAL)
+                .addScalar("parentId", StandardBasicTypes.UUID)
+                .addScalar("depth", StandardBasicTypes.INTEGER)
+                .addScalar("truncated", StandardBasicTypes.BOOLEAN);
+        nativeQuery.setParameter("rootId", rootId);
+        nativeQuery.setParameter("accountId", accountId);
+        nativeQuery.setParameter("maxDepth", maxDepth);
+        nativeQuery.setMaxResults(limit);
+        return nativeQuery.getResultList().stream()
+                .map(row -> (UserTaskTreeProjection) TaskTreeRow.of((Object[]) row))
+                .toList();
+    }
+    
+    @Override
+    public List<TaskScheduleProjection> findSubtreeSchedule(UUID rootId, UUID accountId, int maxDepth, int limit) {
+        NativeQuery<?> nativeQuery = entityManager.createNativeQuery(SUBTREE_SCHEDULE)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", StandardBasicTypes.UUID)
+                .addScalar("statusId", StandardBasicTypes.SHORT)
+                .addScalar("estimateMinutes", StandardBasicTypes.INTEGER)
+                .addScalar("startAt", StandardBasicTypes.INSTANT)
+                .addScalar("dueAt", StandardBasicTypes.INSTANT);
+        nativeQuery.setParameter("rootId", rootId);
+        nativeQuery.setParameter("accountId", accountId);
+        nativeQuery.setParameter("maxDepth", maxDepth);
+        nativeQuery.setMaxResults(limit);
+        return nativeQuery.getResultList().stream()
+                .map(row -> (TaskScheduleProjection) TaskScheduleRow.of((Object[]) row))
+                .toList();
+    }
+    
+    @Override
+    public List<UUID> findAncestorIds(UUID taskId, UUID accountId, int maxDepth) {
+        NativeQuery<?> nativeQuery = entityManager.createNativeQuery(ANCESTORS)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", StandardBasicTypes.UUID);
+        nativeQuery.setParameter("taskId", taskId);
+        nativeQuery.setParameter("accountId", accountId);
+        nativeQuery.setParameter("maxDepth", maxDepth);
+        return nativeQuery.getResultList().stream()
+                .map(UUID.class::cast)
+                .toList();
+    }
+    
+    @Override
+    public List<TaskRollupPath> findRollupPaths(Collection<UUID> taskIds, UUID accountId, int maxDepth) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = String.format(ROLLUP_PATHS, idsCondition("s", taskIds, parameters));
+        NativeQuery<?> nativeQuery = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("taskId", StandardBasicTypes.UUID)
+                .addScalar("rollupEstimateMinutes", StandardBasicTypes.LONG)
+                .addScalar("rollupSpentMinutes", StandardBasicTypes.LONG)
+                .addScalar("rollupPoints", StandardBasicTypes.BIG_DECIMAL)
+                .addScalar("ancestorId", StandardBasicTypes.UUID);
+        parameters.forEach(nativeQuery::setParameter);
+        nativeQuery.setParameter("accountId", accountId);
+        nativeQuery.setParameter("maxDepth", maxDepth);
+        
+        // Rows come grouped by task and ordered by depth within a task
+        List<TaskRollupPath> paths = new ArrayList<>();
+        UUID currentTask = null;
+        List<UUID> ancestors = null;
+        for (Object result : nativeQuery.getResultList()) {
+            Object[] row = (Object[]) result;
+            UUID taskId = (UUID) row[0];
+            if (!taskId.equals(currentTask)) {
+                currentTask = taskId;
+                ancestors = new ArrayList<>();
+                TaskRollup rollup = new TaskRollup((Long) row[1], (Long) row[2], (BigDecimal) row[3]);
+                paths.add(new TaskRollupPath(taskId, rollup, ancestors));
+            }
+            ancestors.add((UUID) row[4]);
+        }
+        return paths;
+    }
+    
+    @Override
+    public int addToRollups(UUID accountId, Collection<UUID> taskIds, TaskRollup delta) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = "UPDATE tasks t SET rollup_estimate_minutes = t.rollup_estimate_minutes + :estimateMinutes, " +
+                "rollup_spent_minutes = t.rollup_spent_minutes + :spentMinutes, " +
+                "rollup_points = t.rollup_points + :points " +
+                "WHERE t.account_id = :accountId AND " + idsCondition("t", taskIds, parameters);
+        Query update = entityManager.createNativeQuery(sql);
+        parameters.forEach(update::setParameter);
+        update.setParameter("accountId", accountId);
+        update.setParameter("estimateMinutes", delta.estimateMinutes());
+        update.setParameter("spentMinutes", delta.spentMinutes());
+        update.setParameter("points", delta.points());
+        return update.executeUpdate();
+    }
+    
+    @Override
+    public void lockTaskHierarchy(UUID accountId) {
+        if (!SqlDialects.isPostgres(entityManager)) {
+            return;
+        }
+        // Transaction-scoped advisory lock keyed by the account; pg_advisory_xact_lock returns void,
+        // so the call is wrapped to give the query a readable result
+        entityManager.createNativeQuery("SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(:lockKey)) l")
+                .setParameter("lockKey", accountId.getMostSignificantBits() ^ accountId.getLeastSignificantBits())
+                .getSingleResult();
+    }
+    
+    @Override
+    public Optional<UserTaskDetailProjection> moveTask(UUID taskId, UUID accountId, UUID parentId,
+                                                       Integer expectedVersion, ZonedDateTime now) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder update = new StringBuilder("UPDATE tasks t SET parent_task_id = ")
+                .append(parentId != null ? ":parentId" : "NULL")
+                .append(", updated_at = :now, version = t.version + 1")
+                .append(" WHERE t.id = :taskId AND t.account_id = :accountId AND t.deleted_at IS NULL");
+        if (parentId != null) {
+            parameters.put("parentId", parentId);
+        }
+        parameters.put("now", now);
+        parameters.put("taskId", taskId);
+        parameters.put("accountId", accountId);
+        if (expectedVersion != null) {
+            update.append(" AND t.version = :expectedVersion");
+            parameters.put("expectedVersion", expectedVersion);
+        }
+        return updateReturningDetail(update, parameters);
+    }
+    
+    @Override
+    public Optional<RankNeighbors> findRankNeighbors(RankScope scope, UUID id, UUID afterId) {
+        RankedList list = RankedList.of(scope.kind());
+        Map<String, Object> parameters = rankParameters(scope, id);
+        StringBuilder sql = new StringBuilder("SELECT s.id, s.order_index FROM ").append(list.movedFrom())
+                .append(list.siblings());
+        if (afterId != null) {
+            // The row to place after is a sibling too, so it comes first when it exists
+            sql.append(" JOIN ").append(list.table()).append(" a ON a.id = :afterId");
+            parameters.put("afterId", afterId);
+        }
+        sql.append(" WHERE ").append(list.movedWhere());
+        if (afterId != null) {
+            sql.append(" AND (").append(list.key("s")).append(") >= (").append(list.key("a")).append(")");
+        }
+        sql.append(" ORDER BY ").append(list.key("s"));
+        
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+        query.setMaxResults(afterId != null ? 2 : 1);
+        List<?> rows = query.getResultList();
+        if (afterId == null) {
+            return Optional.of(new RankNeighbors(null, rows.isEmpty() ? null : rank(rows.get(0))));
+        }
+        if (rows.isEmpty() || !afterId.equals(((Object[]) rows.get(0))[0])) {
+            return Optional.empty();
+        }
+        return Optional.of(new RankNeighbors(rank(rows.get(0)), rows.size() > 1 ? rank(rows.get(1)) : null));
+    }
+    
+    @Override
+    public int rebalanceRanks(RankScope scope, UUID id) {
+        RankedList list = RankedList.of(scope.kind());
+        Map<String, Object> parameters = rankParameters(scope, id);
+        String ranked = "SELECT s.id, ROW_NUMBER() OVER (ORDER BY " + list.key("s") + ") AS rn FROM " +
+                list.movedFrom() + list.siblings() + " WHERE " + list.movedWhere();
+        String sql = SqlDialects.isPostgres(entityManager)
+                ? "UPDATE " + list.table() + " u SET order_index = r.rn * :gap FROM (" + ranked + ") r WHERE u.id = r.id"
+                : "MERGE INTO " + list.table() + " u USING (" + ranked + ") r ON (u.id = r.id) " +
+                  "WHEN MATCHED THEN UPDATE SET order_index = r.rn * :gap";
+        Query update = entityManager.createNativeQuery(sql);
+        parameters.forEach(update::setParameter);
+        update.setParameter("gap", TaskConstants.RANK_GAP);
+        return update.executeUpdate();
+    }
+    
+    @Override
+    public Optional<UserTaskDetailProjection> reorderTask(UUID taskId, UUID accountId, long rank,
+                                                          Integer expectedVersion, ZonedDateTime now) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder update = new StringBuilder("UPDATE tasks t SET order_index = :rank")
+                .append(", updated_at = :now, version = t.version + 1")
+                .append(" WHERE t.id = :taskId AND t.account_id = :accountId AND t.deleted_at IS NULL");
+        parameters.put("rank", rank);
+        parameters.put("now", now);
+        parameters.put("taskId", taskId);
+        parameters.put("accountId", accountId);
+        if (expectedVersion != null) {
+            update.append(" AND t.version = :expectedVersion");
+            parameters.put("expectedVersion", expectedVersion);
+        }
+        return updateReturningDetail(update, parameters);
+    }
+    
+    @Override
+    public int updateRank(RankScope scope, UUID id, long rank) {
+        if (scope.kind() == RankScope.Kind.TASKS) {
+            throw new IllegalArgumentException("Tasks are reordered through reorderTask");
+        }
+        RankedList list = RankedList.of(scope.kind());
+        Map<String, Object> parameters = rankParameters(scope, id);
+        Query update = entityManager.createNativeQuery("UPDATE " + list.table() + " u SET order_index = :rank " +
+                "WHERE u.id IN (SELECT m.id FROM " + list.movedFrom() + " WHERE " + list.movedWhere() + ")");
+        parameters.forEach(update::setParameter);
+        update.setParameter("rank", rank);
+        return update.executeUpdate();
+    }
+    
+    private static Map<String, Object> rankParameters(RankScope scope, UUID id) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("id", id);
+        parameters.put("accountId", scope.accountId());
+        if (scope.kind() != RankScope.Kind.TASKS) {
+            parameters.put("taskId", scope.taskId());
+        }
+        if (scope.kind() == RankScope.Kind.CHECKLIST_ITEMS) {
+            parameters.put("checklistId", scope.checklistId());
+        }
+        return parameters;
+    }
+    
+    private static long rank(Object row) {
+        return ((Number) ((Object[]) row)[1]).longValue();
+    }
+    
+    /**
+     * Turns free text into a tsquery that matches every word as a prefix, e.g. {@code "quar rep"}
+     * becomes {@code "quar:* & rep:*"}. Only letters and digits are kept, so user input can never
+     * inject tsquery operators.
+     *
+     * @return the tsquery, or null if the text contains no searchable word
+     */
+    static String toPrefixTsQuery(String text) {
+        String tsQuery = Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+    
+    /**
+     * Escapes the LIKE wildcards in user input, so {@code 100%} matches literally.
+     */
+    static String toContainsPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+    
+    /**
+     * Selects rows by id. On PostgreSQL the ids are bound as one {@code uuid[]} parameter, so the
+     * statement text does not depend on how many ids are sent; other databases get {@code IN (...)}.
+     */
+    private String idsCondition(String alias, Collection<UUID> ids, Map<String, Object> parameters) {
+        if (SqlDialects.isPostgres(entityManager)) {
+            parameters.put("ids", toUuidArrayLiteral(ids));
+            return alias + ".id = ANY(CAST(:ids AS uuid[]))";
+        }
+        parameters.put("ids", ids);
+        return alias + ".id IN (:ids)";
+    }
+    
+    /**
+     * PostgreSQL array literal of the ids, e.g. {@code {0b5e...,8f1c...}}, cast to uuid[] in the query.
+     */
+    static String toUuidArrayLiteral(Collection<UUID> ids) {
+        return ids.stream()
+                .map(UUID::toString)
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+    
+    private TextSearch textSearch(TaskListFilter filter) {
+        if (filter.query() == null) {
+            return TextSearch.NONE;
+        }
+        boolean postgres = SqlDialects.isPostgres(entityManager);
+        if (filter.searchMode() == TaskSearchMode.CONTAINS) {
+            return new TextSearch(TextSearch.Kind.CONTAINS, filter.query().toLowerCase(Locale.ROOT), postgres);
+        }
+        if (!postgres) {
+            return TextSearch.LIKE;
+        }
+        String tsQuery = toPrefixTsQuery(filter.query());
+        return tsQuery != null ? new TextSearch(TextSearch.Kind.FULL_TEXT, tsQuery, true) : TextSearch.NONE;
+    }
+    
+    private static StringBuilder select(TextSearch search, boolean highlight, boolean withTotal) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(LIST_COLUMNS).append(", ")
+                .append(highlight && search.fullText() ? SNIPPET : NO_SNIPPET).append(" AS snippet");
+        if (withTotal) {
+            // The window is evaluated before LIMIT/OFFSET, so every returned row carries the full filtered total
+            sql.append(", COUNT(*) OVER () AS total");
+        }
+        return sql.append(FROM_USER_TASKS);
+    }
+    
+    private static void appendFilters(StringBuilder sql, Map<String, Object> parameters, UUID accountId,
+                                      TaskListFilter filter, TextSearch search) {
+        parameters.put("accountId", accountId);
+        if (filter.statusId() != null) {
+            sql.append(" AND t.status_id = :statusId");
+            parameters.put("statusId", filter.statusId());
+        }
+        if (search.fullText()) {
+            sql.append(" AND ").append(SEARCH_DOCUMENT).append(" @@ ").append(SEARCH_QUERY);
+            parameters.put("tsQuery", search.term());
+        } else if (search.kind() == TextSearch.Kind.CONTAINS) {
+            // Served by idx_tasks_title_trgm on PostgreSQL for queries of three or more characters
+            sql.append(" AND LOWER(t.title) LIKE :titlePattern ESCAPE '\\'");
+            parameters.put("titlePattern", toContainsPattern(search.term()));
+        } else if (search.kind() == TextSearch.Kind.LIKE) {
+            // Portable fallback for H2, which has no text search
+            sql.append(" AND (LOWER(t.title) LIKE :pattern OR LOWER(COALESCE(t.description_md, '')) LIKE :pattern)");
+            parameters.put("pattern", "%" + filter.query().toLowerCase() + "%");
+        }
+        if (filter.fromDue() != null) {
+            sql.append(" AND t.due_at >= :fromDue");
+            parameters.put("fromDue", filter.fromDue());
+        }
+        if (filter.toDue() != null) {
+            sql.append(" AND t.due_at <= :toDue");
+            parameters.put("toDue", filter.toDue());
+        }
+    }
+    
+    /**
+     * Appends the requested order with the id as a final tie-breaker, so rows with equal sort
+     * keys do not move between pages. {@code relevance} ranks full-text matches by ts_rank and
+     * title matches by trigram similarity, and falls back to creation time on other databases.
+     *
+     * @throws IllegalArgumentException for a property that cannot be sorted on
+     */
+    private static void appendOrderBy(StringBuilder sql, Map<String, Object> parameters, Sort sort,
+                                      TaskListFilter filter, TextSearch search) {
+        sql.append(" ORDER BY ");
+        boolean orderedById = false;
+        for (Sort.Order order : sort) {
+            String column;
+            if (RELEVANCE.equals(order.getProperty())) {
+                if (filter.query() == null) {
+                    throw new IllegalArgumentException("Sorting by relevance requires a search query");
+                }
+                column = relevanceColumn(search, parameters);
+            } else {
+                column = SORT_COLUMNS.get(order.getProperty());
+                if (column == null) {
+                    throw new IllegalArgumentException("Cannot sort tasks by " + order.getProperty());
+                }
+            }
+            sql.append(column).append(order.isDescending() ? " DESC, " : " ASC, ");
+            orderedById |= "t.id".equals(column);
+        }
+        if (orderedById) {
+            sql.setLength(sql.length() - 2);
+        } else {
+            sql.append("t.id");
+        }
+    }
+    
+    private static String relevanceColumn(TextSearch search, Map<String, Object> parameters) {
+        if (search.fullText()) {
+            return "ts_rank(" + SEARCH_DOCUMENT + ", " + SEARCH_QUERY + ")";
+        }
+        if (search.kind() == TextSearch.Kind.CONTAINS && search.postgres()) {
+            parameters.put("similarityTerm", search.term());
+            return "similarity(LOWER(t.title), :similarityTerm)";
+        }
+        return "t.created_at";
+    }
+    
+    /**
+     * Runs a single-row UPDATE of tasks aliased {@code t} and reads the changed row joined to the
+     * lookup tables, in one statement.
+     */
+    private Optional<UserTaskDetailProjection> updateReturningDetail(StringBuilder update,
+                                                                     Map<String, Object> parameters) {
+        String sql = SqlDialects.isPostgres(entityManager)
+                ? "WITH c AS (" + update + " RETURNING " + CHANGED_COLUMNS + ") " + SELECT_CHANGED + " FROM c" + JOIN_CHANGED
+                // H2 has no RETURNING; its data change delta table keeps this a single statement as well
+                : SELECT_CHANGED + " FROM FINAL TABLE (" + update + ") c" + JOIN_CHANGED;
+        NativeQuery<?> nativeQuery = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", StandardBasicTypes.UUID)
+                .addScalar("title", StandardBasicTypes.STRING)
+                .addScalar("descriptionMd", StandardBasicTypes.STRING)
+                .addScalar("statusId", StandardBasicTypes.SHORT)
+                .addScalar("statusName", StandardBasicTypes.STRING)
+                .addScalar("priorityId", StandardBasicTypes.SHORT)
+                .addScalar("priorityName", StandardBasicTypes.STRING)
+                .addScalar("dueAt", StandardBasicTypes.INSTANT)
+                .addScalar("estimateMinutes", StandardBasicTypes.INTEGER)
+                .addScalar("spentMinutes", StandardBasicTypes.INTEGER)
+                .addScalar("completedAt", StandardBasicTypes.INSTANT)
+                .addScalar("createdAt", StandardBasicTypes.INSTANT)
+                .addScalar("updatedAt", StandardBasicTypes.INSTANT)
+                .addScalar("version", StandardBasicTypes.INTEGER)
+                .addScalar("rollupEstimateMinutes", StandardBasicTypes.LONG)
+                .addScalar("rollupSpentMinutes", StandardBasicTypes.LONG)
+                .addScalar("rollupPoints", StandardBasicTypes.BIG_DECIMAL);
+        parameters.forEach(nativeQuery::setParameter);
+        
+        return nativeQuery.getResultList().stream()
+                .findFirst()
+                .map(row -> TaskDetailRow.of((Object[]) row));
+    }
+    
+    private NativeQuery<?> listQuery(String sql, Map<String, Object> parameters) {
+        NativeQuery<?> nativeQuery = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", StandardBasicTypes.UUID)
+                .addScalar("title", StandardBasicTypes.STRING)
+                .addScalar("descriptionMd", StandardBasicTypes.STRING)
+                .addScalar("statusId", StandardBasicTypes.SHORT)
+                .addScalar("statusName", StandardBasicTypes.STRING)
+                .addScalar("priorityId", StandardBasicTypes.SHORT)
+                .addScalar("priorityName", StandardBasicTypes.STRING)
+                .addScalar("dueAt", StandardBasicTypes.INSTANT)
+                .addScalar("estimateMinutes", StandardBasicTypes.INTEGER)
+                .addScalar("createdAt", StandardBasicTypes.INSTANT)
+                .addScalar("updatedAt", StandardBasicTypes.INSTANT)
+                .addScalar("rollupEstimateMinutes", StandardBasicTypes.LONG)
+                .addScalar("rollupSpentMinutes", StandardBasicTypes.LONG)
+                .addScalar("rollupPoints", StandardBasicTypes.BIG_DECIMAL)
+                .addScalar("snippet", StandardBasicTypes.STRING);
+        parameters.forEach(nativeQuery::setParameter);
+        return nativeQuery;
+    }
+    
+    private static List<UserTaskListProjection> toRows(List<?> results) {
+        return results.stream()
+                .map(row -> (UserTaskListProjection) TaskListRow.of((Object[]) row))
+                .toList();
+    }
+    
+    /**
+     * SQL of an ordered list: {@code m} is the moved row, checked against the account and the path
+     * ids, and {@code s} its siblings.
+     */
+    private record RankedList(String table, String movedFrom, String movedWhere, String siblings, String keyFormat) {
+        
+        private static final RankedList TASKS = new RankedList("tasks",
+                "tasks m",
+                "m.id = :id AND m.account_id = :accountId AND m.deleted_at IS NULL",
+                " JOIN tasks s ON s.account_id = m.account_id AND s.parent_task_id IS NOT DISTINCT FROM m.parent_task_id " +
+                "AND s.deleted_at IS NULL AND s.id <> m.id",
+                "%1$s.order_index, %1$s.created_at, %1$s.id");
+        
+        private static final RankedList CHECKLISTS = new RankedList("checklists",
+                "checklists m JOIN tasks o ON o.id = m.task_id",
+                "m.id = :id AND m.task_id = :taskId AND o.account_id = :accountId AND o.deleted_at IS NULL",
+                " JOIN checklists s ON s.task_id = m.task_id AND s.id <> m.id",
+                "%1$s.order_index, %1$s.id");
+        
+        private static final RankedList CHECKLIST_ITEMS = new RankedList("checklist_items",
+                "checklist_items m JOIN checklists c ON c.id = m.checklist_id JOIN tasks o ON o.id = c.task_id",
+                "m.id = :id AND m.checklist_id = :checklistId AND c.task_id = :taskId AND o.account_id = :accountId " +
+                "AND o.deleted_at IS NULL",
+                " JOIN checklist_items s ON s.checklist_id = m.checklist_id AND s.id <> m.id",
+                "%1$s.order_index, %1$s.id");
+        
+        static RankedList of(RankScope.Kind kind) {
+            return switch (kind) {
+                case TASKS -> TASKS;
+                case CHECKLISTS -> CHECKLISTS;
+                case CHECKLIST_ITEMS -> CHECKLIST_ITEMS;
+            };
+        }
+        
+        String key(String alias) {
+            return String.format(keyFormat, alias);
+        }
+    }
+    
+    /**
+     * How the search query of a filter is applied: not at all, as a PostgreSQL full-text match
+     * against idx_tasks_search, as a title substring match against idx_tasks_title_trgm, or as
+     * the LIKE fallback for word search on other databases.
+     */
+    private record TextSearch(Kind kind, String term, boolean postgres) {
+        
+        static final TextSearch NONE = new TextSearch(Kind.NONE, null, false);
+        static final TextSearch LIKE = new TextSearch(Kind.LIKE, null, false);
+        
+        enum Kind { NONE, LIKE, FULL_TEXT, CONTAINS }
+        
+        boolean fullText() {
+            return kind == Kind.FULL_TEXT;
+        }
+    }
+    
+    private record TaskListRow(UUID id, String title, String descriptionMd, Short statusId, String statusName,
+                               Short priorityId, String priorityName, Instant dueAt, Integer estimateMinutes,
+                               Instant createdAt, Instant updatedAt, Long rollupEstimateMinutes,
+                               Long rollupSpentMinutes, BigDecimal rollupPoints,
+                               String snippet) implements UserTaskListProjection {
+        
+        /** Number of mapped columns; extra columns such as the window total follow them. */
+        static final int COLUMNS = 15;
+        
+        static TaskListRow of(Object[] row) {
+            return new TaskListRow((UUID) row[0], (String) row[1], (String) row[2], (Short) row[3],
+                    (String) row[4], (Short) row[5], (String) row[6], (Instant) row[7], (Integer) row[8],
+                    (Instant) row[9], (Instant) row[10], (Long) row[11], (Long) row[12], (BigDecimal) row[13],
+                    (String) row[14]);
+        }
+        
+        @Override
+        public UUID getId() {
+            return id;
+        }
+        
+        @Override
+        public String getTitle() {
+            return title;
+        }
+        
+        @Override
+        public String getDescriptionMd() {
+            return descriptionMd;
+        }
+        
+        @Override
+        public Short getStatusId() {
+            return statusId;
+        }
+        
+        @Override
+        public String getStatusName() {
+            return statusName;
+        }
+        
+        @Override
+        public Short getPriorityId() {
+            return priorityId;
+        }
+        
+        @Override
+        public String getPriorityName() {
+            return priorityName;
+        }
+        
+        @Override
+        public Instant getDueAt() {
+            return dueAt;
+        }
+        
+        @Override
+        public Integer getEstimateMinutes() {
+            return estimateMinutes;
+        }
+        
+        @Override
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+        
+        @Override
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+        
+        @Override
+        public Long getRollupEstimateMinutes() {
+            return rollupEstimateMinutes;
+        }
+        
+        @Override
+        public Long getRollupSpentMinutes() {
+            return rollupSpentMinutes;
+        }
+        
+        @Override
+        public BigDecimal getRollupPoints() {
+            return rollupPoints;
+        }
+        
+        @Override
+        public String getSnippet() {
+            return snippet;
+        }
+    }
+    
+    private record TaskDetailRow(UUID id, String title, String descriptionMd, Short statusId, String statusName,
+                                 Short priorityId, String priorityName, Instant dueAt, Integer estimateMinutes,
+                                 Integer spentMinutes, Instant completedAt, Instant createdAt, Instant updatedAt,
+                                 Integer version, Long rollupEstimateMinutes, Long rollupSpentMinutes,
+                                 BigDecimal rollupPoints) implements UserTaskDetailProjection {
+        
+        static TaskDetailRow of(Object[] row) {
+            return new TaskDetailRow((UUID) row[0], (String) row[1], (String) row[2], (Short) row[3],
+                    (String) row[4], (Short) row[5], (String) row[6], (Instant) row[7], (Integer) row[8],
+                    (Integer) row[9], (Instant) row[10], (Instant) row[11], (Instant) row[12], (Integer) row[13],
+                    (Long) row[14], (Long) row[15], (BigDecimal) row[16]);
+        }
+        
+        @Override
+        public UUID getId() {
+            return id;
+        }
+        
+        @Override
+        public String getTitle() {
+            return title;
+        }
+        
+        @Override
+        public String getDescriptionMd() {
+            return descriptionMd;
+        }
+        
+        @Override
+        public Short getStatusId() {
+            return statusId;
+        }
+        
+        @Override
+        public String getStatusName() {
+            return statusName;
+        }
+        
+        @Override
+        public Short getPriorityId() {
+            return priorityId;
+        }
+        
+        @Override
+        public String getPriorityName() {
+            return priorityName;
+        }
+        
+        @Override
+        public Instant getDueAt() {
+            return dueAt;
+        }
+        
+        @Override
+        public Integer getEstimateMinutes() {
+            return estimateMinutes;
+        }
+        
+        @Override
+        public Integer getSpentMinutes() {
+            return spentMinutes;
+        }
+        
+        @Override
+        public Instant getCompletedAt() {
+            return completedAt;
+        }
+        
+        @Override
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+        
+        @Override
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+        
+        @Override
+        public Integer getVersion() {
+            return version;
+        }
+        
+        @Override
+        public Long getRollupEstimateMinutes() {
+            return rollupEstimateMinutes;
+        }
+        
+        @Override
+        public Long getRollupSpentMinutes() {
+            return rollupSpentMinutes;
+        }
+        
+        @Override
+        public BigDecimal getRollupPoints() {
+            return rollupPoints;
+        }
+    }
+    
+    private record TaskTreeRow(UUID id, String title, String descriptionMd, Short statusId, String statusName,
+                               Short priorityId, String priorityName, Instant dueAt, Integer estimateMinutes,
+                               Instant createdAt, Instant updatedAt, Long rollupEstimateMinutes,
+                               Long rollupSpentMinutes, BigDecimal rollupPoints, UUID parentId, Integer depth,
+                               Boolean truncated) implements UserTaskTreeProjection {
+        
+        static TaskTreeRow of(Object[] row) {
+            return new TaskTreeRow((UUID) row[0], (String) row[1], (String) row[2], (Short) row[3],
+                    (String) row[4], (Short) row[5], (String) row[6], (Instant) row[7], (Integer) row[8],
+                    (Instant) row[9], (Instant) row[10], (Long) row[11], (Long) row[12], (BigDecimal) row[13],
+                    (UUID) row[14], (Integer) row[15], (Boolean) row[16]);
+        }
+        
+        @Override
+        public UUID getId() {
+            return id;
+        }
+        
+        @Override
+        public String getTitle() {
+            return title;
+        }
+        
+        @Override
+        public String getDescriptionMd() {
+            return descriptionMd;
+        }
+        
+        @Override
+        public Short getStatusId() {
+            return statusId;
+        }
+        
+        @Override
+        public String getStatusName() {
+            return statusName;
+        }
+        
+        @Override
+        public Short getPriorityId() {
+            return priorityId;
+        }
+        
+        @Override
+        public String getPriorityName() {
+            return priorityName;
+        }
+        
+        @Override
+        public Instant getDueAt() {
+            return dueAt;
+        }
+        
+        @Override
+        public Integer getEstimateMinutes() {
+            return estimateMinutes;
+        }
+        
+        @Override
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+        
+        @Override
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+        
+        @Override
+        public Long getRollupEstimateMinutes() {
+            return rollupEstimateMinutes;
+        }
+        
+        @Override
+        public Long getRollupSpentMinutes() {
+            return rollupSpentMinutes;
+        }
+        
+        @Override
+        public BigDecimal getRollupPoints() {
+            return rollupPoints;
+        }
+        
+        @Override
+        public UUID getParentId() {
+            return parentId;
+        }
+        
+        @Override
+        public Integer getDepth() {
+            return depth;
+        }
+        
+        @Override
+        public Boolean getTruncated() {
+            return truncated;
+        }
+    }
+    
+    private record TaskScheduleRow(UUID id, Short statusId, Integer estimateMinutes, Instant startAt,
+                                   Instant dueAt) implements TaskScheduleProjection {
+        
+        static TaskScheduleRow of(Object[] row) {
+            return new TaskScheduleRow((UUID) row[0], (Short) row[1], (Integer) row[2], (Instant) row[3],
+                    (Instant) row[4]);
+        }
+        
+        @Override
+        public UUID getId() {
+            return id;
+        }
+        
+        @Override
+        public Short getStatusId() {
+            return statusId;
+        }
+        
+        @Override
+        public Integer getEstimateMinutes() {
+            return estimateMinutes;
+        }
+        
+        @Override
+        public Instant getStartAt() {
+            return startAt;
+        }
+        
+        @Override
+        public Instant getDueAt() {
+            return dueAt;
+        }
+    }
+}
@@ -2,15 +2,18 @@ package com.myhealth.repository;
 
 import com.myhealth.entity.User;
 import com.myhealth.projection.UserLoginProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     
     /**
@@ -32,4 +35,46 @@ public interface UserRepository extends JpaRepository<User, UUID> {
            "WHERE u.username = :username " +
            "GROUP BY u.id, u.username, u.password, u.enabled, u.accountNonExpired, u.accountNonLocked, u.credentialsNonExpired")
     Optional<UserLoginProjection> findByUsernameForLogin(@Param("username") String username);
+    
+    /**
+     * Same projection as {@link #findByUsernameForLogin(String)}, looked up by user id.
+     */
+    @Query("SELECT u.id as id, " +
+           "u.username as username, " +
+           "u.password as password, " +
+           "u.enabled as enabled, " +
+           "u.accountNonExpired as accountNonExpired, " +
+           "u.accountNonLocked as accountNonLocked, " +
+           "u.credentialsNonExpired as credentialsNonExpired, " +
+           "COALESCE(STRING_AGG(r.name, ','), '') as roles " +
+           "FROM User u " +
+           "LEFT JOIN u.userRoles ur " +
+           "LEFT JOIN ur.role r " +
+           "WHERE u.id = :id " +
+           "GROUP BY u.id, u.username, u.password, u.enabled, u.accountNonExpired, u.accountNonLocked, u.credentialsNonExpired")
+    Optional<UserLoginProjection> findByIdForLogin(@Param("id") UUID id);
+    
+    /**
+     * Login projections of enabled users, most recently logged in first. Used to warm the
+     * principal cache after startup.
+     */
+    @Query("SELECT u.id as id, " +
+           "u.username as username, " +
+           "u.password as password, " +
+           "u.enabled as enabled, " +
+           "u.accountNonExpired as accountNonExpired, " +
+           "u.accountNonLocked as accountNonLocked, " +
+           "u.credentialsNonExpired as credentialsNonExpired, " +
+           "COALESCE(STRING_AGG(r.name, ','), '') as roles " +
+           "FROM User u " +
+           "LEFT JOIN u.userRoles ur " +
+           "LEFT JOIN ur.role r " +
+           "WHERE u.enabled = true " +
+           "GROUP BY u.id, u.username, u.password, u.enabled, u.accountNonExpired, u.accountNonLocked, u.credentialsNonExpired, u.lastLoginAt " +
+           "ORDER BY u.lastLoginAt DESC NULLS LAST")
+    List<UserLoginProjection> findRecentForLogin(Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = CURRENT_TIMESTAMP WHERE u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
 }
\ No newline at end of file
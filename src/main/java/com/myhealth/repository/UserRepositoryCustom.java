@@ -0,0 +1,15 @@
+package com.myhealth.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+    
+    /**
+     * Applies login attempt counters collected since the last flush, as JDBC batches.
+     *
+     * @param successfulLogins usernames whose failed attempts are reset and last login is stamped
+     * @param failures failed attempts to add per username, counted after any reset
+     */
+    void applyLoginAttempts(Collection<String> successfulLogins, Map<String, Integer> failures);
+}
@@ -0,0 +1,45 @@
+package com.myhealth.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    
+    private static final String RESET_FAILED_ATTEMPTS =
+            "UPDATE users SET failed_attempts = 0, last_login_at = CURRENT_TIMESTAMP WHERE username = ?";
+    
+    private static final String ADD_FAILED_ATTEMPTS =
+            "UPDATE users SET failed_attempts = COALESCE(failed_attempts, 0) + ? WHERE username = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Rows are updated in username order so concurrent flushes from several nodes lock them in
+     * the same order. Plain JDBC also keeps these counter updates out of the JPA entity listener,
+     * which would otherwise evict cached principals on every failed login.
+     */
+    @Override
+    @Transactional
+    public void applyLoginAttempts(Collection<String> successfulLogins, Map<String, Integer> failures) {
+        if (!successfulLogins.isEmpty()) {
+            List<Object[]> resets = successfulLogins.stream()
+                    .sorted()
+                    .map(username -> new Object[] {username})
+                    .toList();
+            jdbcTemplate.batchUpdate(RESET_FAILED_ATTEMPTS, resets);
+        }
+        if (!failures.isEmpty()) {
+            List<Object[]> increments = new ArrayList<>(failures.size());
+            failures.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> increments.add(new Object[] {entry.getValue(), entry.getKey()}));
+            jdbcTemplate.batchUpdate(ADD_FAILED_ATTEMPTS, increments);
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.myhealth.repository;
 
 import com.myhealth.model.UserToken;
+import com.myhealth.security.TokenDigest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserTokenRepository extends JpaRepository<UserToken, UUID> {
-    Optional<UserToken> findByRefreshToken(String refreshToken);
+public interface UserTokenRepository extends JpaRepository<UserToken, UUID>, UserTokenRepositoryCustom {
+    Optional<UserToken> findByRefreshTokenHash(byte[] refreshTokenHash);
     void deleteByUserId(UUID userId);
-    void deleteByRefreshToken(String refreshToken);
+    void deleteByRefreshTokenHash(byte[] refreshTokenHash);
+    
+    default Optional<UserToken> findByRefreshToken(String refreshToken) {
+        return findByRefreshTokenHash(TokenDigest.sha256(refreshToken));
+    }
+    
+    default void deleteByRefreshToken(String refreshToken) {
+        deleteByRefreshTokenHash(TokenDigest.sha256(refreshToken));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.myhealth.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface UserTokenRepositoryCustom {
+    
+    /**
+     * Atomically consumes a live refresh token owned by the user and stores its replacement.
+     * Tokens are identified by their SHA-256 digest.
+     *
+     * @return true if the current token was consumed and the new one inserted, false if the
+     *         token does not exist, belongs to another user, has expired or was already rotated
+     */
+    boolean rotate(byte[] currentTokenHash, UUID userId, byte[] newTokenHash, LocalDateTime newExpiresAt);
+    
+    /**
+     * Deletes up to {@code batchSize} tokens that expired before {@code now}, oldest first, in
+     * its own transaction. Rows locked by another node purging at the same time are skipped.
+     *
+     * @return number of rows deleted
+     */
+    int deleteExpiredBatch(LocalDateTime now, int batchSize);
+    
+    /**
+     * Deletes the user's oldest refresh tokens so that at most {@code maxActive} remain.
+     *
+     * @return number of rows deleted
+     */
+    int trimActiveTokens(UUID userId, int maxActive);
+}
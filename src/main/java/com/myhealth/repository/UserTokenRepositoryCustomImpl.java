@@ -0,0 +1,106 @@
+package com.myhealth.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class UserTokenRepositoryCustomImpl implements UserTokenRepositoryCustom {
+    
+    /**
+     * Consumes and re-issues in one statement. The DELETE takes the row lock, so a concurrent
+     * rotation of the same token waits and then finds nothing to consume.
+     */
+    private static final String ROTATE_POSTGRES =
+            "WITH consumed AS (" +
+            "  DELETE FROM user_tokens " +
+            "  WHERE refresh_token_hash = :currentTokenHash AND user_id = :userId AND expires_at > :now " +
+            "  RETURNING user_id" +
+            ") " +
+            "INSERT INTO user_tokens (id, user_id, refresh_token_hash, expires_at, created_at) " +
+            "SELECT :id, user_id, :newTokenHash, :expiresAt, :now FROM consumed";
+    
+    private static final String CONSUME =
+            "DELETE FROM user_tokens " +
+            "WHERE refresh_token_hash = :currentTokenHash AND user_id = :userId AND expires_at > :now";
+    
+    private static final String INSERT =
+            "INSERT INTO user_tokens (id, user_id, refresh_token_hash, expires_at, created_at) " +
+            "VALUES (:id, :userId, :newTokenHash, :expiresAt, :now)";
+    
+    /**
+     * SKIP LOCKED lets several nodes purge concurrently, each taking a disjoint batch.
+     */
+    private static final String DELETE_EXPIRED_BATCH_POSTGRES =
+            "DELETE FROM user_tokens WHERE id IN (" +
+            "  SELECT id FROM user_tokens WHERE expires_at < :now " +
+            "  ORDER BY expires_at LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+            ")";
+    
+    private static final String DELETE_EXPIRED_BATCH =
+            "DELETE FROM user_tokens WHERE id IN (" +
+            "  SELECT id FROM user_tokens WHERE expires_at < :now " +
+            "  ORDER BY expires_at LIMIT :batchSize" +
+            ")";
+    
+    private static final String TRIM_ACTIVE_TOKENS =
+            "DELETE FROM user_tokens WHERE user_id = :userId AND id NOT IN (" +
+            "  SELECT id FROM user_tokens WHERE user_id = :userId " +
+            "  ORDER BY created_at DESC LIMIT :maxActive" +
+            ")";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public boolean rotate(byte[] currentTokenHash, UUID userId, byte[] newTokenHash, LocalDateTime newExpiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        if (SqlDialects.isPostgres(entityManager)) {
+            return entityManager.createNativeQuery(ROTATE_POSTGRES)
+                    .setParameter("currentTokenHash", currentTokenHash)
+                    .setParameter("userId", userId)
+                    .setParameter("now", now)
+                    .setParameter("id", UUID.randomUUID())
+                    .setParameter("newTokenHash", newTokenHash)
+                    .setParameter("expiresAt", newExpiresAt)
+                    .executeUpdate() == 1;
+        }
+        
+        // Portable fallback: same guarantees within the surrounding transaction, two statements
+        int consumed = entityManager.createNativeQuery(CONSUME)
+                .setParameter("currentTokenHash", currentTokenHash)
+                .setParameter("userId", userId)
+                .setParameter("now", now)
+                .executeUpdate();
+        if (consumed != 1) {
+            return false;
+        }
+        entityManager.createNativeQuery(INSERT)
+                .setParameter("id", UUID.randomUUID())
+                .setParameter("userId", userId)
+                .setParameter("newTokenHash", newTokenHash)
+                .setParameter("expiresAt", newExpiresAt)
+                .setParameter("now", now)
+                .executeUpdate();
+        return true;
+    }
+    
+    @Override
+    @Transactional
+    public int deleteExpiredBatch(LocalDateTime now, int batchSize) {
+        String sql = SqlDialects.isPostgres(entityManager) ? DELETE_EXPIRED_BATCH_POSTGRES : DELETE_EXPIRED_BATCH;
+        return entityManager.createNativeQuery(sql)
+                .setParameter("now", now)
+                .setParameter("batchSize", batchSize)
+                .executeUpdate();
+    }
+    
+    @Override
+    public int trimActiveTokens(UUID userId, int maxActive) {
+        return entityManager.createNativeQuery(TRIM_ACTIVE_TOKENS)
+                .setParameter("userId", userId)
+                .setParameter("maxActive", maxActive)
+                .executeUpdate();
+    }
+}
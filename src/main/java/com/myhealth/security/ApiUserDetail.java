@@ -8,7 +8,7 @@ import java.util.Collection;
 import java.util.UUID;
 
 @Getter
-public class ApiUserDetail implements UserDetails {
+public class ApiUserDetail implements UserDetails, RoleMaskAware {
     
     private final UUID id;
     private final String username;
@@ -18,11 +18,23 @@ public class ApiUserDetail implements UserDetails {
     private final boolean accountNonLocked;
     private final boolean credentialsNonExpired;
     private final boolean enabled;
+    private final int roleMask;
     
     public ApiUserDetail(UUID id, String username, String password, 
                         Collection<? extends GrantedAuthority> authorities,
                         boolean accountNonExpired, boolean accountNonLocked,
                         boolean credentialsNonExpired, boolean enabled) {
+        this(id, username, password, authorities, RoleKeyword.maskOf(authorities),
+                accountNonExpired, accountNonLocked, credentialsNonExpired, enabled);
+    }
+    
+    /**
+     * For callers that already hold the role mask for these authorities, e.g. a cached {@link VerifiedToken}.
+     */
+    public ApiUserDetail(UUID id, String username, String password,
+                        Collection<? extends GrantedAuthority> authorities, int roleMask,
+                        boolean accountNonExpired, boolean accountNonLocked,
+                        boolean credentialsNonExpired, boolean enabled) {
         this.id = id;
         this.username = username;
         this.password = password;
@@ -31,5 +43,6 @@ public class ApiUserDetail implements UserDetails {
         this.accountNonLocked = accountNonLocked;
         this.credentialsNonExpired = credentialsNonExpired;
         this.enabled = enabled;
+        this.roleMask = roleMask;
     }
 }
\ No newline at end of file
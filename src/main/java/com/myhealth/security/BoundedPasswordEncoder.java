@@ -0,0 +1,174 @@
+package com.myhealth.security;
+
+import com.myhealth.exception.ApiException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt password encoder that runs hashing and verification on a dedicated, bounded executor.
+ *
+ * BCrypt is CPU-bound by design, so a login storm used to occupy every request thread. Work is
+ * now capped at {@code security.password.pool-size} concurrent hashes plus a short queue; once
+ * the queue is full further logins are rejected straight away with 503 instead of piling up
+ * behind it, which keeps request threads and CPU available for the rest of the API.
+ *
+ * The cost factor is either fixed ({@code security.password.strength}) or calibrated at startup
+ * to the largest value whose hash time stays within {@code security.password.target-latency-ms}.
+ * {@link #upgradeEncoding(String)} reports any hash with a different cost, so stored hashes
+ * are re-encoded on the next successful login whether the cost went up or down.
+ */
+@Component
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder, DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final LongAdder rejected = new LongAdder();
+
+    public BoundedPasswordEncoder(@Value("${security.password.strength}") int strength,
+                                  @Value("${security.password.target-latency-ms}") long targetLatencyMs,
+                                  @Value("${security.password.min-strength}") int minStrength,
+                                  @Value("${security.password.max-strength}") int maxStrength,
+                                  @Value("${security.password.pool-size}") int poolSize,
+                                  @Value("${security.password.queue-capacity}") int queueCapacity,
+                                  @Value("${security.password.timeout-ms}") long timeoutMs) {
+        this.strength = strength > 0 ? strength : calibrateStrength(targetLatencyMs, minStrength, maxStrength);
+        this.delegate = new BCryptPasswordEncoder(this.strength);
+        this.timeoutMs = timeoutMs;
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Password encoder using bcrypt strength {} on {} threads (queue capacity {})",
+                this.strength, threads, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("security.password.executor.queued", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("security.password.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(registry);
+        FunctionCounter.builder("security.password.executor.rejected", rejected, LongAdder::sum)
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue full, rejecting request");
+            throw new ApiException("Too many concurrent login attempts, please retry shortly",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ApiException("Password verification interrupted", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ApiException("Password verification timed out, please retry shortly",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the highest cost in [minStrength, maxStrength] whose measured hash time fits the
+     * budget. Each step doubles the work, so the next cost is predicted from the current timing.
+     */
+    static int calibrateStrength(long targetLatencyMs, int minStrength, int maxStrength) {
+        int calibrated = minStrength;
+        long elapsedMs = measureMs(calibrated);
+        while (calibrated < maxStrength && elapsedMs * 2 <= targetLatencyMs) {
+            calibrated++;
+            elapsedMs = measureMs(calibrated);
+        }
+        log.info("Calibrated bcrypt strength {} ({} ms per hash, target {} ms)", calibrated, elapsedMs, targetLatencyMs);
+        return calibrated;
+    }
+
+    private static long measureMs(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        // First hash warms up the JIT, the second one is measured
+        encoder.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,92 @@
+package com.myhealth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Custom AuthorizationManager that checks if any granted authority contains
+ * one of the specified keywords (case-insensitive).
+ *
+ * Principals implementing {@link RoleMaskAware} (our {@link ApiUserDetail}) are checked with a
+ * single mask test; any other principal, or a keyword that is not a {@link RoleKeyword}, falls
+ * back to scanning the authority names.
+ */
+@Slf4j
+public class ContainsRoleAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    
+    private final String[] targetKeywords;
+    private final int requiredMask;
+    private final boolean maskCoversAllKeywords;
+    
+    public ContainsRoleAuthorizationManager(String... targetKeywords) {
+        this.targetKeywords = targetKeywords != null
+                ? Arrays.stream(targetKeywords)
+                        .filter(keyword -> keyword != null)
+                        .map(keyword -> keyword.toUpperCase(Locale.ROOT))
+                        .toArray(String[]::new)
+                : new String[0];
+        
+        int mask = 0;
+        boolean allKnown = true;
+        for (String keyword : this.targetKeywords) {
+            RoleKeyword roleKeyword = RoleKeyword.fromName(keyword);
+            if (roleKeyword != null) {
+                mask |= roleKeyword.bit();
+            } else {
+                allKnown = false;
+            }
+        }
+        this.requiredMask = mask;
+        this.maskCoversAllKeywords = allKnown;
+    }
+    
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication auth = authentication.get();
+        
+        // Require authentication
+        if (auth == null || !auth.isAuthenticated()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Access denied: User not authenticated for path: {}", context.getRequest().getRequestURI());
+            }
+            return DENIED;
+        }
+        
+        boolean granted = maskCoversAllKeywords && auth.getPrincipal() instanceof RoleMaskAware principal
+                ? (principal.getRoleMask() & requiredMask) != 0
+                : containsKeyword(auth);
+        
+        if (!granted && log.isDebugEnabled()) {
+            log.debug("Access denied: No authority contains required keywords {} for user '{}' on path: {}",
+                    Arrays.toString(targetKeywords), auth.getName(), context.getRequest().getRequestURI());
+        }
+        return granted ? GRANTED : DENIED;
+    }
+    
+    private boolean containsKeyword(Authentication auth) {
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            String authorityName = authority.getAuthority();
+            if (authorityName != null) {
+                String normalizedAuthority = authorityName.trim().toUpperCase(Locale.ROOT);
+                
+                for (String keyword : targetKeywords) {
+                    if (normalizedAuthority.contains(keyword)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
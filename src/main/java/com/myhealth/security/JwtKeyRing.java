@@ -0,0 +1,86 @@
+package com.myhealth.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the HMAC signing keys and the JWT parser, both built once at startup.
+ *
+ * Tokens are signed with the current key and carry its id in the {@code kid} header.
+ * During a key rotation the previous key stays registered so tokens signed with it keep
+ * verifying until they expire. Tokens without a {@code kid} header (issued before key ids
+ * were introduced) are verified with the current key.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private final String signingKeyId;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> verificationKeys;
+    private final JwtParser parser;
+
+    public JwtKeyRing(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.key-id}") String keyId,
+                      @Value("${jwt.previous-secret}") String previousSecret,
+                      @Value("${jwt.previous-key-id}") String previousKeyId) {
+        this.signingKeyId = keyId;
+        this.signingKey = toKey(secret);
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        keys.put(keyId, signingKey);
+        if (StringUtils.hasText(previousSecret) && StringUtils.hasText(previousKeyId)) {
+            keys.put(previousKeyId, toKey(previousSecret));
+            log.info("JWT key rotation active: signing with '{}', still accepting '{}'", keyId, previousKeyId);
+        }
+        this.verificationKeys = Map.copyOf(keys);
+
+        // JwtParser is immutable and thread-safe, so a single instance serves every request
+        this.parser = Jwts.parser()
+                .keyLocator(this)
+                .build();
+    }
+
+    public String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    public SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            return signingKey;
+        }
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + keyId);
+        }
+        return key;
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
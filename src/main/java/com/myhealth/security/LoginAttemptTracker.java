@@ -0,0 +1,235 @@
+package com.myhealth.security;
+
+import com.myhealth.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks failed logins per username and per client IP and throttles both before the password
+ * is verified, so credential stuffing is rejected without spending bcrypt CPU.
+ *
+ * Counters are sliding-window approximations (current window plus the weighted previous one)
+ * updated with atomics only, one window per key, so one key never counts toward another. The
+ * weighting assumes the previous window's failures were spread evenly, so a burst at its end is
+ * under-counted and a burst at its start over-counted, by at most the previous window's count.
+ *
+ * Only usernames that belong to a user get a window; unknown usernames count toward their
+ * client IP only, so spraying random usernames cannot throttle real accounts. The flip side is
+ * that only existing usernames ever get a 429 for the username, which the per-IP limit keeps
+ * slow to probe. Each map holds at most {@code max-tracked} keys: idle windows are dropped
+ * when it is full, and keys beyond that are not tracked until room frees up. Changes to
+ * {@code users.failed_attempts} are collected per username and written in one JDBC batch on
+ * every flush instead of one UPDATE per attempt.
+ *
+ * Counters are node-local; with several nodes an attacker gets the limit once per node.
+ */
+@Component
+@Slf4j
+public class LoginAttemptTracker implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerIp;
+    private final int maxTracked;
+
+    private final Map<String, SlidingWindow> usernameWindows = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindow> ipWindows = new ConcurrentHashMap<>();
+    private final Map<String, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+
+    public LoginAttemptTracker(UserRepository userRepository,
+                               @Value("${security.login-throttle.enabled}") boolean enabled,
+                               @Value("${security.login-throttle.window-ms}") long windowMs,
+                               @Value("${security.login-throttle.max-failures-per-username}") int maxFailuresPerUsername,
+                               @Value("${security.login-throttle.max-failures-per-ip}") int maxFailuresPerIp,
+                               @Value("${security.login-throttle.max-tracked}") int maxTracked) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.maxTracked = maxTracked;
+    }
+
+    /**
+     * @return true if the username or the client IP has too many recent failures
+     */
+    public boolean isThrottled(String username, String clientIp) {
+        if (!enabled) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        boolean blocked = exceeds(usernameWindows, username, maxFailuresPerUsername, now)
+                || exceeds(ipWindows, clientIp, maxFailuresPerIp, now);
+        if (blocked) {
+            throttled.increment();
+        }
+        return blocked;
+    }
+
+    /**
+     * Counts the failure for the client IP and, if the username belongs to a user, for the
+     * username, which is also queued for write-behind.
+     */
+    public void recordFailure(String username, String clientIp, boolean userExists) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (username != null && userExists) {
+            increment(usernameWindows, username, now);
+            pendingUpdates.compute(username, (key, pending) -> (pending != null ? pending : PendingUpdate.NONE).withFailure());
+        }
+        if (clientIp != null) {
+            increment(ipWindows, clientIp, now);
+        }
+    }
+
+    /**
+     * Clears the username's failure window; the client IP keeps its count, so one valid
+     * account cannot be used to reset throttling for an IP that is guessing others.
+     */
+    public void recordSuccess(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        usernameWindows.remove(username);
+        pendingUpdates.put(username, PendingUpdate.RESET);
+    }
+
+    /**
+     * Writes collected counter changes to {@code users.failed_attempts} (and {@code last_login_at}
+     * for successful logins), then drops idle windows.
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.flush-interval-ms}")
+    public void flush() {
+        List<String> resets = new ArrayList<>();
+        Map<String, Integer> failures = new HashMap<>();
+        for (String username : pendingUpdates.keySet()) {
+            PendingUpdate pending = pendingUpdates.remove(username);
+            if (pending == null) {
+                continue;
+            }
+            if (pending.reset()) {
+                resets.add(username);
+            }
+            if (pending.failures() > 0) {
+                failures.put(username, pending.failures());
+            }
+        }
+        if (!resets.isEmpty() || !failures.isEmpty()) {
+            userRepository.applyLoginAttempts(resets, failures);
+            log.debug("Flushed login attempts: {} resets, {} users with failures", resets.size(), failures.size());
+        }
+
+        long now = System.currentTimeMillis();
+        dropIdle(usernameWindows, now);
+        dropIdle(ipWindows, now);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.login.throttled", throttled, LongAdder::sum)
+                .description("Login attempts rejected before password verification")
+                .register(registry);
+        Gauge.builder("security.login.tracked", this, tracker -> tracker.usernameWindows.size() + tracker.ipWindows.size())
+                .description("Usernames and client IPs with recent failed logins")
+                .register(registry);
+    }
+
+    private boolean exceeds(Map<String, SlidingWindow> windows, String key, int limit, long now) {
+        if (key == null) {
+            return false;
+        }
+        SlidingWindow window = windows.get(key);
+        return window != null && window.estimate(now, windowMs) >= limit;
+    }
+
+    private void increment(Map<String, SlidingWindow> windows, String key, long now) {
+        SlidingWindow window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxTracked) {
+                dropIdle(windows, now);
+                if (windows.size() >= maxTracked) {
+                    return;
+                }
+            }
+            window = windows.computeIfAbsent(key, k -> new SlidingWindow(now));
+        }
+        window.increment(now, windowMs);
+    }
+
+    private void dropIdle(Map<String, SlidingWindow> windows, long now) {
+        windows.values().removeIf(window -> window.isIdle(now, windowMs));
+    }
+
+    /**
+     * Failure count over the last window, estimated from the current fixed window plus the
+     * previous one weighted by how much of it still overlaps the sliding window.
+     */
+    static final class SlidingWindow {
+
+        private final AtomicLong windowStart;
+        private final AtomicInteger current = new AtomicInteger();
+        private volatile int previous;
+
+        SlidingWindow(long now) {
+            this.windowStart = new AtomicLong(now);
+        }
+
+        void increment(long now, long windowMs) {
+            roll(now, windowMs);
+            current.incrementAndGet();
+        }
+
+        double estimate(long now, long windowMs) {
+            roll(now, windowMs);
+            double previousWeight = 1.0 - (double) (now - windowStart.get()) / windowMs;
+            return previous * Math.max(previousWeight, 0.0) + current.get();
+        }
+
+        boolean isIdle(long now, long windowMs) {
+            return now - windowStart.get() >= 2 * windowMs;
+        }
+
+        private void roll(long now, long windowMs) {
+            long start = windowStart.get();
+            long elapsedWindows = (now - start) / windowMs;
+            if (elapsedWindows > 0 && windowStart.compareAndSet(start, start + elapsedWindows * windowMs)) {
+                int completed = current.getAndSet(0);
+                previous = elapsedWindows == 1 ? completed : 0;
+            }
+        }
+    }
+
+    /**
+     * Change to apply to one user's row: optionally reset to zero, then add the failures
+     * recorded since.
+     */
+    record PendingUpdate(boolean reset, int failures) {
+
+        static final PendingUpdate NONE = new PendingUpdate(false, 0);
+        static final PendingUpdate RESET = new PendingUpdate(true, 0);
+
+        PendingUpdate withFailure() {
+            return new PendingUpdate(reset, failures + 1);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.myhealth.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Role keywords used by URL authorization, each mapped to one bit of a role mask.
+ *
+ * An authority sets a keyword's bit when its name contains the keyword, ignoring case, so
+ * {@code ROLE_SUPER_ADMIN} sets {@link #ADMIN} and {@code USER_MANAGER} sets {@link #USER}. The
+ * mask is computed once when a principal or verified token is built, which turns the per-request
+ * check into a single AND.
+ */
+public enum RoleKeyword {
+    USER,
+    ADMIN;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public static int maskOf(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return 0;
+        }
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name == null) {
+                continue;
+            }
+            String normalized = name.trim().toUpperCase(Locale.ROOT);
+            for (RoleKeyword keyword : values()) {
+                if (normalized.contains(keyword.name())) {
+                    mask |= keyword.bit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return the keyword with the given name (any case), or null if it is not a known keyword
+     */
+    public static RoleKeyword fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toUpperCase(Locale.ROOT);
+        for (RoleKeyword keyword : values()) {
+            if (keyword.name().equals(normalized)) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+}
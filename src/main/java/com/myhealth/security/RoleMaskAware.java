@@ -0,0 +1,9 @@
+package com.myhealth.security;
+
+/**
+ * Principal that carries its {@link RoleKeyword} mask, precomputed from its authorities.
+ */
+public interface RoleMaskAware {
+    
+    int getRoleMask();
+}
@@ -0,0 +1,80 @@
+package com.myhealth.security;
+
+import com.myhealth.entity.User;
+import com.myhealth.entity.UserRole;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * JPA entity listener that keeps the authentication caches in line with the database.
+ *
+ * Any change to a {@link User} (password, enabled and lock flags) or to one of its
+ * {@link UserRole} rows drops the cached principal. Disabling or locking a user also blocks
+ * the user's outstanding access tokens, which are otherwise accepted until they expire.
+ *
+ * Callbacks run at flush time, before the transaction commits, so the principal is dropped
+ * again after commit in case a concurrent request re-cached the old row in between. Changes
+ * made with bulk or native SQL bypass JPA callbacks and are only picked up when the cached
+ * entry expires.
+ *
+ * Dependencies are resolved lazily because Hibernate also instantiates this listener in test
+ * slices (e.g. {@code @DataJpaTest}) where the security beans are not part of the context.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangeListener {
+
+    private final ObjectProvider<UserPrincipalCache> userPrincipalCache;
+    private final ObjectProvider<UserRevocationRegistry> userRevocationRegistry;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof User user) {
+            onUserChange(user);
+        } else if (entity instanceof UserRole userRole && userRole.getId() != null) {
+            invalidate(userRole.getId().getUserId(), null);
+        }
+    }
+
+    private void onUserChange(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        invalidate(user.getId(), user.getUsername());
+        UserRevocationRegistry registry = userRevocationRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        if (Boolean.FALSE.equals(user.getEnabled()) || Boolean.FALSE.equals(user.getAccountNonLocked())) {
+            registry.block(user.getId());
+        } else {
+            registry.unblock(user.getId());
+        }
+    }
+
+    private void invalidate(UUID userId, String username) {
+        UserPrincipalCache cache = userPrincipalCache.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        cache.invalidate(userId, username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId, username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.myhealth.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache of {@link ApiUserDetail} principals, reachable by user id and by username.
+ *
+ * Entries live for a fixed TTL and are invalidated explicitly by {@link UserChangeListener}
+ * whenever a user or one of its role assignments changes. Any invalidation bumps a generation
+ * counter, so a load that raced with an invalidation is returned to its caller but not cached.
+ *
+ * The cache is node-local: a change made through another node is picked up here when the
+ * entry's TTL runs out.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache implements MeterBinder {
+
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<UUID, Entry> principalsById = new ConcurrentHashMap<>();
+    private final Map<String, UUID> idsByUsername = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserPrincipalCache(@Value("${security.principal-cache.ttl-ms}") long ttlMs,
+                              @Value("${security.principal-cache.max-size}") int maxSize) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    public ApiUserDetail getByUsername(String username, Function<String, ApiUserDetail> loader) {
+        UUID userId = idsByUsername.get(username);
+        ApiUserDetail cached = userId != null ? lookup(userId) : null;
+        if (cached != null && cached.getUsername().equals(username)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        return cacheIfCurrent(loader.apply(username), loadGeneration);
+    }
+
+    public ApiUserDetail getById(UUID userId, Function<UUID, ApiUserDetail> loader) {
+        ApiUserDetail cached = lookup(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        return cacheIfCurrent(loader.apply(userId), loadGeneration);
+    }
+
+    /**
+     * Adds a principal loaded outside of {@link #getById}/{@link #getByUsername}, e.g. during warm-up.
+     */
+    public void put(ApiUserDetail principal) {
+        cacheIfCurrent(principal, generation.get());
+    }
+
+    public void invalidate(UUID userId) {
+        generation.incrementAndGet();
+        Entry removed = principalsById.remove(userId);
+        if (removed != null) {
+            idsByUsername.remove(removed.principal().getUsername(), userId);
+        }
+        log.debug("Invalidated cached principal for user: {}", userId);
+    }
+
+    /**
+     * Also drops whatever principal is currently cached under the username, which may belong
+     * to a different user id if the username was reassigned.
+     */
+    public void invalidate(UUID userId, String username) {
+        invalidate(userId);
+        if (username != null) {
+            UUID cachedId = idsByUsername.remove(username);
+            if (cachedId != null) {
+                principalsById.remove(cachedId);
+            }
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        principalsById.clear();
+        idsByUsername.clear();
+    }
+
+    public int size() {
+        return principalsById.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.principal.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("User principal lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder("security.principal.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("User principal lookups that queried the database")
+                .register(registry);
+        Gauge.builder("security.principal.cache.size", principalsById, Map::size)
+                .description("User principals currently cached")
+                .register(registry);
+    }
+
+    private ApiUserDetail lookup(UUID userId) {
+        Entry entry = principalsById.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            principalsById.remove(userId, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    private ApiUserDetail cacheIfCurrent(ApiUserDetail principal, long loadGeneration) {
+        if (ttlMs <= 0 || principal == null || principal.getId() == null) {
+            return principal;
+        }
+        if (principalsById.size() >= maxSize) {
+            long now = System.currentTimeMillis();
+            principalsById.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (principalsById.size() >= maxSize) {
+                return principal;
+            }
+        }
+        principalsById.put(principal.getId(), new Entry(principal, System.currentTimeMillis() + ttlMs));
+        idsByUsername.put(principal.getUsername(), principal.getId());
+        if (generation.get() != loadGeneration) {
+            // An invalidation happened while the principal was being loaded, it may be stale
+            principalsById.remove(principal.getId());
+        }
+        return principal;
+    }
+
+    private record Entry(ApiUserDetail principal, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.myhealth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small in-memory deny list consulted by the stateless JWT authentication path.
+ *
+ * Access tokens are accepted without a database lookup, so revocation (logout everywhere,
+ * disabled or locked accounts) is tracked here instead. A revocation rejects every token for the
+ * user that was issued at or before the recorded instant. Revocations older than the access token
+ * lifetime are pruned because any token they could reject has already expired. Blocks of disabled
+ * and locked accounts are kept apart from revocations, so lifting a block leaves an earlier
+ * logout-everywhere in force.
+ *
+ * The registry is node-local: in a multi-node deployment a revocation only takes effect on the
+ * node that recorded it until the affected tokens expire.
+ */
+@Component
+@Slf4j
+public class UserRevocationRegistry {
+
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private final Map<UUID, Long> revokedBeforeSeconds = new ConcurrentHashMap<>();
+    private final Set<UUID> blockedUsers = ConcurrentHashMap.newKeySet();
+
+    @Value("${jwt.access-token-expiration-ms}")
+    private long accessTokenExpirationMs;
+
+    /**
+     * Rejects every access token issued to the user up to now.
+     */
+    public void revoke(UUID userId) {
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        revokedBeforeSeconds.merge(userId, nowSeconds, Math::max);
+        log.debug("Revoked access tokens issued before {} for user: {}", nowSeconds, userId);
+        pruneIfNeeded();
+    }
+
+    /**
+     * Rejects every access token for the user until {@link #unblock(UUID)} is called,
+     * used for disabled and locked accounts.
+     */
+    public void block(UUID userId) {
+        blockedUsers.add(userId);
+        log.debug("Blocked all access tokens for user: {}", userId);
+    }
+
+    /**
+     * Lifts a {@link #block(UUID)} while keeping any time-based revocation in place.
+     */
+    public void unblock(UUID userId) {
+        blockedUsers.remove(userId);
+    }
+
+    /**
+     * JWT issued-at values have second precision, so a token minted in the same second
+     * as a revocation is treated as revoked as well.
+     */
+    public boolean isRevoked(UUID userId, Date issuedAt) {
+        if (blockedUsers.contains(userId)) {
+            return true;
+        }
+        Long revokedBefore = revokedBeforeSeconds.get(userId);
+        if (revokedBefore == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() / 1000 <= revokedBefore;
+    }
+
+    private void pruneIfNeeded() {
+        if (revokedBeforeSeconds.size() < PRUNE_THRESHOLD) {
+            return;
+        }
+        long horizon = (System.currentTimeMillis() - accessTokenExpirationMs) / 1000;
+        revokedBeforeSeconds.values().removeIf(revokedBefore -> revokedBefore < horizon);
+    }
+}
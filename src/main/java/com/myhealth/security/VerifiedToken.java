@@ -0,0 +1,89 @@
+package com.myhealth.security;
+
+import com.myhealth.service.JwtTokenService;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a single signature verification of an access token.
+ *
+ * The signature has been checked but expiry has not been enforced, so callers that need a
+ * live token check {@link #isExpired()}. Authorities are decoded once here so repeated use
+ * (filter, refresh, caching) does not walk the claims map again, and the {@link RoleKeyword}
+ * mask is computed once per token rather than once per request.
+ */
+public final class VerifiedToken {
+
+    private final Claims claims;
+    private final String subject;
+    private final String username;
+    private final List<SimpleGrantedAuthority> authorities;
+    private final int roleMask;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(Claims claims) {
+        this.claims = claims;
+        this.subject = claims.getSubject();
+        this.username = claims.get(JwtTokenService.USERNAME_CLAIM, String.class);
+        this.authorities = parseAuthorities(claims.get(JwtTokenService.AUTHORITIES_CLAIM, List.class));
+        this.roleMask = RoleKeyword.maskOf(authorities);
+        Date expiration = claims.getExpiration();
+        this.expiresAtMillis = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the subject is not a user id
+     */
+    public UUID getUserId() {
+        return UUID.fromString(subject);
+    }
+
+    /**
+     * @return the username claim, or the subject for tokens issued without one
+     */
+    public String getUsername() {
+        return username != null ? username : subject;
+    }
+
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public int getRoleMask() {
+        return roleMask;
+    }
+    
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAtMillis;
+    }
+
+    private static List<SimpleGrantedAuthority> parseAuthorities(List<?> authorityNames) {
+        if (authorityNames == null || authorityNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return authorityNames.stream()
+                .map(authority -> new SimpleGrantedAuthority(String.valueOf(authority)))
+                .toList();
+    }
+}
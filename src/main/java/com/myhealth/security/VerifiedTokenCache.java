@@ -0,0 +1,106 @@
+package com.myhealth.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache of signature-verified access tokens so a token presented on many requests is only
+ * HMAC-verified and decoded once.
+ *
+ * Entries are keyed by the SHA-256 digest of the token, so raw bearer tokens are never kept in
+ * memory. Reads are plain {@link ConcurrentHashMap} lookups. An entry is dropped once its token
+ * expires; when the cache is full, expired entries are swept and new tokens are simply not
+ * cached until there is room again.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache implements MeterBinder {
+
+    private static final long SWEEP_INTERVAL_MS = 1000;
+
+    private final int maxSize;
+    private final Map<String, VerifiedToken> tokens = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${jwt.verified-token-cache.max-size}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached verification result for the token, or verifies it with the given
+     * function and caches the result if the token has not expired yet. Exceptions thrown by
+     * the verifier propagate and nothing is cached.
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        if (maxSize <= 0) {
+            return verifier.apply(token);
+        }
+
+        String key = TokenDigest.sha256Base64(token);
+        VerifiedToken cached = tokens.get(key);
+        if (cached != null) {
+            hits.increment();
+            if (cached.isExpired()) {
+                // Still a valid signature check result, but no reason to keep it any longer
+                tokens.remove(key, cached);
+            }
+            return cached;
+        }
+
+        misses.increment();
+        VerifiedToken verified = verifier.apply(token);
+        if (!verified.isExpired() && hasRoom()) {
+            tokens.putIfAbsent(key, verified);
+        }
+        return verified;
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    public void clear() {
+        tokens.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.verified.token.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Access token verifications served from the cache")
+                .register(registry);
+        FunctionCounter.builder("jwt.verified.token.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Access token verifications that required signature verification")
+                .register(registry);
+        Gauge.builder("jwt.verified.token.cache.size", tokens, Map::size)
+                .description("Verified access tokens currently cached")
+                .register(registry);
+    }
+
+    private boolean hasRoom() {
+        if (tokens.size() < maxSize) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        long sweepAt = nextSweepAt.get();
+        if (now >= sweepAt && nextSweepAt.compareAndSet(sweepAt, now + SWEEP_INTERVAL_MS)) {
+            tokens.values().removeIf(token -> token.getExpiresAtMillis() <= now);
+            log.debug("Verified token cache full, {} entries left after removing expired tokens", tokens.size());
+        }
+        return tokens.size() < maxSize;
+    }
+}
@@ -5,7 +5,7 @@ import com.myhealth.dto.AuthResponse;
 import com.myhealth.dto.RefreshRequest;
 
 public interface AuthService {
-    AuthResponse login(AuthRequest authRequest);
+    AuthResponse login(AuthRequest authRequest, String clientIp);
     AuthResponse refresh(RefreshRequest refreshRequest);
     void logout(String refreshToken);
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.myhealth.service;
 
+import com.myhealth.security.ApiUserDetail;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import java.util.UUID;
 
 public interface CustomUserDetailsService {
     UserDetails loadUserByUsername(String username) throws UsernameNotFoundException;
-}
\ No newline at end of file
+    
+    ApiUserDetail loadUserById(UUID userId) throws UsernameNotFoundException;
+}
@@ -1,13 +1,42 @@
 package com.myhealth.service;
 
+import com.myhealth.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface JwtTokenService {
+    String AUTHORITIES_CLAIM = "authorities";
+    String USERNAME_CLAIM = "username";
+    
     String generateAccessToken(UUID userId, Collection<? extends GrantedAuthority> authorities);
+    String generateAccessToken(UUID userId, String username, Collection<? extends GrantedAuthority> authorities);
     String generateRefreshToken(UUID userId);
+    
+    /**
+     * Consumes a live refresh token owned by the user and issues its replacement atomically.
+     *
+     * @return the new refresh token, or empty if the token could not be consumed
+     */
+    Optional<String> rotateRefreshToken(String refreshToken, UUID userId);
+    
+    /**
+     * Verifies the token signature exactly once and returns the decoded claims without
+     * enforcing expiry. Use this when an expired token is still meaningful, e.g. on refresh.
+     * 
+     * @throws io.jsonwebtoken.JwtException if the token is empty, malformed or its signature is invalid
+     */
+    VerifiedToken verify(String token);
+    
+    /**
+     * Same as {@link #verify(String)} but rejects expired tokens.
+     * 
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     */
+    VerifiedToken verifyAccessToken(String token);
+    
     Claims parseClaims(String token);
     Claims parseClaimsIgnoreExpiration(String token);
     boolean isTokenExpired(String token);
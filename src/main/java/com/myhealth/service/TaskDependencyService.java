@@ -0,0 +1,36 @@
+package com.myhealth.service;
+
+import com.myhealth.dto.task.UserTaskDependenciesResponse;
+import com.myhealth.dto.task.UserTaskDependencyOrderResponse;
+import com.myhealth.dto.task.UserTaskScheduleResponse;
+import com.myhealth.entity.task.DependencyType;
+
+import java.util.UUID;
+
+/**
+ * Dependencies between the logged-in user's tasks, answered from the in-memory
+ * {@link com.myhealth.cache.TaskDependencyGraph} of the account.
+ */
+public interface TaskDependencyService {
+    
+    UserTaskDependenciesResponse getDependencies(UUID taskId);
+    
+    /**
+     * Makes {@code taskId} depend on {@code dependsOnId}, or changes the type of an existing
+     * dependency. A dependency that would close a cycle is refused.
+     */
+    UserTaskDependenciesResponse addDependency(UUID taskId, UUID dependsOnId, DependencyType type);
+    
+    void removeDependency(UUID taskId, UUID dependsOnId);
+    
+    /**
+     * The account's tasks that take part in a dependency, each after the tasks it depends on.
+     */
+    UserTaskDependencyOrderResponse getDependencyOrder();
+    
+    /**
+     * Critical path schedule of a task and its subtasks, over the dependencies between them.
+     * Dependencies on tasks outside the subtree are not taken into account.
+     */
+    UserTaskScheduleResponse getSchedule(UUID rootId);
+}
@@ -0,0 +1,37 @@
+package com.myhealth.service;
+
+import com.myhealth.dto.task.TaskRollup;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the rollup columns of tasks, their own values plus those of their live subtasks, current
+ * by adding deltas along the parent_task_id chain instead of recomputing subtrees.
+ *
+ * Changes of many tasks are merged per ancestor before anything is written, and ancestors that
+ * receive the same delta are updated by one statement. Callers take
+ * {@link com.myhealth.repository.TaskRepositoryCustom#lockTaskHierarchy} before their first write
+ * in the transaction, so that concurrent moves cannot change a path while it is being updated and
+ * rollup writers of one account do not deadlock on each other's rows.
+ */
+public interface TaskRollupService {
+    
+    /**
+     * Adds the change of each task's own values to the task and to its live ancestors.
+     */
+    void ownValuesChanged(UUID accountId, Map<UUID, TaskRollup> changes);
+    
+    /**
+     * Subtracts the rollup of each task from its live ancestors, for tasks that were just deleted
+     * or are about to move. Called after a delete, a task below another task deleted in the same
+     * statement is not counted twice, since its walk stops at that task.
+     */
+    void detach(UUID accountId, Collection<UUID> taskIds);
+    
+    /**
+     * Adds the rollup of each task to its live ancestors, for tasks that were just moved.
+     */
+    void attach(UUID accountId, Collection<UUID> taskIds);
+}
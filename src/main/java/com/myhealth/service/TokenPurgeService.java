@@ -0,0 +1,11 @@
+package com.myhealth.service;
+
+public interface TokenPurgeService {
+    
+    /**
+     * Deletes expired refresh tokens in bounded batches.
+     *
+     * @return number of tokens deleted
+     */
+    int purgeExpiredTokens();
+}
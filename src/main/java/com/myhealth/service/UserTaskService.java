@@ -1,18 +1,38 @@
 package com.myhealth.service;
 
+import com.myhealth.dto.task.CursorPage;
+import com.myhealth.dto.task.TaskBulkAction;
+import com.myhealth.dto.task.TaskCountMode;
+import com.myhealth.dto.task.TaskListFilter;
+import com.myhealth.dto.task.UserTaskBatchResponse;
+import com.myhealth.dto.task.UserTaskBatchUpdateItem;
+import com.myhealth.dto.task.UserTaskBulkResponse;
 import com.myhealth.dto.task.UserTaskCreateRequest;
 import com.myhealth.dto.task.UserTaskResponse;
+import com.myhealth.dto.task.UserTaskTreeNode;
 import com.myhealth.dto.task.UserTaskUpdateRequest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
-import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface UserTaskService {
     
-    Page<UserTaskResponse> getUserTasks(Short statusId, String query, 
-                                       ZonedDateTime fromDue, ZonedDateTime toDue, Pageable pageable);
+    /**
+     * Offset-paginated listing. Returns a {@link org.springframework.data.domain.Page} with a total
+     * for {@link TaskCountMode#EXACT} and {@link TaskCountMode#CACHED}, and a plain {@link Slice}
+     * for {@link TaskCountMode#NONE}. With {@code highlight} set, search matches carry a snippet.
+     */
+    Slice<UserTaskResponse> getUserTasks(TaskListFilter filter, boolean highlight, Pageable pageable,
+                                        TaskCountMode countMode);
+    
+    /**
+     * Keyset-paginated listing ordered by creation time. Pass a null or empty cursor for the
+     * first page and the returned {@link CursorPage#getNextCursor()} for the following ones.
+     */
+    CursorPage<UserTaskResponse> getUserTasksByCursor(TaskListFilter filter, boolean highlight,
+                                                      String cursor, int size, boolean descending);
     
     UserTaskResponse getUserTask(UUID taskId);
     
@@ -20,7 +40,65 @@ public interface UserTaskService {
     
     UserTaskResponse updateTask(UUID taskId, UserTaskUpdateRequest request);
     
+    /**
+     * Creates the valid items in one transaction whose inserts are sent as JDBC batches. Invalid
+     * items are reported in their result and do not stop the others.
+     */
+    UserTaskBatchResponse createTasks(List<UserTaskCreateRequest> requests);
+    
+    /**
+     * Updates the valid items, loading all of them with one query and flushing the changes as
+     * JDBC batches. Missing, invalid or stale items are reported in their result.
+     */
+    UserTaskBatchResponse updateTasks(List<UserTaskBatchUpdateItem> items);
+    
+    /**
+     * Applies one action to the tasks given by id, or to every task matching the filter when
+     * {@code ids} is null, with a single UPDATE.
+     *
+     * @param statusId target status, required for {@link TaskBulkAction#STATUS}
+     */
+    UserTaskBulkResponse applyBulkAction(TaskBulkAction action, Short statusId, List<UUID> ids, TaskListFilter filter);
+    
     void deleteTask(UUID taskId);
     
-    UserTaskResponse changeTaskStatus(UUID taskId, Short statusId);
+    /**
+     * @param expectedVersion version from the client's If-Match header, or null to change the
+     *                        status whatever the current version is
+     */
+    UserTaskResponse changeTaskStatus(UUID taskId, Short statusId, Integer expectedVersion);
+    
+    /**
+     * The task with its subtasks nested down to {@code maxDepth} levels, read with one query.
+     */
+    UserTaskTreeNode getTaskTree(UUID taskId, int maxDepth);
+    
+    /**
+     * Moves the task, with its whole subtree, under another parent, or to the top level when
+     * {@code parentId} is null. A move under the task itself or one of its subtasks is refused.
+     *
+     * @param expectedVersion version from the client's If-Match header, or null to move the task
+     *                        whatever the current version is
+     */
+    UserTaskResponse moveTask(UUID taskId, UUID parentId, Integer expectedVersion);
+    
+    /**
+     * Places the task among its siblings right after {@code afterId}, or first when it is null.
+     * Only the task's row is written, unless its new neighbors have no rank left between them.
+     *
+     * @param expectedVersion version from the client's If-Match header, or null to reorder the task
+     *                        whatever the current version is
+     */
+    UserTaskResponse reorderTask(UUID taskId, UUID afterId, Integer expectedVersion);
+    
+    /**
+     * Places a checklist of the task right after the checklist {@code afterId}, or first when it is
+     * null.
+     */
+    void reorderChecklist(UUID taskId, UUID checklistId, UUID afterId);
+    
+    /**
+     * Places an item of the checklist right after the item {@code afterId}, or first when it is null.
+     */
+    void reorderChecklistItem(UUID taskId, UUID checklistId, UUID itemId, UUID afterId);
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+-- Supports the scheduled purge, which deletes expired refresh tokens oldest first in batches
+CREATE INDEX idx_user_tokens_expires_at ON user_tokens (expires_at);
+
+-- Supports capping active refresh tokens per user (newest kept); replaces the single-column index
+CREATE INDEX idx_user_tokens_user_id_created_at ON user_tokens (user_id, created_at);
+DROP INDEX IF EXISTS idx_user_tokens_user_id;
@@ -0,0 +1,16 @@
+-- Refresh tokens are stored as their SHA-256 digest (32 bytes) instead of the plain token.
+-- Existing tokens are hashed in place, so clients holding them can still refresh.
+ALTER TABLE user_tokens ADD COLUMN refresh_token_hash BYTEA;
+
+UPDATE user_tokens SET refresh_token_hash = sha256(convert_to(refresh_token, 'UTF8'));
+
+ALTER TABLE user_tokens ALTER COLUMN refresh_token_hash SET NOT NULL;
+ALTER TABLE user_tokens ADD CONSTRAINT chk_user_tokens_refresh_token_hash_length
+    CHECK (octet_length(refresh_token_hash) = 32);
+
+-- The unique constraint provides the only index used for lookups
+ALTER TABLE user_tokens ADD CONSTRAINT uk_user_tokens_refresh_token_hash UNIQUE (refresh_token_hash);
+
+-- Redundant with the old column's unique constraint, which is dropped together with the column
+DROP INDEX IF EXISTS idx_user_tokens_refresh_token;
+ALTER TABLE user_tokens DROP COLUMN refresh_token;
@@ -0,0 +1,3 @@
+-- Supports cursor pagination of a user's live tasks: the seek on (created_at, id) and the
+-- ORDER BY are both served by one index range scan, in either direction
+CREATE INDEX idx_tasks_account_created_id ON tasks (account_id, created_at, id) WHERE deleted_at IS NULL;
@@ -0,0 +1,6 @@
+-- Substring ("contains") search on task titles: a trigram GIN index serves LIKE '%q%' on
+-- lower(title) and similarity() ranking, which neither the B-tree indexes nor the full-text
+-- index can do
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_tasks_title_trgm ON tasks USING GIN (lower(title) gin_trgm_ops) WHERE deleted_at IS NULL;
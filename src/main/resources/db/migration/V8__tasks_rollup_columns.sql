@@ -0,0 +1,39 @@
+-- Subtree totals of estimate, spent time and points: each live task holds its own values plus
+-- those of its live subtasks, so list views show them without walking the tree. The application
+-- keeps them current by adding deltas along the parent_task_id chain; a deleted task cuts its
+-- subtree off from the totals above it and keeps the values it had when it was deleted
+ALTER TABLE tasks
+  ADD COLUMN rollup_estimate_minutes BIGINT NOT NULL DEFAULT 0,
+  ADD COLUMN rollup_spent_minutes    BIGINT NOT NULL DEFAULT 0,
+  ADD COLUMN rollup_points           NUMERIC(12,2) NOT NULL DEFAULT 0;
+
+UPDATE tasks
+SET rollup_estimate_minutes = COALESCE(estimate_minutes, 0),
+    rollup_spent_minutes    = spent_minutes,
+    rollup_points           = COALESCE(points, 0)
+WHERE deleted_at IS NOT NULL;
+
+-- Every live task paired with itself and each live ancestor up to the first deleted one
+WITH RECURSIVE chain (descendant_id, ancestor_id, depth) AS (
+  SELECT t.id, t.id, 0 FROM tasks t WHERE t.deleted_at IS NULL
+  UNION ALL
+  SELECT chain.descendant_id, p.id, chain.depth + 1
+  FROM chain
+  JOIN tasks c ON c.id = chain.ancestor_id
+  JOIN tasks p ON p.id = c.parent_task_id
+  WHERE p.deleted_at IS NULL AND chain.depth < 50
+),
+totals AS (
+  SELECT chain.ancestor_id AS id,
+         SUM(COALESCE(d.estimate_minutes, 0)) AS estimate_minutes,
+         SUM(d.spent_minutes) AS spent_minutes,
+         SUM(COALESCE(d.points, 0)) AS points
+  FROM chain JOIN tasks d ON d.id = chain.descendant_id
+  GROUP BY chain.ancestor_id
+)
+UPDATE tasks t
+SET rollup_estimate_minutes = totals.estimate_minutes,
+    rollup_spent_minutes    = totals.spent_minutes,
+    rollup_points           = totals.points
+FROM totals
+WHERE t.id = totals.id;
@@ -0,0 +1,27 @@
+-- order_index becomes a gap-based rank: siblings are spread 2^20 (TaskConstants.RANK_GAP) apart, so
+-- a move writes only the moved row with a rank halfway between its new neighbors, and siblings are
+-- only renumbered when a gap runs out. Existing rows keep their current order; new tasks get their
+-- creation time in milliseconds times the gap, which sorts them after these ranks
+UPDATE tasks t
+SET order_index = r.rn * 1048576
+FROM (
+  SELECT id, ROW_NUMBER() OVER (PARTITION BY account_id, parent_task_id ORDER BY order_index, created_at, id) AS rn
+  FROM tasks
+) r
+WHERE t.id = r.id;
+
+UPDATE checklists c
+SET order_index = r.rn * 1048576
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY task_id ORDER BY order_index, id) AS rn FROM checklists) r
+WHERE c.id = r.id;
+
+UPDATE checklist_items i
+SET order_index = r.rn * 1048576
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY checklist_id ORDER BY order_index, id) AS rn FROM checklist_items) r
+WHERE i.id = r.id;
+
+-- Neighbor lookups and rebalances read the siblings of a row in rank order
+CREATE INDEX idx_tasks_siblings_rank ON tasks (account_id, parent_task_id, order_index, created_at, id)
+  WHERE deleted_at IS NULL;
+CREATE INDEX idx_checklists_task_rank ON checklists (task_id, order_index, id);
+CREATE INDEX idx_checklist_items_checklist_rank ON checklist_items (checklist_id, order_index, id);
@@ -0,0 +1,79 @@
+package com.myhealth.cache;
+
+import com.myhealth.entity.task.Priority;
+import com.myhealth.entity.task.Status;
+import com.myhealth.repository.PriorityRepository;
+import com.myhealth.repository.StatusRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheTest {
+
+    @Mock
+    private StatusRepository statusRepository;
+
+    @Mock
+    private PriorityRepository priorityRepository;
+
+    @Test
+    void status_ShouldServeLoadedRowsWithoutQuerying() {
+        // Given
+        when(statusRepository.findAll()).thenReturn(List.of(new Status((short) 2, "To Do", false),
+                new Status((short) 5, "Done", true)));
+        when(priorityRepository.findAll()).thenReturn(List.of(new Priority((short) 3, "Medium")));
+        ReferenceDataCache cache = new ReferenceDataCache(statusRepository, priorityRepository, 60000);
+        cache.refresh();
+
+        // When
+        ReferenceDataCache.StatusRef done = cache.status((short) 5).orElseThrow();
+        ReferenceDataCache.PriorityRef medium = cache.priority((short) 3).orElseThrow();
+
+        // Then
+        assertThat(done.done()).isTrue();
+        assertThat(cache.status((short) 2)).hasValueSatisfying(status -> assertThat(status.done()).isFalse());
+        assertThat(medium.name()).isEqualTo("Medium");
+        verify(statusRepository, times(1)).findAll();
+    }
+
+    @Test
+    void status_WhenMissing_ShouldReloadOnceAndPickUpNewRows() {
+        // Given
+        when(statusRepository.findAll())
+                .thenReturn(List.of(new Status((short) 2, "To Do", false)))
+                .thenReturn(List.of(new Status((short) 2, "To Do", false), new Status((short) 6, "Blocked", false)));
+        when(priorityRepository.findAll()).thenReturn(List.of());
+        ReferenceDataCache cache = new ReferenceDataCache(statusRepository, priorityRepository, 0);
+        cache.refresh();
+
+        // When & Then
+        assertThat(cache.status((short) 6)).isPresent();
+        verify(statusRepository, times(2)).findAll();
+    }
+
+    @Test
+    void status_WhenMissingWithinReloadInterval_ShouldNotQueryAgain() {
+        // Given
+        when(statusRepository.findAll()).thenReturn(List.of(new Status((short) 2, "To Do", false)));
+        when(priorityRepository.findAll()).thenReturn(List.of());
+        ReferenceDataCache cache = new ReferenceDataCache(statusRepository, priorityRepository, 60000);
+        cache.refresh();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.status((short) 42)).isEmpty();
+        }
+
+        // Then
+        verify(statusRepository, times(1)).findAll();
+    }
+}
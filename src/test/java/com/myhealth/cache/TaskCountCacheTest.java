@@ -0,0 +1,99 @@
+package com.myhealth.cache;
+
+import com.myhealth.dto.task.TaskListFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskCountCacheTest {
+
+    private static final TaskListFilter ALL = TaskListFilter.none();
+
+    @Test
+    void get_ShouldCountOncePerAccountAndFilter() {
+        // Given
+        TaskCountCache cache = new TaskCountCache(60000, 100, 100);
+        UUID accountId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        long first = cache.get(accountId, ALL, () -> { loads.incrementAndGet(); return 42; });
+        long second = cache.get(accountId, ALL, () -> { loads.incrementAndGet(); return 7; });
+        long filtered = cache.get(accountId, new TaskListFilter((short) 5, null, null, null), () -> 3);
+
+        // Then
+        assertThat(first).isEqualTo(42);
+        assertThat(second).isEqualTo(42);
+        assertThat(filtered).isEqualTo(3);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidate_ShouldDropAllTotalsOfTheAccount() {
+        // Given
+        TaskCountCache cache = new TaskCountCache(60000, 100, 100);
+        UUID accountId = UUID.randomUUID();
+        UUID otherAccountId = UUID.randomUUID();
+        cache.get(accountId, ALL, () -> 42);
+        cache.get(otherAccountId, ALL, () -> 10);
+
+        // When
+        cache.invalidate(accountId);
+
+        // Then
+        assertThat(cache.get(accountId, ALL, () -> 43)).isEqualTo(43);
+        assertThat(cache.get(otherAccountId, ALL, () -> 11)).isEqualTo(10);
+    }
+
+    @Test
+    void get_WhenInvalidatedDuringLoad_ShouldNotCacheTotal() {
+        // Given
+        TaskCountCache cache = new TaskCountCache(60000, 100, 100);
+        UUID accountId = UUID.randomUUID();
+
+        // When
+        long loaded = cache.get(accountId, ALL, () -> {
+            cache.invalidate(accountId);
+            return 42;
+        });
+
+        // Then
+        assertThat(loaded).isEqualTo(42);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_WhenFull_ShouldStillReturnTotalsWithoutCaching() {
+        // Given
+        TaskCountCache cache = new TaskCountCache(60000, 1, 100);
+        cache.get(UUID.randomUUID(), ALL, () -> 1);
+
+        // When
+        long total = cache.get(UUID.randomUUID(), ALL, () -> 2);
+
+        // Then
+        assertThat(total).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_WhenAccountHasTooManyFilters_ShouldNotCacheMore() {
+        // Given
+        TaskCountCache cache = new TaskCountCache(60000, 100, 1);
+        UUID accountId = UUID.randomUUID();
+        cache.get(accountId, ALL, () -> 1);
+        AtomicInteger loads = new AtomicInteger();
+        TaskListFilter search = new TaskListFilter(null, "report", null, null);
+
+        // When
+        cache.get(accountId, search, () -> { loads.incrementAndGet(); return 2; });
+        cache.get(accountId, search, () -> { loads.incrementAndGet(); return 2; });
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(cache.get(accountId, ALL, () -> 9)).isEqualTo(1);
+    }
+}
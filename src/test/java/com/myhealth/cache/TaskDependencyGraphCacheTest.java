@@ -0,0 +1,96 @@
+package com.myhealth.cache;
+
+import com.myhealth.entity.task.DependencyType;
+import com.myhealth.projection.task.TaskDependencyEdgeProjection;
+import com.myhealth.repository.TaskDependencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDependencyGraphCacheTest {
+
+    @Mock
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID build = UUID.randomUUID();
+    private final UUID design = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(referenceDataCache.status(anyShort())).thenReturn(Optional.empty());
+        lenient().when(referenceDataCache.status((short) 5))
+            .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 5, "Done", true)));
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndApplyLaterWritesInPlace() {
+        // Given
+        TaskDependencyEdgeProjection edge = mock(TaskDependencyEdgeProjection.class);
+        when(edge.getTaskId()).thenReturn(build);
+        when(edge.getTaskStatusId()).thenReturn((short) 2);
+        when(edge.getDependsOnId()).thenReturn(design);
+        when(edge.getDependsOnStatusId()).thenReturn((short) 3);
+        when(edge.getDepType()).thenReturn("FS");
+        when(taskDependencyRepository.findAccountDependencies(accountId)).thenReturn(List.of(edge));
+        TaskDependencyGraphCache cache = new TaskDependencyGraphCache(taskDependencyRepository, referenceDataCache, 60000, 100);
+
+        // When
+        boolean blockedAfterLoad = cache.get(accountId).isBlocked(build);
+        cache.statusChanged(accountId, design, (short) 5);
+        boolean blockedAfterDone = cache.get(accountId).isBlocked(build);
+
+        // Then
+        assertThat(blockedAfterLoad).isTrue();
+        assertThat(blockedAfterDone).isFalse();
+        verify(taskDependencyRepository, times(1)).findAccountDependencies(accountId);
+    }
+
+    @Test
+    void addDependency_ShouldRefuseCycleAgainstCachedGraph() {
+        // Given
+        when(taskDependencyRepository.findAccountDependencies(accountId)).thenReturn(List.of());
+        TaskDependencyGraphCache cache = new TaskDependencyGraphCache(taskDependencyRepository, referenceDataCache, 60000, 100);
+
+        // When
+        boolean first = cache.addDependency(accountId, build, (short) 2, design, (short) 2,
+            DependencyType.FS);
+        boolean opposite = cache.addDependency(accountId, design, (short) 2, build, (short) 2,
+            DependencyType.SS);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(opposite).isFalse();
+        assertThat(cache.get(accountId).dependencyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void progressOf_ShouldMapStatusesToProgress() {
+        // Given
+        TaskDependencyGraphCache cache = new TaskDependencyGraphCache(taskDependencyRepository, referenceDataCache, 60000, 100);
+
+        // When & Then
+        assertThat(cache.progressOf((short) 1)).isEqualTo(TaskDependencyGraph.Progress.NOT_STARTED);
+        assertThat(cache.progressOf((short) 2)).isEqualTo(TaskDependencyGraph.Progress.NOT_STARTED);
+        assertThat(cache.progressOf((short) 3)).isEqualTo(TaskDependencyGraph.Progress.STARTED);
+        assertThat(cache.progressOf((short) 5)).isEqualTo(TaskDependencyGraph.Progress.DONE);
+    }
+}
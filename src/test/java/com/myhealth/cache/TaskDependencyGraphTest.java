@@ -0,0 +1,112 @@
+package com.myhealth.cache;
+
+import com.myhealth.cache.TaskDependencyGraph.Progress;
+import com.myhealth.entity.task.DependencyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskDependencyGraphTest {
+
+    private final UUID design = UUID.randomUUID();
+    private final UUID build = UUID.randomUUID();
+    private final UUID test = UUID.randomUUID();
+    private final UUID release = UUID.randomUUID();
+
+    @Test
+    void addDependency_WhenItWouldCloseACycle_ShouldRefuseAndLeaveGraphUnchanged() {
+        // Given
+        TaskDependencyGraph graph = new TaskDependencyGraph(4);
+        graph.addDependency(build, Progress.NOT_STARTED, design, Progress.NOT_STARTED, DependencyType.FS);
+        graph.addDependency(test, Progress.NOT_STARTED, build, Progress.NOT_STARTED, DependencyType.FS);
+
+        // When
+        boolean cycle = graph.addDependency(design, Progress.NOT_STARTED, test, Progress.NOT_STARTED, DependencyType.FS);
+        boolean retyped = graph.addDependency(test, Progress.NOT_STARTED, build, Progress.NOT_STARTED, DependencyType.SS);
+
+        // Then
+        assertThat(cycle).isFalse();
+        assertThat(retyped).isTrue();
+        assertThat(graph.dependencyCount()).isEqualTo(2);
+        assertThat(graph.dependenciesOf(design)).isEmpty();
+        assertThat(graph.dependenciesOf(test))
+            .containsExactly(new TaskDependencyGraph.Edge(build, DependencyType.SS));
+    }
+
+    @Test
+    void topologicalOrder_ShouldPlaceEveryTaskAfterItsDependencies() {
+        // Given
+        TaskDependencyGraph graph = new TaskDependencyGraph(4);
+        graph.addDependency(release, Progress.NOT_STARTED, test, Progress.NOT_STARTED, DependencyType.FS);
+        graph.addDependency(release, Progress.NOT_STARTED, build, Progress.NOT_STARTED, DependencyType.FF);
+        graph.addDependency(test, Progress.NOT_STARTED, build, Progress.NOT_STARTED, DependencyType.SS);
+        graph.addDependency(build, Progress.NOT_STARTED, design, Progress.NOT_STARTED, DependencyType.FS);
+
+        // When
+        List<UUID> order = graph.topologicalOrder();
+
+        // Then
+        assertThat(order).containsExactly(design, build, test, release);
+    }
+
+    @Test
+    void startBlockers_ShouldFollowDependencyTypeAndProgress() {
+        // Given
+        TaskDependencyGraph graph = new TaskDependencyGraph(4);
+        graph.addDependency(release, Progress.NOT_STARTED, build, Progress.STARTED, DependencyType.FS);
+        graph.addDependency(release, Progress.NOT_STARTED, test, Progress.STARTED, DependencyType.SS);
+        graph.addDependency(release, Progress.NOT_STARTED, design, Progress.STARTED, DependencyType.FF);
+
+        // When & Then
+        assertThat(graph.startBlockers(release)).containsExactly(build);
+        assertThat(graph.finishBlockers(release)).containsExactly(design);
+
+        graph.updateProgress(build, Progress.DONE);
+        assertThat(graph.isBlocked(release)).isFalse();
+        assertThat(graph.isBlocked(UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    void removeTask_ShouldDropItsDependenciesInBothDirections() {
+        // Given
+        TaskDependencyGraph graph = new TaskDependencyGraph(2);
+        graph.addDependency(build, Progress.NOT_STARTED, design, Progress.NOT_STARTED, DependencyType.FS);
+        graph.addDependency(test, Progress.NOT_STARTED, build, Progress.NOT_STARTED, DependencyType.FS);
+        graph.addDependency(release, Progress.NOT_STARTED, test, Progress.NOT_STARTED, DependencyType.FS);
+
+        // When
+        graph.removeTask(build);
+
+        // Then
+        assertThat(graph.contains(build)).isFalse();
+        assertThat(graph.dependencyCount()).isEqualTo(1);
+        assertThat(graph.dependentsOf(design)).isEmpty();
+        assertThat(graph.isBlocked(test)).isFalse();
+        assertThat(graph.topologicalOrder()).containsExactly(design, test, release);
+        assertThat(graph.addDependency(design, Progress.NOT_STARTED, release, Progress.NOT_STARTED, DependencyType.FS))
+            .isTrue();
+    }
+
+    @Test
+    void addDependency_OnLongChain_ShouldDetectCycleWithoutRecursion() {
+        // Given
+        TaskDependencyGraph graph = new TaskDependencyGraph(16);
+        UUID first = UUID.randomUUID();
+        UUID previous = first;
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UUID.randomUUID();
+            graph.addDependency(next, Progress.NOT_STARTED, previous, Progress.NOT_STARTED, DependencyType.FS);
+            previous = next;
+        }
+
+        // When
+        boolean added = graph.addDependency(first, Progress.NOT_STARTED, previous, Progress.NOT_STARTED, DependencyType.FS);
+
+        // Then
+        assertThat(added).isFalse();
+        assertThat(graph.topologicalOrder()).hasSize(100_001).startsWith(first).endsWith(previous);
+    }
+}
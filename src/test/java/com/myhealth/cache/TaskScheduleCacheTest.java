@@ -0,0 +1,113 @@
+package com.myhealth.cache;
+
+import com.myhealth.entity.task.DependencyType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskScheduleCacheTest {
+
+    private static final Instant MONDAY = Instant.parse("2026-03-02T09:00:00Z");
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID rootId = UUID.randomUUID();
+    private final UUID childId = UUID.randomUUID();
+
+    @Test
+    void taskChanges_ShouldUpdateCachedScheduleWithoutRebuilding() {
+        // Given
+        TaskScheduleCache cache = new TaskScheduleCache(60000, 100, 10);
+        AtomicInteger builds = new AtomicInteger();
+        cache.get(accountId, rootId, () -> {
+            builds.incrementAndGet();
+            return schedule();
+        });
+
+        // When
+        cache.taskUpdated(accountId, childId, 90, null, null);
+        cache.statusChanged(accountId, rootId, true);
+        TaskSchedule schedule = cache.get(accountId, rootId, () -> {
+            builds.incrementAndGet();
+            return schedule();
+        });
+
+        // Then
+        assertThat(builds).hasValue(1);
+        assertThat(schedule.finishMinutes()).isEqualTo(90);
+        assertThat(schedule.timing(rootId).durationMinutes()).isZero();
+    }
+
+    @Test
+    void taskUpdated_WithStartBeforeTheSchedule_ShouldRebuildOnNextRead() {
+        // Given
+        TaskScheduleCache cache = new TaskScheduleCache(60000, 100, 10);
+        AtomicInteger builds = new AtomicInteger();
+        cache.get(accountId, rootId, () -> {
+            builds.incrementAndGet();
+            return schedule();
+        });
+
+        // When
+        cache.taskUpdated(accountId, childId, 60, MONDAY.minusSeconds(3600), null);
+        cache.get(accountId, rootId, () -> {
+            builds.incrementAndGet();
+            return schedule();
+        });
+
+        // Then
+        assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    void get_WhenScheduleCannotBeBuiltOrWasInvalidatedDuringBuild_ShouldNotCacheIt() {
+        // Given
+        TaskScheduleCache cache = new TaskScheduleCache(60000, 100, 10);
+
+        // When
+        TaskSchedule cyclic = cache.get(accountId, rootId, () -> null);
+        TaskSchedule stale = cache.get(accountId, rootId, () -> {
+            cache.invalidate(accountId);
+            return schedule();
+        });
+
+        // Then
+        assertThat(cyclic).isNull();
+        assertThat(stale).isNotNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_WhenAccountHasTooManyRoots_ShouldNotCacheMore() {
+        // Given
+        TaskScheduleCache cache = new TaskScheduleCache(60000, 100, 1);
+        AtomicInteger builds = new AtomicInteger();
+        cache.get(accountId, rootId, this::schedule);
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            cache.get(accountId, childId, () -> {
+                builds.incrementAndGet();
+                return schedule();
+            });
+        }
+        cache.get(accountId, rootId, () -> {
+            builds.incrementAndGet();
+            return schedule();
+        });
+
+        // Then
+        assertThat(builds).hasValue(2);
+    }
+
+    private TaskSchedule schedule() {
+        return TaskSchedule.builder()
+            .task(rootId, 30, false, MONDAY, null)
+            .task(childId, 60, false, null, null)
+            .dependency(rootId, childId, DependencyType.FF)
+            .build(MONDAY);
+    }
+}
@@ -0,0 +1,167 @@
+package com.myhealth.cache;
+
+import com.myhealth.cache.TaskSchedule.Timing;
+import com.myhealth.entity.task.DependencyType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskScheduleTest {
+
+    private static final Instant MONDAY = Instant.parse("2026-03-02T09:00:00Z");
+
+    private final UUID design = UUID.randomUUID();
+    private final UUID build = UUID.randomUUID();
+    private final UUID docs = UUID.randomUUID();
+    private final UUID release = UUID.randomUUID();
+
+    @Test
+    void build_ShouldFindCriticalPathAndSlack() {
+        // Given
+        TaskSchedule.Builder builder = TaskSchedule.builder()
+            .task(design, 60, false, MONDAY, null)
+            .task(build, 120, false, null, null)
+            .task(docs, 30, false, null, null)
+            .task(release, 10, false, null, null)
+            .dependency(build, design, DependencyType.FS)
+            .dependency(docs, design, DependencyType.FS)
+            .dependency(release, build, DependencyType.FS)
+            .dependency(release, docs, DependencyType.FS);
+
+        // When
+        TaskSchedule schedule = builder.build(Instant.now());
+
+        // Then
+        assertThat(schedule.start()).isEqualTo(MONDAY);
+        assertThat(schedule.finishMinutes()).isEqualTo(190);
+        assertThat(schedule.timings()).extracting(Timing::taskId).containsExactly(design, build, docs, release);
+        assertThat(schedule.timings()).filteredOn(Timing::critical).extracting(Timing::taskId)
+            .containsExactly(design, build, release);
+        assertThat(schedule.timing(docs)).isEqualTo(new Timing(docs, 30, 60, 90, 150, 180));
+        assertThat(schedule.snapshot()).isEqualTo(new TaskSchedule.Snapshot(MONDAY, 190, schedule.timings()));
+    }
+
+    @Test
+    void build_ShouldApplyEachDependencyType() {
+        // Given
+        UUID prerequisite = UUID.randomUUID();
+        UUID startToStart = UUID.randomUUID();
+        UUID finishToFinish = UUID.randomUUID();
+        UUID startToFinish = UUID.randomUUID();
+        TaskSchedule schedule = TaskSchedule.builder()
+            .task(prerequisite, 100, false, null, null)
+            .task(design, 60, false, null, null)
+            .task(startToStart, 30, false, null, null)
+            .task(finishToFinish, 20, false, null, null)
+            .task(startToFinish, 30, false, null, null)
+            .dependency(design, prerequisite, DependencyType.FS)
+            .dependency(startToStart, design, DependencyType.SS)
+            .dependency(finishToFinish, design, DependencyType.FF)
+            .dependency(startToFinish, design, DependencyType.SF)
+            .build(MONDAY);
+
+        // When & Then
+        assertThat(schedule.timing(startToStart)).isEqualTo(new Timing(startToStart, 30, 100, 130, 130, 160));
+        assertThat(schedule.timing(finishToFinish)).isEqualTo(new Timing(finishToFinish, 20, 140, 160, 140, 160));
+        assertThat(schedule.timing(startToFinish)).isEqualTo(new Timing(startToFinish, 30, 70, 100, 130, 160));
+        assertThat(schedule.timing(design).critical()).isTrue();
+    }
+
+    @Test
+    void build_WithMissedDueDateOrCycle_ShouldReportNegativeSlackOrRefuse() {
+        // Given
+        TaskSchedule.Builder late = TaskSchedule.builder()
+            .task(design, 60, false, MONDAY, null)
+            .task(build, 120, false, null, MONDAY.plusSeconds(150 * 60))
+            .dependency(build, design, DependencyType.FS);
+        TaskSchedule.Builder cyclic = TaskSchedule.builder()
+            .task(design, 60, false, null, null)
+            .task(build, 120, false, null, null)
+            .dependency(build, design, DependencyType.FS)
+            .dependency(design, build, DependencyType.SS);
+
+        // When
+        TaskSchedule schedule = late.build(MONDAY);
+
+        // Then
+        assertThat(schedule.timing(build).slackMinutes()).isEqualTo(-30);
+        assertThat(schedule.timing(design).slackMinutes()).isEqualTo(-30);
+        assertThat(cyclic.build(MONDAY)).isNull();
+    }
+
+    @Test
+    void updates_ShouldMatchAScheduleBuiltFromScratch() {
+        // Given
+        Random random = new Random(42);
+        int size = 300;
+        List<UUID> ids = new ArrayList<>();
+        int[] estimates = new int[size];
+        boolean[] done = new boolean[size];
+        Instant[] startAts = new Instant[size];
+        Instant[] dueAts = new Instant[size];
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ids.add(UUID.randomUUID());
+            estimates[i] = random.nextInt(240);
+            dueAts[i] = random.nextInt(10) == 0 ? MONDAY.plusSeconds(random.nextInt(5000) * 60L) : null;
+            for (int j = Math.max(0, i - 20); j < i; j++) {
+                if (random.nextInt(8) == 0) {
+                    edges.add(new int[] {i, j, random.nextInt(4)});
+                }
+            }
+        }
+        startAts[0] = MONDAY;
+        TaskSchedule schedule = build(ids, estimates, done, startAts, dueAts, edges);
+        int rebuilds = 0;
+
+        for (int round = 0; round < 100; round++) {
+            // When
+            int task = random.nextInt(size);
+            if (random.nextBoolean()) {
+                estimates[task] = random.nextInt(240);
+                dueAts[task] = random.nextInt(4) == 0 ? MONDAY.plusSeconds(random.nextInt(5000) * 60L) : null;
+                startAts[task] = switch (random.nextInt(10)) {
+                    case 0 -> schedule.start().minusSeconds((1 + random.nextInt(600)) * 60L);
+                    case 1, 2 -> schedule.start().plusSeconds(random.nextInt(600) * 60L);
+                    case 3 -> null;
+                    default -> startAts[task];
+                };
+                schedule.updateTask(ids.get(task), estimates[task], startAts[task], dueAts[task]);
+            } else {
+                done[task] = !done[task];
+                schedule.updateDone(ids.get(task), done[task]);
+            }
+
+            // Then
+            TaskSchedule rebuilt = build(ids, estimates, done, startAts, dueAts, edges);
+            if (schedule.isStale()) {
+                // The start of the schedule moved, which the cache handles by building it again
+                rebuilds++;
+                schedule = rebuilt;
+                continue;
+            }
+            assertThat(schedule.start()).isEqualTo(rebuilt.start());
+            assertThat(schedule.finishMinutes()).isEqualTo(rebuilt.finishMinutes());
+            assertThat(schedule.timings()).containsExactlyElementsOf(rebuilt.timings());
+        }
+        assertThat(rebuilds).isPositive();
+    }
+
+    private static TaskSchedule build(List<UUID> ids, int[] estimates, boolean[] done, Instant[] startAts,
+                                      Instant[] dueAts, List<int[]> edges) {
+        TaskSchedule.Builder builder = TaskSchedule.builder();
+        for (int i = 0; i < ids.size(); i++) {
+            builder.task(ids.get(i), estimates[i], done[i], startAts[i], dueAts[i]);
+        }
+        for (int[] edge : edges) {
+            builder.dependency(ids.get(edge[0]), ids.get(edge[1]), DependencyType.values()[edge[2]]);
+        }
+        return builder.build(MONDAY);
+    }
+}
@@ -1,9 +1,22 @@
 package com.myhealth.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myhealth.dto.task.CursorPage;
+import com.myhealth.dto.task.TaskBulkAction;
+import com.myhealth.dto.task.TaskCountMode;
+import com.myhealth.dto.task.UserTaskBatchCreateRequest;
+import com.myhealth.dto.task.UserTaskBatchItemResult;
+import com.myhealth.dto.task.UserTaskBatchResponse;
+import com.myhealth.dto.task.UserTaskBatchUpdateRequest;
+import com.myhealth.dto.task.UserTaskBulkFilter;
+import com.myhealth.dto.task.UserTaskBulkRequest;
+import com.myhealth.dto.task.UserTaskBulkResponse;
 import com.myhealth.dto.task.UserTaskCreateRequest;
 import com.myhealth.dto.task.UserTaskResponse;
+import com.myhealth.dto.task.UserTaskMoveRequest;
+import com.myhealth.dto.task.UserTaskPositionRequest;
 import com.myhealth.dto.task.UserTaskStatusChangeRequest;
+import com.myhealth.dto.task.UserTaskTreeNode;
 import com.myhealth.service.UserTaskService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +24,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,7 +35,10 @@ import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -49,7 +66,7 @@ class UserTaskControllerTest {
         task.setTitle("Test Task");
         
         Page<UserTaskResponse> page = new PageImpl<>(List.of(task));
-        when(userTaskService.getUserTasks(any(), any(), any(), any(), any()))
+        when(userTaskService.getUserTasks(any(), eq(false), any(), eq(TaskCountMode.EXACT)))
             .thenReturn(page);
         
         // When & Then
@@ -131,7 +148,7 @@ class UserTaskControllerTest {
         response.setStatusId((short) 5);
         response.setCompletedAt(ZonedDateTime.now());
         
-        when(userTaskService.changeTaskStatus(eq(taskId), eq((short) 5)))
+        when(userTaskService.changeTaskStatus(eq(taskId), eq((short) 5), isNull()))
             .thenReturn(response);
         
         // When & Then
@@ -145,10 +162,270 @@ class UserTaskControllerTest {
             .andExpect(jsonPath("$.completedAt").exists());
     }
     
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void changeTaskStatus_WithIfMatch_ShouldPassVersionAndReturnETag() throws Exception {
+        // Given
+        UUID taskId = UUID.randomUUID();
+        
+        UserTaskStatusChangeRequest request = new UserTaskStatusChangeRequest();
+        request.setStatusId("3");
+        
+        UserTaskResponse response = new UserTaskResponse();
+        response.setId(taskId);
+        response.setStatusId((short) 3);
+        response.setVersion(8);
+        
+        when(userTaskService.changeTaskStatus(eq(taskId), eq((short) 3), eq(7)))
+            .thenReturn(response);
+        
+        // When & Then
+        mockMvc.perform(patch("/api/user/task/{id}/status", taskId)
+                .with(csrf())
+                .header("If-Match", "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"8\""))
+            .andExpect(jsonPath("$.version").value(8));
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void changeTaskStatus_WithMalformedIfMatch_ShouldReturnBadRequest() throws Exception {
+        // Given
+        UserTaskStatusChangeRequest request = new UserTaskStatusChangeRequest();
+        request.setStatusId("3");
+        
+        // When & Then
+        mockMvc.perform(patch("/api/user/task/{id}/status", UUID.randomUUID())
+                .with(csrf())
+                .header("If-Match", "W/\"abc\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(userTaskService);
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void getTaskTree_ShouldReturnNestedChildren() throws Exception {
+        // Given
+        UUID taskId = UUID.randomUUID();
+        UserTaskTreeNode child = new UserTaskTreeNode();
+        child.setId(UUID.randomUUID());
+        child.setTitle("Compile");
+        child.setParentId(taskId);
+        child.setDepth(1);
+        child.setTruncated(true);
+        UserTaskTreeNode root = new UserTaskTreeNode();
+        root.setId(taskId);
+        root.setTitle("Build");
+        root.getChildren().add(child);
+        
+        when(userTaskService.getTaskTree(taskId, 1)).thenReturn(root);
+        
+        // When & Then
+        mockMvc.perform(get("/api/user/task/{id}/tree", taskId).param("depth", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Build"))
+            .andExpect(jsonPath("$.truncated").doesNotExist())
+            .andExpect(jsonPath("$.children[0].title").value("Compile"))
+            .andExpect(jsonPath("$.children[0].truncated").value(true));
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void moveTask_WithIfMatch_ShouldPassParentAndVersion() throws Exception {
+        // Given
+        UUID taskId = UUID.randomUUID();
+        UUID parentId = UUID.randomUUID();
+        UserTaskMoveRequest request = new UserTaskMoveRequest();
+        request.setParentId(parentId);
+        
+        UserTaskResponse response = new UserTaskResponse();
+        response.setId(taskId);
+        response.setVersion(4);
+        
+        when(userTaskService.moveTask(taskId, parentId, 3)).thenReturn(response);
+        
+        // When & Then
+        mockMvc.perform(patch("/api/user/task/{id}/parent", taskId)
+                .with(csrf())
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"4\""));
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void reorderChecklistItem_ToFirstPosition_ShouldReturnNoContent() throws Exception {
+        // Given
+        UUID taskId = UUID.randomUUID();
+        UUID checklistId = UUID.randomUUID();
+        UUID itemId = UUID.randomUUID();
+        
+        // When & Then
+        mockMvc.perform(patch("/api/user/task/{id}/checklists/{checklistId}/items/{itemId}/position",
+                    taskId, checklistId, itemId)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UserTaskPositionRequest())))
+            .andExpect(status().isNoContent());
+        verify(userTaskService).reorderChecklistItem(taskId, checklistId, itemId, null);
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void createTasks_ShouldReturnPerItemResults() throws Exception {
+        // Given
+        UserTaskCreateRequest valid = new UserTaskCreateRequest();
+        valid.setTitle("Imported task");
+        UserTaskCreateRequest invalid = new UserTaskCreateRequest();
+        UserTaskBatchCreateRequest request = new UserTaskBatchCreateRequest();
+        request.setTasks(List.of(valid, invalid));
+        
+        UserTaskResponse created = new UserTaskResponse();
+        created.setId(UUID.randomUUID());
+        created.setTitle("Imported task");
+        UserTaskBatchResponse response = UserTaskBatchResponse.of(List.of(
+            UserTaskBatchItemResult.succeeded(0, HttpStatus.CREATED, created),
+            UserTaskBatchItemResult.failed(1, HttpStatus.BAD_REQUEST, "Title is required")));
+        
+        when(userTaskService.createTasks(any())).thenReturn(response);
+        
+        // When & Then
+        mockMvc.perform(post("/api/user/task/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.results[0].status").value(201))
+            .andExpect(jsonPath("$.results[0].task.title").value("Imported task"))
+            .andExpect(jsonPath("$.results[1].error").value("Title is required"));
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void updateTasks_WithEmptyBatch_ShouldReturnBadRequest() throws Exception {
+        // Given
+        UserTaskBatchUpdateRequest request = new UserTaskBatchUpdateRequest();
+        request.setTasks(List.of());
+        
+        // When & Then
+        mockMvc.perform(patch("/api/user/task/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(userTaskService);
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void applyBulkAction_ByIds_ShouldReturnAffectedAndSkippedIds() throws Exception {
+        // Given
+        UUID archived = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UserTaskBulkRequest request = new UserTaskBulkRequest();
+        request.setAction("archive");
+        request.setIds(List.of(archived, missing));
+        
+        when(userTaskService.applyBulkAction(eq(TaskBulkAction.ARCHIVE), isNull(), eq(List.of(archived, missing)), isNull()))
+            .thenReturn(new UserTaskBulkResponse(1, List.of(archived), List.of(missing)));
+        
+        // When & Then
+        mockMvc.perform(post("/api/user/task/bulk")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.affected").value(1))
+            .andExpect(jsonPath("$.affectedIds[0]").value(archived.toString()))
+            .andExpect(jsonPath("$.skippedIds[0]").value(missing.toString()));
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void applyBulkAction_WithIdsAndFilter_ShouldReturnBadRequest() throws Exception {
+        // Given
+        UserTaskBulkRequest request = new UserTaskBulkRequest();
+        request.setAction("delete");
+        request.setIds(List.of(UUID.randomUUID()));
+        request.setFilter(new UserTaskBulkFilter());
+        
+        // When & Then
+        mockMvc.perform(post("/api/user/task/bulk")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(userTaskService);
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void applyBulkAction_WithEmptyFilter_ShouldReturnBadRequest() throws Exception {
+        // Given
+        UserTaskBulkRequest request = new UserTaskBulkRequest();
+        request.setAction("delete");
+        UserTaskBulkFilter filter = new UserTaskBulkFilter();
+        filter.setQ("  ");
+        request.setFilter(filter);
+        
+        // When & Then
+        mockMvc.perform(post("/api/user/task/bulk")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(userTaskService);
+    }
+    
     @Test
     void getUserTasks_WithoutAuthentication_ShouldReturnUnauthorized() throws Exception {
         // When & Then
         mockMvc.perform(get("/api/user/task"))
             .andExpect(status().isUnauthorized());
     }
-}
\ No newline at end of file
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void getUserTasks_WithCursor_ShouldReturnCursorPage() throws Exception {
+        // Given
+        UserTaskResponse task = new UserTaskResponse();
+        task.setId(UUID.randomUUID());
+        task.setTitle("Test Task");
+        
+        CursorPage<UserTaskResponse> page = new CursorPage<>(List.of(task), 1, "next", true);
+        when(userTaskService.getUserTasksByCursor(any(), eq(false), eq(""), eq(1), eq(true)))
+            .thenReturn(page);
+        
+        // When & Then
+        mockMvc.perform(get("/api/user/task").param("cursor", "").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].title").value("Test Task"))
+            .andExpect(jsonPath("$.nextCursor").value("next"))
+            .andExpect(jsonPath("$.hasNext").value(true));
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void getUserTasks_WithCursorAndUnsupportedSort_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/user/task").param("cursor", "").param("sort", "title,asc"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void getUserTasks_WithUnknownCountMode_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/user/task").param("count", "approximate"))
+            .andExpect(status().isBadRequest());
+    }
+}
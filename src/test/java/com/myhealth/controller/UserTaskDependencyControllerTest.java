@@ -0,0 +1,86 @@
+package com.myhealth.controller;
+
+import com.myhealth.dto.task.UserTaskDependenciesResponse;
+import com.myhealth.dto.task.UserTaskDependency;
+import com.myhealth.dto.task.UserTaskScheduleEntry;
+import com.myhealth.dto.task.UserTaskScheduleResponse;
+import com.myhealth.entity.task.DependencyType;
+import com.myhealth.service.TaskDependencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserTaskDependencyController.class)
+class UserTaskDependencyControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private TaskDependencyService taskDependencyService;
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void addDependency_ShouldReturnDependenciesOfTask() throws Exception {
+        // Given
+        UUID taskId = UUID.randomUUID();
+        UUID dependsOnId = UUID.randomUUID();
+        UserTaskDependenciesResponse response = new UserTaskDependenciesResponse(taskId,
+            List.of(new UserTaskDependency(dependsOnId, DependencyType.FS)), List.of(), true, List.of(dependsOnId), List.of());
+        when(taskDependencyService.addDependency(taskId, dependsOnId, DependencyType.FS)).thenReturn(response);
+        
+        // When & Then
+        mockMvc.perform(put("/api/user/task/{id}/dependencies/{dependsOnId}", taskId, dependsOnId)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\": \"FS\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.dependsOn[0].type").value("FS"))
+            .andExpect(jsonPath("$.blocked").value(true));
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void addDependency_WithUnknownType_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/user/task/{id}/dependencies/{dependsOnId}", UUID.randomUUID(), UUID.randomUUID())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\": \"XX\"}"))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(taskDependencyService);
+    }
+    
+    @Test
+    @WithMockUser(username = "123e4567-e89b-12d3-a456-426614174000")
+    void getSchedule_ShouldReturnCriticalPathAndTimings() throws Exception {
+        // Given
+        UUID rootId = UUID.randomUUID();
+        Instant start = Instant.parse("2026-03-02T09:00:00Z");
+        UserTaskScheduleEntry entry = new UserTaskScheduleEntry(rootId, 60, start, start.plusSeconds(3600),
+            start, start.plusSeconds(3600), 0, true);
+        when(taskDependencyService.getSchedule(rootId)).thenReturn(
+            new UserTaskScheduleResponse(rootId, start, start.plusSeconds(3600), 60, List.of(rootId), List.of(entry)));
+        
+        // When & Then
+        mockMvc.perform(get("/api/user/task/{id}/schedule", rootId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.durationMinutes").value(60))
+            .andExpect(jsonPath("$.criticalPath[0]").value(rootId.toString()))
+            .andExpect(jsonPath("$.tasks[0].critical").value(true));
+    }
+}
@@ -0,0 +1,43 @@
+package com.myhealth.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_ShouldSetVersionVariantAndCurrentTimestamp() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID id = UuidV7Generator.next();
+
+        // Then
+        long after = System.currentTimeMillis();
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        // Bursts of more than 4096 ids per millisecond (see the other test) push the timestamp ahead of the clock
+        assertThat(timestamp).isBetween(before, after + 1000);
+    }
+
+    @Test
+    void next_ShouldBeStrictlyIncreasingWithinTheSameMillisecond() {
+        // Given
+        UUID previous = UuidV7Generator.next();
+
+        for (int i = 0; i < 100_000; i++) {
+            // When
+            UUID current = UuidV7Generator.next();
+
+            // Then
+            assertThat(Long.compareUnsigned(current.getMostSignificantBits(), previous.getMostSignificantBits()))
+                .isPositive();
+            previous = current;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.myhealth.dto.RefreshRequest;
 import com.myhealth.model.UserToken;
 import com.myhealth.repository.UserTokenRepository;
 import com.myhealth.service.JwtTokenService;
+import com.myhealth.security.TokenDigest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -20,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -98,7 +100,7 @@ class RefreshTokenEdgeCasesTest {
         // Create expired refresh token in database
         UserToken expiredToken = new UserToken();
         expiredToken.setUserId(testUserId);
-        expiredToken.setRefreshToken("expired-refresh-token");
+        expiredToken.setRefreshTokenHash(TokenDigest.sha256("expired-refresh-token"));
         expiredToken.setExpiresAt(LocalDateTime.now().minusHours(1));
         userTokenRepository.save(expiredToken);
 
@@ -140,7 +142,7 @@ class RefreshTokenEdgeCasesTest {
         UUID refreshTokenUserId = UUID.randomUUID();
         UserToken userToken = new UserToken();
         userToken.setUserId(refreshTokenUserId);
-        userToken.setRefreshToken("mismatched-refresh-token");
+        userToken.setRefreshTokenHash(TokenDigest.sha256("mismatched-refresh-token"));
         userToken.setExpiresAt(LocalDateTime.now().plusHours(1));
         userTokenRepository.save(userToken);
 
@@ -193,4 +195,30 @@ class RefreshTokenEdgeCasesTest {
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.message").value("Invalid token signature"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void refresh_WithAlreadyRotatedRefreshToken_ShouldReturnInvalidRefreshToken() throws Exception {
+        // Given a refresh token issued to a user
+        UUID testUserId = UUID.randomUUID();
+        String validAccessToken = jwtTokenService.generateAccessToken(testUserId, java.util.Collections.emptyList());
+        UserToken userToken = new UserToken();
+        userToken.setUserId(testUserId);
+        userToken.setRefreshTokenHash(TokenDigest.sha256("single-use-refresh-token"));
+        userToken.setExpiresAt(LocalDateTime.now().plusHours(1));
+        userTokenRepository.save(userToken);
+
+        // When it is rotated once
+        assertThat(jwtTokenService.rotateRefreshToken("single-use-refresh-token", testUserId)).isPresent();
+
+        // Then presenting it again is rejected
+        RefreshRequest refreshRequest = new RefreshRequest();
+        refreshRequest.setAccessToken(validAccessToken);
+        refreshRequest.setRefreshToken("single-use-refresh-token");
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid refresh token"));
+    }
+}
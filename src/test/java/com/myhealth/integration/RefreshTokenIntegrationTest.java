@@ -6,6 +6,7 @@ import com.myhealth.dto.AuthResponse;
 import com.myhealth.dto.RefreshRequest;
 import com.myhealth.model.UserToken;
 import com.myhealth.repository.UserTokenRepository;
+import com.myhealth.security.TokenDigest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -83,7 +84,7 @@ class RefreshTokenIntegrationTest {
     void refresh_WithExpiredRefreshToken_ShouldReturnSpecificError() throws Exception {
         // Create expired refresh token in database
         UserToken expiredToken = new UserToken();
-        expiredToken.setRefreshToken("expired-refresh-token");
+        expiredToken.setRefreshTokenHash(TokenDigest.sha256("expired-refresh-token"));
         expiredToken.setExpiresAt(LocalDateTime.now().minusHours(1));
         userTokenRepository.save(expiredToken);
 
@@ -1,13 +1,17 @@
 package com.myhealth.repository;
 
 import com.myhealth.entity.task.*;
+import com.myhealth.projection.task.TaskDependencyEdgeProjection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.ZonedDateTime;
 import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -110,4 +114,61 @@ class TaskDependencyRepositoryTest {
         var dependencies = taskDependencyRepository.findByTaskId(task1.getId());
         assertThat(dependencies).isEmpty();
     }
-}
\ No newline at end of file
+    
+    @Test
+    void findAccountDependencies_ShouldReturnEdgesBetweenLiveTasksWithTheirStatuses() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        task1.setAccountId(accountId);
+        task2.setAccountId(accountId);
+        Task task3 = new Task();
+        task3.setTitle("Task 3");
+        task3.setStatus(task1.getStatus());
+        task3.setPriority(task1.getPriority());
+        task3.setAccountId(accountId);
+        task3.setDeletedAt(ZonedDateTime.now());
+        task3.setExtras(new HashMap<>());
+        taskRepository.saveAll(List.of(task1, task2, task3));
+        taskDependencyRepository.save(new TaskDependency(task1.getId(), task2.getId(), DependencyType.FS, null, null));
+        taskDependencyRepository.save(new TaskDependency(task2.getId(), task3.getId(), DependencyType.SS, null, null));
+        taskDependencyRepository.flush();
+        
+        // When
+        List<TaskDependencyEdgeProjection> edges = taskDependencyRepository.findAccountDependencies(accountId);
+        
+        // Then
+        assertThat(edges).singleElement().satisfies(edge -> {
+            assertThat(edge.getTaskId()).isEqualTo(task1.getId());
+            assertThat(edge.getDependsOnId()).isEqualTo(task2.getId());
+            assertThat(edge.getDepType()).isEqualTo("FS");
+            assertThat(edge.getDependsOnStatusId()).isEqualTo((short) 2);
+        });
+        assertThat(taskDependencyRepository.findAccountDependencies(UUID.randomUUID())).isEmpty();
+    }
+    
+    @Test
+    void countDependencyPath_ShouldFollowLivePrerequisites() {
+        // Given
+        Task task3 = new Task();
+        task3.setTitle("Task 3");
+        task3.setStatus(task1.getStatus());
+        task3.setPriority(task1.getPriority());
+        task3.setExtras(new HashMap<>());
+        task3 = taskRepository.save(task3);
+        taskDependencyRepository.save(new TaskDependency(task1.getId(), task2.getId(), DependencyType.FS, null, null));
+        taskDependencyRepository.save(new TaskDependency(task2.getId(), task3.getId(), DependencyType.SS, null, null));
+        taskDependencyRepository.flush();
+        
+        // When
+        long throughTask2 = taskDependencyRepository.countDependencyPath(task1.getId(), task3.getId());
+        long reversed = taskDependencyRepository.countDependencyPath(task3.getId(), task1.getId());
+        task3.setDeletedAt(ZonedDateTime.now());
+        taskRepository.saveAndFlush(task3);
+        long toDeleted = taskDependencyRepository.countDependencyPath(task1.getId(), task3.getId());
+        
+        // Then
+        assertThat(throughTask2).isEqualTo(1);
+        assertThat(reversed).isZero();
+        assertThat(toDeleted).isZero();
+    }
+}
@@ -0,0 +1,43 @@
+package com.myhealth.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskRepositoryCustomImplTest {
+
+    @Test
+    void toPrefixTsQuery_ShouldMatchEveryWordAsPrefix() {
+        assertThat(TaskRepositoryCustomImpl.toPrefixTsQuery("quar rep")).isEqualTo("quar:* & rep:*");
+        assertThat(TaskRepositoryCustomImpl.toPrefixTsQuery("  Größe 2024 ")).isEqualTo("Größe:* & 2024:*");
+    }
+
+    @Test
+    void toPrefixTsQuery_ShouldDropTsQueryOperators() {
+        assertThat(TaskRepositoryCustomImpl.toPrefixTsQuery("a:* | !b & (c)")).isEqualTo("a:* & b:* & c:*");
+        assertThat(TaskRepositoryCustomImpl.toPrefixTsQuery("'); DROP TABLE tasks; --"))
+            .isEqualTo("DROP:* & TABLE:* & tasks:*");
+    }
+
+    @Test
+    void toPrefixTsQuery_WithoutWords_ShouldReturnNull() {
+        assertThat(TaskRepositoryCustomImpl.toPrefixTsQuery("!?& ")).isNull();
+    }
+
+    @Test
+    void toContainsPattern_ShouldEscapeLikeWildcards() {
+        assertThat(TaskRepositoryCustomImpl.toContainsPattern("Port")).isEqualTo("%port%");
+        assertThat(TaskRepositoryCustomImpl.toContainsPattern("100%_done\\")).isEqualTo("%100\\%\\_done\\\\%");
+    }
+
+    @Test
+    void toUuidArrayLiteral_ShouldFormatPostgresArray() {
+        UUID first = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        UUID second = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        assertThat(TaskRepositoryCustomImpl.toUuidArrayLiteral(List.of(first, second)))
+            .isEqualTo("{123e4567-e89b-12d3-a456-426614174000,00000000-0000-0000-0000-000000000001}");
+    }
+}
@@ -1,19 +1,43 @@
 package com.myhealth.repository;
 
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.RankNeighbors;
+import com.myhealth.dto.task.RankScope;
+import com.myhealth.dto.task.TaskBulkAction;
+import com.myhealth.dto.task.TaskBulkUpdate;
+import com.myhealth.dto.task.TaskCursor;
+import com.myhealth.dto.task.TaskListFilter;
+import com.myhealth.dto.task.TaskRollup;
+import com.myhealth.dto.task.TaskRollupPath;
+import com.myhealth.dto.task.TaskSearchMode;
 import com.myhealth.entity.task.*;
+import com.myhealth.projection.task.TaskScheduleProjection;
+import com.myhealth.projection.task.UserTaskDetailProjection;
+import com.myhealth.projection.task.UserTaskListProjection;
+import com.myhealth.projection.task.UserTaskTreeProjection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -138,4 +162,397 @@ class TaskRepositoryTest {
         task.setExtras(new HashMap<>());
         return task;
     }
+    
+    @Test
+    void findUserTasksAfter_ShouldWalkAllPagesWithoutGapsOrDuplicates() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setStatus(todoStatus);
+            task.setPriority(mediumPriority);
+            task.setAccountId(accountId);
+            task.setExtras(new HashMap<>());
+            taskRepository.saveAndFlush(task);
+        }
+        List<UserTaskListProjection> all = taskRepository.findUserTasksAfter(
+            accountId, TaskListFilter.none(), false, null, true, 10);
+        
+        // When
+        List<UUID> walked = new ArrayList<>();
+        TaskCursor after = null;
+        List<UserTaskListProjection> page;
+        do {
+            page = taskRepository.findUserTasksAfter(accountId, TaskListFilter.none(), false, after, true, 2);
+            page.forEach(row -> walked.add(row.getId()));
+            if (!page.isEmpty()) {
+                UserTaskListProjection last = page.get(page.size() - 1);
+                after = new TaskCursor(last.getCreatedAt(), last.getId(), true);
+            }
+        } while (page.size() == 2);
+        
+        // Then
+        assertThat(all).hasSize(5);
+        assertThat(walked).containsExactlyElementsOf(all.stream().map(UserTaskListProjection::getId).toList());
+        assertThat(all).extracting(UserTaskListProjection::getCreatedAt)
+            .isSortedAccordingTo(java.util.Comparator.reverseOrder());
+    }
+    
+    @Test
+    void findUserTasksCounted_ShouldReturnTotalFromSameQuery() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task();
+            task.setTitle("Counted " + i);
+            task.setStatus(todoStatus);
+            task.setPriority(mediumPriority);
+            task.setAccountId(accountId);
+            task.setExtras(new HashMap<>());
+            taskRepository.saveAndFlush(task);
+        }
+        
+        // When
+        Page<UserTaskListProjection> firstPage = taskRepository.findUserTasksCounted(
+            accountId, TaskListFilter.none(), false, PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "title")));
+        Page<UserTaskListProjection> beyondLastPage = taskRepository.findUserTasksCounted(
+            accountId, TaskListFilter.none(), false, PageRequest.of(5, 2, Sort.by("title")));
+        Slice<UserTaskListProjection> slice = taskRepository.findUserTasksSlice(
+            accountId, new TaskListFilter(null, "counted", null, null), false, PageRequest.of(1, 2, Sort.by("title")));
+        
+        // Then
+        assertThat(firstPage.getTotalElements()).isEqualTo(3);
+        assertThat(firstPage.getContent()).extracting(UserTaskListProjection::getTitle)
+            .containsExactly("Counted 0", "Counted 1");
+        assertThat(beyondLastPage.getContent()).isEmpty();
+        assertThat(beyondLastPage.getTotalElements()).isEqualTo(3);
+        assertThat(slice.getContent()).extracting(UserTaskListProjection::getTitle).containsExactly("Counted 2");
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(taskRepository.countUserTasks(accountId, new TaskListFilter((short) 2, null, null, null))).isEqualTo(3);
+    }
+    
+    @Test
+    void findUserTasksCounted_SortedByRelevance_ShouldRequireSearchQuery() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        PageRequest byRelevance = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance"));
+        
+        // When & Then
+        assertThatThrownBy(() -> taskRepository.findUserTasksCounted(accountId, TaskListFilter.none(), false, byRelevance))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(taskRepository.findUserTasksCounted(
+            accountId, new TaskListFilter(null, "report", null, null), true, byRelevance).getContent()).isEmpty();
+    }
+    
+    @Test
+    void findUserTasksSlice_WithContainsMatch_ShouldMatchInsideWordsOfTitle() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        for (String title : new String[] {"Quarterly report", "Import 100% of data", "Reportage"}) {
+            Task task = new Task();
+            task.setTitle(title);
+            task.setDescriptionMd("port in description only");
+            task.setStatus(todoStatus);
+            task.setPriority(mediumPriority);
+            task.setAccountId(accountId);
+            task.setExtras(new HashMap<>());
+            taskRepository.saveAndFlush(task);
+        }
+        
+        // When
+        Slice<UserTaskListProjection> port = taskRepository.findUserTasksSlice(accountId,
+            new TaskListFilter(null, "PORT", TaskSearchMode.CONTAINS, null, null), false, PageRequest.of(0, 10, Sort.by("title")));
+        Slice<UserTaskListProjection> percent = taskRepository.findUserTasksSlice(accountId,
+            new TaskListFilter(null, "0%", TaskSearchMode.CONTAINS, null, null), false, PageRequest.of(0, 10, Sort.by("title")));
+        
+        // Then
+        assertThat(port.getContent()).extracting(UserTaskListProjection::getTitle)
+            .containsExactly("Import 100% of data", "Quarterly report", "Reportage");
+        assertThat(percent.getContent()).extracting(UserTaskListProjection::getTitle)
+            .containsExactly("Import 100% of data");
+    }
+    
+    @Test
+    void changeStatus_ShouldUpdateInOneStatementAndCheckVersionAndTransition() {
+        // Given
+        Status doneStatus = statusRepository.save(new Status((short) 5, "Done", true));
+        statusRepository.save(new Status((short) 1, "Backlog", false));
+        UUID accountId = UUID.randomUUID();
+        Task task = new Task();
+        task.setTitle("Drag me");
+        task.setStatus(todoStatus);
+        task.setPriority(mediumPriority);
+        task.setAccountId(accountId);
+        task.setExtras(new HashMap<>());
+        task = taskRepository.saveAndFlush(task);
+        int version = task.getVersion();
+        
+        // When
+        Optional<UserTaskDetailProjection> stale = taskRepository.changeStatus(task.getId(), accountId, doneStatus.getId(),
+            true, Set.of(), version + 1, ZonedDateTime.now());
+        Optional<UserTaskDetailProjection> done = taskRepository.changeStatus(task.getId(), accountId, doneStatus.getId(),
+            true, Set.of(), version, ZonedDateTime.now());
+        Optional<UserTaskDetailProjection> toBacklog = taskRepository.changeStatus(task.getId(), accountId, (short) 1,
+            false, Set.of(doneStatus.getId()), null, ZonedDateTime.now());
+        Optional<UserTaskDetailProjection> otherAccount = taskRepository.changeStatus(task.getId(), UUID.randomUUID(),
+            todoStatus.getId(), false, Set.of(), null, ZonedDateTime.now());
+        
+        // Then
+        assertThat(stale).isEmpty();
+        assertThat(done).hasValueSatisfying(row -> {
+            assertThat(row.getStatusId()).isEqualTo(doneStatus.getId());
+            assertThat(row.getStatusName()).isEqualTo("Done");
+            assertThat(row.getPriorityName()).isEqualTo("Medium");
+            assertThat(row.getCompletedAt()).isNotNull();
+            assertThat(row.getVersion()).isEqualTo(version + 1);
+        });
+        assertThat(toBacklog).isEmpty();
+        assertThat(otherAccount).isEmpty();
+    }
+    
+    @Test
+    void bulkUpdate_ShouldChangeSelectedTasksInOneStatementAndReturnTheirIds() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        List<UUID> ids = new ArrayList<>();
+        for (String title : new String[] {"Sprint 12 review", "Sprint 12 demo", "Backlog grooming"}) {
+            Task task = new Task();
+            task.setTitle(title);
+            task.setStatus(todoStatus);
+            task.setPriority(mediumPriority);
+            task.setAccountId(accountId);
+            task.setExtras(new HashMap<>());
+            ids.add(taskRepository.saveAndFlush(task).getId());
+        }
+        
+        // When
+        List<UUID> archived = taskRepository.bulkUpdate(accountId, List.of(ids.get(0), ids.get(2), UUID.randomUUID()),
+            null, TaskBulkUpdate.of(TaskBulkAction.ARCHIVE), ZonedDateTime.now());
+        List<UUID> otherAccount = taskRepository.bulkUpdate(UUID.randomUUID(), ids, null,
+            TaskBulkUpdate.of(TaskBulkAction.DELETE), ZonedDateTime.now());
+        List<UUID> deleted = taskRepository.bulkUpdate(accountId, null, new TaskListFilter(null, "sprint", null, null),
+            TaskBulkUpdate.of(TaskBulkAction.DELETE), ZonedDateTime.now());
+        
+        // Then
+        assertThat(archived).containsExactlyInAnyOrder(ids.get(0), ids.get(2));
+        assertThat(otherAccount).isEmpty();
+        assertThat(deleted).containsExactlyInAnyOrder(ids.get(0), ids.get(1));
+        assertThat(taskRepository.countUserTasks(accountId, TaskListFilter.none())).isEqualTo(1);
+    }
+    
+    @Test
+    void findSubtree_ShouldReturnLiveDescendantsInOneQueryAndMarkCutOffLevels() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        Task root = saveTask("Release", accountId, null);
+        Task build = saveTask("Build", accountId, root);
+        Task docs = saveTask("Docs", accountId, root);
+        Task compile = saveTask("Compile", accountId, build);
+        saveTask("Link", accountId, compile);
+        Task removed = saveTask("Removed", accountId, docs);
+        removed.setDeletedAt(ZonedDateTime.now());
+        taskRepository.saveAndFlush(removed);
+        saveTask("Under removed", accountId, removed);
+        
+        // When
+        List<UserTaskTreeProjection> full = taskRepository.findSubtree(root.getId(), accountId, 10, 100);
+        List<UserTaskTreeProjection> shallow = taskRepository.findSubtree(root.getId(), accountId, 2, 100);
+        List<UserTaskTreeProjection> otherAccount = taskRepository.findSubtree(root.getId(), UUID.randomUUID(), 10, 100);
+        
+        // Then
+        assertThat(full).extracting(UserTaskTreeProjection::getTitle)
+            .containsExactlyInAnyOrder("Release", "Build", "Docs", "Compile", "Link");
+        assertThat(full).extracting(UserTaskTreeProjection::getDepth).isSorted();
+        assertThat(full).filteredOn(row -> row.getTitle().equals("Compile"))
+            .singleElement()
+            .satisfies(row -> {
+                assertThat(row.getParentId()).isEqualTo(build.getId());
+                assertThat(row.getDepth()).isEqualTo(2);
+                assertThat(row.getTruncated()).isFalse();
+            });
+        assertThat(shallow).extracting(UserTaskTreeProjection::getTitle).doesNotContain("Link");
+        assertThat(shallow).filteredOn(row -> row.getTitle().equals("Compile"))
+            .singleElement()
+            .satisfies(row -> assertThat(row.getTruncated()).isTrue());
+        assertThat(otherAccount).isEmpty();
+    }
+    
+    @Test
+    void moveTask_ShouldReparentSubtreeWithOneRowAndExposeAncestorPath() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        Task root = saveTask("Release", accountId, null);
+        Task build = saveTask("Build", accountId, root);
+        Task compile = saveTask("Compile", accountId, build);
+        Task other = saveTask("Ops", accountId, null);
+        
+        // When
+        List<UUID> path = taskRepository.findAncestorIds(compile.getId(), accountId, 10);
+        Optional<UserTaskDetailProjection> stale = taskRepository.moveTask(build.getId(), accountId, other.getId(),
+            build.getVersion() + 1, ZonedDateTime.now());
+        Optional<UserTaskDetailProjection> moved = taskRepository.moveTask(build.getId(), accountId, other.getId(),
+            build.getVersion(), ZonedDateTime.now());
+        
+        // Then
+        assertThat(path).containsExactly(compile.getId(), build.getId(), root.getId());
+        assertThat(stale).isEmpty();
+        assertThat(moved).hasValueSatisfying(row -> assertThat(row.getVersion()).isEqualTo(build.getVersion() + 1));
+        assertThat(taskRepository.findSubtree(other.getId(), accountId, 10, 100))
+            .extracting(UserTaskTreeProjection::getTitle)
+            .containsExactly("Ops", "Build", "Compile");
+        assertThat(taskRepository.findSubtree(root.getId(), accountId, 10, 100)).hasSize(1);
+    }
+    
+    @Test
+    void findSubtreeSchedule_ShouldReturnSchedulingFieldsOfLiveSubtree() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        Task root = saveTask("Release", accountId, null);
+        Task build = saveTask("Build", accountId, root);
+        build.setEstimateMinutes(120);
+        build.setStartAt(ZonedDateTime.parse("2026-03-02T09:00:00Z"));
+        taskRepository.saveAndFlush(build);
+        Task removed = saveTask("Removed", accountId, root);
+        removed.setDeletedAt(ZonedDateTime.now());
+        taskRepository.saveAndFlush(removed);
+        saveTask("Ops", accountId, null);
+        
+        // When
+        List<TaskScheduleProjection> rows = taskRepository.findSubtreeSchedule(root.getId(), accountId, 10, 100);
+        
+        // Then
+        assertThat(rows).extracting(TaskScheduleProjection::getId).containsExactly(root.getId(), build.getId());
+        assertThat(rows.get(1).getEstimateMinutes()).isEqualTo(120);
+        assertThat(rows.get(1).getStartAt()).isEqualTo(Instant.parse("2026-03-02T09:00:00Z"));
+        assertThat(rows.get(1).getStatusId()).isEqualTo(todoStatus.getId());
+    }
+    
+    @Test
+    void rollups_ShouldWalkLiveAncestorsAndIncrementThemInOneStatement() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        Task root = saveTask("Release", accountId, null);
+        Task build = saveTask("Build", accountId, root);
+        Task compile = saveTask("Compile", accountId, build);
+        Task removed = saveTask("Removed", accountId, root);
+        removed.setDeletedAt(ZonedDateTime.now());
+        taskRepository.saveAndFlush(removed);
+        Task underRemoved = saveTask("Under removed", accountId, removed);
+        
+        // When
+        List<TaskRollupPath> paths = taskRepository.findRollupPaths(
+            List.of(compile.getId(), underRemoved.getId(), root.getId()), accountId, 10);
+        int updated = taskRepository.addToRollups(accountId, paths.get(0).ancestorIds(),
+            new TaskRollup(30, 5, new BigDecimal("1.5")));
+        
+        // Then
+        assertThat(paths).singleElement().satisfies(path -> {
+            assertThat(path.taskId()).isEqualTo(compile.getId());
+            assertThat(path.ancestorIds()).containsExactly(build.getId(), root.getId());
+        });
+        assertThat(updated).isEqualTo(2);
+        UserTaskDetailProjection rootDetail = taskRepository.findUserTaskDetail(root.getId(), accountId).orElseThrow();
+        assertThat(rootDetail.getRollupEstimateMinutes()).isEqualTo(30L);
+        assertThat(rootDetail.getRollupSpentMinutes()).isEqualTo(5L);
+        assertThat(rootDetail.getRollupPoints()).isEqualByComparingTo("1.5");
+        assertThat(rootDetail.getVersion()).isEqualTo(root.getVersion());
+    }
+    
+    @Test
+    void ranks_ShouldFindNeighborsRebalanceSiblingsAndWriteOneRow() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        RankScope scope = RankScope.tasks(accountId);
+        Task project = saveTask("Project", accountId, null);
+        Task design = saveTask("Design", accountId, project, TaskConstants.RANK_GAP);
+        Task build = saveTask("Build", accountId, project, TaskConstants.RANK_GAP + 1);
+        Task release = saveTask("Release", accountId, project, 3 * TaskConstants.RANK_GAP);
+        Task other = saveTask("Other project", accountId, null);
+        
+        // When
+        RankNeighbors crowded = taskRepository.findRankNeighbors(scope, release.getId(), design.getId()).orElseThrow();
+        int rebalanced = taskRepository.rebalanceRanks(scope, release.getId());
+        RankNeighbors spread = taskRepository.findRankNeighbors(scope, release.getId(), design.getId()).orElseThrow();
+        Optional<UserTaskDetailProjection> reordered = taskRepository.reorderTask(release.getId(), accountId,
+            spread.rankBetween(), release.getVersion(), ZonedDateTime.now());
+        
+        // Then
+        assertThat(crowded).isEqualTo(new RankNeighbors(TaskConstants.RANK_GAP, TaskConstants.RANK_GAP + 1));
+        assertThat(crowded.rankBetween()).isNull();
+        assertThat(rebalanced).isEqualTo(2);
+        assertThat(spread).isEqualTo(new RankNeighbors(TaskConstants.RANK_GAP, 2 * TaskConstants.RANK_GAP));
+        assertThat(reordered).hasValueSatisfying(row -> assertThat(row.getVersion()).isEqualTo(release.getVersion() + 1));
+        assertThat(taskRepository.findSubtree(project.getId(), accountId, 1, 100))
+            .extracting(UserTaskTreeProjection::getTitle)
+            .containsExactly("Project", "Design", "Release", "Build");
+        assertThat(taskRepository.findRankNeighbors(scope, release.getId(), other.getId())).isEmpty();
+        assertThat(taskRepository.findRankNeighbors(scope, release.getId(), null))
+            .contains(new RankNeighbors(null, TaskConstants.RANK_GAP));
+    }
+    
+    @Test
+    void findUserTasksSlice_SortedByRank_ShouldListTopLevelTasksInManualOrder() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        saveTask("Release", accountId, null, 3 * TaskConstants.RANK_GAP);
+        saveTask("Design", accountId, null, TaskConstants.RANK_GAP);
+        saveTask("Build", accountId, null, 2 * TaskConstants.RANK_GAP);
+        
+        // When
+        Slice<UserTaskListProjection> tasks = taskRepository.findUserTasksSlice(accountId,
+            new TaskListFilter(null, null, null, null), false, PageRequest.of(0, 10, Sort.by("rank")));
+        
+        // Then
+        assertThat(tasks.getContent()).extracting(UserTaskListProjection::getTitle)
+            .containsExactly("Design", "Build", "Release");
+    }
+    
+    @Test
+    void updateRank_ShouldOnlyMoveChecklistsOfTheGivenTaskAndAccount() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        Task task = saveTask("Release", accountId, null);
+        Checklist first = saveChecklist(task, "Before", 10L);
+        Checklist second = saveChecklist(task, "After", 20L);
+        
+        // When
+        Optional<RankNeighbors> neighbors = taskRepository.findRankNeighbors(
+            RankScope.checklists(accountId, task.getId()), first.getId(), second.getId());
+        int moved = taskRepository.updateRank(RankScope.checklists(accountId, task.getId()), first.getId(), 30L);
+        int otherAccount = taskRepository.updateRank(RankScope.checklists(UUID.randomUUID(), task.getId()),
+            first.getId(), 40L);
+        
+        // Then
+        assertThat(neighbors).contains(new RankNeighbors(20L, null));
+        assertThat(moved).isEqualTo(1);
+        assertThat(otherAccount).isZero();
+        assertThat(checklistRepository.findByTaskIdOrderByOrderIndex(task.getId()))
+            .extracting(Checklist::getTitle)
+            .containsExactly("After", "Before");
+    }
+    
+    private Checklist saveChecklist(Task task, String title, long rank) {
+        Checklist checklist = new Checklist();
+        checklist.setTask(task);
+        checklist.setTitle(title);
+        checklist.setOrderIndex(rank);
+        return checklistRepository.saveAndFlush(checklist);
+    }
+    
+    private Task saveTask(String title, UUID accountId, Task parent) {
+        return saveTask(title, accountId, parent, 0L);
+    }
+    
+    private Task saveTask(String title, UUID accountId, Task parent, long rank) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(todoStatus);
+        task.setPriority(mediumPriority);
+        task.setAccountId(accountId);
+        task.setParentTask(parent);
+        task.setOrderIndex(rank);
+        task.setExtras(new HashMap<>());
+        return taskRepository.saveAndFlush(task);
+    }
 }
\ No newline at end of file
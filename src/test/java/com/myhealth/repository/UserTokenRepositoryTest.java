@@ -0,0 +1,107 @@
+package com.myhealth.repository;
+
+import com.myhealth.model.UserToken;
+import com.myhealth.security.TokenDigest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UserTokenRepositoryTest {
+    
+    @Autowired
+    private UserTokenRepository userTokenRepository;
+    
+    @Test
+    void rotate_ShouldConsumeLiveTokenOnlyOnce() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        saveToken(userId, "current", LocalDateTime.now().plusHours(1));
+        
+        // When
+        boolean first = userTokenRepository.rotate(hash("current"), userId, hash("next"), LocalDateTime.now().plusHours(1));
+        boolean second = userTokenRepository.rotate(hash("current"), userId, hash("other"), LocalDateTime.now().plusHours(1));
+        
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(userTokenRepository.findByRefreshToken("current")).isEmpty();
+        assertThat(userTokenRepository.findByRefreshToken("next")).isPresent();
+    }
+    
+    @Test
+    void rotate_WithExpiredOrForeignToken_ShouldNotConsume() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        saveToken(userId, "expired", LocalDateTime.now().minusMinutes(1));
+        saveToken(userId, "owned", LocalDateTime.now().plusHours(1));
+        
+        // When & Then
+        assertThat(userTokenRepository.rotate(hash("expired"), userId, hash("next-1"), LocalDateTime.now().plusHours(1))).isFalse();
+        assertThat(userTokenRepository.rotate(hash("owned"), UUID.randomUUID(), hash("next-2"), LocalDateTime.now().plusHours(1))).isFalse();
+        assertThat(userTokenRepository.count()).isEqualTo(2);
+    }
+    
+    @Test
+    void deleteExpiredBatch_ShouldDeleteOnlyExpiredRowsUpToBatchSize() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            saveToken(userId, "expired-" + i, LocalDateTime.now().minusHours(i + 1));
+        }
+        saveToken(userId, "live", LocalDateTime.now().plusHours(1));
+        
+        // When
+        int firstBatch = userTokenRepository.deleteExpiredBatch(LocalDateTime.now(), 2);
+        int secondBatch = userTokenRepository.deleteExpiredBatch(LocalDateTime.now(), 2);
+        
+        // Then
+        assertThat(firstBatch).isEqualTo(2);
+        assertThat(secondBatch).isEqualTo(1);
+        assertThat(userTokenRepository.count()).isEqualTo(1);
+        assertThat(userTokenRepository.findByRefreshToken("live")).isPresent();
+    }
+    
+    @Test
+    void trimActiveTokens_ShouldKeepNewestTokens() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        for (int i = 0; i < 4; i++) {
+            UserToken token = saveToken(userId, "token-" + i, LocalDateTime.now().plusHours(1));
+            token.setCreatedAt(LocalDateTime.now().minusMinutes(10 - i));
+        }
+        saveToken(otherUserId, "other", LocalDateTime.now().plusHours(1));
+        userTokenRepository.flush();
+        
+        // When
+        int deleted = userTokenRepository.trimActiveTokens(userId, 2);
+        
+        // Then
+        assertThat(deleted).isEqualTo(2);
+        assertThat(userTokenRepository.count()).isEqualTo(3);
+        assertThat(userTokenRepository.findByRefreshToken("token-0")).isEmpty();
+        assertThat(userTokenRepository.findByRefreshToken("token-1")).isEmpty();
+        assertThat(userTokenRepository.findByRefreshToken("token-3")).isPresent();
+        assertThat(userTokenRepository.findByRefreshToken("other")).isPresent();
+    }
+    
+    private UserToken saveToken(UUID userId, String refreshToken, LocalDateTime expiresAt) {
+        UserToken token = new UserToken();
+        token.setUserId(userId);
+        token.setRefreshTokenHash(TokenDigest.sha256(refreshToken));
+        token.setExpiresAt(expiresAt);
+        return userTokenRepository.save(token);
+    }
+    
+    private static byte[] hash(String refreshToken) {
+        return TokenDigest.sha256(refreshToken);
+    }
+}
@@ -0,0 +1,57 @@
+package com.myhealth.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new BoundedPasswordEncoder(5, 250, 4, 12, 2, 4, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void encode_ShouldProduceHashThatMatches() {
+        // When
+        String hash = encoder.encode("password123");
+
+        // Then
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(encoder.matches("password123", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    void upgradeEncoding_ShouldFlagHashesWithDifferentCostInBothDirections() {
+        // Given
+        String weaker = new BCryptPasswordEncoder(4).encode("password123");
+        String stronger = new BCryptPasswordEncoder(6).encode("password123");
+        String current = encoder.encode("password123");
+
+        // Then
+        assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(stronger)).isTrue();
+        assertThat(encoder.upgradeEncoding(current)).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void calibrateStrength_ShouldStayWithinBounds() {
+        // When
+        int strength = BoundedPasswordEncoder.calibrateStrength(10000, 4, 6);
+
+        // Then
+        assertThat(strength).isBetween(4, 6);
+    }
+}
@@ -0,0 +1,63 @@
+package com.myhealth.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContainsRoleAuthorizationManagerTest {
+
+    private final RequestAuthorizationContext context =
+            new RequestAuthorizationContext(new MockHttpServletRequest("GET", "/api/admin/users"));
+
+    @Test
+    void check_WithRoleMaskPrincipal_ShouldKeepContainsSemantics() {
+        ContainsRoleAuthorizationManager adminOnly = new ContainsRoleAuthorizationManager("ADMIN");
+        ContainsRoleAuthorizationManager userOrAdmin = new ContainsRoleAuthorizationManager("USER", "ADMIN");
+
+        assertThat(adminOnly.check(() -> apiUser("ROLE_SUPER_ADMIN"), context).isGranted()).isTrue();
+        assertThat(adminOnly.check(() -> apiUser("ROLE_USER"), context).isGranted()).isFalse();
+        assertThat(userOrAdmin.check(() -> apiUser("user_manager"), context).isGranted()).isTrue();
+        assertThat(userOrAdmin.check(() -> apiUser("ROLE_COACH"), context).isGranted()).isFalse();
+    }
+
+    @Test
+    void check_WithOtherPrincipal_ShouldFallBackToAuthorityScan() {
+        ContainsRoleAuthorizationManager adminOnly = new ContainsRoleAuthorizationManager("ADMIN");
+        TestingAuthenticationToken admin = new TestingAuthenticationToken("admin", null, "ROLE_ADMIN");
+        TestingAuthenticationToken user = new TestingAuthenticationToken("user", null, "ROLE_USER");
+
+        assertThat(adminOnly.check(() -> admin, context).isGranted()).isTrue();
+        assertThat(adminOnly.check(() -> user, context).isGranted()).isFalse();
+    }
+
+    @Test
+    void check_WithUnknownKeyword_ShouldFallBackToAuthorityScan() {
+        ContainsRoleAuthorizationManager coachOnly = new ContainsRoleAuthorizationManager("COACH");
+
+        assertThat(coachOnly.check(() -> apiUser("ROLE_HEAD_COACH"), context).isGranted()).isTrue();
+        assertThat(coachOnly.check(() -> apiUser("ROLE_USER"), context).isGranted()).isFalse();
+    }
+
+    @Test
+    void check_WithoutAuthentication_ShouldDeny() {
+        ContainsRoleAuthorizationManager adminOnly = new ContainsRoleAuthorizationManager("ADMIN");
+
+        assertThat(adminOnly.check(() -> null, context).isGranted()).isFalse();
+    }
+
+    private static Authentication apiUser(String role) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+        ApiUserDetail principal = new ApiUserDetail(UUID.randomUUID(), "user", null, authorities,
+                true, true, true, true);
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+}
@@ -0,0 +1,139 @@
+package com.myhealth.security;
+
+import com.myhealth.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptTrackerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private LoginAttemptTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new LoginAttemptTracker(userRepository, true, 60000, 3, 5, 1000);
+    }
+
+    @Test
+    void isThrottled_AfterTooManyFailuresForUsername_ShouldReturnTrue() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure("user@example.com", "10.0.0." + i, true);
+        }
+
+        // Then
+        assertThat(tracker.isThrottled("user@example.com", "10.0.0.99")).isTrue();
+        assertThat(tracker.isThrottled("other@example.com", "10.0.0.99")).isFalse();
+    }
+
+    @Test
+    void isThrottled_AfterTooManyFailuresFromIp_ShouldReturnTrueForAnyUsername() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            tracker.recordFailure("user" + i + "@example.com", "10.0.0.1", true);
+        }
+
+        // Then
+        assertThat(tracker.isThrottled("fresh@example.com", "10.0.0.1")).isTrue();
+        assertThat(tracker.isThrottled("fresh@example.com", "10.0.0.2")).isFalse();
+    }
+
+    @Test
+    void recordSuccess_ShouldClearUsernameWindow() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure("user@example.com", "10.0.0.1", true);
+        }
+
+        // When
+        tracker.recordSuccess("user@example.com");
+
+        // Then
+        assertThat(tracker.isThrottled("user@example.com", "10.0.0.2")).isFalse();
+    }
+
+    @Test
+    void flush_ShouldWriteCollectedChangesInOneBatch() {
+        // Given
+        tracker.recordFailure("user@example.com", "10.0.0.1", true);
+        tracker.recordFailure("user@example.com", "10.0.0.1", true);
+        tracker.recordFailure("ok@example.com", "10.0.0.1", true);
+        tracker.recordSuccess("ok@example.com");
+
+        // When
+        tracker.flush();
+
+        // Then
+        verify(userRepository).applyLoginAttempts(List.of("ok@example.com"), Map.of("user@example.com", 2));
+    }
+
+    @Test
+    void recordFailure_ForUnknownUsername_ShouldCountOnlyTowardIp() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            tracker.recordFailure("nobody@example.com", "10.0.0.1", false);
+        }
+
+        // When
+        tracker.flush();
+
+        // Then
+        assertThat(tracker.isThrottled("nobody@example.com", "10.0.0.2")).isFalse();
+        assertThat(tracker.isThrottled("nobody@example.com", "10.0.0.1")).isTrue();
+        verify(userRepository, never()).applyLoginAttempts(any(), any());
+    }
+
+    @Test
+    void recordFailure_ForSprayOfUnknownUsernames_ShouldNotThrottleExistingUser() {
+        // Given
+        for (int i = 0; i < 10000; i++) {
+            tracker.recordFailure("random" + i + "@example.com", "10.1." + (i / 250) + "." + (i % 250), false);
+        }
+
+        // Then
+        assertThat(tracker.isThrottled("user@example.com", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void recordFailure_WhenTrackingIsFull_ShouldNotAddKeys() {
+        // Given
+        LoginAttemptTracker small = new LoginAttemptTracker(userRepository, true, 60000, 1, 100, 2);
+        small.recordFailure("a@example.com", null, true);
+        small.recordFailure("b@example.com", null, true);
+
+        // When
+        small.recordFailure("c@example.com", null, true);
+
+        // Then
+        assertThat(small.isThrottled("a@example.com", null)).isTrue();
+        assertThat(small.isThrottled("c@example.com", null)).isFalse();
+    }
+
+    @Test
+    void disabledTracker_ShouldNeverThrottleOrWrite() {
+        // Given
+        LoginAttemptTracker disabled = new LoginAttemptTracker(userRepository, false, 60000, 1, 1, 1000);
+        disabled.recordFailure("user@example.com", "10.0.0.1", true);
+
+        // When
+        disabled.flush();
+
+        // Then
+        assertThat(disabled.isThrottled("user@example.com", "10.0.0.1")).isFalse();
+        verify(userRepository, never()).applyLoginAttempts(any(), any());
+    }
+}
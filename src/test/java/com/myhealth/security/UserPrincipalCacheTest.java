@@ -0,0 +1,74 @@
+package com.myhealth.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPrincipalCacheTest {
+
+    @Test
+    void invalidate_ShouldForceReloadByIdAndUsername() {
+        // Given
+        UserPrincipalCache cache = new UserPrincipalCache(60000, 100);
+        ApiUserDetail principal = principal(UUID.randomUUID(), "user@example.com");
+        AtomicInteger loads = new AtomicInteger();
+        cache.put(principal);
+
+        // When
+        cache.invalidate(principal.getId());
+
+        // Then
+        cache.getById(principal.getId(), id -> {
+            loads.incrementAndGet();
+            return principal;
+        });
+        cache.getByUsername("user@example.com", username -> {
+            loads.incrementAndGet();
+            return principal;
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidate_WithReassignedUsername_ShouldDropPrincipalOfPreviousOwner() {
+        // Given
+        UserPrincipalCache cache = new UserPrincipalCache(60000, 100);
+        ApiUserDetail previousOwner = principal(UUID.randomUUID(), "user@example.com");
+        ApiUserDetail newOwner = principal(UUID.randomUUID(), "user@example.com");
+        cache.put(previousOwner);
+
+        // When
+        cache.invalidate(newOwner.getId(), newOwner.getUsername());
+        ApiUserDetail result = cache.getByUsername("user@example.com", username -> newOwner);
+
+        // Then
+        assertThat(result).isSameAs(newOwner);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void getById_WhenInvalidatedDuringLoad_ShouldNotCacheStalePrincipal() {
+        // Given
+        UserPrincipalCache cache = new UserPrincipalCache(60000, 100);
+        UUID userId = UUID.randomUUID();
+
+        // When
+        cache.getById(userId, id -> {
+            cache.invalidate(id);
+            return principal(id, "user@example.com");
+        });
+
+        // Then
+        assertThat(cache.size()).isZero();
+    }
+
+    private static ApiUserDetail principal(UUID id, String username) {
+        return new ApiUserDetail(id, username, "hash", List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                true, true, true, true);
+    }
+}
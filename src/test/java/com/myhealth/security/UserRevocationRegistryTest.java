@@ -0,0 +1,68 @@
+package com.myhealth.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRevocationRegistryTest {
+
+    private UserRevocationRegistry registry;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        registry = new UserRevocationRegistry();
+        ReflectionTestUtils.setField(registry, "accessTokenExpirationMs", 900000L);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void isRevoked_WithoutEntry_ShouldReturnFalse() {
+        assertThat(registry.isRevoked(userId, new Date())).isFalse();
+    }
+
+    @Test
+    void revoke_ShouldRejectTokensIssuedBeforeRevocation() {
+        // Given
+        Date issuedBefore = new Date(System.currentTimeMillis() - 60000);
+
+        // When
+        registry.revoke(userId);
+
+        // Then
+        assertThat(registry.isRevoked(userId, issuedBefore)).isTrue();
+        assertThat(registry.isRevoked(userId, new Date(System.currentTimeMillis() + 5000))).isFalse();
+    }
+
+    @Test
+    void block_ShouldRejectAllTokensUntilUnblocked() {
+        // When
+        registry.block(userId);
+
+        // Then
+        assertThat(registry.isRevoked(userId, new Date(System.currentTimeMillis() + 60000))).isTrue();
+
+        registry.unblock(userId);
+        assertThat(registry.isRevoked(userId, new Date())).isFalse();
+    }
+
+    @Test
+    void unblock_ShouldKeepEarlierRevocation() {
+        // Given
+        Date issuedBefore = new Date(System.currentTimeMillis() - 60000);
+        registry.revoke(userId);
+
+        // When
+        registry.block(userId);
+        registry.unblock(userId);
+
+        // Then
+        assertThat(registry.isRevoked(userId, issuedBefore)).isTrue();
+        assertThat(registry.isRevoked(userId, new Date(System.currentTimeMillis() + 5000))).isFalse();
+    }
+}
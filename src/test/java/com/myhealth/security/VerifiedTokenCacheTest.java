@@ -0,0 +1,90 @@
+package com.myhealth.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void get_ShouldVerifyTokenOnlyOnceWhileValid() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, VerifiedToken> verifier = countingVerifier(verifications, 60000);
+
+        // When
+        VerifiedToken first = cache.get("token-a", verifier);
+        VerifiedToken second = cache.get("token-a", verifier);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_WithExpiredToken_ShouldNotCache() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, VerifiedToken> verifier = countingVerifier(verifications, -1000);
+
+        // When
+        VerifiedToken verified = cache.get("token-a", verifier);
+        cache.get("token-a", verifier);
+
+        // Then
+        assertThat(verified.isExpired()).isTrue();
+        assertThat(verifications).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_WhenFull_ShouldStillVerifyWithoutCaching() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(1);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, VerifiedToken> verifier = countingVerifier(verifications, 60000);
+        cache.get("token-a", verifier);
+
+        // When
+        VerifiedToken verified = cache.get("token-b", verifier);
+
+        // Then
+        assertThat(verified).isNotNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_WhenVerificationFails_ShouldNotCache() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        // When & Then
+        assertThatThrownBy(() -> cache.get("bad-token", token -> {
+            throw new JwtException("Invalid signature");
+        })).isInstanceOf(JwtException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    private static Function<String, VerifiedToken> countingVerifier(AtomicInteger verifications, long expiresInMs) {
+        return token -> {
+            verifications.incrementAndGet();
+            Claims claims = Jwts.claims()
+                    .subject(UUID.randomUUID().toString())
+                    .expiration(new Date(System.currentTimeMillis() + expiresInMs))
+                    .build();
+            return new VerifiedToken(claims);
+        };
+    }
+}
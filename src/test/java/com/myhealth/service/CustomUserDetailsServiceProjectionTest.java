@@ -3,11 +3,14 @@ package com.myhealth.service;
 import com.myhealth.impl.CustomUserDetailsServiceImpl;
 import com.myhealth.projection.UserLoginProjection;
 import com.myhealth.repository.UserRepository;
+import com.myhealth.security.ApiUserDetail;
+import com.myhealth.security.UserPrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -22,6 +25,10 @@ public class CustomUserDetailsServiceProjectionTest {
     @Mock
     private UserRepository userRepository;
     
+    // TTL of 0 disables caching so every call below reaches the repository
+    @Spy
+    private UserPrincipalCache userPrincipalCache = new UserPrincipalCache(0, 0);
+    
     @InjectMocks
     private CustomUserDetailsServiceImpl userDetailsService;
     
@@ -136,4 +143,38 @@ public class CustomUserDetailsServiceProjectionTest {
         // Then
         assertFalse(result.isEnabled());
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testLoadUserByUsername_CachedPrincipal_SkipsRepository() {
+        // Given
+        CustomUserDetailsServiceImpl cachingService =
+                new CustomUserDetailsServiceImpl(userRepository, new UserPrincipalCache(60000, 100));
+        when(userRepository.findByUsernameForLogin("test@example.com"))
+                .thenReturn(Optional.of(userProjection));
+        
+        // When
+        UserDetails first = cachingService.loadUserByUsername("test@example.com");
+        UserDetails second = cachingService.loadUserByUsername("test@example.com");
+        ApiUserDetail byId = cachingService.loadUserById(((ApiUserDetail) first).getId());
+        
+        // Then
+        assertSame(first, second);
+        assertSame(first, byId);
+        verify(userRepository, times(1)).findByUsernameForLogin("test@example.com");
+        verify(userRepository, never()).findByIdForLogin(any());
+    }
+    
+    @Test
+    public void testLoadUserById_Success() {
+        // Given
+        UUID userId = userProjection.getId();
+        when(userRepository.findByIdForLogin(userId)).thenReturn(Optional.of(userProjection));
+        
+        // When
+        ApiUserDetail result = userDetailsService.loadUserById(userId);
+        
+        // Then
+        assertEquals(userId, result.getId());
+        assertEquals("test@example.com", result.getUsername());
+    }
+}
@@ -3,6 +3,9 @@ package com.myhealth.service;
 import com.myhealth.exception.UnauthorizedException;
 import com.myhealth.impl.JwtTokenServiceImpl;
 import com.myhealth.repository.UserTokenRepository;
+import com.myhealth.security.JwtKeyRing;
+import com.myhealth.security.VerifiedTokenCache;
+import com.myhealth.security.UserRevocationRegistry;
 import com.myhealth.security.ApiUserDetail;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,7 +36,9 @@ class JwtTokenServiceGetLoggedInUserIdTest {
 
     @BeforeEach
     void setUp() {
-        jwtTokenService = new JwtTokenServiceImpl(userTokenRepository);
+        jwtTokenService = new JwtTokenServiceImpl(userTokenRepository, new UserRevocationRegistry(),
+                new JwtKeyRing("mySecretKeyForTestingPurposesOnly123456789", "test", "", ""),
+                new VerifiedTokenCache(100));
     }
 
     @Test
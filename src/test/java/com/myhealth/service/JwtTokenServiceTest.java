@@ -2,7 +2,14 @@ package com.myhealth.service;
 
 import com.myhealth.impl.JwtTokenServiceImpl;
 import com.myhealth.repository.UserTokenRepository;
+import com.myhealth.security.JwtKeyRing;
+import com.myhealth.security.TokenDigest;
+import com.myhealth.security.VerifiedTokenCache;
+import com.myhealth.security.UserRevocationRegistry;
+import com.myhealth.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,10 +18,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class JwtTokenServiceTest {
@@ -28,8 +42,9 @@ class JwtTokenServiceTest {
 
     @BeforeEach
     void setUp() {
-        jwtTokenService = new JwtTokenServiceImpl(userTokenRepository);
-        ReflectionTestUtils.setField(jwtTokenService, "secret", testSecret);
+        jwtTokenService = new JwtTokenServiceImpl(userTokenRepository, new UserRevocationRegistry(),
+                new JwtKeyRing(testSecret, "test", "", ""),
+                new VerifiedTokenCache(100));
         ReflectionTestUtils.setField(jwtTokenService, "accessTokenExpirationMs", accessTokenExpiration);
         ReflectionTestUtils.setField(jwtTokenService, "refreshTokenExpirationMs", 86400000L);
     }
@@ -51,6 +66,21 @@ class JwtTokenServiceTest {
         assertThat(claims.get("authorities")).isEqualTo(List.of("ROLE_USER"));
     }
 
+    @Test
+    void generateAccessToken_ShouldIncludeUsernameClaim() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+        // When
+        String token = jwtTokenService.generateAccessToken(userId, "testuser", authorities);
+
+        // Then
+        Claims claims = jwtTokenService.parseClaims(token);
+        assertThat(claims.get(JwtTokenService.USERNAME_CLAIM)).isEqualTo("testuser");
+        assertThat(claims.get(JwtTokenService.AUTHORITIES_CLAIM)).isEqualTo(List.of("ROLE_USER"));
+    }
+
     @Test
     void getUserId_ShouldReturnCorrectUserId() {
         // Given
@@ -102,4 +132,65 @@ class JwtTokenServiceTest {
         // Then
         assertThat(claims.getSubject()).isEqualTo(userId.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void verify_ShouldReturnClaimsAndExpiryFlagFromSingleParse() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        ReflectionTestUtils.setField(jwtTokenService, "accessTokenExpirationMs", -1000L);
+        String token = jwtTokenService.generateAccessToken(userId, "testuser", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        // When
+        VerifiedToken verifiedToken = jwtTokenService.verify(token);
+
+        // Then
+        assertThat(verifiedToken.isExpired()).isTrue();
+        assertThat(verifiedToken.getUserId()).isEqualTo(userId);
+        assertThat(verifiedToken.getUsername()).isEqualTo("testuser");
+        assertThat(verifiedToken.getAuthorities()).containsExactly(new SimpleGrantedAuthority("ROLE_USER"));
+        assertThatThrownBy(() -> jwtTokenService.verifyAccessToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void verify_ShouldAcceptTokensSignedWithPreviousKeyDuringRotation() {
+        // Given a token signed before the rotation
+        UUID userId = UUID.randomUUID();
+        String token = jwtTokenService.generateAccessToken(userId, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        JwtTokenServiceImpl rotatedService = new JwtTokenServiceImpl(userTokenRepository, new UserRevocationRegistry(),
+                new JwtKeyRing("aNewSecretKeyForTestingPurposesOnly987654321", "next", testSecret, "test"),
+                new VerifiedTokenCache(100));
+        ReflectionTestUtils.setField(rotatedService, "accessTokenExpirationMs", accessTokenExpiration);
+
+        // When & Then
+        assertThat(rotatedService.getUserId(token)).isEqualTo(userId);
+        String rotatedToken = rotatedService.generateAccessToken(userId, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        assertThatThrownBy(() -> jwtTokenService.verify(rotatedToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rotateRefreshToken_WhenConsumed_ShouldReturnNewToken() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(userTokenRepository.rotate(aryEq(TokenDigest.sha256("old-token")), eq(userId), any(byte[].class), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        // When
+        Optional<String> rotated = jwtTokenService.rotateRefreshToken("old-token", userId);
+
+        // Then
+        assertThat(rotated).isPresent();
+        assertThat(rotated.get()).isNotEqualTo("old-token").hasSize(43);
+    }
+
+    @Test
+    void rotateRefreshToken_WhenNothingConsumed_ShouldReturnEmpty() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(userTokenRepository.rotate(aryEq(TokenDigest.sha256("old-token")), eq(userId), any(byte[].class), any(LocalDateTime.class)))
+                .thenReturn(false);
+
+        // When & Then
+        assertThat(jwtTokenService.rotateRefreshToken("old-token", userId)).isEmpty();
+    }
+}
@@ -0,0 +1,196 @@
+package com.myhealth.service;
+
+import com.myhealth.cache.TaskDependencyGraph;
+import com.myhealth.cache.TaskDependencyGraphCache;
+import com.myhealth.cache.TaskSchedule;
+import com.myhealth.cache.TaskScheduleCache;
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.UserTaskDependenciesResponse;
+import com.myhealth.dto.task.UserTaskScheduleResponse;
+import com.myhealth.entity.task.DependencyType;
+import com.myhealth.entity.task.Status;
+import com.myhealth.entity.task.Task;
+import com.myhealth.entity.task.TaskDependency;
+import com.myhealth.impl.TaskDependencyServiceImpl;
+import com.myhealth.projection.task.TaskScheduleProjection;
+import com.myhealth.repository.TaskDependencyRepository;
+import com.myhealth.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDependencyServiceImplTest {
+    
+    @Mock
+    private TaskRepository taskRepository;
+    
+    @Mock
+    private TaskDependencyRepository taskDependencyRepository;
+    
+    @Mock
+    private TaskDependencyGraphCache taskDependencyGraphCache;
+    
+    @Mock
+    private TaskScheduleCache taskScheduleCache;
+    
+    @Mock
+    private JwtTokenService jwtTokenService;
+    
+    @InjectMocks
+    private TaskDependencyServiceImpl taskDependencyService;
+    
+    private UUID userId;
+    private UUID taskId;
+    private UUID dependsOnId;
+    
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        taskId = UUID.randomUUID();
+        dependsOnId = UUID.randomUUID();
+        when(jwtTokenService.getLoggedInUserId()).thenReturn(userId);
+    }
+    
+    @Test
+    void addDependency_ShouldCheckGraphThenSave() {
+        // Given
+        when(taskRepository.findAllByIdInAndAccountId(anyCollection(), eq(userId)))
+            .thenReturn(List.of(task(taskId, (short) 2), task(dependsOnId, (short) 3)));
+        when(taskDependencyGraphCache.addDependency(userId, taskId, (short) 2, dependsOnId, (short) 3, DependencyType.FS))
+            .thenReturn(true);
+        TaskDependencyGraph graph = new TaskDependencyGraph(2);
+        graph.addDependency(taskId, TaskDependencyGraph.Progress.NOT_STARTED, dependsOnId,
+            TaskDependencyGraph.Progress.STARTED, DependencyType.FS);
+        when(taskDependencyGraphCache.get(userId)).thenReturn(graph);
+        
+        // When
+        UserTaskDependenciesResponse response = taskDependencyService.addDependency(taskId, dependsOnId, DependencyType.FS);
+        
+        // Then
+        assertThat(response.isBlocked()).isTrue();
+        assertThat(response.getBlockedBy()).containsExactly(dependsOnId);
+        InOrder inOrder = inOrder(taskRepository, taskDependencyRepository);
+        inOrder.verify(taskRepository).lockTaskHierarchy(userId);
+        inOrder.verify(taskDependencyRepository).countDependencyPath(dependsOnId, taskId);
+        inOrder.verify(taskDependencyRepository).save(any(TaskDependency.class));
+        verify(taskDependencyGraphCache, never()).invalidate(userId);
+        verify(taskScheduleCache).invalidate(userId);
+    }
+    
+    @Test
+    void addDependency_WhenCachedGraphIsStale_ShouldTrustTheDatabaseAndDropTheGraph() {
+        // Given
+        when(taskRepository.findAllByIdInAndAccountId(anyCollection(), eq(userId)))
+            .thenReturn(List.of(task(taskId, (short) 2), task(dependsOnId, (short) 2)));
+        when(taskDependencyGraphCache.addDependency(userId, taskId, (short) 2, dependsOnId, (short) 2, DependencyType.FS))
+            .thenReturn(false);
+        when(taskDependencyGraphCache.get(userId)).thenReturn(new TaskDependencyGraph(2));
+        
+        // When
+        taskDependencyService.addDependency(taskId, dependsOnId, DependencyType.FS);
+        
+        // Then
+        verify(taskDependencyGraphCache).invalidate(userId);
+        verify(taskDependencyRepository).save(any(TaskDependency.class));
+    }
+    
+    @Test
+    void addDependency_WhenItWouldCreateACycle_ShouldReturnConflictWithoutSaving() {
+        // Given
+        when(taskRepository.findAllByIdInAndAccountId(anyCollection(), eq(userId)))
+            .thenReturn(List.of(task(taskId, (short) 2), task(dependsOnId, (short) 2)));
+        when(taskDependencyRepository.countDependencyPath(dependsOnId, taskId)).thenReturn(1L);
+        
+        // When & Then
+        assertThatThrownBy(() -> taskDependencyService.addDependency(taskId, dependsOnId, DependencyType.SS))
+            .isInstanceOf(ResponseStatusException.class)
+            .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode().value()).isEqualTo(409));
+        verify(taskDependencyRepository, never()).save(any());
+        verify(taskDependencyGraphCache, never()).addDependency(any(), any(), anyShort(), any(), anyShort(), any());
+    }
+    
+    @Test
+    void getDependencies_ForTaskOutsideGraph_ShouldLookUpTask() {
+        // Given
+        when(taskDependencyGraphCache.get(userId)).thenReturn(new TaskDependencyGraph(0));
+        when(taskRepository.existsByIdAndAccountIdAndDeletedAtIsNull(taskId, userId)).thenReturn(false);
+        
+        // When & Then
+        assertThatThrownBy(() -> taskDependencyService.getDependencies(taskId))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Task not found");
+    }
+    
+    @Test
+    void getSchedule_ShouldScheduleSubtreeWithDependenciesBetweenItsTasks() {
+        // Given
+        UUID outsideId = UUID.randomUUID();
+        when(taskScheduleCache.get(eq(userId), eq(taskId), any())).thenAnswer(invocation ->
+            invocation.<Supplier<TaskSchedule>>getArgument(2).get());
+        List<TaskScheduleProjection> rows = List.of(scheduleRow(taskId, 30), scheduleRow(dependsOnId, 60));
+        when(taskRepository.findSubtreeSchedule(taskId, userId, TaskConstants.MAX_TREE_DEPTH,
+                TaskConstants.MAX_SCHEDULE_SIZE + 1)).thenReturn(rows);
+        when(taskDependencyGraphCache.progressOf((short) 2)).thenReturn(TaskDependencyGraph.Progress.NOT_STARTED);
+        TaskDependencyGraph graph = new TaskDependencyGraph(3);
+        graph.addDependency(taskId, TaskDependencyGraph.Progress.NOT_STARTED, dependsOnId,
+            TaskDependencyGraph.Progress.NOT_STARTED, DependencyType.FS);
+        graph.addDependency(dependsOnId, TaskDependencyGraph.Progress.NOT_STARTED, outsideId,
+            TaskDependencyGraph.Progress.NOT_STARTED, DependencyType.FS);
+        when(taskDependencyGraphCache.get(userId)).thenReturn(graph);
+        
+        // When
+        UserTaskScheduleResponse response = taskDependencyService.getSchedule(taskId);
+        
+        // Then
+        assertThat(response.getDurationMinutes()).isEqualTo(90);
+        assertThat(response.getCriticalPath()).containsExactly(dependsOnId, taskId);
+        assertThat(response.getTasks().get(1).getEarliestStart()).isEqualTo(response.getStart().plusSeconds(3600));
+    }
+    
+    @Test
+    void getSchedule_WhenTaskNotFound_ShouldThrowNotFound() {
+        // Given
+        when(taskScheduleCache.get(eq(userId), eq(taskId), any())).thenAnswer(invocation ->
+            invocation.<Supplier<TaskSchedule>>getArgument(2).get());
+        when(taskRepository.findSubtreeSchedule(eq(taskId), eq(userId), anyInt(), anyInt())).thenReturn(List.of());
+        
+        // When & Then
+        assertThatThrownBy(() -> taskDependencyService.getSchedule(taskId))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Task not found");
+        verify(taskDependencyGraphCache, never()).get(any());
+    }
+    
+    private static TaskScheduleProjection scheduleRow(UUID id, int estimateMinutes) {
+        TaskScheduleProjection row = mock(TaskScheduleProjection.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getStatusId()).thenReturn((short) 2);
+        when(row.getEstimateMinutes()).thenReturn(estimateMinutes);
+        return row;
+    }
+    
+    private static Task task(UUID id, short statusId) {
+        Task task = new Task();
+        task.setId(id);
+        task.setStatus(new Status(statusId, "Status " + statusId, false));
+        return task;
+    }
+}
@@ -0,0 +1,91 @@
+package com.myhealth.service;
+
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.TaskRollup;
+import com.myhealth.dto.task.TaskRollupPath;
+import com.myhealth.impl.TaskRollupServiceImpl;
+import com.myhealth.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskRollupServiceImplTest {
+    
+    @Mock
+    private TaskRepository taskRepository;
+    
+    @InjectMocks
+    private TaskRollupServiceImpl taskRollupService;
+    
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID project = UUID.randomUUID();
+    private final UUID epic = UUID.randomUUID();
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    
+    @Test
+    void ownValuesChanged_ShouldMergeChangesPerAncestorAndGroupEqualDeltas() {
+        // Given
+        TaskRollup change = new TaskRollup(30, 0, null);
+        when(taskRepository.findRollupPaths(anyCollection(), eq(accountId), eq(TaskConstants.MAX_TREE_DEPTH)))
+            .thenReturn(List.of(
+                new TaskRollupPath(first, TaskRollup.ZERO, List.of(epic, project)),
+                new TaskRollupPath(second, TaskRollup.ZERO, List.of(epic, project))));
+        
+        // When
+        taskRollupService.ownValuesChanged(accountId, Map.of(first, change, second, change));
+        
+        // Then
+        verify(taskRepository).addToRollups(eq(accountId), argThat(ids(first, second)), eq(change));
+        verify(taskRepository).addToRollups(eq(accountId), argThat(ids(epic, project)), eq(new TaskRollup(60, 0, null)));
+        verify(taskRepository, times(2)).addToRollups(any(), any(), any());
+    }
+    
+    @Test
+    void detach_ShouldSubtractEachSubtreeFromItsLiveAncestors() {
+        // Given
+        TaskRollup subtree = new TaskRollup(120, 45, new BigDecimal("3.5"));
+        when(taskRepository.findRollupPaths(List.of(first, second), accountId, TaskConstants.MAX_TREE_DEPTH))
+            .thenReturn(List.of(
+                new TaskRollupPath(first, subtree, List.of(epic, project)),
+                new TaskRollupPath(second, TaskRollup.ZERO, List.of(project))));
+        
+        // When
+        taskRollupService.detach(accountId, List.of(first, second));
+        
+        // Then
+        verify(taskRepository).addToRollups(eq(accountId), argThat(ids(epic, project)),
+            eq(new TaskRollup(-120, -45, new BigDecimal("-3.50"))));
+        verify(taskRepository, never()).addToRollups(any(), argThat(ids -> ids.contains(second)), any());
+    }
+    
+    @Test
+    void ownValuesChanged_WithOnlyZeroChanges_ShouldNotQuery() {
+        // When
+        taskRollupService.ownValuesChanged(accountId, Map.of(first, TaskRollup.ZERO));
+        
+        // Then
+        verifyNoInteractions(taskRepository);
+    }
+    
+    private static ArgumentMatcher<Collection<UUID>> ids(UUID... expected) {
+        return ids -> Set.copyOf(ids).equals(Set.of(expected)) && ids.size() == expected.length;
+    }
+}
@@ -1,7 +1,25 @@
 package com.myhealth.service;
 
+import com.myhealth.cache.ReferenceDataCache;
+import com.myhealth.cache.TaskCountCache;
+import com.myhealth.cache.TaskDependencyGraphCache;
+import com.myhealth.cache.TaskScheduleCache;
+import com.myhealth.constants.TaskConstants;
+import com.myhealth.dto.task.CursorPage;
+import com.myhealth.dto.task.RankNeighbors;
+import com.myhealth.dto.task.RankScope;
+import com.myhealth.dto.task.TaskBulkAction;
+import com.myhealth.dto.task.TaskBulkUpdate;
+import com.myhealth.dto.task.TaskCountMode;
+import com.myhealth.dto.task.TaskCursor;
+import com.myhealth.dto.task.TaskListFilter;
+import com.myhealth.dto.task.TaskRollup;
+import com.myhealth.dto.task.UserTaskBatchResponse;
+import com.myhealth.dto.task.UserTaskBatchUpdateItem;
+import com.myhealth.dto.task.UserTaskBulkResponse;
 import com.myhealth.dto.task.UserTaskCreateRequest;
 import com.myhealth.dto.task.UserTaskResponse;
+import com.myhealth.dto.task.UserTaskTreeNode;
 import com.myhealth.dto.task.UserTaskUpdateRequest;
 import com.myhealth.entity.task.Priority;
 import com.myhealth.entity.task.Status;
@@ -9,6 +27,7 @@ import com.myhealth.entity.task.Task;
 import com.myhealth.impl.UserTaskServiceImpl;
 import com.myhealth.projection.task.UserTaskDetailProjection;
 import com.myhealth.projection.task.UserTaskListProjection;
+import com.myhealth.projection.task.UserTaskTreeProjection;
 import com.myhealth.repository.PriorityRepository;
 import com.myhealth.repository.StatusRepository;
 import com.myhealth.repository.TaskRepository;
@@ -16,24 +35,35 @@ import com.myhealth.service.JwtTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +81,24 @@ class UserTaskServiceImplTest {
     @Mock
     private JwtTokenService jwtTokenService;
     
+    @Mock
+    private TaskCountCache taskCountCache;
+    
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+    
+    @Mock
+    private TaskDependencyGraphCache taskDependencyGraphCache;
+    
+    @Mock
+    private TaskScheduleCache taskScheduleCache;
+    
+    @Mock
+    private TaskRollupService taskRollupService;
+    
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    
     @InjectMocks
     private UserTaskServiceImpl userTaskService;
     
@@ -89,18 +137,87 @@ class UserTaskServiceImplTest {
         Page<UserTaskListProjection> projectionPage = new PageImpl<>(List.of(projection));
         Pageable pageable = PageRequest.of(0, 20);
         
-        when(taskRepository.findUserTasksWithFilters(eq(userId), any(), any(), any(), any(), eq(pageable)))
+        when(taskRepository.findUserTasksCounted(eq(userId), any(), eq(false), eq(pageable)))
             .thenReturn(projectionPage);
         
         // When
-        Page<UserTaskResponse> result = userTaskService.getUserTasks(null, null, null, null, pageable);
+        Slice<UserTaskResponse> result = userTaskService.getUserTasks(TaskListFilter.none(), false, pageable, TaskCountMode.EXACT);
         
         // Then
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<UserTaskResponse>) result).getTotalElements()).isEqualTo(1);
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getId()).isEqualTo(taskId);
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Test Task");
     }
     
+    @Test
+    void getUserTasks_WithoutCount_ShouldNotQueryTotal() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 20);
+        when(taskRepository.findUserTasksSlice(eq(userId), any(), eq(false), eq(pageable)))
+            .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        
+        // When
+        Slice<UserTaskResponse> result = userTaskService.getUserTasks(TaskListFilter.none(), false, pageable, TaskCountMode.NONE);
+        
+        // Then
+        assertThat(result).isNotInstanceOf(Page.class);
+        assertThat(result.hasNext()).isFalse();
+        verify(taskRepository, never()).countUserTasks(any(), any());
+        verify(taskRepository, never()).findUserTasksCounted(any(), any(), anyBoolean(), any());
+    }
+    
+    @Test
+    void getUserTasks_WithCachedCount_ShouldUseCachedTotal() {
+        // Given
+        Pageable pageable = PageRequest.of(2, 20);
+        when(taskRepository.findUserTasksSlice(eq(userId), any(), eq(false), eq(pageable)))
+            .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(taskCountCache.get(eq(userId), eq(new TaskListFilter((short) 2, null, null, null)), any()))
+            .thenReturn(1234L);
+        
+        // When
+        Slice<UserTaskResponse> result = userTaskService.getUserTasks(new TaskListFilter((short) 2, null, null, null), false, pageable, TaskCountMode.CACHED);
+        
+        // Then
+        assertThat(((Page<UserTaskResponse>) result).getTotalElements()).isEqualTo(1234L);
+        verify(taskRepository, never()).countUserTasks(any(), any());
+    }
+    
+    @Test
+    void getUserTasksByCursor_WhenMoreRowsExist_ShouldReturnCursorOfLastRow() {
+        // Given
+        Instant createdAt = Instant.parse("2024-01-01T09:00:00.123456Z");
+        UserTaskListProjection first = mock(UserTaskListProjection.class);
+        when(first.getId()).thenReturn(taskId);
+        when(first.getCreatedAt()).thenReturn(createdAt);
+        UserTaskListProjection extra = mock(UserTaskListProjection.class);
+        
+        when(taskRepository.findUserTasksAfter(eq(userId), any(), eq(false), isNull(), eq(true), eq(2)))
+            .thenReturn(List.of(first, extra));
+        
+        // When
+        CursorPage<UserTaskResponse> result = userTaskService.getUserTasksByCursor(TaskListFilter.none(), false, "", 1, true);
+        
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(TaskCursor.decode(result.getNextCursor())).isEqualTo(new TaskCursor(createdAt, taskId, true));
+    }
+    
+    @Test
+    void getUserTasksByCursor_WithCursorForOtherDirection_ShouldThrowBadRequest() {
+        // Given
+        String ascendingCursor = new TaskCursor(Instant.now(), taskId, false).encode();
+        
+        // When & Then
+        assertThatThrownBy(() -> userTaskService.getUserTasksByCursor(TaskListFilter.none(), false, ascendingCursor, 20, true))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Cursor does not match");
+        verify(taskRepository, never()).findUserTasksAfter(any(), any(), anyBoolean(), any(), anyBoolean(), anyInt());
+    }
+    
     @Test
     void createTask_ShouldCreateAndReturnTask() {
         // Given
@@ -108,17 +225,19 @@ class UserTaskServiceImplTest {
         request.setTitle("New Task");
         request.setPriorityId("3");
         
-        Task savedTask = new Task();
-        savedTask.setId(taskId);
-        
-        UserTaskDetailProjection detailProjection = mock(UserTaskDetailProjection.class);
-        when(detailProjection.getId()).thenReturn(taskId);
-        when(detailProjection.getTitle()).thenReturn("New Task");
-        
-        when(statusRepository.findById((short) 2)).thenReturn(Optional.of(todoStatus));
-        when(priorityRepository.findById((short) 3)).thenReturn(Optional.of(mediumPriority));
-        when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
-        when(taskRepository.findUserTaskDetail(taskId, userId)).thenReturn(Optional.of(detailProjection));
+        when(referenceDataCache.status((short) 2))
+            .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 2, "To Do", false)));
+        when(referenceDataCache.priority((short) 3))
+            .thenReturn(Optional.of(new ReferenceDataCache.PriorityRef((short) 3, "Medium")));
+        when(statusRepository.getReferenceById((short) 2)).thenReturn(todoStatus);
+        when(priorityRepository.getReferenceById((short) 3)).thenReturn(mediumPriority);
+        when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(invocation -> {
+            Task saved = invocation.getArgument(0);
+            saved.setId(taskId);
+            saved.setCreatedAt(ZonedDateTime.now());
+            saved.setUpdatedAt(saved.getCreatedAt());
+            return saved;
+        });
         
         // When
         UserTaskResponse result = userTaskService.createTask(request);
@@ -126,7 +245,164 @@ class UserTaskServiceImplTest {
         // Then
         assertThat(result.getId()).isEqualTo(taskId);
         assertThat(result.getTitle()).isEqualTo("New Task");
-        verify(taskRepository).save(any(Task.class));
+        assertThat(result.getStatusId()).isEqualTo((short) 2);
+        assertThat(result.getStatusName()).isEqualTo("To Do");
+        assertThat(result.getPriorityName()).isEqualTo("Medium");
+        assertThat(result.getCreatedAt()).isNotNull();
+        verify(taskRepository).saveAndFlush(any(Task.class));
+        verify(taskRepository, never()).findUserTaskDetail(any(), any());
+    }
+    
+    @Test
+    void createTasks_ShouldWriteValidItemsInOneFlushAndReportInvalidOnes() {
+        // Given
+        UserTaskCreateRequest first = new UserTaskCreateRequest();
+        first.setTitle("First");
+        UserTaskCreateRequest untitled = new UserTaskCreateRequest();
+        UserTaskCreateRequest second = new UserTaskCreateRequest();
+        second.setTitle("Second");
+        
+        when(referenceDataCache.status((short) 2))
+            .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 2, "To Do", false)));
+        when(referenceDataCache.priority((short) 3))
+            .thenReturn(Optional.of(new ReferenceDataCache.PriorityRef((short) 3, "Medium")));
+        when(statusRepository.getReferenceById((short) 2)).thenReturn(todoStatus);
+        when(priorityRepository.getReferenceById((short) 3)).thenReturn(mediumPriority);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(UUID.randomUUID()));
+            return tasks;
+        });
+        
+        // When
+        UserTaskBatchResponse result = userTaskService.createTasks(List.of(first, untitled, second));
+        
+        // Then
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults()).extracting("status").containsExactly(201, 400, 201);
+        assertThat(result.getResults().get(1).getError()).isEqualTo("Title is required");
+        assertThat(result.getResults().get(2).getTask().getTitle()).isEqualTo("Second");
+        verify(taskRepository).saveAll(anyList());
+        verify(taskRepository).flush();
+        verify(taskRepository, never()).findUserTaskDetail(any(), any());
+        verify(taskCountCache).invalidate(userId);
+    }
+    
+    @Test
+    void updateTask_WhenEstimateChanges_ShouldAddChangeToRollupsUnderHierarchyLock() {
+        // Given
+        Task task = new Task();
+        task.setId(taskId);
+        task.setStatus(todoStatus);
+        task.setPriority(mediumPriority);
+        task.setEstimateMinutes(60);
+        task.setRollupEstimateMinutes(200L);
+        
+        UserTaskUpdateRequest request = new UserTaskUpdateRequest();
+        request.setTitle("Longer task");
+        request.setPriorityId("3");
+        request.setEstimateMinutes(90);
+        
+        when(taskRepository.findByIdAndAccountId(taskId, userId)).thenReturn(Optional.of(task));
+        when(referenceDataCache.priority((short) 3))
+            .thenReturn(Optional.of(new ReferenceDataCache.PriorityRef((short) 3, "Medium")));
+        when(priorityRepository.getReferenceById((short) 3)).thenReturn(mediumPriority);
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
+        
+        // When
+        UserTaskResponse result = userTaskService.updateTask(taskId, request);
+        
+        // Then
+        InOrder inOrder = inOrder(taskRepository, taskRollupService);
+        inOrder.verify(taskRepository).lockTaskHierarchy(userId);
+        inOrder.verify(taskRepository).saveAndFlush(task);
+        inOrder.verify(taskRollupService).ownValuesChanged(userId, Map.of(taskId, new TaskRollup(30, 0, null)));
+        assertThat(result.getEstimateMinutes()).isEqualTo(90);
+        assertThat(result.getRollupEstimateMinutes()).isEqualTo(230L);
+    }
+    
+    @Test
+    void updateTasks_ShouldLoadTasksOnceAndReportMissingAndDuplicateItems() {
+        // Given
+        Task task = new Task();
+        task.setId(taskId);
+        task.setStatus(todoStatus);
+        task.setPriority(mediumPriority);
+        task.setVersion(2);
+        
+        UserTaskBatchUpdateItem rename = updateItem(taskId, "Renamed", 2);
+        UserTaskBatchUpdateItem missing = updateItem(UUID.randomUUID(), "Missing", null);
+        UserTaskBatchUpdateItem duplicate = updateItem(taskId, "Again", null);
+        
+        when(taskRepository.findAllByIdInAndAccountId(anyCollection(), eq(userId))).thenReturn(List.of(task));
+        when(referenceDataCache.status((short) 2))
+            .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 2, "To Do", false)));
+        when(referenceDataCache.priority((short) 3))
+            .thenReturn(Optional.of(new ReferenceDataCache.PriorityRef((short) 3, "Medium")));
+        when(priorityRepository.getReferenceById((short) 3)).thenReturn(mediumPriority);
+        
+        // When
+        UserTaskBatchResponse result = userTaskService.updateTasks(List.of(rename, missing, duplicate));
+        
+        // Then
+        assertThat(result.getResults()).extracting("status").containsExactly(200, 404, 400);
+        assertThat(task.getTitle()).isEqualTo("Renamed");
+        verify(taskRepository, times(1)).findAllByIdInAndAccountId(anyCollection(), eq(userId));
+        verify(taskRepository).flush();
+        verify(taskRepository, never()).findByIdAndAccountId(any(), any());
+        verify(taskRepository, never()).lockTaskHierarchy(any());
+        verifyNoInteractions(taskRollupService);
+    }
+    
+    @Test
+    void updateTasks_WithStaleVersion_ShouldFailItemWithPreconditionFailed() {
+        // Given
+        Task task = new Task();
+        task.setId(taskId);
+        task.setVersion(3);
+        
+        when(taskRepository.findAllByIdInAndAccountId(anyCollection(), eq(userId))).thenReturn(List.of(task));
+        
+        // When
+        UserTaskBatchResponse result = userTaskService.updateTasks(List.of(updateItem(taskId, "Stale", 2)));
+        
+        // Then
+        assertThat(result.getResults()).extracting("status").containsExactly(412);
+        assertThat(task.getTitle()).isNull();
+        verify(taskRepository, never()).flush();
+        verify(taskCountCache, never()).invalidate(any());
+    }
+    
+    @Test
+    void applyBulkAction_ShouldReportIdsTheUpdateDidNotChange() {
+        // Given
+        UUID changed = UUID.randomUUID();
+        UUID refused = UUID.randomUUID();
+        when(referenceDataCache.status((short) 1))
+            .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 1, "Backlog", false)));
+        when(taskRepository.bulkUpdate(eq(userId), eq(List.of(changed, refused)), isNull(),
+            eq(TaskBulkUpdate.status((short) 1, false, Set.of((short) 5))), any(ZonedDateTime.class)))
+            .thenReturn(List.of(changed));
+        
+        // When
+        UserTaskBulkResponse result = userTaskService.applyBulkAction(TaskBulkAction.STATUS, (short) 1,
+            List.of(changed, refused, changed), null);
+        
+        // Then
+        assertThat(result.getAffected()).isEqualTo(1);
+        assertThat(result.getAffectedIds()).containsExactly(changed);
+        assertThat(result.getSkippedIds()).containsExactly(refused);
+        verify(taskCountCache).invalidate(userId);
+    }
+    
+    @Test
+    void applyBulkAction_StatusWithoutTarget_ShouldRejectBeforeUpdating() {
+        // When & Then
+        assertThatThrownBy(() -> userTaskService.applyBulkAction(TaskBulkAction.STATUS, null, List.of(taskId), null))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Status is required");
+        verify(taskRepository, never()).bulkUpdate(any(), any(), any(), any(), any());
     }
     
     @Test
@@ -142,30 +418,71 @@ class UserTaskServiceImplTest {
     
     @Test
     void changeTaskStatus_ShouldUpdateStatusAndCompletedAt() {
+        // Given
+        UserTaskDetailProjection changed = mock(UserTaskDetailProjection.class);
+        when(changed.getId()).thenReturn(taskId);
+        when(changed.getStatusName()).thenReturn("Done");
+        when(changed.getCompletedAt()).thenReturn(Instant.now());
+        when(changed.getVersion()).thenReturn(4);
+        
+        when(referenceDataCache.status((short) 5))
+            .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 5, "Done", true)));
+        when(taskRepository.changeStatus(eq(taskId), eq(userId), eq((short) 5), eq(true), eq(Set.of()), eq(3),
+            any(ZonedDateTime.class))).thenReturn(Optional.of(changed));
+        
+        // When
+        UserTaskResponse result = userTaskService.changeTaskStatus(taskId, (short) 5, 3);
+        
+        // Then
+        assertThat(result.getStatusName()).isEqualTo("Done");
+        assertThat(result.getCompletedAt()).isNotNull();
+        assertThat(result.getVersion()).isEqualTo(4);
+        verify(taskRepository, never()).findByIdAndAccountId(any(), any());
+        verify(taskRepository, never()).findUserTaskDetail(any(), any());
+        verify(taskCountCache).invalidate(userId);
+        verify(taskDependencyGraphCache).statusChanged(userId, taskId, (short) 5);
+        verify(taskScheduleCache).statusChanged(userId, taskId, true);
+    }
+    
+    @Test
+    void changeTaskStatus_WhenVersionIsStale_ShouldReturnPreconditionFailed() {
         // Given
         Task task = new Task();
         task.setId(taskId);
         task.setStatus(todoStatus);
+        task.setVersion(5);
         
-        Status doneStatus = new Status();
-        doneStatus.setId((short) 5);
-        doneStatus.setName("Done");
-        doneStatus.setIsDone(true);
+        when(referenceDataCache.status((short) 3))
+            .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 3, "In Progress", false)));
+        when(taskRepository.changeStatus(eq(taskId), eq(userId), eq((short) 3), eq(false), eq(Set.of()), eq(4),
+            any(ZonedDateTime.class))).thenReturn(Optional.empty());
+        when(taskRepository.findByIdAndAccountId(taskId, userId)).thenReturn(Optional.of(task));
         
-        UserTaskDetailProjection detailProjection = mock(UserTaskDetailProjection.class);
-        when(detailProjection.getId()).thenReturn(taskId);
+        // When & Then
+        assertThatThrownBy(() -> userTaskService.changeTaskStatus(taskId, (short) 3, 4))
+            .isInstanceOf(ResponseStatusException.class)
+            .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode().value()).isEqualTo(412));
+        verify(taskCountCache, never()).invalidate(any());
+    }
+    
+    @Test
+    void changeTaskStatus_FromDoneToBacklog_ShouldReturnConflict() {
+        // Given
+        Status doneStatus = new Status((short) 5, "Done", true);
+        Task task = new Task();
+        task.setId(taskId);
+        task.setStatus(doneStatus);
         
+        when(referenceDataCache.status((short) 1))
+            .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 1, "Backlog", false)));
+        when(taskRepository.changeStatus(eq(taskId), eq(userId), eq((short) 1), eq(false), eq(Set.of((short) 5)),
+            isNull(), any(ZonedDateTime.class))).thenReturn(Optional.empty());
         when(taskRepository.findByIdAndAccountId(taskId, userId)).thenReturn(Optional.of(task));
-        when(statusRepository.findById((short) 5)).thenReturn(Optional.of(doneStatus));
-        when(taskRepository.findUserTaskDetail(taskId, userId)).thenReturn(Optional.of(detailProjection));
-        
-        // When
-        userTaskService.changeTaskStatus(taskId, (short) 5);
         
-        // Then
-        verify(taskRepository).save(task);
-        assertThat(task.getStatus()).isEqualTo(doneStatus);
-        assertThat(task.getCompletedAt()).isNotNull();
+        // When & Then
+        assertThatThrownBy(() -> userTaskService.changeTaskStatus(taskId, (short) 1, null))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Cannot move from Done to Backlog directly");
     }
     
     @Test
@@ -177,7 +494,11 @@ class UserTaskServiceImplTest {
         userTaskService.deleteTask(taskId);
         
         // Then
-        verify(taskRepository).softDeleteTask(eq(taskId), eq(userId), any(ZonedDateTime.class));
+        InOrder inOrder = inOrder(taskRepository, taskRollupService);
+        inOrder.verify(taskRepository).lockTaskHierarchy(userId);
+        inOrder.verify(taskRepository).softDeleteTask(eq(taskId), eq(userId), any(ZonedDateTime.class));
+        inOrder.verify(taskRollupService).detach(userId, List.of(taskId));
+        verify(taskDependencyGraphCache).taskRemoved(userId, taskId);
     }
     
     @Test
@@ -189,5 +510,152 @@ class UserTaskServiceImplTest {
         assertThatThrownBy(() -> userTaskService.deleteTask(taskId))
             .isInstanceOf(ResponseStatusException.class)
             .hasMessageContaining("Task not found");
+        verify(taskRollupService, never()).detach(any(), any());
+    }
+    
+    @Test
+    void changeTaskStatus_WhenStatusUnknown_ShouldRejectWithoutLoadingTask() {
+        // Given
+        when(referenceDataCache.status((short) 42)).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThatThrownBy(() -> userTaskService.changeTaskStatus(taskId, (short) 42, null))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Invalid status");
+        verify(taskRepository, never()).changeStatus(any(), any(), anyShort(), anyBoolean(), any(), any(), any());
+        verify(taskRepository, never()).findByIdAndAccountId(any(), any());
+    }
+    
+    private static UserTaskBatchUpdateItem updateItem(UUID id, String title, Integer version) {
+        UserTaskBatchUpdateItem item = new UserTaskBatchUpdateItem();
+        item.setId(id);
+        item.setTitle(title);
+        item.setPriorityId("3");
+        item.setVersion(version);
+        return item;
+    }
+    
+    @Test
+    void getTaskTree_ShouldNestRowsUnderTheirParents() {
+        // Given
+        UUID childId = UUID.randomUUID();
+        UUID grandchildId = UUID.randomUUID();
+        List<UserTaskTreeProjection> rows = List.of(
+            treeRow(taskId, null, 0, false),
+            treeRow(childId, taskId, 1, false),
+            treeRow(grandchildId, childId, 2, true));
+        when(taskRepository.findSubtree(eq(taskId), eq(userId), eq(2), anyInt())).thenReturn(rows);
+        
+        // When
+        UserTaskTreeNode root = userTaskService.getTaskTree(taskId, 2);
+        
+        // Then
+        assertThat(root.getId()).isEqualTo(taskId);
+        assertThat(root.getChildren()).singleElement().satisfies(child -> {
+            assertThat(child.getId()).isEqualTo(childId);
+            assertThat(child.getChildren()).singleElement().satisfies(grandchild -> {
+                assertThat(grandchild.getDepth()).isEqualTo(2);
+                assertThat(grandchild.isTruncated()).isTrue();
+            });
+        });
+        verify(taskRepository, times(1)).findSubtree(any(), any(), anyInt(), anyInt());
+    }
+    
+    @Test
+    void getTaskTree_WhenTaskNotFound_ShouldThrowNotFound() {
+        // Given
+        when(taskRepository.findSubtree(eq(taskId), eq(userId), eq(10), anyInt())).thenReturn(List.of());
+        
+        // When & Then
+        assertThatThrownBy(() -> userTaskService.getTaskTree(taskId, 10))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Task not found");
+    }
+    
+    @Test
+    void moveTask_UnderOwnSubtask_ShouldReturnConflictWithoutUpdating() {
+        // Given
+        UUID subtaskId = UUID.randomUUID();
+        when(taskRepository.findAncestorIds(eq(subtaskId), eq(userId), anyInt())).thenReturn(List.of(subtaskId, taskId));
+        
+        // When & Then
+        assertThatThrownBy(() -> userTaskService.moveTask(taskId, subtaskId, null))
+            .isInstanceOf(ResponseStatusException.class)
+            .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode().value()).isEqualTo(409));
+        verify(taskRepository).lockTaskHierarchy(userId);
+        verify(taskRepository, never()).moveTask(any(), any(), any(), any(), any());
+        verifyNoInteractions(taskRollupService);
+    }
+    
+    @Test
+    void moveTask_ToTopLevel_ShouldUpdateWithoutCycleCheck() {
+        // Given
+        UserTaskDetailProjection moved = mock(UserTaskDetailProjection.class);
+        when(moved.getId()).thenReturn(taskId);
+        when(moved.getVersion()).thenReturn(2);
+        when(taskRepository.moveTask(eq(taskId), eq(userId), isNull(), isNull(), any(ZonedDateTime.class)))
+            .thenReturn(Optional.of(moved));
+        
+        // When
+        UserTaskResponse result = userTaskService.moveTask(taskId, null, null);
+        
+        // Then
+        assertThat(result.getVersion()).isEqualTo(2);
+        verify(taskRepository, never()).findAncestorIds(any(), any(), anyInt());
+        verify(taskScheduleCache).invalidate(userId);
+        InOrder inOrder = inOrder(taskRepository, taskRollupService);
+        inOrder.verify(taskRepository).lockTaskHierarchy(userId);
+        inOrder.verify(taskRollupService).detach(userId, List.of(taskId));
+        inOrder.verify(taskRepository).moveTask(eq(taskId), eq(userId), isNull(), isNull(), any(ZonedDateTime.class));
+        inOrder.verify(taskRollupService).attach(userId, List.of(taskId));
+    }
+    
+    @Test
+    void reorderTask_WhenNeighborsHaveNoGap_ShouldRebalanceThenPlaceBetweenThem() {
+        // Given
+        UUID afterId = UUID.randomUUID();
+        RankScope scope = RankScope.tasks(userId);
+        when(taskRepository.findRankNeighbors(scope, taskId, afterId)).thenReturn(
+            Optional.of(new RankNeighbors(7L, 8L)),
+            Optional.of(new RankNeighbors(3 * TaskConstants.RANK_GAP, 4 * TaskConstants.RANK_GAP)));
+        UserTaskDetailProjection reordered = mock(UserTaskDetailProjection.class);
+        when(reordered.getVersion()).thenReturn(5);
+        long rank = 3 * TaskConstants.RANK_GAP + TaskConstants.RANK_GAP / 2;
+        when(taskRepository.reorderTask(eq(taskId), eq(userId), eq(rank), eq(4), any(ZonedDateTime.class)))
+            .thenReturn(Optional.of(reordered));
+        
+        // When
+        UserTaskResponse result = userTaskService.reorderTask(taskId, afterId, 4);
+        
+        // Then
+        assertThat(result.getVersion()).isEqualTo(5);
+        InOrder inOrder = inOrder(taskRepository);
+        inOrder.verify(taskRepository).lockTaskHierarchy(userId);
+        inOrder.verify(taskRepository).rebalanceRanks(scope, taskId);
+        inOrder.verify(taskRepository).reorderTask(eq(taskId), eq(userId), eq(rank), eq(4), any(ZonedDateTime.class));
+    }
+    
+    @Test
+    void reorderChecklist_AfterChecklistOfAnotherTask_ShouldReturnNotFoundWithoutWriting() {
+        // Given
+        UUID checklistId = UUID.randomUUID();
+        UUID afterId = UUID.randomUUID();
+        when(taskRepository.findRankNeighbors(RankScope.checklists(userId, taskId), checklistId, afterId))
+            .thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThatThrownBy(() -> userTaskService.reorderChecklist(taskId, checklistId, afterId))
+            .isInstanceOf(ResponseStatusException.class)
+            .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode().value()).isEqualTo(404));
+        verify(taskRepository, never()).updateRank(any(), any(), anyLong());
+    }
+    
+    private static UserTaskTreeProjection treeRow(UUID id, UUID parentId, int depth, boolean truncated) {
+        UserTaskTreeProjection row = mock(UserTaskTreeProjection.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getParentId()).thenReturn(parentId);
+        when(row.getDepth()).thenReturn(depth);
+        when(row.getTruncated()).thenReturn(truncated);
+        return row;
     }
 }
\ No newline at end of file
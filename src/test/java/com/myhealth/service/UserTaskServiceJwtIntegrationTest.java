@@ -1,5 +1,9 @@
 package com.myhealth.service;
 
+import com.myhealth.cache.ReferenceDataCache;
+import com.myhealth.cache.TaskCountCache;
+import com.myhealth.cache.TaskDependencyGraphCache;
+import com.myhealth.cache.TaskScheduleCache;
 import com.myhealth.dto.task.UserTaskCreateRequest;
 import com.myhealth.entity.task.Priority;
 import com.myhealth.entity.task.Status;
@@ -37,6 +41,21 @@ class UserTaskServiceJwtIntegrationTest {
     @Mock
     private JwtTokenService jwtTokenService;
 
+    @Mock
+    private TaskCountCache taskCountCache;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private TaskDependencyGraphCache taskDependencyGraphCache;
+
+    @Mock
+    private TaskScheduleCache taskScheduleCache;
+
+    @Mock
+    private TaskRollupService taskRollupService;
+
     @InjectMocks
     private UserTaskServiceImpl userTaskService;
 
@@ -62,23 +81,20 @@ class UserTaskServiceJwtIntegrationTest {
         Priority mediumPriority = new Priority();
         mediumPriority.setId((short) 3);
 
-        Task savedTask = new Task();
-        savedTask.setId(taskId);
-
-        UserTaskDetailProjection detailProjection = mock(UserTaskDetailProjection.class);
-        when(detailProjection.getId()).thenReturn(taskId);
-
         when(jwtTokenService.getLoggedInUserId()).thenReturn(userId);
-        when(statusRepository.findById((short) 2)).thenReturn(Optional.of(todoStatus));
-        when(priorityRepository.findById((short) 3)).thenReturn(Optional.of(mediumPriority));
-        when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
-        when(taskRepository.findUserTaskDetail(taskId, userId)).thenReturn(Optional.of(detailProjection));
+        when(referenceDataCache.status((short) 2))
+                .thenReturn(Optional.of(new ReferenceDataCache.StatusRef((short) 2, "To Do", false)));
+        when(referenceDataCache.priority((short) 3))
+                .thenReturn(Optional.of(new ReferenceDataCache.PriorityRef((short) 3, "Medium")));
+        when(statusRepository.getReferenceById((short) 2)).thenReturn(todoStatus);
+        when(priorityRepository.getReferenceById((short) 3)).thenReturn(mediumPriority);
+        when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         userTaskService.createTask(request);
 
         // Then
-        verify(jwtTokenService, times(2)).getLoggedInUserId(); // Called in createTask and getUserTask
+        verify(jwtTokenService, times(1)).getLoggedInUserId(); // The response is built without calling getUserTask
     }
 
     @Test